@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.graph.agent;
 import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import com.alibaba.cloud.ai.graph.CompileConfig;
 import com.alibaba.cloud.ai.graph.KeyStrategy;
@@ -85,6 +86,14 @@ public abstract class Builder {
 
 	protected boolean enableLogging;
 
+	protected boolean parallelToolExecution;
+
+	protected int maxParallelToolCalls;
+
+	protected Executor toolExecutor;
+
+	protected boolean toolExecutionVirtualThreads;
+
 	public Builder name(String name) {
 		this.name = name;
 		return this;
@@ -221,6 +230,40 @@ public abstract class Builder {
 		return this;
 	}
 
+	/**
+	 * Execute the independent tool calls returned by one model response concurrently.
+	 * Responses are still reported to the model in the order of the tool calls.
+	 */
+	public Builder parallelToolExecution(boolean parallelToolExecution) {
+		this.parallelToolExecution = parallelToolExecution;
+		return this;
+	}
+
+	/**
+	 * Maximum number of tool calls running at the same time for this agent when parallel
+	 * tool execution is enabled. Values less than or equal to zero mean unbounded.
+	 */
+	public Builder maxParallelToolCalls(int maxParallelToolCalls) {
+		this.maxParallelToolCalls = maxParallelToolCalls;
+		return this;
+	}
+
+	/**
+	 * Executor used to run tool calls when parallel tool execution is enabled.
+	 */
+	public Builder toolExecutor(Executor toolExecutor) {
+		this.toolExecutor = toolExecutor;
+		return this;
+	}
+
+	/**
+	 * Run parallel tool calls on virtual threads when the runtime supports them.
+	 */
+	public Builder toolExecutionVirtualThreads(boolean toolExecutionVirtualThreads) {
+		this.toolExecutionVirtualThreads = toolExecutionVirtualThreads;
+		return this;
+	}
+
 	protected CompileConfig buildConfig() {
 		SaverConfig saverConfig = SaverConfig.builder()
 				.register(saver)
@@ -153,6 +153,11 @@ public class DefaultBuilder extends Builder {
 			toolBuilder.enableActingLog(true);
 		}
 
+		toolBuilder.parallelToolExecution(parallelToolExecution)
+			.maxParallelToolCalls(maxParallelToolCalls)
+			.toolExecutor(toolExecutor)
+			.virtualThreads(toolExecutionVirtualThreads);
+
 		toolNode = toolBuilder.build();
 
 		return new ReactAgent(llmNode, toolNode, buildConfig(), this);
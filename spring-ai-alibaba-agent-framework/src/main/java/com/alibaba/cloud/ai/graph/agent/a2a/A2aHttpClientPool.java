@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.a2a;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection-pooled HTTP client shared by the A2A nodes calling remote agents.
+ * <p>
+ * Connections are kept alive and reused per route, i.e. per remote agent endpoint, so
+ * repeated calls skip the TCP and TLS handshakes. Idle connections are evicted in the
+ * background. Use {@link #shared()} unless an agent needs its own limits or timeouts.
+ * </p>
+ */
+public final class A2aHttpClientPool implements AutoCloseable {
+
+	private static final class SharedHolder {
+
+		private static final A2aHttpClientPool INSTANCE = builder().build();
+
+	}
+
+	private final CloseableHttpClient httpClient;
+
+	private A2aHttpClientPool(Builder builder) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(builder.maxConnectionsTotal);
+		connectionManager.setDefaultMaxPerRoute(builder.maxConnectionsPerRoute);
+		connectionManager.setValidateAfterInactivity(2_000);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+			.setConnectTimeout(toMillis(builder.connectTimeout))
+			.setConnectionRequestTimeout(toMillis(builder.connectionRequestTimeout))
+			.setSocketTimeout(toMillis(builder.socketTimeout))
+			.build();
+
+		this.httpClient = HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(requestConfig)
+			.evictExpiredConnections()
+			.evictIdleConnections(builder.maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+			.build();
+	}
+
+	/**
+	 * Returns the pool shared by all the A2A nodes that were not given their own pool.
+	 * @return the shared pool
+	 */
+	public static A2aHttpClientPool shared() {
+		return SharedHolder.INSTANCE;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Returns the pooled client. Callers must close the responses, never the client.
+	 * @return the HTTP client
+	 */
+	public CloseableHttpClient httpClient() {
+		return httpClient;
+	}
+
+	@Override
+	public void close() throws IOException {
+		httpClient.close();
+	}
+
+	/**
+	 * Zero means no timeout, as for the Apache HTTP client.
+	 */
+	private static int toMillis(Duration duration) {
+		return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+	}
+
+	public static class Builder {
+
+		private int maxConnectionsTotal = 200;
+
+		private int maxConnectionsPerRoute = 20;
+
+		private Duration connectTimeout = Duration.ofSeconds(10);
+
+		private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+
+		// SSE responses may stay open for as long as the remote agent runs
+		private Duration socketTimeout = Duration.ZERO;
+
+		private Duration maxIdleTime = Duration.ofSeconds(30);
+
+		public Builder maxConnectionsTotal(int maxConnectionsTotal) {
+			if (maxConnectionsTotal <= 0) {
+				throw new IllegalArgumentException("maxConnectionsTotal must be > 0!");
+			}
+			this.maxConnectionsTotal = maxConnectionsTotal;
+			return this;
+		}
+
+		public Builder maxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			if (maxConnectionsPerRoute <= 0) {
+				throw new IllegalArgumentException("maxConnectionsPerRoute must be > 0!");
+			}
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+			return this;
+		}
+
+		public Builder connectTimeout(Duration connectTimeout) {
+			this.connectTimeout = Objects.requireNonNull(connectTimeout, "connectTimeout cannot be null");
+			return this;
+		}
+
+		public Builder connectionRequestTimeout(Duration connectionRequestTimeout) {
+			this.connectionRequestTimeout = Objects.requireNonNull(connectionRequestTimeout,
+					"connectionRequestTimeout cannot be null");
+			return this;
+		}
+
+		/**
+		 * @param socketTimeout maximum inactivity between two data packets,
+		 * {@link Duration#ZERO} for no timeout
+		 * @return this builder
+		 */
+		public Builder socketTimeout(Duration socketTimeout) {
+			this.socketTimeout = Objects.requireNonNull(socketTimeout, "socketTimeout cannot be null");
+			return this;
+		}
+
+		public Builder maxIdleTime(Duration maxIdleTime) {
+			Objects.requireNonNull(maxIdleTime, "maxIdleTime cannot be null");
+			if (maxIdleTime.isNegative() || maxIdleTime.isZero()) {
+				throw new IllegalArgumentException("maxIdleTime must be > 0!");
+			}
+			this.maxIdleTime = maxIdleTime;
+			return this;
+		}
+
+		public A2aHttpClientPool build() {
+			return new A2aHttpClientPool(this);
+		}
+
+	}
+
+}
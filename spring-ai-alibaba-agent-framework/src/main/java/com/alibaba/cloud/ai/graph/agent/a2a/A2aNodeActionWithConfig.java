@@ -48,7 +48,6 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
 import org.apache.http.util.EntityUtils;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
@@ -77,6 +76,8 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 
 	private CompileConfig parentCompileConfig;
 
+	private A2aHttpClientPool httpClientPool = A2aHttpClientPool.shared();
+
 
 	public A2aNodeActionWithConfig(AgentCardWrapper agentCard, String agentName, boolean includeContents, String outputKeyToParent, String instruction, boolean streaming) {
 		this.agentName = agentName;
@@ -94,6 +95,13 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 		this.shareState = shareState;
 	}
 
+	public A2aNodeActionWithConfig(AgentCardWrapper agentCard, String agentName, boolean includeContents, String outputKeyToParent, String instruction, boolean streaming, boolean shareState, CompileConfig compileConfig, A2aHttpClientPool httpClientPool) {
+		this(agentCard, agentName, includeContents, outputKeyToParent, instruction, streaming, shareState, compileConfig);
+		if (httpClientPool != null) {
+			this.httpClientPool = httpClientPool;
+		}
+	}
+
 	@Override
 	public Map<String, Object> apply(OverAllState state, RunnableConfig config) throws Exception {
 		RunnableConfig subGraphRunnableConfig = getSubGraphRunnableConfig(config);
@@ -219,7 +227,8 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 				return;
 			}
 
-			try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+			try {
+				CloseableHttpClient httpClient = httpClientPool.httpClient();
 				HttpPost post = new HttpPost(baseUrl);
 				post.setHeader("Content-Type", "application/json");
 				post.setHeader("Accept", "text/event-stream");
@@ -228,6 +237,7 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 				try (CloseableHttpResponse response = httpClient.execute(post)) {
 					int statusCode = response.getStatusLine().getStatusCode();
 					if (statusCode != 200) {
+						EntityUtils.consumeQuietly(response.getEntity());
 						StreamingOutput errorOutput = new StreamingOutput("HTTP request failed, status: " + statusCode,
 								"a2aNode", agentName, state);
 						queue.add(AsyncGenerator.Data.of(errorOutput));
@@ -738,22 +748,23 @@ public class A2aNodeActionWithConfig implements NodeActionWithConfig {
 			throw new IllegalStateException("AgentCard.url is empty");
 		}
 
-		try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-			HttpPost post = new HttpPost(baseUrl);
-			post.setHeader("Content-Type", "application/json");
-			post.setEntity(new StringEntity(requestPayload, ContentType.APPLICATION_JSON));
-
-			try (CloseableHttpResponse response = httpClient.execute(post)) {
-				int statusCode = response.getStatusLine().getStatusCode();
-				if (statusCode != 200) {
-					throw new IllegalStateException("HTTP request failed, status: " + statusCode);
-				}
-				HttpEntity entity = response.getEntity();
-				if (entity == null) {
-					throw new IllegalStateException("Empty HTTP entity");
-				}
-				return EntityUtils.toString(entity, "UTF-8");
+		// pooled client, only the response is closed so the connection is kept alive
+		CloseableHttpClient httpClient = httpClientPool.httpClient();
+		HttpPost post = new HttpPost(baseUrl);
+		post.setHeader("Content-Type", "application/json");
+		post.setEntity(new StringEntity(requestPayload, ContentType.APPLICATION_JSON));
+
+		try (CloseableHttpResponse response = httpClient.execute(post)) {
+			int statusCode = response.getStatusLine().getStatusCode();
+			if (statusCode != 200) {
+				EntityUtils.consumeQuietly(response.getEntity());
+				throw new IllegalStateException("HTTP request failed, status: " + statusCode);
+			}
+			HttpEntity entity = response.getEntity();
+			if (entity == null) {
+				throw new IllegalStateException("Empty HTTP entity");
 			}
+			return EntityUtils.toString(entity, "UTF-8");
 		}
 	}
 
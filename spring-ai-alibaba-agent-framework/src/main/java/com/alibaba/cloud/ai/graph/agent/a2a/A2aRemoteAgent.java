@@ -44,6 +44,8 @@ public class A2aRemoteAgent extends BaseAgent {
 
 	private boolean shareState;
 
+	private A2aHttpClientPool httpClientPool;
+
 	// Private constructor for Builder pattern
 	private A2aRemoteAgent(Builder builder) {
 		super(builder.name, builder.description, builder.includeContents, builder.returnReasoningContents, builder.outputKey, builder.outputKeyStrategy);
@@ -54,6 +56,7 @@ public class A2aRemoteAgent extends BaseAgent {
 		this.streaming = builder.streaming;
 		this.instruction = builder.instruction;
 		this.shareState = builder.shareState;
+		this.httpClientPool = builder.httpClientPool;
 	}
 
 	@Override
@@ -67,7 +70,7 @@ public class A2aRemoteAgent extends BaseAgent {
 		}
 
 		StateGraph graph = new StateGraph(name, this.keyStrategyFactory);
-		graph.addNode("A2aNode", AsyncNodeActionWithConfig.node_async(new A2aNodeActionWithConfig(agentCard, name, includeContents, outputKey, instruction, streaming)));
+		graph.addNode("A2aNode", AsyncNodeActionWithConfig.node_async(new A2aNodeActionWithConfig(agentCard, name, includeContents, outputKey, instruction, streaming, false, null, httpClientPool)));
 		graph.addEdge(StateGraph.START, "A2aNode");
 		graph.addEdge("A2aNode", StateGraph.END);
 		return graph;
@@ -84,7 +87,7 @@ public class A2aRemoteAgent extends BaseAgent {
 
 	@Override
 	public Node asNode(boolean includeContents, boolean returnReasoningContents, String outputKeyToParent) {
-		return new A2aRemoteAgentNode(this.name, includeContents, returnReasoningContents, outputKeyToParent, this.instruction, this.agentCard, this.streaming, this.shareState, this.getAndCompileGraph());
+		return new A2aRemoteAgentNode(this.name, includeContents, returnReasoningContents, outputKeyToParent, this.instruction, this.agentCard, this.streaming, this.shareState, this.httpClientPool, this.getAndCompileGraph());
 	}
 
 	/**
@@ -97,8 +100,13 @@ public class A2aRemoteAgent extends BaseAgent {
 		private final CompiledGraph subGraph;
 
 		public A2aRemoteAgentNode(String id, boolean includeContents, boolean returnReasoningContents, String outputKeyToParent, String instruction, AgentCardWrapper agentCard, boolean streaming, boolean shareState, CompiledGraph subGraph) {
+			this(id, includeContents, returnReasoningContents, outputKeyToParent, instruction, agentCard, streaming, shareState, A2aHttpClientPool.shared(), subGraph);
+		}
+
+		public A2aRemoteAgentNode(String id, boolean includeContents, boolean returnReasoningContents, String outputKeyToParent, String instruction, AgentCardWrapper agentCard, boolean streaming, boolean shareState, A2aHttpClientPool httpClientPool, CompiledGraph subGraph) {
 			super(Objects.requireNonNull(id, "id cannot be null"),
-					(config) -> AsyncNodeActionWithConfig.node_async(new A2aNodeActionWithConfig(agentCard, subGraph.stateGraph.getName(), includeContents, outputKeyToParent, instruction, streaming, shareState, config)));
+					(config) -> AsyncNodeActionWithConfig.node_async(new A2aNodeActionWithConfig(agentCard, subGraph.stateGraph.getName(), includeContents, outputKeyToParent, instruction, streaming, shareState, config, httpClientPool)),
+					ActionScope.SINGLETON);
 			this.subGraph = subGraph;
 		}
 
@@ -138,6 +146,8 @@ public class A2aRemoteAgent extends BaseAgent {
 
 		private boolean shareState = true;
 
+		private A2aHttpClientPool httpClientPool;
+
 		public Builder name(String name) {
 			this.name = name;
 			return this;
@@ -203,6 +213,15 @@ public class A2aRemoteAgent extends BaseAgent {
 			return this;
 		}
 
+		/**
+		 * Sets the connection pool used to call the remote agent, defaults to
+		 * {@link A2aHttpClientPool#shared()}.
+		 */
+		public Builder httpClientPool(A2aHttpClientPool httpClientPool) {
+			this.httpClientPool = httpClientPool;
+			return this;
+		}
+
 		public A2aRemoteAgent build() {
 			// Validation
 			if (name == null || name.trim().isEmpty()) {
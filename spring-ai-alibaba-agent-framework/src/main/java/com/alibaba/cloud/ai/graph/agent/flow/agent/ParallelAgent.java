@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.agent.flow.agent;
 
+import com.alibaba.cloud.ai.graph.CompileConfig;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.StateGraph;
 import com.alibaba.cloud.ai.graph.agent.Agent;
@@ -42,7 +43,8 @@ import java.util.Set;
  * <ul>
  * <li><strong>Fan-Out:</strong> The input is distributed to all sub-agents
  * simultaneously</li>
- * <li><strong>Parallel Execution:</strong> All sub-agents execute concurrently</li>
+ * <li><strong>Parallel Execution:</strong> All sub-agents execute concurrently, at most
+ * {@link ParallelAgentBuilder#maxConcurrency(Integer) maxConcurrency} at a time</li>
  * <li><strong>Gather:</strong> Results from all sub-agents are collected and merged</li>
  * </ul>
  *
@@ -62,7 +64,8 @@ public class ParallelAgent extends FlowAgent {
 	private final Integer maxConcurrency;
 
 	protected ParallelAgent(ParallelAgentBuilder builder) throws GraphStateException {
-		super(builder.name, builder.description, builder.compileConfig, builder.subAgents);
+		super(builder.name, builder.description, withMaxConcurrency(builder.compileConfig, builder.maxConcurrency),
+				builder.subAgents);
 		this.mergeStrategy = builder.mergeStrategy != null ? builder.mergeStrategy : new DefaultMergeStrategy();
 		this.maxConcurrency = builder.maxConcurrency;
 		this.mergeOutputKey = builder.mergeOutputKey;
@@ -72,6 +75,19 @@ public class ParallelAgent extends FlowAgent {
 		return new ParallelAgentBuilder();
 	}
 
+	/**
+	 * Bounds the number of sub-agents running at the same time through the parallel
+	 * settings of the compile config, which the parallel node of the graph honours.
+	 */
+	private static CompileConfig withMaxConcurrency(CompileConfig compileConfig, Integer maxConcurrency) {
+		if (maxConcurrency == null) {
+			return compileConfig;
+		}
+		CompileConfig.Builder builder = compileConfig != null ? CompileConfig.builder(compileConfig)
+				: CompileConfig.builder();
+		return builder.parallelMaxConcurrency(maxConcurrency).build();
+	}
+
 	@Override
 	protected StateGraph buildSpecificGraph(FlowGraphBuilder.FlowGraphConfig config) throws GraphStateException {
 		// Add parallel-specific properties to config
@@ -171,7 +187,10 @@ public class ParallelAgent extends FlowAgent {
 		}
 
 		/**
-		 * Sets the maximum number of sub-agents that can execute concurrently.
+		 * Sets the maximum number of sub-agents that can execute concurrently. Further
+		 * sub-agents start as running ones complete. To bound the calls to a model
+		 * endpoint shared with other agents, use a
+		 * {@link com.alibaba.cloud.ai.graph.agent.interceptor.concurrency.ModelConcurrencyInterceptor}.
 		 * @param maxConcurrency the maximum concurrency limit
 		 * @return this builder instance for method chaining
 		 */
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hook;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token counter running a byte pair encoding tokenizer locally.
+ *
+ * <p>The vocabulary is read from a file in the tiktoken format, one token per line made
+ * of the base64 encoded bytes of the token and its rank, such as the
+ * {@code cl100k_base.tiktoken} or {@code o200k_base.tiktoken} files. Nothing is
+ * downloaded: the file has to be provided by the application.</p>
+ *
+ * <p>Text is split into pieces with the pre-tokenization pattern of the encoding, then
+ * the bytes of each piece are merged by increasing rank. Counts of short pieces are
+ * cached, as the same words come back all the time.</p>
+ *
+ * Example:
+ * TokenCounter counter = TokenCounter.memoizing(BpeTokenCounter.builder()
+ *     .vocabulary(Path.of("/opt/tokenizers/cl100k_base.tiktoken"))
+ *     .build());
+ */
+public final class BpeTokenCounter implements TokenCounter {
+
+	/**
+	 * Pre-tokenization pattern of the cl100k_base encoding.
+	 */
+	public static final String CL100K_PATTERN = "(?i:'s|'t|'re|'ve|'m|'ll|'d)|[^\\r\\n\\p{L}\\p{N}]?\\p{L}+|\\p{N}{1,3}"
+			+ "| ?[^\\s\\p{L}\\p{N}]+[\\r\\n]*|\\s*[\\r\\n]+|\\s+(?!\\S)|\\s+";
+
+	/**
+	 * Tokens a chat model adds around every message for its role and separators.
+	 */
+	public static final int DEFAULT_TOKENS_PER_MESSAGE = 3;
+
+	/**
+	 * Pieces longer than this, such as base64 data or long runs of spaces, are merged in
+	 * chunks of this size to bound the cost of the quadratic merge loop.
+	 */
+	private static final int MAX_PIECE_BYTES = 256;
+
+	private static final int MAX_CACHED_PIECE_LENGTH = 32;
+
+	private static final int MAX_CACHED_PIECES = 16384;
+
+	/**
+	 * Ranks by token, the bytes of a token being stored one char per byte.
+	 */
+	private final Map<String, Integer> ranks;
+
+	private final Pattern pattern;
+
+	private final int tokensPerMessage;
+
+	private final Map<String, Integer> pieceCache = new ConcurrentHashMap<>();
+
+	private BpeTokenCounter(Builder builder, Map<String, Integer> ranks) {
+		this.ranks = ranks;
+		this.pattern = Pattern.compile(builder.pattern);
+		this.tokensPerMessage = builder.tokensPerMessage;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public int countTokens(List<Message> messages) {
+		int total = 0;
+		for (Message message : messages) {
+			total += tokensPerMessage + countMessage(message);
+		}
+		return total;
+	}
+
+	private int countMessage(Message message) {
+		int total = 0;
+		if (message instanceof ToolResponseMessage toolResponseMessage) {
+			for (ToolResponseMessage.ToolResponse response : toolResponseMessage.getResponses()) {
+				total += countTokens(response.name()) + countTokens(response.responseData());
+			}
+		}
+		else {
+			total += countTokens(message.getText());
+			if (message instanceof AssistantMessage assistantMessage) {
+				for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
+					total += countTokens(toolCall.name()) + countTokens(toolCall.arguments());
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Counts the tokens of a text.
+	 * @param text the text, may be {@code null}
+	 * @return the number of tokens
+	 */
+	public int countTokens(String text) {
+		if (text == null || text.isEmpty()) {
+			return 0;
+		}
+		int total = 0;
+		Matcher matcher = pattern.matcher(text);
+		while (matcher.find()) {
+			total += countPiece(matcher.group());
+		}
+		return total;
+	}
+
+	private int countPiece(String piece) {
+		if (piece.length() > MAX_CACHED_PIECE_LENGTH) {
+			return countBytes(piece);
+		}
+		Integer cached = pieceCache.get(piece);
+		if (cached != null) {
+			return cached;
+		}
+		int count = countBytes(piece);
+		if (pieceCache.size() >= MAX_CACHED_PIECES) {
+			pieceCache.clear();
+		}
+		pieceCache.put(piece, count);
+		return count;
+	}
+
+	private int countBytes(String piece) {
+		String bytes = new String(piece.getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1);
+		int total = 0;
+		for (int start = 0; start < bytes.length(); start += MAX_PIECE_BYTES) {
+			String chunk = bytes.substring(start, Math.min(bytes.length(), start + MAX_PIECE_BYTES));
+			total = ranks.containsKey(chunk) ? total + 1 : total + merge(chunk);
+		}
+		return total;
+	}
+
+	/**
+	 * Merges the bytes of a piece, lowest rank first, and returns the number of tokens
+	 * left. Only the ranks of the pairs next to a merge are looked up again.
+	 */
+	private int merge(String bytes) {
+		int tokens = bytes.length();
+		// boundaries[i] is the start of token i, pairRanks[i] the rank of tokens i and i + 1
+		int[] boundaries = new int[tokens + 1];
+		for (int i = 0; i <= tokens; i++) {
+			boundaries[i] = i;
+		}
+		int[] pairRanks = new int[Math.max(0, tokens - 1)];
+		for (int i = 0; i < tokens - 1; i++) {
+			pairRanks[i] = rankOf(bytes, i, i + 2);
+		}
+
+		while (tokens > 1) {
+			int minRank = Integer.MAX_VALUE;
+			int index = -1;
+			for (int i = 0; i < tokens - 1; i++) {
+				if (pairRanks[i] < minRank) {
+					minRank = pairRanks[i];
+					index = i;
+				}
+			}
+			if (index < 0) {
+				break;
+			}
+			System.arraycopy(boundaries, index + 2, boundaries, index + 1, tokens - index - 1);
+			if (tokens - index - 3 > 0) {
+				System.arraycopy(pairRanks, index + 2, pairRanks, index + 1, tokens - index - 3);
+			}
+			tokens--;
+			if (index < tokens - 1) {
+				pairRanks[index] = rankOf(bytes, boundaries[index], boundaries[index + 2]);
+			}
+			if (index > 0) {
+				pairRanks[index - 1] = rankOf(bytes, boundaries[index - 1], boundaries[index + 1]);
+			}
+		}
+		return tokens;
+	}
+
+	private int rankOf(String bytes, int start, int end) {
+		Integer rank = ranks.get(bytes.substring(start, end));
+		return rank != null ? rank : Integer.MAX_VALUE;
+	}
+
+	private static Map<String, Integer> readRanks(InputStream in) throws IOException {
+		Map<String, Integer> ranks = new HashMap<>(1 << 17);
+		Base64.Decoder decoder = Base64.getDecoder();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII));
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			int separator = line.indexOf(' ');
+			if (separator < 0) {
+				throw new IOException("Malformed vocabulary line: " + line);
+			}
+			byte[] token = decoder.decode(line.substring(0, separator));
+			ranks.put(new String(token, StandardCharsets.ISO_8859_1),
+					Integer.parseInt(line.substring(separator + 1).trim()));
+		}
+		return ranks;
+	}
+
+	public static class Builder {
+
+		private Path vocabularyPath;
+
+		private InputStream vocabularyStream;
+
+		private String pattern = CL100K_PATTERN;
+
+		private int tokensPerMessage = DEFAULT_TOKENS_PER_MESSAGE;
+
+		/**
+		 * Sets the tiktoken vocabulary file to read.
+		 */
+		public Builder vocabulary(Path path) {
+			this.vocabularyPath = path;
+			return this;
+		}
+
+		/**
+		 * Sets a stream of a tiktoken vocabulary, read and closed on build.
+		 */
+		public Builder vocabulary(InputStream stream) {
+			this.vocabularyStream = stream;
+			return this;
+		}
+
+		/**
+		 * Sets the pre-tokenization pattern of the encoding, {@link #CL100K_PATTERN} by
+		 * default.
+		 */
+		public Builder pattern(String pattern) {
+			this.pattern = pattern;
+			return this;
+		}
+
+		public Builder tokensPerMessage(int tokensPerMessage) {
+			this.tokensPerMessage = tokensPerMessage;
+			return this;
+		}
+
+		/**
+		 * Reads the vocabulary and creates the counter.
+		 * @throws UncheckedIOException if the vocabulary cannot be read
+		 */
+		public BpeTokenCounter build() {
+			if (vocabularyPath == null && vocabularyStream == null) {
+				throw new IllegalArgumentException("vocabulary must be specified");
+			}
+			if (pattern == null || pattern.isEmpty()) {
+				throw new IllegalArgumentException("pattern must be specified");
+			}
+			if (tokensPerMessage < 0) {
+				throw new IllegalArgumentException("tokensPerMessage must be >= 0, but got: " + tokensPerMessage);
+			}
+			try (InputStream in = vocabularyStream != null ? vocabularyStream : Files.newInputStream(vocabularyPath)) {
+				return new BpeTokenCounter(this, readRanks(in));
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException("Failed to read the tokenizer vocabulary", e);
+			}
+		}
+
+	}
+
+}
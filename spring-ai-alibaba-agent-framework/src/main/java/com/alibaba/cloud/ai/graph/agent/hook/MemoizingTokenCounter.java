@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hook;
+
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Token counter remembering the count of every message it has seen, so that counting a
+ * history again only counts the messages added since. Messages are matched by content,
+ * and a count is forgotten once its message is no longer referenced.
+ *
+ * <p>The delegate has to count messages independently of each other: the count of a list
+ * is the sum of the counts of its messages.</p>
+ *
+ * Example:
+ * TokenCounter counter = TokenCounter.memoizing(TokenCounter.approximateMsgCounter());
+ */
+public final class MemoizingTokenCounter implements TokenCounter {
+
+	private final TokenCounter delegate;
+
+	private final Map<Message, Integer> counts = Collections.synchronizedMap(new WeakHashMap<>());
+
+	MemoizingTokenCounter(TokenCounter delegate) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate cannot be null");
+	}
+
+	@Override
+	public int countTokens(List<Message> messages) {
+		int total = 0;
+		for (Message message : messages) {
+			Integer count = counts.get(message);
+			if (count == null) {
+				count = delegate.countTokens(List.of(message));
+				counts.put(message, count);
+			}
+			total += count;
+		}
+		return total;
+	}
+
+}
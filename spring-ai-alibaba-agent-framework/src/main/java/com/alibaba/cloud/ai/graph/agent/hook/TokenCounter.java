@@ -83,6 +83,17 @@ public interface TokenCounter {
 		};
 	}
 
+	/**
+	 * Wraps a token counter so that the count of each message is computed once and
+	 * reused on later calls, see {@link MemoizingTokenCounter}.
+	 *
+	 * @param delegate The counter computing the count of a message
+	 * @return A memoizing token counter
+	 */
+	static TokenCounter memoizing(TokenCounter delegate) {
+		return delegate instanceof MemoizingTokenCounter ? delegate : new MemoizingTokenCounter(delegate);
+	}
+
 	/**
 	 * Count the approximate number of tokens in the given messages.
 	 *
@@ -28,11 +28,17 @@ import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Detect and handle Personally Identifiable Information (PII) in agent conversations.
@@ -41,9 +47,13 @@ import java.util.concurrent.CompletableFuture;
  * to handle them. It can detect emails, credit cards, IP addresses,
  * MAC addresses, and URLs in both user input and agent output.
  *
+ * Several types can be detected by one hook, in which case the text is scanned once for
+ * all of them. Messages already processed by the hook are remembered, so each model call
+ * only scans the messages appended since the previous one.
+ *
  * Example:
  * PIIDetectionHook pii = PIIDetectionHook.builder()
- *     .piiType(PIIType.EMAIL)
+ *     .piiTypes(PIIType.EMAIL, PIIType.CREDIT_CARD, PIIType.URL)
  *     .strategy(RedactionStrategy.REDACT)
  *     .applyToInput(true)
  *     .build();
@@ -52,19 +62,30 @@ import java.util.concurrent.CompletableFuture;
 public class PIIDetectionHook extends ModelHook {
 
 	private final PIIType piiType;
+	private final Set<PIIType> piiTypes;
 	private final RedactionStrategy strategy;
 	private final PIIDetector detector;
 	private final boolean applyToInput;
 	private final boolean applyToOutput;
 	private final boolean applyToToolResults;
 
+	/**
+	 * Messages known to be free of PII, either scanned without matches or already
+	 * redacted by this hook. Entries go away with the messages they refer to.
+	 */
+	private final Set<Message> processedMessages;
+
 	private PIIDetectionHook(Builder builder) {
-		this.piiType = builder.piiType;
+		this.piiTypes = Collections.unmodifiableSet(EnumSet.copyOf(builder.piiTypes));
+		this.piiType = piiTypes.iterator().next();
 		this.strategy = builder.strategy;
-		this.detector = builder.detector != null ? builder.detector : getDefaultDetector(piiType);
+		this.detector = builder.detector != null ? builder.detector
+				: piiTypes.size() == 1 ? getDefaultDetector(piiType) : PIIDetectors.combinedDetector(piiTypes);
 		this.applyToInput = builder.applyToInput;
 		this.applyToOutput = builder.applyToOutput;
 		this.applyToToolResults = builder.applyToToolResults;
+		this.processedMessages = builder.incremental ? Collections.synchronizedSet(
+				Collections.newSetFromMap(new WeakHashMap<>())) : null;
 	}
 
 	public static Builder builder() {
@@ -74,20 +95,26 @@ public class PIIDetectionHook extends ModelHook {
 	@Override
 	public CompletableFuture<Map<String, Object>> beforeModel(OverAllState state, RunnableConfig config) {
 		List<Message> messages = (List<Message>) state.value("messages").orElse(List.of());
-		List<Message> processedMessages = new ArrayList<>();
-		boolean hasChanges = false;
+		List<Message> updatedMessages = null;
 
-		for (Message message : messages) {
+		for (int i = 0; i < messages.size(); i++) {
+			Message message = messages.get(i);
+			if (isProcessed(message)) {
+				continue;
+			}
 			Message processed = processMessage(message);
-			processedMessages.add(processed);
+			markProcessed(processed);
 			if (processed != message) {
-				hasChanges = true;
+				if (updatedMessages == null) {
+					updatedMessages = new ArrayList<>(messages);
+				}
+				updatedMessages.set(i, processed);
 			}
 		}
 
-		if (hasChanges) {
+		if (updatedMessages != null) {
 			Map<String, Object> updates = new HashMap<>();
-			updates.put("messages", processedMessages);
+			updates.put("messages", updatedMessages);
 			return CompletableFuture.completedFuture(updates);
 		}
 
@@ -118,7 +145,7 @@ public class PIIDetectionHook extends ModelHook {
 			}
 		}
 
-		if (aiMessage == null) {
+		if (aiMessage == null || isProcessed(aiMessage)) {
 			return CompletableFuture.completedFuture(Map.of());
 		}
 
@@ -132,15 +159,17 @@ public class PIIDetectionHook extends ModelHook {
 		ProcessResult result = processText(content);
 
 		if (!result.hasMatches) {
+			markProcessed(aiMessage);
 			return CompletableFuture.completedFuture(Map.of());
 		}
 
 		// Apply strategy
 		if (result.hasMatches && strategy == RedactionStrategy.BLOCK) {
-			throw new PIIDetectionException(piiType.name(), result.matches);
+			throw new PIIDetectionException(labelOf(result.matches.get(0)), result.matches);
 		}
 
 		if (result.redactedText.equals(content)) {
+			markProcessed(aiMessage);
 			return CompletableFuture.completedFuture(Map.of());
 		}
 
@@ -151,6 +180,7 @@ public class PIIDetectionHook extends ModelHook {
 			aiMessage.getToolCalls(),
 			aiMessage.getMedia()
 		);
+		markProcessed(updatedMessage);
 
 		List<Message> updatedMessages = new ArrayList<>(messages);
 		updatedMessages.set(lastIndex, updatedMessage);
@@ -160,6 +190,16 @@ public class PIIDetectionHook extends ModelHook {
 		return CompletableFuture.completedFuture(updates);
 	}
 
+	private boolean isProcessed(Message message) {
+		return processedMessages != null && processedMessages.contains(message);
+	}
+
+	private void markProcessed(Message message) {
+		if (processedMessages != null) {
+			processedMessages.add(message);
+		}
+	}
+
 	private Message processMessage(Message message) {
 		if (applyToInput && message instanceof UserMessage) {
 			return processContent((UserMessage) message);
@@ -178,7 +218,7 @@ public class PIIDetectionHook extends ModelHook {
 		ProcessResult result = processText(content);
 
 		if (result.hasMatches && strategy == RedactionStrategy.BLOCK) {
-			throw new PIIDetectionException(piiType.name(), result.matches);
+			throw new PIIDetectionException(labelOf(result.matches.get(0)), result.matches);
 		}
 
 		if (result.redactedText.equals(content)) {
@@ -193,7 +233,7 @@ public class PIIDetectionHook extends ModelHook {
 		ProcessResult result = processText(content);
 
 		if (result.hasMatches && strategy == RedactionStrategy.BLOCK) {
-			throw new PIIDetectionException(piiType.name(), result.matches);
+			throw new PIIDetectionException(labelOf(result.matches.get(0)), result.matches);
 		}
 
 		if (result.redactedText.equals(content)) {
@@ -214,7 +254,7 @@ public class PIIDetectionHook extends ModelHook {
 			ProcessResult result = processText(content);
 
 			if (result.hasMatches && strategy == RedactionStrategy.BLOCK) {
-				throw new PIIDetectionException(piiType.name(), result.matches);
+				throw new PIIDetectionException(labelOf(result.matches.get(0)), result.matches);
 			}
 
 			if (!result.redactedText.equals(content)) {
@@ -257,13 +297,13 @@ public class PIIDetectionHook extends ModelHook {
 
 			switch (strategy) {
 			case REDACT:
-				result.append("[REDACTED_").append(piiType.name()).append("]");
+				result.append("[REDACTED_").append(labelOf(match)).append("]");
 				break;
 			case MASK:
 				result.append(maskValue(match.value));
 				break;
 			case HASH:
-				result.append(hashValue(match.value));
+				result.append(hashValue(labelOf(match), match.value));
 				break;
 			case BLOCK:
 				// Already handled in processText
@@ -286,9 +326,17 @@ public class PIIDetectionHook extends ModelHook {
 		return masked + value.substring(value.length() - visibleChars);
 	}
 
-	private String hashValue(String value) {
+	private String hashValue(String label, String value) {
 		int hash = value.hashCode();
-		return String.format("<%s_hash:%08x>", piiType.name().toLowerCase(), hash);
+		return String.format("<%s_hash:%08x>", label.toLowerCase(), hash);
+	}
+
+	/**
+	 * Returns the label of a match: the configured type when the hook detects a single
+	 * type, the type reported by the detector otherwise.
+	 */
+	private String labelOf(PIIMatch match) {
+		return piiTypes.size() == 1 ? piiType.name() : match.type.toUpperCase(Locale.ROOT);
 	}
 
 	private PIIDetector getDefaultDetector(PIIType type) {
@@ -310,7 +358,7 @@ public class PIIDetectionHook extends ModelHook {
 
 	@Override
 	public String getName() {
-		return "PIIDetection[" + piiType.name() + "]";
+		return "PIIDetection[" + piiTypes.stream().map(PIIType::name).collect(Collectors.joining(",")) + "]";
 	}
 
 	@Override
@@ -331,15 +379,26 @@ public class PIIDetectionHook extends ModelHook {
 	}
 
 	public static class Builder {
-		private PIIType piiType;
+		private final Set<PIIType> piiTypes = EnumSet.noneOf(PIIType.class);
 		private RedactionStrategy strategy = RedactionStrategy.REDACT;
 		private PIIDetector detector;
 		private boolean applyToInput = true;
 		private boolean applyToOutput = false;
 		private boolean applyToToolResults = false;
+		private boolean incremental = true;
 
 		public Builder piiType(PIIType piiType) {
-			this.piiType = piiType;
+			if (piiType != null) {
+				this.piiTypes.add(piiType);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds several types to detect; the text is scanned once for all of them.
+		 */
+		public Builder piiTypes(PIIType... piiTypes) {
+			this.piiTypes.addAll(List.of(piiTypes));
 			return this;
 		}
 
@@ -368,8 +427,17 @@ public class PIIDetectionHook extends ModelHook {
 			return this;
 		}
 
+		/**
+		 * Sets whether messages already processed are skipped on later model calls,
+		 * enabled by default.
+		 */
+		public Builder incremental(boolean incremental) {
+			this.incremental = incremental;
+			return this;
+		}
+
 		public PIIDetectionHook build() {
-			if (piiType == null) {
+			if (piiTypes.isEmpty()) {
 				throw new IllegalArgumentException("piiType must be specified");
 			}
 			return new PIIDetectionHook(this);
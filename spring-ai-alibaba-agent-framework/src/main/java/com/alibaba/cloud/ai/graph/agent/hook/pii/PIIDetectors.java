@@ -15,9 +15,11 @@
  */
 package com.alibaba.cloud.ai.graph.agent.hook.pii;
 
-import java.net.InetAddress;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.StringJoiner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,13 +76,9 @@ public class PIIDetectors {
 			Matcher matcher = IPV4_PATTERN.matcher(content);
 			while (matcher.find()) {
 				String ip = matcher.group();
-				try {
-					InetAddress.getByName(ip);
+				if (isValidIpv4(ip)) {
 					matches.add(new PIIMatch("ip", ip, matcher.start(), matcher.end()));
 				}
-				catch (Exception e) {
-					// Invalid IP, skip
-				}
 			}
 			return matches;
 		};
@@ -124,18 +122,112 @@ public class PIIDetectors {
 	}
 
 	/**
-	 * Validates a credit card number using the Luhn algorithm.
+	 * Creates a detector finding all the given built-in types in a single pass over the
+	 * content. The patterns of the types are combined into one alternation, so a span of
+	 * text is reported at most once, as the first type matching at its start.
+	 *
+	 * Example:
+	 * PIIDetector detector = PIIDetectors.combinedDetector(EnumSet.of(PIIType.EMAIL, PIIType.URL));
+	 *
+	 * @param types the types to detect, {@link PIIType#CUSTOM} excluded
+	 * @return the combined detector
 	 */
-	private static boolean passesLuhn(String cardNumber) {
-		String digits = cardNumber.replaceAll("[\\s-]", "");
-		if (digits.length() < 13 || digits.length() > 19) {
-			return false;
+	public static PIIDetector combinedDetector(Collection<PIIType> types) {
+		if (types == null || types.isEmpty()) {
+			throw new IllegalArgumentException("At least one PII type must be specified");
+		}
+		List<PIIType> enabledTypes = new ArrayList<>(EnumSet.copyOf(types));
+		StringJoiner alternatives = new StringJoiner("|");
+		for (PIIType type : enabledTypes) {
+			alternatives.add("(?<" + groupName(type) + ">" + patternOf(type).pattern() + ")");
+		}
+		Pattern combinedPattern = Pattern.compile(alternatives.toString());
+
+		return content -> {
+			List<PIIMatch> matches = new ArrayList<>();
+			Matcher matcher = combinedPattern.matcher(content);
+			while (matcher.find()) {
+				for (PIIType type : enabledTypes) {
+					String value = matcher.group(groupName(type));
+					if (value != null) {
+						if (isValid(type, value)) {
+							matches.add(new PIIMatch(type.name().toLowerCase(), value, matcher.start(),
+									matcher.end()));
+						}
+						break;
+					}
+				}
+			}
+			return matches;
+		};
+	}
+
+	private static Pattern patternOf(PIIType type) {
+		switch (type) {
+		case EMAIL:
+			return EMAIL_PATTERN;
+		case CREDIT_CARD:
+			return CREDIT_CARD_PATTERN;
+		case IP:
+			return IPV4_PATTERN;
+		case MAC_ADDRESS:
+			return MAC_ADDRESS_PATTERN;
+		case URL:
+			return URL_PATTERN;
+		default:
+			throw new IllegalArgumentException("No built-in pattern for PII type: " + type);
+		}
+	}
+
+	private static String groupName(PIIType type) {
+		// Named groups only allow letters and digits
+		return type.name().replace("_", "");
+	}
+
+	private static boolean isValid(PIIType type, String value) {
+		switch (type) {
+		case CREDIT_CARD:
+			return passesLuhn(value);
+		case IP:
+			return isValidIpv4(value);
+		default:
+			return true;
 		}
+	}
 
+	/**
+	 * Checks that every octet of a dotted IPv4 address is in range, without resolving it.
+	 */
+	private static boolean isValidIpv4(String ip) {
+		int octet = 0;
+		for (int i = 0; i < ip.length(); i++) {
+			char c = ip.charAt(i);
+			if (c == '.') {
+				octet = 0;
+			}
+			else {
+				octet = octet * 10 + (c - '0');
+				if (octet > 255) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Validates a credit card number using the Luhn algorithm.
+	 */
+	private static boolean passesLuhn(String cardNumber) {
 		int sum = 0;
+		int length = 0;
 		boolean alternate = false;
-		for (int i = digits.length() - 1; i >= 0; i--) {
-			int digit = Character.getNumericValue(digits.charAt(i));
+		for (int i = cardNumber.length() - 1; i >= 0; i--) {
+			char c = cardNumber.charAt(i);
+			if (Character.isWhitespace(c) || c == '-') {
+				continue;
+			}
+			int digit = Character.getNumericValue(c);
 			if (alternate) {
 				digit *= 2;
 				if (digit > 9) {
@@ -143,9 +235,10 @@ public class PIIDetectors {
 				}
 			}
 			sum += digit;
+			length++;
 			alternate = !alternate;
 		}
-		return (sum % 10) == 0;
+		return length >= 13 && length <= 19 && (sum % 10) == 0;
 	}
 }
 
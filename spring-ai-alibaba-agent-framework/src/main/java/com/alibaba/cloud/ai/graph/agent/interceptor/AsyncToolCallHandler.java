@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Asynchronous counterpart of {@link ToolCallHandler}: the call returns at once and the
+ * response completes the returned future.
+ */
+@FunctionalInterface
+public interface AsyncToolCallHandler {
+
+	/**
+	 * Start a tool call request.
+	 *
+	 * @param request The tool call request
+	 * @return A future completed with the tool call response
+	 */
+	CompletableFuture<ToolCallResponse> call(ToolCallRequest request);
+
+	/**
+	 * Run a blocking handler on the given executor.
+	 *
+	 * @param handler The blocking handler
+	 * @param executor The executor the handler runs on
+	 * @return The asynchronous handler
+	 */
+	static AsyncToolCallHandler of(ToolCallHandler handler, Executor executor) {
+		return request -> CompletableFuture.supplyAsync(() -> handler.call(request), executor);
+	}
+}
@@ -93,6 +93,32 @@ public class InterceptorChain {
 		return current;
 	}
 
+	/**
+	 * Chain multiple ToolInterceptors into a single asynchronous handler, with the same
+	 * order as {@link #chainToolInterceptors}.
+	 *
+	 * @param interceptors List of ToolInterceptors to chain
+	 * @param baseHandler The base handler that starts the actual tool call
+	 * @return A composed handler, or the base handler if no interceptors
+	 */
+	public static AsyncToolCallHandler chainToolInterceptorsAsync(
+			List<ToolInterceptor> interceptors,
+			AsyncToolCallHandler baseHandler) {
+
+		if (interceptors == null || interceptors.isEmpty()) {
+			return baseHandler;
+		}
+
+		AsyncToolCallHandler current = baseHandler;
+		for (int i = interceptors.size() - 1; i >= 0; i--) {
+			ToolInterceptor interceptor = interceptors.get(i);
+			AsyncToolCallHandler nextHandler = current;
+			current = request -> interceptor.interceptToolCallAsync(request, nextHandler);
+		}
+
+		return current;
+	}
+
 	/**
 	 * Example of how interceptors are chained:
 	 *
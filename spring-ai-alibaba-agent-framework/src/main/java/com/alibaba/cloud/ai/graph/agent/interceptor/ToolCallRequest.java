@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.graph.agent.interceptor;
 import org.springframework.ai.chat.messages.AssistantMessage;
 
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Request object for tool calls.
@@ -28,12 +29,19 @@ public class ToolCallRequest {
 	private final String arguments;
 	private final String toolCallId;
 	private final Map<String, Object> context;
+	private final Executor executor;
 
 	public ToolCallRequest(String toolName, String arguments, String toolCallId, Map<String, Object> context) {
+		this(toolName, arguments, toolCallId, context, null);
+	}
+
+	public ToolCallRequest(String toolName, String arguments, String toolCallId, Map<String, Object> context,
+			Executor executor) {
 		this.toolName = toolName;
 		this.arguments = arguments;
 		this.toolCallId = toolCallId;
 		this.context = context;
+		this.executor = executor;
 	}
 
 	public static Builder builder() {
@@ -45,7 +53,8 @@ public class ToolCallRequest {
 				.toolName(request.toolName)
 				.arguments(request.arguments)
 				.toolCallId(request.toolCallId)
-				.context(request.context);
+				.context(request.context)
+				.executor(request.executor);
 	}
 
 	public String getToolName() {
@@ -64,11 +73,20 @@ public class ToolCallRequest {
 		return context;
 	}
 
+	/**
+	 * Returns the executor the agent runs its tools on when it executes them in parallel,
+	 * or null when the tool runs on the calling thread.
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
 	public static class Builder {
 		private String toolName;
 		private String arguments;
 		private String toolCallId;
 		private Map<String, Object> context;
+		private Executor executor;
 
 		public Builder toolCall(AssistantMessage.ToolCall toolCall) {
 			this.toolName = toolCall.name();
@@ -97,8 +115,13 @@ public class ToolCallRequest {
 			return this;
 		}
 
+		public Builder executor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
 		public ToolCallRequest build() {
-			return new ToolCallRequest(toolName, arguments, toolCallId, context);
+			return new ToolCallRequest(toolName, arguments, toolCallId, context, executor);
 		}
 	}
 }
@@ -15,6 +15,9 @@
  */
 package com.alibaba.cloud.ai.graph.agent.interceptor;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Tool interceptor that can wrap tool calls.
  * Implementations can modify requests, responses, or add behavior like retry, caching, etc.
@@ -35,4 +38,35 @@ public abstract class ToolInterceptor implements Interceptor {
 	 * @return The tool call response
 	 */
 	public abstract ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler);
+
+	/**
+	 * Wrap an asynchronous tool call, used when tools are executed in parallel.
+	 *
+	 * The default implementation runs {@link #interceptToolCall} on the calling thread,
+	 * waiting for the next handler. Interceptors that wait between calls, such as retry
+	 * with backoff, override it to hold no thread while waiting.
+	 *
+	 * @param request The tool call request
+	 * @param handler The next asynchronous handler in the chain (or base handler)
+	 * @return A future completed with the tool call response
+	 */
+	public CompletableFuture<ToolCallResponse> interceptToolCallAsync(ToolCallRequest request,
+			AsyncToolCallHandler handler) {
+		try {
+			return CompletableFuture.completedFuture(interceptToolCall(request, req -> {
+				try {
+					return handler.call(req).join();
+				}
+				catch (CompletionException e) {
+					if (e.getCause() instanceof RuntimeException runtimeException) {
+						throw runtimeException;
+					}
+					throw e;
+				}
+			}));
+		}
+		catch (RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
 }
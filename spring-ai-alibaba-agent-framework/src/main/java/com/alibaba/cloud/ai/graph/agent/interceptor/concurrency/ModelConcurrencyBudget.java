@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.concurrency;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounds the number of calls in flight to a model endpoint. One budget is meant to be
+ * shared by the {@link ModelConcurrencyInterceptor}s of every agent calling the same
+ * endpoint, so that together they stay within the rate limit of the provider.
+ *
+ * Permits are handed out in request order. Waiting never blocks a thread unless the
+ * caller asks for it, so streaming calls queue without holding a thread.
+ *
+ * Example:
+ * ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("dashscope-qwen-max", 8);
+ */
+public final class ModelConcurrencyBudget {
+
+	private static final CompletableFuture<Void> GRANTED = CompletableFuture.completedFuture(null);
+
+	private final String endpoint;
+
+	private final int maxConcurrency;
+
+	private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+	private int available;
+
+	private ModelConcurrencyBudget(String endpoint, int maxConcurrency) {
+		this.endpoint = endpoint;
+		this.maxConcurrency = maxConcurrency;
+		this.available = maxConcurrency;
+	}
+
+	/**
+	 * Creates a budget for a model endpoint.
+	 * @param endpoint the name of the endpoint, used to tag metrics
+	 * @param maxConcurrency the maximum number of calls in flight
+	 * @return the budget
+	 */
+	public static ModelConcurrencyBudget of(String endpoint, int maxConcurrency) {
+		if (endpoint == null || endpoint.isEmpty()) {
+			throw new IllegalArgumentException("endpoint must be specified");
+		}
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("maxConcurrency must be at least 1, but got: " + maxConcurrency);
+		}
+		return new ModelConcurrencyBudget(endpoint, maxConcurrency);
+	}
+
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public int getMaxConcurrency() {
+		return maxConcurrency;
+	}
+
+	/**
+	 * Returns the number of calls waiting for a permit.
+	 * @return the queue length
+	 */
+	public synchronized int getQueueLength() {
+		return waiters.size();
+	}
+
+	/**
+	 * Requests a permit. The returned future completes once the permit is granted;
+	 * cancelling it before then gives up the place in the queue. A granted permit must be
+	 * given back with {@link #release()}.
+	 * @return a future completing when the permit is granted
+	 */
+	public CompletableFuture<Void> acquire() {
+		synchronized (this) {
+			if (available > 0) {
+				available--;
+				return GRANTED;
+			}
+			CompletableFuture<Void> waiter = new CompletableFuture<>();
+			waiters.addLast(waiter);
+			return waiter;
+		}
+	}
+
+	/**
+	 * Gives a permit back, handing it to the oldest waiting call if any.
+	 */
+	public void release() {
+		while (true) {
+			CompletableFuture<Void> next;
+			synchronized (this) {
+				next = waiters.pollFirst();
+				if (next == null) {
+					available = Math.min(available + 1, maxConcurrency);
+					return;
+				}
+			}
+			// A waiter cancelled in the meantime does not take the permit
+			if (next.complete(null)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Cancels a pending permit request and removes it from the queue.
+	 * @param waiter the future returned by {@link #acquire()}
+	 * @return false if the permit was already granted
+	 */
+	private synchronized boolean withdraw(CompletableFuture<Void> waiter) {
+		if (!waiter.cancel(false)) {
+			return false;
+		}
+		waiters.remove(waiter);
+		return true;
+	}
+
+	/**
+	 * Runs the given stream under a permit: the permit is requested when the stream is
+	 * subscribed and given back as soon as it completes, fails or is cancelled, before
+	 * the terminal signal is passed downstream.
+	 * @param source the stream to run
+	 * @param queueTimeConsumer receives the time waited for the permit, in nanoseconds
+	 * @return the stream running under a permit
+	 */
+	public <T> Flux<T> withPermit(Flux<T> source, LongConsumer queueTimeConsumer) {
+		return Flux.defer(() -> {
+			long startNanos = System.nanoTime();
+			CompletableFuture<Void> permit = acquire();
+			AtomicBoolean released = new AtomicBoolean();
+			Runnable releaseOnce = () -> {
+				if (released.compareAndSet(false, true)) {
+					release();
+				}
+			};
+			Mono<Boolean> granted = Mono.fromFuture(permit, true).thenReturn(Boolean.TRUE).doFinally(signal -> {
+				// Cancelling a pending request leaves the queue, a granted permit is released.
+				// Withdrawing once the future is no longer observed keeps its cancellation
+				// from being signalled as a dropped error.
+				if (signal == SignalType.CANCEL && !withdraw(permit)) {
+					releaseOnce.run();
+				}
+			});
+			return Flux.usingWhen(granted, ignored -> {
+				queueTimeConsumer.accept(System.nanoTime() - startNanos);
+				return source;
+			}, ignored -> Mono.fromRunnable(releaseOnce), (ignored, error) -> Mono.fromRunnable(releaseOnce),
+					ignored -> Mono.fromRunnable(releaseOnce));
+		});
+	}
+
+}
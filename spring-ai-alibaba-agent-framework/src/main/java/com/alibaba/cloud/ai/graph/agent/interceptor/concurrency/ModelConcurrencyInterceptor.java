@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.concurrency;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.chat.model.ChatResponse;
+import reactor.core.publisher.Flux;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the model calls of an agent within the concurrency budget of a model endpoint.
+ * Agents sharing a {@link ModelConcurrencyBudget} together keep at most its
+ * {@code maxConcurrency} calls in flight; further calls queue in request order.
+ *
+ * Blocking calls wait for a permit on the calling thread. Streaming calls, those whose
+ * {@code _stream_} context flag is {@code true}, only create the stream on the calling
+ * thread: the permit is requested when the stream is subscribed and held until it
+ * terminates, so a streaming call takes a single permit and its queueing time is
+ * recorded once. Calls without the flag may call the model right away and are run under
+ * a permit like blocking calls; a stream they return requests a permit of its own.
+ *
+ * Example:
+ * ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("dashscope-qwen-max", 8);
+ * ModelConcurrencyInterceptor interceptor = ModelConcurrencyInterceptor.builder()
+ *     .budget(budget)
+ *     .agentName("research_agent")
+ *     .meterRegistry(meterRegistry)
+ *     .build();
+ */
+public class ModelConcurrencyInterceptor extends ModelInterceptor {
+
+	private static final Logger log = LoggerFactory.getLogger(ModelConcurrencyInterceptor.class);
+
+	/**
+	 * Context flag telling streaming model calls ({@code true}) from blocking ones
+	 * ({@code false}).
+	 */
+	private static final String STREAM_KEY = "_stream_";
+
+	private final ModelConcurrencyBudget budget;
+
+	private final String agentName;
+
+	private final GraphMetricsGenerator metricsGenerator;
+
+	private ModelConcurrencyInterceptor(Builder builder) {
+		this.budget = builder.budget;
+		this.agentName = builder.agentName;
+		this.metricsGenerator = builder.meterRegistry != null ? new GraphMetricsGenerator(builder.meterRegistry)
+				: null;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+		Boolean stream = streamFlag(request);
+		if (Boolean.TRUE.equals(stream)) {
+			// Creating the stream does not call the model yet
+			return withPermit(handler.call(request));
+		}
+
+		// A call not known to stream may call the model right away, so it waits for a
+		// permit before the handler runs
+		long queuedNanos = awaitPermit();
+		ModelResponse response;
+		try {
+			response = handler.call(request);
+		}
+		finally {
+			budget.release();
+		}
+		if (stream == null && response != null && response.getMessage() instanceof Flux) {
+			// The handler only created a stream, which requests its own permit when
+			// subscribed and records its queueing time then
+			return withPermit(response);
+		}
+		recordQueueTime(queuedNanos);
+		return response;
+	}
+
+	@SuppressWarnings("unchecked")
+	private ModelResponse withPermit(ModelResponse response) {
+		if (response != null && response.getMessage() instanceof Flux<?> flux) {
+			return new ModelResponse(budget.withPermit((Flux<ChatResponse>) flux, this::recordQueueTime),
+					response.getChatResponse());
+		}
+		return response;
+	}
+
+	private long awaitPermit() {
+		long startNanos = System.nanoTime();
+		CompletableFuture<Void> permit = budget.acquire();
+		try {
+			permit.get();
+		}
+		catch (InterruptedException e) {
+			if (!permit.cancel(false)) {
+				budget.release();
+			}
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the concurrency budget of model endpoint '"
+					+ budget.getEndpoint() + "'", e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+		return System.nanoTime() - startNanos;
+	}
+
+	/**
+	 * Returns the {@code _stream_} context flag of the request, null when it is not set.
+	 */
+	private static Boolean streamFlag(ModelRequest request) {
+		Map<String, Object> context = request.getContext();
+		return context != null && context.get(STREAM_KEY) instanceof Boolean flag ? flag : null;
+	}
+
+	private void recordQueueTime(long queuedNanos) {
+		if (log.isDebugEnabled()) {
+			log.debug("Model call of agent '{}' waited {} ms for endpoint '{}'", agentName, queuedNanos / 1_000_000,
+					budget.getEndpoint());
+		}
+		if (metricsGenerator != null) {
+			metricsGenerator.recordModelCallQueueTime(agentName, budget.getEndpoint(), queuedNanos);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "ModelConcurrency";
+	}
+
+	public static class Builder {
+
+		private ModelConcurrencyBudget budget;
+
+		private String agentName;
+
+		private MeterRegistry meterRegistry;
+
+		/**
+		 * Sets the budget of the model endpoint, shared with the other agents calling it.
+		 */
+		public Builder budget(ModelConcurrencyBudget budget) {
+			this.budget = budget;
+			return this;
+		}
+
+		public Builder agentName(String agentName) {
+			this.agentName = agentName;
+			return this;
+		}
+
+		/**
+		 * Sets the registry the queueing time of model calls is recorded in, optional.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public ModelConcurrencyInterceptor build() {
+			if (budget == null) {
+				throw new IllegalArgumentException("budget must be specified");
+			}
+			if (agentName == null || agentName.isEmpty()) {
+				throw new IllegalArgumentException("agentName must be specified");
+			}
+			return new ModelConcurrencyInterceptor(this);
+		}
+
+	}
+
+}
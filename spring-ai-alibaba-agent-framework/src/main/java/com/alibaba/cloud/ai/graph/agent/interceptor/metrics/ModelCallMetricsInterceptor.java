@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.metrics;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the latency of the model calls of an agent in a percentile-histogram timer,
+ * tagged with the agent name and whether the call succeeded.
+ *
+ * Example:
+ * ModelCallMetricsInterceptor interceptor = ModelCallMetricsInterceptor.builder()
+ *     .meterRegistry(meterRegistry)
+ *     .agentName("research_agent")
+ *     .build();
+ */
+public class ModelCallMetricsInterceptor extends ModelInterceptor {
+
+	private final GraphMetricsGenerator metricsGenerator;
+
+	private final String agentName;
+
+	private ModelCallMetricsInterceptor(Builder builder) {
+		this.metricsGenerator = new GraphMetricsGenerator(builder.meterRegistry);
+		this.agentName = builder.agentName;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
+		long startNanos = System.nanoTime();
+		boolean success = false;
+		try {
+			ModelResponse response = handler.call(request);
+			success = true;
+			return response;
+		}
+		finally {
+			metricsGenerator.recordModelCall(agentName, success, System.nanoTime() - startNanos);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "ModelCallMetrics";
+	}
+
+	public static class Builder {
+
+		private MeterRegistry meterRegistry;
+
+		private String agentName;
+
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public Builder agentName(String agentName) {
+			this.agentName = agentName;
+			return this;
+		}
+
+		public ModelCallMetricsInterceptor build() {
+			if (meterRegistry == null) {
+				throw new IllegalArgumentException("meterRegistry must be specified");
+			}
+			if (agentName == null || agentName.isEmpty()) {
+				throw new IllegalArgumentException("agentName must be specified");
+			}
+			return new ModelCallMetricsInterceptor(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.metrics;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records the latency of the tool calls of an agent in percentile-histogram timers,
+ * tagged with the agent name, the tool name and whether the call succeeded.
+ *
+ * Example:
+ * ToolCallMetricsInterceptor interceptor = ToolCallMetricsInterceptor.builder()
+ *     .meterRegistry(meterRegistry)
+ *     .agentName("research_agent")
+ *     .build();
+ */
+public class ToolCallMetricsInterceptor extends ToolInterceptor {
+
+	private final GraphMetricsGenerator metricsGenerator;
+
+	private final String agentName;
+
+	private ToolCallMetricsInterceptor(Builder builder) {
+		this.metricsGenerator = new GraphMetricsGenerator(builder.meterRegistry);
+		this.agentName = builder.agentName;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	@Override
+	public ToolCallResponse interceptToolCall(ToolCallRequest request, ToolCallHandler handler) {
+		long startNanos = System.nanoTime();
+		boolean success = false;
+		try {
+			ToolCallResponse response = handler.call(request);
+			success = true;
+			return response;
+		}
+		finally {
+			metricsGenerator.recordToolCall(agentName, request.getToolName(), success,
+					System.nanoTime() - startNanos);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "ToolCallMetrics";
+	}
+
+	public static class Builder {
+
+		private MeterRegistry meterRegistry;
+
+		private String agentName;
+
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		public Builder agentName(String agentName) {
+			this.agentName = agentName;
+			return this;
+		}
+
+		public ToolCallMetricsInterceptor build() {
+			if (meterRegistry == null) {
+				throw new IllegalArgumentException("meterRegistry must be specified");
+			}
+			if (agentName == null || agentName.isEmpty()) {
+				throw new IllegalArgumentException("agentName must be specified");
+			}
+			return new ToolCallMetricsInterceptor(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolretry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers of tools, one circuit per tool name. One instance is meant to be
+ * shared by the {@link ToolRetryInterceptor}s of every agent calling the same tools, so
+ * that all of them stop calling a tool that keeps failing.
+ *
+ * A circuit opens after {@code failureThreshold} consecutive failures of its tool; calls
+ * are then rejected for {@code openDuration}. The circuit is half open afterwards: up to
+ * {@code halfOpenProbes} calls are let through, the first success closes the circuit and
+ * a failure opens it again.
+ *
+ * Example:
+ * ToolCircuitBreaker circuitBreaker = ToolCircuitBreaker.builder()
+ *     .failureThreshold(5)
+ *     .openDuration(Duration.ofSeconds(30))
+ *     .build();
+ */
+public final class ToolCircuitBreaker {
+
+	public enum State {
+
+		CLOSED,
+
+		HALF_OPEN,
+
+		OPEN
+
+	}
+
+	private final int failureThreshold;
+
+	private final long openDurationNanos;
+
+	private final int halfOpenProbes;
+
+	private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+	private ToolCircuitBreaker(Builder builder) {
+		this.failureThreshold = builder.failureThreshold;
+		this.openDurationNanos = builder.openDuration.toNanos();
+		this.halfOpenProbes = builder.halfOpenProbes;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Asks whether a tool may be called. A call allowed must be followed by
+	 * {@link #onSuccess}, {@link #onFailure} or {@link #release} once it completes.
+	 * @param toolName the name of the tool
+	 * @return {@code false} if the circuit of the tool is open, or half open with all its
+	 * probes in flight
+	 */
+	public boolean tryAcquire(String toolName) {
+		Circuit circuit = circuit(toolName);
+		synchronized (circuit) {
+			if (circuit.state == State.CLOSED) {
+				return true;
+			}
+			if (circuit.state == State.OPEN) {
+				if (System.nanoTime() - circuit.openedAt < openDurationNanos) {
+					return false;
+				}
+				circuit.state = State.HALF_OPEN;
+				circuit.probes = 0;
+			}
+			if (circuit.probes >= halfOpenProbes) {
+				return false;
+			}
+			circuit.probes++;
+			return true;
+		}
+	}
+
+	/**
+	 * Records a successful call, closing the circuit of the tool.
+	 * @param toolName the name of the tool
+	 */
+	public void onSuccess(String toolName) {
+		Circuit circuit = circuit(toolName);
+		synchronized (circuit) {
+			circuit.state = State.CLOSED;
+			circuit.failures = 0;
+			circuit.probes = 0;
+		}
+	}
+
+	/**
+	 * Records a failed call, opening the circuit of the tool if it was half open or if the
+	 * failure threshold is reached.
+	 * @param toolName the name of the tool
+	 */
+	public void onFailure(String toolName) {
+		Circuit circuit = circuit(toolName);
+		synchronized (circuit) {
+			circuit.failures++;
+			if (circuit.state == State.HALF_OPEN
+					|| (circuit.state == State.CLOSED && circuit.failures >= failureThreshold)) {
+				circuit.state = State.OPEN;
+				circuit.openedAt = System.nanoTime();
+				circuit.probes = 0;
+			}
+		}
+	}
+
+	/**
+	 * Records a call that completed without telling whether the tool works, such as a call
+	 * failing on its arguments. A probe of a half open circuit is given back.
+	 * @param toolName the name of the tool
+	 */
+	public void release(String toolName) {
+		Circuit circuit = circuit(toolName);
+		synchronized (circuit) {
+			if (circuit.state == State.HALF_OPEN && circuit.probes > 0) {
+				circuit.probes--;
+			}
+		}
+	}
+
+	/**
+	 * Returns the state of the circuit of a tool. An open circuit whose open duration has
+	 * elapsed is reported half open.
+	 * @param toolName the name of the tool
+	 * @return the state of the circuit
+	 */
+	public State getState(String toolName) {
+		Circuit circuit = circuits.get(toolName);
+		if (circuit == null) {
+			return State.CLOSED;
+		}
+		synchronized (circuit) {
+			if (circuit.state == State.OPEN && System.nanoTime() - circuit.openedAt >= openDurationNanos) {
+				return State.HALF_OPEN;
+			}
+			return circuit.state;
+		}
+	}
+
+	private Circuit circuit(String toolName) {
+		Circuit circuit = circuits.get(toolName);
+		return circuit != null ? circuit : circuits.computeIfAbsent(toolName, name -> new Circuit());
+	}
+
+	private static final class Circuit {
+
+		private State state = State.CLOSED;
+
+		private int failures;
+
+		private int probes;
+
+		private long openedAt;
+
+	}
+
+	public static class Builder {
+
+		private int failureThreshold = 5;
+
+		private Duration openDuration = Duration.ofSeconds(30);
+
+		private int halfOpenProbes = 1;
+
+		/**
+		 * Sets the number of consecutive failures opening the circuit of a tool, 5 by
+		 * default.
+		 */
+		public Builder failureThreshold(int failureThreshold) {
+			this.failureThreshold = failureThreshold;
+			return this;
+		}
+
+		/**
+		 * Sets how long an open circuit rejects calls before letting probes through, 30
+		 * seconds by default.
+		 */
+		public Builder openDuration(Duration openDuration) {
+			this.openDuration = openDuration;
+			return this;
+		}
+
+		/**
+		 * Sets the number of calls let through at once by a half open circuit, 1 by
+		 * default.
+		 */
+		public Builder halfOpenProbes(int halfOpenProbes) {
+			this.halfOpenProbes = halfOpenProbes;
+			return this;
+		}
+
+		public ToolCircuitBreaker build() {
+			if (failureThreshold < 1) {
+				throw new IllegalArgumentException("failureThreshold must be at least 1, but got: " + failureThreshold);
+			}
+			if (openDuration == null || openDuration.isNegative()) {
+				throw new IllegalArgumentException("openDuration must not be negative, but got: " + openDuration);
+			}
+			if (halfOpenProbes < 1) {
+				throw new IllegalArgumentException("halfOpenProbes must be at least 1, but got: " + halfOpenProbes);
+			}
+			return new ToolCircuitBreaker(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolretry;
+
+import java.time.Duration;
+
+/**
+ * Bounds the number of tool call retries within a sliding time window. One budget is
+ * meant to be shared by the {@link ToolRetryInterceptor}s of every agent calling the same
+ * downstream service, so that retries do not multiply the load on a service that is
+ * already failing. Once the budget is spent, failed calls are given up without retry.
+ *
+ * Example:
+ * ToolRetryBudget budget = ToolRetryBudget.of(20, Duration.ofSeconds(10));
+ */
+public final class ToolRetryBudget {
+
+	private final int maxRetries;
+
+	private final long windowNanos;
+
+	/**
+	 * Times of the retries of the window, a ring written in time order, so that the
+	 * next slot holds the oldest retry once full.
+	 */
+	private final long[] retryTimes;
+
+	private int next;
+
+	private int size;
+
+	private ToolRetryBudget(int maxRetries, Duration window) {
+		this.maxRetries = maxRetries;
+		this.windowNanos = window.toNanos();
+		this.retryTimes = new long[maxRetries];
+	}
+
+	/**
+	 * Creates a retry budget.
+	 * @param maxRetries the maximum number of retries within the window
+	 * @param window the length of the sliding window
+	 * @return the budget
+	 */
+	public static ToolRetryBudget of(int maxRetries, Duration window) {
+		if (maxRetries < 1) {
+			throw new IllegalArgumentException("maxRetries must be at least 1, but got: " + maxRetries);
+		}
+		if (window == null || window.isNegative() || window.isZero()) {
+			throw new IllegalArgumentException("window must be positive, but got: " + window);
+		}
+		return new ToolRetryBudget(maxRetries, window);
+	}
+
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	/**
+	 * Takes a retry from the budget.
+	 * @return {@code true} if the retry is allowed, {@code false} if the budget of the
+	 * window is spent
+	 */
+	public synchronized boolean tryAcquire() {
+		long now = System.nanoTime();
+		if (size == retryTimes.length) {
+			if (now - retryTimes[next] < windowNanos) {
+				return false;
+			}
+		}
+		else {
+			size++;
+		}
+		retryTimes[next] = now;
+		next = (next + 1) % retryTimes.length;
+		return true;
+	}
+
+	/**
+	 * Returns the number of retries left in the current window.
+	 * @return the available retries
+	 */
+	public synchronized int getAvailableRetries() {
+		long now = System.nanoTime();
+		int used = 0;
+		for (int i = 0; i < size; i++) {
+			if (now - retryTimes[i] < windowNanos) {
+				used++;
+			}
+		}
+		return maxRetries - used;
+	}
+
+}
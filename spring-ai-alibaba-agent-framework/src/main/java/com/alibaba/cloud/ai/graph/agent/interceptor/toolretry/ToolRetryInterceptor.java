@@ -15,14 +15,25 @@
  */
 package com.alibaba.cloud.ai.graph.agent.interceptor.toolretry;
 
+import com.alibaba.cloud.ai.graph.agent.interceptor.AsyncToolCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+import com.alibaba.cloud.ai.graph.utils.ExecutorUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -34,11 +45,24 @@ import org.slf4j.LoggerFactory;
  *
  * Supports retrying on specific exceptions and exponential backoff.
  *
+ * A {@link ToolCircuitBreaker} and a {@link ToolRetryBudget}, both meant to be shared
+ * between agents, keep a failing tool from being called over and over: calls to a tool
+ * whose circuit is open fail at once, and failed calls are not retried once the budget
+ * is spent.
+ *
+ * {@link #interceptToolCall} waits for the backoff delays on the calling thread, as it
+ * has to return the response; it is used when tools are executed one after another.
+ * {@link #interceptToolCallAsync}, used by the agent tool node for parallel tool
+ * execution, schedules the retries on a timer instead and holds no thread while
+ * waiting.
+ *
  * Example:
  * ToolRetryInterceptor interceptor = ToolRetryInterceptor.builder()
  *     .maxRetries(3)
  *     .backoffFactor(2.0)
  *     .initialDelay(1000)
+ *     .circuitBreaker(circuitBreaker)
+ *     .retryBudget(ToolRetryBudget.of(20, Duration.ofSeconds(10)))
  *     .build();
  */
 public class ToolRetryInterceptor extends ToolInterceptor {
@@ -54,6 +78,11 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 	private final long initialDelayMs;
 	private final long maxDelayMs;
 	private final boolean jitter;
+	private final ToolCircuitBreaker circuitBreaker;
+	private final ToolRetryBudget retryBudget;
+	private final Executor retryExecutor;
+	private final GraphMetricsGenerator metricsGenerator;
+	private final Set<String> toolsWithCircuitGauge = ConcurrentHashMap.newKeySet();
 
 	private ToolRetryInterceptor(Builder builder) {
 		this.maxRetries = builder.maxRetries;
@@ -65,6 +94,11 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 		this.initialDelayMs = builder.initialDelayMs;
 		this.maxDelayMs = builder.maxDelayMs;
 		this.jitter = builder.jitter;
+		this.circuitBreaker = builder.circuitBreaker;
+		this.retryBudget = builder.retryBudget;
+		this.retryExecutor = builder.retryExecutor;
+		this.metricsGenerator = builder.meterRegistry != null ? new GraphMetricsGenerator(builder.meterRegistry)
+				: null;
 	}
 
 	public static Builder builder() {
@@ -80,32 +114,34 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 			return handler.call(request);
 		}
 
-		Exception lastException = null;
 		int attempt = 0;
+		while (true) {
+			if (!tryAcquireCircuit(toolName)) {
+				return giveUp(request, new ToolCircuitOpenException(toolName), attempt);
+			}
 
-		while (attempt <= maxRetries) {
 			try {
-				return handler.call(request);
+				ToolCallResponse response = handler.call(request);
+				if (circuitBreaker != null) {
+					circuitBreaker.onSuccess(toolName);
+				}
+				return response;
 			}
 			catch (Exception e) {
-				lastException = e;
-
 				// Check if we should retry this exception
 				if (!retryOn.test(e)) {
+					if (circuitBreaker != null) {
+						circuitBreaker.release(toolName);
+					}
 					log.debug("Exception {} not configured for retry, re-throwing", e.getClass().getSimpleName());
 					throw e;
 				}
 
-				if (attempt == maxRetries) {
-					// Max retries reached
-					break;
+				long delay = onRetryableFailure(toolName, attempt, e);
+				if (delay < 0) {
+					return giveUp(request, e, attempt + 1);
 				}
 
-				// Calculate delay
-				long delay = calculateDelay(attempt);
-				log.warn("Tool '{}' failed (attempt {}/{}), retrying in {}ms: {}",
-						toolName, attempt + 1, maxRetries + 1, delay, e.getMessage());
-
 				try {
 					Thread.sleep(delay);
 				}
@@ -117,22 +153,168 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 				attempt++;
 			}
 		}
+	}
+
+	/**
+	 * Asynchronous variant of {@link #interceptToolCall}: backoff delays are scheduled on
+	 * a timer and the next attempt is started once they elapse, so no thread waits in
+	 * between. Cancelling the returned future stops further attempts.
+	 *
+	 * @param request The tool call request
+	 * @param handler The asynchronous handler making the tool call
+	 * @return A future completed with the tool call response
+	 */
+	@Override
+	public CompletableFuture<ToolCallResponse> interceptToolCallAsync(ToolCallRequest request,
+			AsyncToolCallHandler handler) {
+		if (toolNames != null && !toolNames.contains(request.getToolName())) {
+			return handler.call(request);
+		}
+		CompletableFuture<ToolCallResponse> result = new CompletableFuture<>();
+		attemptAsync(request, handler, 0, result);
+		return result;
+	}
+
+	private void attemptAsync(ToolCallRequest request, AsyncToolCallHandler handler, int attempt,
+			CompletableFuture<ToolCallResponse> result) {
+		if (result.isDone()) {
+			// Cancelled by the caller
+			return;
+		}
+		String toolName = request.getToolName();
+		if (!tryAcquireCircuit(toolName)) {
+			completeWithFailure(result, request, new ToolCircuitOpenException(toolName), attempt);
+			return;
+		}
+
+		CompletableFuture<ToolCallResponse> call;
+		try {
+			call = handler.call(request);
+		}
+		catch (Exception e) {
+			call = CompletableFuture.failedFuture(e);
+		}
+
+		call.whenComplete((response, error) -> {
+			if (error == null) {
+				if (circuitBreaker != null) {
+					circuitBreaker.onSuccess(toolName);
+				}
+				result.complete(response);
+				return;
+			}
+
+			Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+					: error;
+			if (!(cause instanceof Exception e) || !retryOn.test(e)) {
+				if (circuitBreaker != null) {
+					circuitBreaker.release(toolName);
+				}
+				result.completeExceptionally(cause);
+				return;
+			}
+
+			long delay = onRetryableFailure(toolName, attempt, e);
+			if (delay < 0) {
+				completeWithFailure(result, request, e, attempt + 1);
+				return;
+			}
+			// The next attempt may block on the tool, it never starts on the common pool
+			Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, retryExecutor(request));
+			delayed.execute(() -> attemptAsync(request, handler, attempt + 1, result));
+		});
+	}
+
+	private Executor retryExecutor(ToolCallRequest request) {
+		if (retryExecutor != null) {
+			return retryExecutor;
+		}
+		return request.getExecutor() != null ? request.getExecutor() : DefaultExecutorHolder.EXECUTOR;
+	}
+
+	private boolean tryAcquireCircuit(String toolName) {
+		if (circuitBreaker == null) {
+			return true;
+		}
+		if (metricsGenerator != null && toolsWithCircuitGauge.add(toolName)) {
+			metricsGenerator.registerToolCircuitState(toolName, circuitBreaker,
+					breaker -> breaker.getState(toolName).ordinal());
+		}
+		return circuitBreaker.tryAcquire(toolName);
+	}
+
+	/**
+	 * Records a failed attempt that may be retried and decides whether to retry it.
+	 * @return the delay before the next attempt in milliseconds, or -1 to give up
+	 */
+	private long onRetryableFailure(String toolName, int attempt, Exception e) {
+		if (circuitBreaker != null) {
+			circuitBreaker.onFailure(toolName);
+		}
+		if (attempt >= maxRetries) {
+			// Max retries reached
+			return -1;
+		}
+		if (retryBudget != null && !retryBudget.tryAcquire()) {
+			log.warn("Tool '{}' failed (attempt {}/{}), retry budget exhausted: {}",
+					toolName, attempt + 1, maxRetries + 1, e.getMessage());
+			recordRetry(toolName, "budget_exhausted");
+			return -1;
+		}
+
+		// Calculate delay
+		long delay = calculateDelay(attempt);
+		log.warn("Tool '{}' failed (attempt {}/{}), retrying in {}ms: {}",
+				toolName, attempt + 1, maxRetries + 1, delay, e.getMessage());
+		recordRetry(toolName, "retried");
+		return delay;
+	}
+
+	private void completeWithFailure(CompletableFuture<ToolCallResponse> result, ToolCallRequest request,
+			Exception lastException, int attempts) {
+		try {
+			result.complete(giveUp(request, lastException, attempts));
+		}
+		catch (RuntimeException e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	private ToolCallResponse giveUp(ToolCallRequest request, Exception lastException, int attempts) {
+		String toolName = request.getToolName();
+		boolean circuitOpen = lastException instanceof ToolCircuitOpenException;
+		recordRetry(toolName, circuitOpen ? "circuit_open" : "failed");
 
-		// All retries exhausted
 		if (onFailure == OnFailureBehavior.RAISE) {
-			throw new RuntimeException("Tool call failed after " + (maxRetries + 1) + " attempts", lastException);
+			if (circuitOpen) {
+				throw (ToolCircuitOpenException) lastException;
+			}
+			throw new RuntimeException("Tool call failed after " + attempts + " attempts", lastException);
 		}
 		else {
 			// Return error message as tool response
-			String errorMessage = errorFormatter != null
-					? errorFormatter.apply(lastException)
-					: "Tool call failed after " + (maxRetries + 1) + " attempts: " + lastException.getMessage();
+			String errorMessage;
+			if (errorFormatter != null) {
+				errorMessage = errorFormatter.apply(lastException);
+			}
+			else if (circuitOpen) {
+				errorMessage = lastException.getMessage();
+			}
+			else {
+				errorMessage = "Tool call failed after " + attempts + " attempts: " + lastException.getMessage();
+			}
 
-			log.error("Tool '{}' failed after {} attempts: {}", toolName, maxRetries + 1, lastException.getMessage());
+			log.error("Tool '{}' failed after {} attempts: {}", toolName, attempts, lastException.getMessage());
 			return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), errorMessage);
 		}
 	}
 
+	private void recordRetry(String toolName, String outcome) {
+		if (metricsGenerator != null) {
+			metricsGenerator.recordToolRetry(toolName, outcome);
+		}
+	}
+
 	private long calculateDelay(int retryNumber) {
 		long delay = (long) (initialDelayMs * Math.pow(backoffFactor, retryNumber));
 		delay = Math.min(delay, maxDelayMs);
@@ -151,6 +333,12 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 		return "ToolRetry";
 	}
 
+	private static class DefaultExecutorHolder {
+
+		private static final ExecutorService EXECUTOR = ExecutorUtils.newDaemonCachedThreadPool("tool-retry-");
+
+	}
+
 	public enum OnFailureBehavior {
 		RAISE,
 		RETURN_MESSAGE
@@ -166,6 +354,10 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 		private long initialDelayMs = 1000;
 		private long maxDelayMs = 60000;
 		private boolean jitter = true;
+		private ToolCircuitBreaker circuitBreaker;
+		private ToolRetryBudget retryBudget;
+		private Executor retryExecutor;
+		private MeterRegistry meterRegistry;
 
 		public Builder maxRetries(int maxRetries) {
 			if (maxRetries < 0) {
@@ -238,6 +430,41 @@ public class ToolRetryInterceptor extends ToolInterceptor {
 			return this;
 		}
 
+		/**
+		 * Sets the circuit breaker of the tools, shared with the other agents calling them.
+		 */
+		public Builder circuitBreaker(ToolCircuitBreaker circuitBreaker) {
+			this.circuitBreaker = circuitBreaker;
+			return this;
+		}
+
+		/**
+		 * Sets the retry budget, shared with the other agents calling the same services.
+		 */
+		public Builder retryBudget(ToolRetryBudget retryBudget) {
+			this.retryBudget = retryBudget;
+			return this;
+		}
+
+		/**
+		 * Sets the executor starting the retries of asynchronous tool calls once their
+		 * delay has elapsed. Tools executed in parallel by an agent run their retried
+		 * attempts on it. By default, retries run on the tool executor of the agent, or on
+		 * a shared cached pool when the request carries none.
+		 */
+		public Builder retryExecutor(Executor retryExecutor) {
+			this.retryExecutor = retryExecutor;
+			return this;
+		}
+
+		/**
+		 * Sets the registry retries and circuit states are recorded in, optional.
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
 		public ToolRetryInterceptor build() {
 			return new ToolRetryInterceptor(this);
 		}
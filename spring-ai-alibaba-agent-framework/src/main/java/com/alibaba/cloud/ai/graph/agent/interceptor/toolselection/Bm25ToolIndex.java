@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * BM25 index over the names and descriptions of a set of tools. An index is built once
+ * per tool set and is immutable afterwards.
+ */
+final class Bm25ToolIndex {
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	/**
+	 * English function words, which say nothing about what a tool does but would match
+	 * the articles of descriptions such as "Book a hotel room".
+	 */
+	private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+			"from", "i", "in", "is", "it", "me", "my", "of", "on", "or", "the", "to", "with");
+
+	private final List<ToolCandidate> tools;
+
+	/**
+	 * Postings by term: pairs of tool index and term frequency.
+	 */
+	private final Map<String, List<int[]>> postings = new HashMap<>();
+
+	private final int[] lengths;
+
+	private final double averageLength;
+
+	Bm25ToolIndex(List<ToolCandidate> tools) {
+		this.tools = List.copyOf(tools);
+		this.lengths = new int[tools.size()];
+		long totalLength = 0;
+		for (int i = 0; i < tools.size(); i++) {
+			ToolCandidate tool = tools.get(i);
+			List<String> terms = tokenize(tool.name());
+			// Names are short and precise, count their terms twice
+			terms.addAll(tokenize(tool.name()));
+			terms.addAll(tokenize(tool.description()));
+
+			Map<String, Integer> frequencies = new HashMap<>();
+			for (String term : terms) {
+				frequencies.merge(term, 1, Integer::sum);
+			}
+			for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+				postings.computeIfAbsent(entry.getKey(), key -> new ArrayList<>())
+					.add(new int[] { i, entry.getValue() });
+			}
+			lengths[i] = terms.size();
+			totalLength += terms.size();
+		}
+		this.averageLength = tools.isEmpty() ? 0 : Math.max(1.0, (double) totalLength / tools.size());
+	}
+
+	List<ToolCandidate> tools() {
+		return tools;
+	}
+
+	/**
+	 * Scores every tool against the query.
+	 * @param query the user query
+	 * @return one score per tool, in the order of {@link #tools()}
+	 */
+	double[] score(String query) {
+		double[] scores = new double[tools.size()];
+		Set<String> queryTerms = new LinkedHashSet<>(tokenize(query));
+		for (String term : queryTerms) {
+			List<int[]> termPostings = postings.get(term);
+			if (termPostings == null) {
+				continue;
+			}
+			double documentFrequency = termPostings.size();
+			double idf = Math.log(1 + (tools.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+			for (int[] posting : termPostings) {
+				int frequency = posting[1];
+				double norm = K1 * (1 - B + B * lengths[posting[0]] / averageLength);
+				scores[posting[0]] += idf * frequency * (K1 + 1) / (frequency + norm);
+			}
+		}
+		return scores;
+	}
+
+	/**
+	 * Splits text into lower case terms. Words are split on case changes, underscores and
+	 * punctuation, so that {@code searchFlights} and {@code search_flights} give the same
+	 * terms; Han characters are terms on their own. English function words are dropped.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> terms = new ArrayList<>();
+		if (text == null) {
+			return terms;
+		}
+		StringBuilder term = new StringBuilder();
+		int previous = 0;
+		for (int i = 0; i < text.length();) {
+			int codePoint = text.codePointAt(i);
+			i += Character.charCount(codePoint);
+			if (Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN) {
+				addTerm(terms, term);
+				terms.add(new String(Character.toChars(codePoint)));
+			}
+			else if (Character.isLetterOrDigit(codePoint)) {
+				if (Character.isUpperCase(codePoint) && Character.isLowerCase(previous)) {
+					addTerm(terms, term);
+				}
+				term.appendCodePoint(Character.toLowerCase(codePoint));
+			}
+			else {
+				addTerm(terms, term);
+			}
+			previous = codePoint;
+		}
+		addTerm(terms, term);
+		return terms;
+	}
+
+	private static void addTerm(List<String> terms, StringBuilder term) {
+		if (term.isEmpty()) {
+			return;
+		}
+		int length = term.length();
+		// Light plural stemming, "flights" matches "flight"
+		if (length > 3 && term.charAt(length - 1) == 's' && term.charAt(length - 2) != 's') {
+			term.setLength(length - 1);
+		}
+		String value = term.toString();
+		if (!STOP_WORDS.contains(value)) {
+			terms.add(value);
+		}
+		term.setLength(0);
+	}
+
+}
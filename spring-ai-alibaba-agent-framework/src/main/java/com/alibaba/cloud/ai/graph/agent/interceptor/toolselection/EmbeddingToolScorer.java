@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+import org.springframework.ai.embedding.EmbeddingModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scores tools by the cosine similarity between the embedding of the query and the
+ * embeddings of the tool names and descriptions. Tools are embedded once, the query on
+ * every call.
+ *
+ * Example:
+ * ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+ *     .mode(ToolSelectionMode.LOCAL)
+ *     .toolScorer(new EmbeddingToolScorer(embeddingModel))
+ *     .maxTools(5)
+ *     .build();
+ */
+public class EmbeddingToolScorer implements ToolScorer {
+
+	private final EmbeddingModel embeddingModel;
+
+	private final Map<ToolCandidate, float[]> toolEmbeddings = new ConcurrentHashMap<>();
+
+	public EmbeddingToolScorer(EmbeddingModel embeddingModel) {
+		this.embeddingModel = Objects.requireNonNull(embeddingModel, "embeddingModel cannot be null");
+	}
+
+	@Override
+	public double[] score(String query, List<ToolCandidate> tools) {
+		embedMissing(tools);
+		float[] queryEmbedding = embeddingModel.embed(query);
+		double[] scores = new double[tools.size()];
+		for (int i = 0; i < tools.size(); i++) {
+			// Cosine similarity is in [-1, 1], unrelated tools are simply not boosted
+			scores[i] = Math.max(0, cosine(queryEmbedding, toolEmbeddings.get(tools.get(i))));
+		}
+		return scores;
+	}
+
+	private void embedMissing(List<ToolCandidate> tools) {
+		List<ToolCandidate> missing = new ArrayList<>();
+		List<String> texts = new ArrayList<>();
+		for (ToolCandidate tool : tools) {
+			if (!toolEmbeddings.containsKey(tool)) {
+				missing.add(tool);
+				texts.add(tool.description().isEmpty() ? tool.name() : tool.name() + ": " + tool.description());
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		List<float[]> embeddings = embeddingModel.embed(texts);
+		for (int i = 0; i < missing.size(); i++) {
+			toolEmbeddings.put(missing.get(i), embeddings.get(i));
+		}
+	}
+
+	private static double cosine(float[] a, float[] b) {
+		int length = Math.min(a.length, b.length);
+		double dot = 0;
+		double normA = 0;
+		double normB = 0;
+		for (int i = 0; i < length; i++) {
+			dot += a[i] * b[i];
+			normA += a[i] * a[i];
+			normB += b[i] * b[i];
+		}
+		return normA == 0 || normB == 0 ? 0 : dot / Math.sqrt(normA * normB);
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+/**
+ * A tool offered to the model, as seen by tool selection.
+ *
+ * @param name the name of the tool
+ * @param description the description of the tool, empty when unknown
+ */
+public record ToolCandidate(String name, String description) {
+
+	public ToolCandidate {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("name must be specified");
+		}
+		description = description != null ? description : "";
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+import java.util.List;
+
+/**
+ * Scores the relevance of tools to a user query, in addition to the lexical ranking of
+ * {@link ToolSelectionInterceptor}.
+ *
+ * Example:
+ * ToolScorer scorer = new EmbeddingToolScorer(embeddingModel);
+ */
+@FunctionalInterface
+public interface ToolScorer {
+
+	/**
+	 * Scores the given tools.
+	 *
+	 * @param query the user query
+	 * @param tools the tools to score
+	 * @return one score per tool, in the order of the tools, between 0 and 1 and higher
+	 * for more relevant tools
+	 */
+	double[] score(String query, List<ToolCandidate> tools);
+
+}
@@ -25,12 +25,21 @@ import org.springframework.ai.chat.messages.SystemMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -45,11 +54,21 @@ import org.slf4j.LoggerFactory;
  * to only the most relevant ones for the user's query. This reduces token usage
  * and helps the main model focus on the right tools.
  *
+ * Tools can also be ranked locally, with a BM25 index over their names and
+ * descriptions and an optional {@link ToolScorer}, either instead of the selection
+ * model or to shorten the list the selection model picks from. Selections are cached
+ * by query and tool set, so that the following steps of a turn do not select again.
+ *
  * Example:
  * ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
  *     .selectionModel(gpt4oMini)
  *     .maxTools(3)
  *     .build();
+ *
+ * ToolSelectionInterceptor localInterceptor = ToolSelectionInterceptor.builder()
+ *     .mode(ToolSelectionMode.LOCAL)
+ *     .maxTools(5)
+ *     .build();
  */
 public class ToolSelectionInterceptor extends ModelInterceptor {
 
@@ -58,20 +77,42 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 	private static final String DEFAULT_SYSTEM_PROMPT =
 			"Your goal is to select the most relevant tools for answering the user's query.";
 
+	private static final int DEFAULT_CACHE_SIZE = 256;
+
+	private static final int MAX_INDEXES = 16;
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
 	private final ChatModel selectionModel;
 	private final String systemPrompt;
 	private final Integer maxTools;
 	private final Set<String> alwaysInclude;
 	private final ObjectMapper objectMapper;
+	private final ToolSelectionMode mode;
+	private final ToolScorer toolScorer;
+	private final int candidateCount;
+	private final Map<Long, Bm25ToolIndex> indexes = lruCache(MAX_INDEXES);
+	private final Map<SelectionKey, Set<String>> selectionCache;
 
 	private ToolSelectionInterceptor(Builder builder) {
 		this.selectionModel = builder.selectionModel;
 		this.systemPrompt = builder.systemPrompt;
 		this.maxTools = builder.maxTools;
 		this.alwaysInclude = builder.alwaysInclude != null
-				? new HashSet<>(builder.alwaysInclude)
-				: new HashSet<>();
+				? new LinkedHashSet<>(builder.alwaysInclude)
+				: new LinkedHashSet<>();
 		this.objectMapper = new ObjectMapper();
+		this.mode = builder.mode;
+		this.toolScorer = builder.toolScorer;
+		if (maxTools == null) {
+			this.candidateCount = builder.candidateCount != null ? builder.candidateCount : 0;
+		}
+		else {
+			this.candidateCount = builder.candidateCount != null
+					? Math.max(builder.candidateCount, maxTools)
+					: maxTools * 3;
+		}
+		this.selectionCache = builder.cacheSize > 0 ? lruCache(builder.cacheSize) : null;
 	}
 
 	public static Builder builder() {
@@ -80,10 +121,10 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 
 	@Override
 	public ModelResponse interceptModel(ModelRequest request, ModelCallHandler handler) {
-		List<String> availableTools = request.getTools();
+		List<ToolCandidate> availableTools = availableTools(request);
 
 		// If no tools or already within limit, skip selection
-		if (availableTools == null || availableTools.isEmpty() ||
+		if (availableTools.isEmpty() ||
 				(maxTools != null && availableTools.size() <= maxTools)) {
 			return handler.call(request);
 		}
@@ -103,6 +144,7 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 
 		// Filter tools based on selection
 		List<String> filteredTools = availableTools.stream()
+				.map(ToolCandidate::name)
 				.filter(selectedToolNames::contains)
 				.collect(Collectors.toList());
 
@@ -114,6 +156,30 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		return handler.call(filteredRequest);
 	}
 
+	/**
+	 * Returns the tools of the request, with their descriptions. The agent node does not
+	 * set the tool names of the request, so the tool callbacks of the options are used
+	 * when there are none.
+	 */
+	private List<ToolCandidate> availableTools(ModelRequest request) {
+		Map<String, String> descriptions = new LinkedHashMap<>();
+		if (request.getOptions() instanceof ToolCallingChatOptions options && options.getToolCallbacks() != null) {
+			for (ToolCallback callback : options.getToolCallbacks()) {
+				descriptions.putIfAbsent(callback.getToolDefinition().name(),
+						callback.getToolDefinition().description());
+			}
+		}
+
+		List<String> toolNames = request.getTools() != null && !request.getTools().isEmpty()
+				? request.getTools()
+				: new ArrayList<>(descriptions.keySet());
+		List<ToolCandidate> tools = new ArrayList<>(toolNames.size());
+		for (String toolName : toolNames) {
+			tools.add(new ToolCandidate(toolName, descriptions.get(toolName)));
+		}
+		return tools;
+	}
+
 	private String findLastUserMessage(List<Message> messages) {
 		for (int i = messages.size() - 1; i >= 0; i--) {
 			Message msg = messages.get(i);
@@ -124,12 +190,53 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		return null;
 	}
 
-	private Set<String> selectTools(List<String> toolNames, String userQuery) {
+	private Set<String> selectTools(List<ToolCandidate> tools, String userQuery) {
+		long fingerprint = fingerprint(tools);
+		SelectionKey key = new SelectionKey(normalize(userQuery), fingerprint);
+		if (selectionCache != null) {
+			Set<String> cached = selectionCache.get(key);
+			if (cached != null) {
+				log.debug("Reusing cached tool selection: {}", cached);
+				return cached;
+			}
+		}
+
+		Set<String> selected = switch (mode) {
+			case MODEL -> selectWithModel(tools, userQuery);
+			case LOCAL -> limit(rank(tools, fingerprint, userQuery, maxTools));
+			case LOCAL_THEN_MODEL -> {
+				List<ToolCandidate> candidates = rank(tools, fingerprint, userQuery, candidateCount);
+				Set<String> modelSelection = selectWithModel(candidates, userQuery);
+				// Without the selection model, the best ranked candidates are still better than all tools
+				yield modelSelection != null ? modelSelection : limit(candidates.subList(0, Math.min(maxTools, candidates.size())));
+			}
+		};
+
+		if (selected == null) {
+			// Failures are not cached, the next step will try again
+			return tools.stream().map(ToolCandidate::name).collect(Collectors.toSet());
+		}
+		selected = Collections.unmodifiableSet(selected);
+		if (selectionCache != null) {
+			selectionCache.put(key, selected);
+		}
+		return selected;
+	}
+
+	/**
+	 * Asks the selection model to pick among the given tools.
+	 * @return the selected tools, or {@code null} if the model call or its answer failed
+	 */
+	private Set<String> selectWithModel(List<ToolCandidate> tools, String userQuery) {
 		try {
 			// Build tool list for prompt
 			StringBuilder toolList = new StringBuilder();
-			for (String toolName : toolNames) {
-				toolList.append("- ").append(toolName).append("\n");
+			for (ToolCandidate tool : tools) {
+				toolList.append("- ").append(tool.name());
+				if (!tool.description().isEmpty()) {
+					toolList.append(": ").append(tool.description());
+				}
+				toolList.append("\n");
 			}
 
 			String maxToolsInstruction = maxTools != null
@@ -149,38 +256,118 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 			var response = selectionModel.call(prompt);
 			String responseText = response.getResult().getOutput().getText();
 
-			// Parse JSON response
-			Set<String> selected = parseToolSelection(responseText);
-
-			// Add always-include tools
-			selected.addAll(alwaysInclude);
-
-			// Limit to maxTools if specified
-			if (maxTools != null && selected.size() > maxTools) {
-				List<String> selectedList = new ArrayList<>(selected);
-				selected = new HashSet<>(selectedList.subList(0, maxTools));
+			// Parse JSON response, ignoring names of tools that are not available
+			Set<String> toolNames = tools.stream().map(ToolCandidate::name).collect(Collectors.toSet());
+			List<ToolCandidate> selected = new ArrayList<>();
+			for (String toolName : parseToolSelection(responseText)) {
+				if (toolNames.contains(toolName)) {
+					selected.add(new ToolCandidate(toolName, null));
+				}
 			}
-
-			return selected;
+			return limit(selected);
 
 		}
 		catch (Exception e) {
 			log.warn("Tool selection failed, using all tools: {}", e.getMessage());
-			return new HashSet<>(toolNames);
+			return null;
 		}
 	}
 
-	private Set<String> parseToolSelection(String responseText) {
-		try {
-			// Try to parse as JSON
-			ToolSelectionResponse response = objectMapper.readValue(responseText, ToolSelectionResponse.class);
-			return new HashSet<>(response.tools);
+	private List<String> parseToolSelection(String responseText) throws Exception {
+		ToolSelectionResponse response = objectMapper.readValue(responseText, ToolSelectionResponse.class);
+		return response.tools != null ? response.tools : List.of();
+	}
+
+	/**
+	 * Adds the always-include tools first, then the given tools, up to maxTools.
+	 */
+	private Set<String> limit(List<ToolCandidate> ranked) {
+		Set<String> selected = new LinkedHashSet<>(alwaysInclude);
+		for (ToolCandidate tool : ranked) {
+			if (maxTools != null && selected.size() >= maxTools) {
+				break;
+			}
+			selected.add(tool.name());
 		}
-		catch (Exception e) {
-			// Fallback: extract tool names from text
-			log.debug("Failed to parse JSON, using fallback extraction");
-			return new HashSet<>();
+		return selected;
+	}
+
+	/**
+	 * Ranks the tools by their BM25 score, normalized to [0, 1], plus the score of the
+	 * tool scorer if any, and returns the best ones.
+	 */
+	private List<ToolCandidate> rank(List<ToolCandidate> tools, long fingerprint, String userQuery, int limit) {
+		// Building an index is cheap, two threads racing on a new tool set both build one
+		Bm25ToolIndex index = indexes.get(fingerprint);
+		if (index == null) {
+			index = new Bm25ToolIndex(tools);
+			indexes.put(fingerprint, index);
+		}
+
+		List<ToolCandidate> indexedTools = index.tools();
+		double[] scores = index.score(userQuery);
+		double maxScore = Arrays.stream(scores).max().orElse(0);
+		if (maxScore > 0) {
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] /= maxScore;
+			}
+		}
+		if (toolScorer != null) {
+			try {
+				double[] scorerScores = toolScorer.score(userQuery, indexedTools);
+				for (int i = 0; i < scores.length && i < scorerScores.length; i++) {
+					scores[i] += scorerScores[i];
+				}
+			}
+			catch (Exception e) {
+				log.warn("Tool scorer failed, ranking tools lexically: {}", e.getMessage());
+			}
+		}
+
+		// The sort is stable, tools with equal scores keep their order
+		List<Integer> order = new ArrayList<>(indexedTools.size());
+		for (int i = 0; i < indexedTools.size(); i++) {
+			order.add(i);
+		}
+		order.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+
+		List<ToolCandidate> ranked = new ArrayList<>(Math.min(limit, order.size()));
+		for (int i = 0; i < order.size() && i < limit; i++) {
+			ranked.add(indexedTools.get(order.get(i)));
+		}
+		return ranked;
+	}
+
+	/**
+	 * Hashes the names and descriptions of the tools, independently of their order.
+	 */
+	private static long fingerprint(List<ToolCandidate> tools) {
+		List<ToolCandidate> sorted = new ArrayList<>(tools);
+		sorted.sort(Comparator.comparing(ToolCandidate::name).thenComparing(ToolCandidate::description));
+		// 64-bit FNV-1a
+		long hash = 0xcbf29ce484222325L;
+		for (ToolCandidate tool : sorted) {
+			for (String part : new String[] { tool.name(), tool.description() }) {
+				for (byte b : part.getBytes(StandardCharsets.UTF_8)) {
+					hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+				}
+				hash = (hash ^ 0xff) * 0x100000001b3L;
+			}
 		}
+		return hash;
+	}
+
+	private static String normalize(String query) {
+		return WHITESPACE.matcher(query.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+	}
+
+	private static <K, V> Map<K, V> lruCache(int maxSize) {
+		return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
 	}
 
 	@Override
@@ -188,6 +375,9 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		return "ToolSelection";
 	}
 
+	private record SelectionKey(String query, long toolSetFingerprint) {
+	}
+
 	private static class ToolSelectionResponse {
 		@JsonProperty("tools")
 		public List<String> tools;
@@ -198,6 +388,10 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		private String systemPrompt = DEFAULT_SYSTEM_PROMPT;
 		private Integer maxTools;
 		private Set<String> alwaysInclude;
+		private ToolSelectionMode mode = ToolSelectionMode.MODEL;
+		private ToolScorer toolScorer;
+		private Integer candidateCount;
+		private int cacheSize = DEFAULT_CACHE_SIZE;
 
 		public Builder selectionModel(ChatModel selectionModel) {
 			this.selectionModel = selectionModel;
@@ -223,14 +417,61 @@ public class ToolSelectionInterceptor extends ModelInterceptor {
 		}
 
 		public Builder alwaysInclude(String... toolNames) {
-			this.alwaysInclude = new HashSet<>(Arrays.asList(toolNames));
+			this.alwaysInclude = new LinkedHashSet<>(Arrays.asList(toolNames));
+			return this;
+		}
+
+		/**
+		 * Sets how tools are selected, {@link ToolSelectionMode#MODEL} by default.
+		 */
+		public Builder mode(ToolSelectionMode mode) {
+			this.mode = mode;
+			return this;
+		}
+
+		/**
+		 * Sets a scorer added to the lexical ranking of the local modes, such as an
+		 * {@link EmbeddingToolScorer}.
+		 */
+		public Builder toolScorer(ToolScorer toolScorer) {
+			this.toolScorer = toolScorer;
+			return this;
+		}
+
+		/**
+		 * Sets the number of best ranked tools the selection model picks from in
+		 * {@link ToolSelectionMode#LOCAL_THEN_MODEL} mode, three times maxTools by default.
+		 */
+		public Builder candidateCount(int candidateCount) {
+			if (candidateCount <= 0) {
+				throw new IllegalArgumentException("candidateCount must be > 0");
+			}
+			this.candidateCount = candidateCount;
+			return this;
+		}
+
+		/**
+		 * Sets the number of selections kept in cache, 256 by default, 0 to disable the
+		 * cache.
+		 */
+		public Builder cacheSize(int cacheSize) {
+			if (cacheSize < 0) {
+				throw new IllegalArgumentException("cacheSize must be >= 0");
+			}
+			this.cacheSize = cacheSize;
 			return this;
 		}
 
 		public ToolSelectionInterceptor build() {
-			if (selectionModel == null) {
+			if (mode == null) {
+				throw new IllegalStateException("mode is required");
+			}
+			if (selectionModel == null && mode != ToolSelectionMode.LOCAL) {
 				throw new IllegalStateException("selectionModel is required");
 			}
+			if (maxTools == null && mode != ToolSelectionMode.MODEL) {
+				throw new IllegalStateException("maxTools is required for local tool selection");
+			}
 			return new ToolSelectionInterceptor(this);
 		}
 	}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptor.toolselection;
+
+/**
+ * How {@link ToolSelectionInterceptor} selects tools.
+ */
+public enum ToolSelectionMode {
+
+	/** The selection model picks the tools among all the available ones */
+	MODEL,
+
+	/** Tools are ranked locally, without calling a model */
+	LOCAL,
+
+	/** Tools are ranked locally, then the selection model picks among the best ranked */
+	LOCAL_THEN_MODEL
+
+}
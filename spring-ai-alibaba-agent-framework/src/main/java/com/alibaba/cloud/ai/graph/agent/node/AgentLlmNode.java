@@ -143,19 +143,22 @@ public class AgentLlmNode implements NodeActionWithConfig {
 			if (state.value("messages").isEmpty()) {
 				throw new IllegalArgumentException("Either 'instruction' or 'includeContents' must be set for Agent.");
 			}
+			// the state list is immutable, the messages are adjusted on a copy for this call
 			@SuppressWarnings("unchecked")
-			List<Message> messages = (List<Message>) state.value("messages").get();
+			List<Message> messages = new ArrayList<>((List<Message>) state.value("messages").get());
             augmentUserMessage(messages, outputSchema);
             escapeBracesForTemplates(messages);
             if (containsTemplatePlaceholders(messages)) {
                 renderTemplatedUserMessage(messages, state.data());
             }
 
-			// Create ModelRequest
+			// Create ModelRequest, flagged as streaming for the interceptors when the flag is defaulted
+			Map<String, Object> context = new HashMap<>(config.metadata().orElse(Map.of()));
+			context.putIfAbsent("_stream_", true);
 			ModelRequest.Builder requestBuilder = ModelRequest.builder()
 					.messages(messages)
 					.options(toolCallingChatOptions)
-					.context(config.metadata().orElse(new HashMap<>()));
+					.context(context);
 			if (StringUtils.hasLength(this.systemPrompt)) {
 				requestBuilder.systemMessage(new SystemMessage(this.systemPrompt));
 			}
@@ -207,8 +210,9 @@ public class AgentLlmNode implements NodeActionWithConfig {
 			if (state.value("messages").isEmpty()) {
 				throw new IllegalArgumentException("Either 'instruction' or 'includeContents' must be set for Agent.");
 			}
+			// the state list is immutable, the messages are adjusted on a copy for this call
 			@SuppressWarnings("unchecked")
-			List<Message> messages = (List<Message>) state.value("messages").get();
+			List<Message> messages = new ArrayList<>((List<Message>) state.value("messages").get());
             augmentUserMessage(messages, outputSchema);
             escapeBracesForTemplates(messages);
             if (containsTemplatePlaceholders(messages)) {
@@ -19,11 +19,13 @@ import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.action.NodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.state.RemoveByHash;
+import com.alibaba.cloud.ai.graph.agent.interceptor.AsyncToolCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolInterceptor;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
 import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallHandler;
 import com.alibaba.cloud.ai.graph.agent.interceptor.InterceptorChain;
+import com.alibaba.cloud.ai.graph.utils.ExecutorUtils;
 
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
@@ -34,11 +36,20 @@ import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.ai.tool.resolution.ToolCallbackResolver;
 
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -63,11 +74,23 @@ public class AgentToolNode implements NodeActionWithConfig {
 
 	private ToolCallbackResolver toolCallbackResolver;
 
+	private final boolean parallelToolExecution;
+
+	private final int maxParallelToolCalls;
+
+	private final Executor toolExecutor;
+
+	private final ToolCallLimiter toolCallLimiter;
+
 	public AgentToolNode(Builder builder) {
 		this.agentName = builder.agentName;
 		this.enableActingLog = builder.enableActingLog;
 		this.toolCallbackResolver = builder.toolCallbackResolver;
 		this.toolCallbacks = builder.toolCallbacks;
+		this.parallelToolExecution = builder.parallelToolExecution;
+		this.maxParallelToolCalls = builder.maxParallelToolCalls;
+		this.toolExecutor = resolveToolExecutor(builder);
+		this.toolCallLimiter = maxParallelToolCalls > 0 ? new ToolCallLimiter(maxParallelToolCalls) : null;
 	}
 
 	public void setToolCallbacks(List<ToolCallback> toolCallbacks) {
@@ -86,6 +109,10 @@ public class AgentToolNode implements NodeActionWithConfig {
 		return toolCallbacks;
 	}
 
+	public boolean isParallelToolExecution() {
+		return parallelToolExecution;
+	}
+
 	@Override
 	public Map<String, Object> apply(OverAllState state, RunnableConfig config) throws Exception {
 		List<Message> messages = (List<Message>) state.value("messages").orElseThrow();
@@ -101,9 +128,7 @@ public class AgentToolNode implements NodeActionWithConfig {
 				logger.info("[ThreadId {}] Agent {} acting with {} tools.", config.threadId().orElse(THREAD_ID_DEFAULT), agentName, assistantMessage.getToolCalls().size());
 			}
 
-			for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
-				// Execute tool call with interceptor chain
-				ToolCallResponse response = executeToolCallWithInterceptors(toolCall, state, config, extraStateFromToolCall);
+			for (ToolCallResponse response : executeToolCalls(assistantMessage.getToolCalls(), state, config, extraStateFromToolCall)) {
 				toolResponses.add(response.toToolResponse());
 			}
 
@@ -134,13 +159,12 @@ public class AgentToolNode implements NodeActionWithConfig {
 				logger.info("[ThreadId {}] Agent {} acting with {} tools ({} tools provided results).", config.threadId().orElse(THREAD_ID_DEFAULT), agentName, assistantMessage.getToolCalls().size(), existingResponses.size());
 			}
 
-			for (AssistantMessage.ToolCall toolCall : assistantMessage.getToolCalls()) {
-				if (executedToolNames.contains(toolCall.name())) {
-					continue;
-				}
+			List<AssistantMessage.ToolCall> pendingToolCalls = assistantMessage.getToolCalls()
+					.stream()
+					.filter(toolCall -> !executedToolNames.contains(toolCall.name()))
+					.toList();
 
-				// Execute tool call with interceptor chain
-				ToolCallResponse response = executeToolCallWithInterceptors(toolCall, state, config, extraStateFromToolCall);
+			for (ToolCallResponse response : executeToolCalls(pendingToolCalls, state, config, extraStateFromToolCall)) {
 				allResponses.add(response.toToolResponse());
 			}
 
@@ -168,6 +192,122 @@ public class AgentToolNode implements NodeActionWithConfig {
 		return updatedState;
 	}
 
+	/**
+	 * Execute the given tool calls, either one after another or concurrently when parallel
+	 * tool execution is enabled. The returned responses are always in the same order as
+	 * the tool calls.
+	 */
+	private List<ToolCallResponse> executeToolCalls(
+			List<AssistantMessage.ToolCall> toolCalls,
+			OverAllState state,
+			RunnableConfig config,
+			Map<String, Object> extraStateFromToolCall) {
+
+		if (!parallelToolExecution || toolCalls.size() < 2) {
+			List<ToolCallResponse> responses = new ArrayList<>(toolCalls.size());
+			for (AssistantMessage.ToolCall toolCall : toolCalls) {
+				// Execute tool call with interceptor chain
+				responses.add(executeToolCallWithInterceptors(toolCall, state, config, extraStateFromToolCall));
+			}
+			return responses;
+		}
+
+		if (enableActingLog) {
+			logger.info("[ThreadId {}] Agent {} executing {} tools in parallel.", config.threadId().orElse(THREAD_ID_DEFAULT), agentName, toolCalls.size());
+		}
+
+		// Each tool call gets its own state update map, so concurrent tools never write to
+		// a shared HashMap. The maps are merged in tool call order afterwards, which gives
+		// the same result as sequential execution when two tools update the same key.
+		List<Map<String, Object>> extraStates = new ArrayList<>(toolCalls.size());
+		List<CompletableFuture<ToolCallResponse>> futures = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < toolCalls.size(); i++) {
+			extraStates.add(new HashMap<>());
+			futures.add(new CompletableFuture<>());
+		}
+
+		// The first failure cancels the other calls: those not started yet never start and
+		// the node fails without waiting for the running ones
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		for (CompletableFuture<ToolCallResponse> future : futures) {
+			future.whenComplete((response, error) -> {
+				if (error != null && !(error instanceof CancellationException) && failure.compareAndSet(null, error)) {
+					futures.forEach(other -> other.cancel(false));
+				}
+			});
+		}
+
+		for (int i = 0; i < toolCalls.size(); i++) {
+			AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+			Map<String, Object> extraState = extraStates.get(i);
+			CompletableFuture<ToolCallResponse> future = futures.get(i);
+			Runnable start = () -> {
+				if (future.isDone()) {
+					releaseToolCall();
+					return;
+				}
+				// The chain is started on the tool executor, as interceptors without an
+				// asynchronous implementation block while waiting for the tool.
+				CompletableFuture
+					.supplyAsync(() -> executeToolCallWithInterceptorsAsync(toolCall, state, config, extraState),
+							toolExecutor)
+					.thenCompose(Function.identity())
+					.whenComplete((response, error) -> {
+						// Completing first lets a failure cancel the pending calls before the
+						// slot passes on to them
+						if (error != null) {
+							future.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+									? error.getCause() : error);
+						}
+						else {
+							future.complete(response);
+						}
+						releaseToolCall();
+					});
+			};
+			if (toolCallLimiter != null) {
+				toolCallLimiter.execute(start);
+			}
+			else {
+				start.run();
+			}
+		}
+
+		try {
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+		}
+		catch (CompletionException | CancellationException e) {
+			Throwable cause = failure.get() != null ? failure.get() : e;
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new CompletionException(cause);
+		}
+
+		List<ToolCallResponse> responses = new ArrayList<>(toolCalls.size());
+		for (int i = 0; i < futures.size(); i++) {
+			responses.add(futures.get(i).join());
+			extraStateFromToolCall.putAll(extraStates.get(i));
+		}
+		return responses;
+	}
+
+	private void releaseToolCall() {
+		if (toolCallLimiter != null) {
+			toolCallLimiter.release();
+		}
+	}
+
+	private static Executor resolveToolExecutor(Builder builder) {
+		if (builder.toolExecutor != null) {
+			return builder.toolExecutor;
+		}
+		if (!builder.parallelToolExecution) {
+			return null;
+		}
+		return builder.virtualThreads ? VirtualThreadExecutorHolder.EXECUTOR : DefaultExecutorHolder.EXECUTOR;
+	}
+
 	/**
 	 * Execute a tool call with interceptor chain support.
 	 */
@@ -177,14 +317,55 @@ public class AgentToolNode implements NodeActionWithConfig {
 			RunnableConfig config,
 			Map<String, Object> extraStateFromToolCall) {
 
-		// Create ToolCallRequest
-		ToolCallRequest request = ToolCallRequest.builder()
+		// Chain interceptors if any
+		ToolCallHandler chainedHandler = InterceptorChain.chainToolInterceptors(
+			toolInterceptors, baseHandler(state, config, extraStateFromToolCall));
+
+		// Execute the chained handler
+		return chainedHandler.call(toolCallRequest(toolCall, config));
+	}
+
+	/**
+	 * Start a tool call with asynchronous interceptor chain support, so interceptors
+	 * waiting between attempts, such as retry with backoff, hold no thread. The tool runs
+	 * on the thread starting the attempt: the tool executor for the first attempt, the
+	 * executor of the retrying interceptor for the next ones, which defaults to the tool
+	 * executor passed along with the request.
+	 */
+	private CompletableFuture<ToolCallResponse> executeToolCallWithInterceptorsAsync(
+			AssistantMessage.ToolCall toolCall,
+			OverAllState state,
+			RunnableConfig config,
+			Map<String, Object> extraStateFromToolCall) {
+
+		ToolCallHandler baseHandler = baseHandler(state, config, extraStateFromToolCall);
+		AsyncToolCallHandler chainedHandler = InterceptorChain.chainToolInterceptorsAsync(toolInterceptors, req -> {
+			try {
+				return CompletableFuture.completedFuture(baseHandler.call(req));
+			}
+			catch (RuntimeException e) {
+				return CompletableFuture.failedFuture(e);
+			}
+		});
+
+		return chainedHandler.call(ToolCallRequest.builder(toolCallRequest(toolCall, config))
+				.executor(toolExecutor)
+				.build());
+	}
+
+	private static ToolCallRequest toolCallRequest(AssistantMessage.ToolCall toolCall, RunnableConfig config) {
+		return ToolCallRequest.builder()
 				.toolCall(toolCall)
 				.context(config.metadata().orElse(new HashMap<>()))
 				.build();
+	}
 
-		// Create base handler that actually executes the tool
-		ToolCallHandler baseHandler = req -> {
+	/**
+	 * Create the base handler that actually executes the tool.
+	 */
+	private ToolCallHandler baseHandler(OverAllState state, RunnableConfig config,
+			Map<String, Object> extraStateFromToolCall) {
+		return req -> {
 			ToolCallback toolCallback = resolve(req.getToolName());
 
 			if (enableActingLog) {
@@ -220,13 +401,6 @@ public class AgentToolNode implements NodeActionWithConfig {
 
 			return ToolCallResponse.of(req.getToolCallId(), req.getToolName(), result);
 		};
-
-		// Chain interceptors if any
-		ToolCallHandler chainedHandler = InterceptorChain.chainToolInterceptors(
-			toolInterceptors, baseHandler);
-
-		// Execute the chained handler
-		return chainedHandler.call(request);
 	}
 
 	private ToolCallback resolve(String toolName) {
@@ -244,6 +418,65 @@ public class AgentToolNode implements NodeActionWithConfig {
 		return new Builder();
 	}
 
+	/**
+	 * Bounds the tool calls of the agent running at the same time, across all its runs.
+	 * Calls over the limit are queued and started by the calls completing, so no thread
+	 * waits for a free slot.
+	 */
+	private static final class ToolCallLimiter {
+
+		private final int maxConcurrency;
+
+		private final Deque<Runnable> pending = new ArrayDeque<>();
+
+		private int running;
+
+		ToolCallLimiter(int maxConcurrency) {
+			this.maxConcurrency = maxConcurrency;
+		}
+
+		/**
+		 * Runs the task now if a slot is free, or once one is. The task must call
+		 * {@link #release()} when its tool call completes.
+		 */
+		void execute(Runnable task) {
+			synchronized (this) {
+				if (running >= maxConcurrency) {
+					pending.addLast(task);
+					return;
+				}
+				running++;
+			}
+			task.run();
+		}
+
+		void release() {
+			Runnable next;
+			synchronized (this) {
+				next = pending.pollFirst();
+				if (next == null) {
+					running--;
+					return;
+				}
+			}
+			// The slot passes on to the oldest pending call
+			next.run();
+		}
+
+	}
+
+	private static class DefaultExecutorHolder {
+
+		private static final ExecutorService EXECUTOR = ExecutorUtils.newDaemonCachedThreadPool("agent-tool-");
+
+	}
+
+	private static class VirtualThreadExecutorHolder {
+
+		private static final ExecutorService EXECUTOR = ExecutorUtils.newVirtualThreadPerTaskExecutor("agent-tool-");
+
+	}
+
 	public static class Builder {
 
 		private String agentName;
@@ -256,6 +489,14 @@ public class AgentToolNode implements NodeActionWithConfig {
 
 		private ToolCallbackResolver toolCallbackResolver;
 
+		private boolean parallelToolExecution;
+
+		private int maxParallelToolCalls;
+
+		private Executor toolExecutor;
+
+		private boolean virtualThreads;
+
 		private Builder() {
 		}
 
@@ -284,6 +525,44 @@ public class AgentToolNode implements NodeActionWithConfig {
 			return this;
 		}
 
+		/**
+		 * Execute the tool calls of one model response concurrently instead of one after
+		 * another. Disabled by default.
+		 */
+		public Builder parallelToolExecution(boolean parallelToolExecution) {
+			this.parallelToolExecution = parallelToolExecution;
+			return this;
+		}
+
+		/**
+		 * Maximum number of tool calls of the agent running at the same time when parallel
+		 * tool execution is enabled, shared by all runs of the agent. Values less than or
+		 * equal to zero mean unbounded.
+		 */
+		public Builder maxParallelToolCalls(int maxParallelToolCalls) {
+			this.maxParallelToolCalls = maxParallelToolCalls;
+			return this;
+		}
+
+		/**
+		 * Executor used for parallel tool execution. When not set, a shared cached pool of
+		 * daemon threads is used, or virtual threads if {@link #virtualThreads(boolean)} is
+		 * enabled.
+		 */
+		public Builder toolExecutor(Executor toolExecutor) {
+			this.toolExecutor = toolExecutor;
+			return this;
+		}
+
+		/**
+		 * Use virtual threads for parallel tool execution when the runtime supports them.
+		 * Ignored if a {@link #toolExecutor(Executor)} is set.
+		 */
+		public Builder virtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+			return this;
+		}
+
 		public AgentToolNode build() {
 			return new AgentToolNode(this);
 		}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.a2a;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class A2aHttpClientPoolTests {
+
+	private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+	private HttpServer server;
+
+	private String url;
+
+	@BeforeEach
+	void startServer() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/agent", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		url = "http://127.0.0.1:" + server.getAddress().getPort() + "/agent";
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void reusesConnectionsAcrossCalls() throws Exception {
+		try (A2aHttpClientPool pool = A2aHttpClientPool.builder().maxConnectionsPerRoute(1).build()) {
+			for (int i = 0; i < 5; i++) {
+				try (CloseableHttpResponse response = pool.httpClient().execute(new HttpGet(url))) {
+					assertEquals("ok", EntityUtils.toString(response.getEntity()));
+				}
+			}
+		}
+
+		// All the calls went through the same connection
+		assertEquals(1, clientPorts.size());
+	}
+
+	@Test
+	void closedPoolRejectsCalls() throws Exception {
+		A2aHttpClientPool pool = A2aHttpClientPool.builder().build();
+		try (CloseableHttpResponse response = pool.httpClient().execute(new HttpGet(url))) {
+			EntityUtils.consume(response.getEntity());
+		}
+
+		pool.close();
+
+		assertThrows(IllegalStateException.class, () -> pool.httpClient().execute(new HttpGet(url)));
+	}
+
+	@Test
+	void sharedPoolIsASingleton() {
+		assertSame(A2aHttpClientPool.shared(), A2aHttpClientPool.shared());
+	}
+
+	@Test
+	void rejectsInvalidLimits() {
+		assertThrows(IllegalArgumentException.class, () -> A2aHttpClientPool.builder().maxConnectionsTotal(0));
+		assertThrows(IllegalArgumentException.class, () -> A2aHttpClientPool.builder().maxConnectionsPerRoute(0));
+		assertThrows(IllegalArgumentException.class, () -> A2aHttpClientPool.builder().maxIdleTime(Duration.ZERO));
+	}
+
+}
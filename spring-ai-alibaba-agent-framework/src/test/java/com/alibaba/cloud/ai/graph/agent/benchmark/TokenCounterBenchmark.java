@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.benchmark;
+
+import com.alibaba.cloud.ai.graph.agent.hook.BpeTokenCounter;
+import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of counting the tokens of large JSON tool outputs of 10 KB to 1 MB with
+ * {@link BpeTokenCounter}, next to the approximate counter, then of counting a history of
+ * such outputs on every model call with and without {@link TokenCounter#memoizing}.
+ *
+ * <p>No vocabulary file is shipped with the tests, so the tokenizer runs on a synthetic
+ * vocabulary holding every byte and the words of the tool outputs, built like a tiktoken
+ * file. The figures show how the cost scales with the size of the outputs rather than
+ * the cost of a given encoding.</p>
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class TokenCounterBenchmark {
+
+	private static final List<String> WORDS = List.of("flight", "price", "airline", "departure", "arrival",
+			"status", "delayed", "scheduled", "Hangzhou", "Beijing", "Shanghai", "China", "Eastern", "Air", "{\"",
+			"\":", "\",\"", "\"}", "},{", "[{", "}]", ",\"", "MU", "CA");
+
+	private static final int BYTES_PER_ITERATION = 4_000_000;
+
+	private static final int HISTORY_SIZE = 50;
+
+	private final BpeTokenCounter counter = BpeTokenCounter.builder()
+		.vocabulary(new ByteArrayInputStream(vocabulary().getBytes(StandardCharsets.US_ASCII)))
+		.build();
+
+	@Test
+	public void countLargeToolOutputs() throws Exception {
+		TokenCounter approximate = TokenCounter.approximateMsgCounter();
+		for (int kilobytes : new int[] { 10, 100, 1_000 }) {
+			String output = toolOutput(kilobytes * 1_000);
+			List<Message> messages = List.of(toolResponse(output));
+			int operations = Math.max(1, BYTES_PER_ITERATION / output.length());
+
+			double bpe = Benchmarks.nanosPerOperation(operations, index -> counter.countTokens(output));
+			double estimate = Benchmarks.nanosPerOperation(operations, index -> approximate.countTokens(messages));
+			String parameters = "output=" + kilobytes + "KB tokens=" + counter.countTokens(output);
+			Benchmarks.report("BpeTokenCounter.countTokens", parameters, bpe);
+			Benchmarks.report("approximateMsgCounter.countTokens", parameters, estimate);
+		}
+	}
+
+	@Test
+	public void countHistoryOnEveryCall() throws Exception {
+		List<Message> history = new ArrayList<>(HISTORY_SIZE * 2);
+		for (int i = 0; i < HISTORY_SIZE; i++) {
+			history.add(new UserMessage("Find the flights of day " + i));
+			history.add(toolResponse(toolOutput(10_000 + i)));
+		}
+		TokenCounter memoizing = TokenCounter.memoizing(counter);
+		assertEquals(counter.countTokens(history), memoizing.countTokens(history));
+
+		double plain = Benchmarks.nanosPerOperation(20, index -> counter.countTokens(history));
+		double memoized = Benchmarks.nanosPerOperation(20, index -> memoizing.countTokens(history));
+		String parameters = "messages=" + history.size();
+		Benchmarks.report("BpeTokenCounter history", parameters, plain);
+		Benchmarks.report("MemoizingTokenCounter history", parameters, memoized);
+
+		// Only the lookup of each message is left once the history has been counted
+		assertTrue(memoized * 10 < plain, "Memoized count took " + memoized + " ns, plain count " + plain + " ns");
+	}
+
+	private static ToolResponseMessage toolResponse(String output) {
+		return new ToolResponseMessage(List.of(new ToolResponseMessage.ToolResponse("call_1", "searchFlights", output)),
+				Map.of());
+	}
+
+	/**
+	 * A JSON array of flight records of at least the given length.
+	 */
+	private static String toolOutput(int length) {
+		StringBuilder output = new StringBuilder("[");
+		for (int i = 0; output.length() < length; i++) {
+			if (i > 0) {
+				output.append(',');
+			}
+			output.append("{\"flight\":\"MU")
+				.append(5100 + i)
+				.append("\",\"airline\":\"China Eastern Air\",\"departure\":\"Hangzhou ")
+				.append(String.format("%02d:%02d", i % 24, i % 60))
+				.append("\",\"arrival\":\"")
+				.append(i % 2 == 0 ? "Beijing" : "Shanghai")
+				.append("\",\"price\":")
+				.append(400 + i % 900)
+				.append(",\"status\":\"")
+				.append(i % 7 == 0 ? "delayed" : "scheduled")
+				.append("\"}");
+		}
+		return output.append(']').toString();
+	}
+
+	/**
+	 * Every single byte, then every prefix of the words so that each word merges into a
+	 * single token.
+	 */
+	private static String vocabulary() {
+		List<String> tokens = new ArrayList<>();
+		for (String word : WORDS) {
+			for (String variant : List.of(word, " " + word)) {
+				for (int end = 2; end <= variant.length(); end++) {
+					String prefix = variant.substring(0, end);
+					if (!tokens.contains(prefix)) {
+						tokens.add(prefix);
+					}
+				}
+			}
+		}
+		StringBuilder vocabulary = new StringBuilder();
+		int rank = 0;
+		for (int b = 0; b < 256; b++) {
+			vocabulary.append(Base64.getEncoder().encodeToString(new byte[] { (byte) b }))
+				.append(' ')
+				.append(rank++)
+				.append('\n');
+		}
+		for (String token : tokens) {
+			vocabulary.append(Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)))
+				.append(' ')
+				.append(rank++)
+				.append('\n');
+		}
+		return vocabulary.toString();
+	}
+
+}
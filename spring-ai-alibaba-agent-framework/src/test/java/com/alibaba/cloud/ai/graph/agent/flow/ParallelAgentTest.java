@@ -58,6 +58,7 @@ class ParallelAgentTest {
 		assertEquals("Processes data through multiple parallel operations", parallelAgent.description());
 		assertEquals(3, parallelAgent.subAgents().size());
 		assertEquals(3, parallelAgent.maxConcurrency());
+		assertEquals(3, parallelAgent.compileConfig().parallelMaxConcurrency());
 		assertTrue(parallelAgent.mergeStrategy() instanceof ParallelAgent.DefaultMergeStrategy);
 	}
 
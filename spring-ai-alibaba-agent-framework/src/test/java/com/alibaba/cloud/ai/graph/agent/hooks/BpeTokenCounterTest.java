@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hooks;
+
+import com.alibaba.cloud.ai.graph.agent.hook.BpeTokenCounter;
+import com.alibaba.cloud.ai.graph.agent.hook.TokenCounter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BpeTokenCounterTest {
+
+	/**
+	 * A tiny vocabulary: every single byte, then merges building "hello" and " world".
+	 */
+	private static String vocabulary() {
+		StringBuilder vocabulary = new StringBuilder();
+		int rank = 0;
+		for (int b = 0; b < 256; b++) {
+			vocabulary.append(Base64.getEncoder().encodeToString(new byte[] { (byte) b }))
+				.append(' ')
+				.append(rank++)
+				.append('\n');
+		}
+		for (String token : List.of("he", "ll", "hell", "hello", " w", "or", " wor", "ld", " world")) {
+			vocabulary.append(Base64.getEncoder().encodeToString(token.getBytes(StandardCharsets.UTF_8)))
+				.append(' ')
+				.append(rank++)
+				.append('\n');
+		}
+		return vocabulary.toString();
+	}
+
+	private static BpeTokenCounter counter(int tokensPerMessage) {
+		return BpeTokenCounter.builder()
+			.vocabulary(new ByteArrayInputStream(vocabulary().getBytes(StandardCharsets.US_ASCII)))
+			.tokensPerMessage(tokensPerMessage)
+			.build();
+	}
+
+	@Test
+	public void mergesBytesByRank() {
+		BpeTokenCounter counter = counter(0);
+
+		assertEquals(2, counter.countTokens("hello world"));
+		// "hell" + "x", ",", " " + "hello"
+		assertEquals(5, counter.countTokens("hellx, hello"));
+		// 3 bytes per char in UTF-8, no merge
+		assertEquals(6, counter.countTokens("中文"));
+		assertEquals(0, counter.countTokens((String) null));
+	}
+
+	@Test
+	public void countsMessagesWithToolCalls(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("test.tiktoken");
+		Files.writeString(file, vocabulary());
+		BpeTokenCounter counter = BpeTokenCounter.builder().vocabulary(file).build();
+
+		List<Message> messages = List.of(new UserMessage("hello world"),
+				new AssistantMessage("", Map.of(),
+						List.of(new AssistantMessage.ToolCall("call_1", "function", "hello", "hello"))),
+				new ToolResponseMessage(List.of(new ToolResponseMessage.ToolResponse("call_1", "hello", "world")),
+						Map.of()));
+
+		// 3 tokens per message, then 2 + (1 + 1) + (1 + 3), "world" being "w" + "or" + "ld"
+		assertEquals(9 + 8, counter.countTokens(messages));
+	}
+
+	@Test
+	public void splitsLongPieces() {
+		BpeTokenCounter counter = counter(0);
+
+		assertEquals(10_000, counter.countTokens("x".repeat(10_000)));
+	}
+
+	@Test
+	public void memoizingCounterCountsEachMessageOnce() {
+		AtomicInteger counted = new AtomicInteger();
+		TokenCounter counter = TokenCounter.memoizing(messages -> {
+			counted.addAndGet(messages.size());
+			return TokenCounter.approximateMsgCounter().countTokens(messages);
+		});
+
+		List<Message> history = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			history.add(new UserMessage("message number " + i));
+			assertEquals(TokenCounter.approximateMsgCounter().countTokens(history), counter.countTokens(history));
+		}
+
+		assertEquals(200, counted.get());
+	}
+
+	@Test
+	public void requiresVocabulary() {
+		assertThrows(IllegalArgumentException.class, () -> BpeTokenCounter.builder().build());
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.hooks.pii;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIDetectionException;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIDetectionHook;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIDetector;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIDetectors;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIMatch;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.PIIType;
+import com.alibaba.cloud.ai.graph.agent.hook.pii.RedactionStrategy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PIIDetectionHookIncrementalTest {
+
+	private final RunnableConfig config = RunnableConfig.builder().build();
+
+	@Test
+	public void combinedDetectorFindsAllTypesInOnePass() {
+		PIIDetector detector = PIIDetectors.combinedDetector(EnumSet.of(PIIType.EMAIL, PIIType.CREDIT_CARD,
+				PIIType.IP, PIIType.MAC_ADDRESS, PIIType.URL));
+
+		String text = "Mail john@example.com, card 4111 1111 1111 1111, host 192.168.1.100, "
+				+ "mac 00:1A:2B:3C:4D:5E, bad ip 999.1.1.1, bad card 1234 5678 9012 3456";
+		List<PIIMatch> matches = detector.detect(text);
+
+		assertEquals(List.of("email", "credit_card", "ip", "mac_address"),
+				matches.stream().map(match -> match.type).toList());
+		assertEquals("4111 1111 1111 1111", matches.get(1).value);
+	}
+
+	@Test
+	public void redactsEveryTypeWithItsOwnLabel() throws Exception {
+		PIIDetectionHook hook = PIIDetectionHook.builder()
+			.piiTypes(PIIType.EMAIL, PIIType.IP)
+			.strategy(RedactionStrategy.REDACT)
+			.build();
+
+		OverAllState state = new OverAllState(
+				Map.of("messages", List.of(new UserMessage("Reach me at john@example.com on 10.0.0.1"))));
+		Map<String, Object> updates = hook.beforeModel(state, config).get();
+
+		List<Message> messages = (List<Message>) updates.get("messages");
+		assertEquals("Reach me at [REDACTED_EMAIL] on [REDACTED_IP]", messages.get(0).getText());
+		assertEquals("PIIDetection[EMAIL,IP]", hook.getName());
+	}
+
+	@Test
+	public void scansOnlyNewMessages() throws Exception {
+		AtomicInteger scanned = new AtomicInteger();
+		PIIDetector emailDetector = PIIDetectors.emailDetector();
+		PIIDetectionHook hook = PIIDetectionHook.builder()
+			.piiType(PIIType.EMAIL)
+			.detector(content -> {
+				scanned.incrementAndGet();
+				return emailDetector.detect(content);
+			})
+			.applyToOutput(true)
+			.build();
+
+		List<Message> messages = new ArrayList<>();
+		messages.add(new UserMessage("My email is john@example.com"));
+		messages.add(new AssistantMessage("Noted."));
+		Map<String, Object> updates = hook.beforeModel(new OverAllState(Map.of("messages", messages)), config).get();
+		assertEquals(2, scanned.get());
+
+		// The next turn holds the redacted message and one new message
+		messages = new ArrayList<>((List<Message>) updates.get("messages"));
+		messages.add(new UserMessage("Anything else?"));
+		updates = hook.beforeModel(new OverAllState(Map.of("messages", messages)), config).get();
+
+		assertEquals(3, scanned.get());
+		assertTrue(updates.isEmpty());
+	}
+
+	@Test
+	public void blockedMessagesAreScannedAgain() {
+		PIIDetectionHook hook = PIIDetectionHook.builder()
+			.piiType(PIIType.EMAIL)
+			.strategy(RedactionStrategy.BLOCK)
+			.build();
+		OverAllState state = new OverAllState(
+				Map.of("messages", List.of(new UserMessage("My email is john@example.com"))));
+
+		assertThrows(PIIDetectionException.class, () -> hook.beforeModel(state, config));
+		assertThrows(PIIDetectionException.class, () -> hook.beforeModel(state, config));
+	}
+
+}
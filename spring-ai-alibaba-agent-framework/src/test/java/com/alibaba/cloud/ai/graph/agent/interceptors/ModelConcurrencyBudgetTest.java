@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.concurrency.ModelConcurrencyBudget;
+
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelConcurrencyBudgetTest {
+
+	@Test
+	void grantsPermitsInRequestOrder() {
+		ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("endpoint", 1);
+
+		CompletableFuture<Void> first = budget.acquire();
+		CompletableFuture<Void> second = budget.acquire();
+		CompletableFuture<Void> third = budget.acquire();
+		assertTrue(first.isDone());
+		assertFalse(second.isDone());
+		assertEquals(2, budget.getQueueLength());
+
+		// A cancelled waiter gives up its place in the queue
+		second.cancel(false);
+		budget.release();
+		assertTrue(third.isDone());
+
+		budget.release();
+		assertTrue(budget.acquire().isDone());
+	}
+
+	@Test
+	void boundsStreamsSharingTheBudget() {
+		ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("endpoint", 2);
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		AtomicInteger queued = new AtomicInteger();
+
+		Flux<Integer> streams = Flux.range(0, 6)
+			.flatMap(i -> budget.withPermit(Flux.just(i)
+				.doOnSubscribe(subscription -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+				.delayElements(Duration.ofMillis(20))
+				// A stream is done for the budget once it signals its termination
+				.doOnTerminate(running::decrementAndGet), queuedNanos -> queued.incrementAndGet()));
+
+		assertEquals(6, streams.collectList().block().size());
+		assertTrue(maxRunning.get() <= 2);
+		assertEquals(6, queued.get());
+		assertEquals(0, budget.getQueueLength());
+	}
+
+	@Test
+	void cancelledStreamsGiveTheirPermitBack() {
+		ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("endpoint", 1);
+
+		Flux<Long> endless = budget.withPermit(Flux.interval(Duration.ofMillis(1)), queuedNanos -> {
+		});
+		assertEquals(3, endless.take(3).collectList().block(Duration.ofSeconds(5)).size());
+
+		// A stream cancelled while waiting leaves the queue
+		CompletableFuture<Void> held = budget.acquire();
+		assertTrue(held.isDone());
+		budget.withPermit(Flux.just(1), queuedNanos -> {
+		}).subscribe().dispose();
+		assertEquals(0, budget.getQueueLength());
+		budget.release();
+		assertTrue(budget.acquire().isDone());
+	}
+
+	@Test
+	void rejectsInvalidBudgets() {
+		assertThrows(IllegalArgumentException.class, () -> ModelConcurrencyBudget.of("endpoint", 0));
+		assertThrows(IllegalArgumentException.class, () -> ModelConcurrencyBudget.of("", 1));
+	}
+
+}
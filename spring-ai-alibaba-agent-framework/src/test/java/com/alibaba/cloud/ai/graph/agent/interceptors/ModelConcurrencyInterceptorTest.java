@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.concurrency.ModelConcurrencyBudget;
+import com.alibaba.cloud.ai.graph.agent.interceptor.concurrency.ModelConcurrencyInterceptor;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelConcurrencyInterceptorTest {
+
+	private static final int MAX_CONCURRENCY = 2;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ModelConcurrencyBudget budget = ModelConcurrencyBudget.of("endpoint", MAX_CONCURRENCY);
+
+	private final ModelConcurrencyInterceptor interceptor = ModelConcurrencyInterceptor.builder()
+		.budget(budget)
+		.agentName("agent")
+		.meterRegistry(meterRegistry)
+		.build();
+
+	private final AtomicInteger running = new AtomicInteger();
+
+	private final AtomicInteger maxRunning = new AtomicInteger();
+
+	private static ModelRequest request(boolean stream) {
+		return ModelRequest.builder().messages(List.of()).context(Map.of("_stream_", stream)).build();
+	}
+
+	@Test
+	void capsBlockingCalls() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(6);
+		try {
+			List<Future<ModelResponse>> responses = new ArrayList<>();
+			for (int i = 0; i < 6; i++) {
+				responses.add(executor.submit(() -> interceptor.interceptModel(request(false), request -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					try {
+						Thread.sleep(50);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					finally {
+						running.decrementAndGet();
+					}
+					return ModelResponse.of(new AssistantMessage("ok"));
+				})));
+			}
+			for (Future<ModelResponse> response : responses) {
+				response.get(10, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(MAX_CONCURRENCY, maxRunning.get());
+		assertEquals(6, queuedCalls());
+		assertEquals(0, budget.getQueueLength());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void capsStreamingCallsWithOnePermitEach() {
+		List<Flux<ChatResponse>> streams = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			// Creating the streams takes no permit and does not wait
+			ModelResponse response = interceptor.interceptModel(request(true), request -> ModelResponse.of(Flux
+				.just(new ChatResponse(List.of(new Generation(new AssistantMessage("ok")))))
+				.doOnSubscribe(subscription -> maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+				.delayElements(Duration.ofMillis(20))
+				// A stream is done for the budget once it signals its termination
+				.doOnTerminate(running::decrementAndGet)));
+			streams.add((Flux<ChatResponse>) assertInstanceOf(Flux.class, response.getMessage()));
+		}
+		assertEquals(0, queuedCalls());
+
+		List<ChatResponse> chatResponses = Flux.merge(streams).collectList().block(Duration.ofSeconds(10));
+
+		assertEquals(6, chatResponses.size());
+		assertTrue(maxRunning.get() <= MAX_CONCURRENCY);
+		// One queueing time per call, not one per permit request
+		assertEquals(6, queuedCalls());
+		assertEquals(0, budget.getQueueLength());
+	}
+
+	@Test
+	void runsCallsWithoutStreamFlagUnderAPermit() throws Exception {
+		ModelRequest unflagged = ModelRequest.builder().messages(List.of()).build();
+		budget.acquire().get();
+		budget.acquire().get();
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ModelResponse> response = executor.submit(() -> interceptor.interceptModel(unflagged, request -> {
+				running.incrementAndGet();
+				return ModelResponse.of(new AssistantMessage("ok"));
+			}));
+			// The handler may call the model, so it waits for a permit like a blocking call
+			Thread.sleep(50);
+			assertEquals(0, running.get());
+			assertEquals(1, budget.getQueueLength());
+
+			budget.release();
+			response.get(10, TimeUnit.SECONDS);
+		}
+		finally {
+			executor.shutdownNow();
+			budget.release();
+		}
+
+		assertEquals(1, running.get());
+		assertEquals(1, queuedCalls());
+		assertEquals(0, budget.getQueueLength());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void streamsWithoutStreamFlagRequestTheirOwnPermit() {
+		ModelRequest unflagged = ModelRequest.builder().messages(List.of()).build();
+		ModelResponse response = interceptor.interceptModel(unflagged, request -> ModelResponse.of(Flux
+			.just(new ChatResponse(List.of(new Generation(new AssistantMessage("ok")))))
+			.doOnSubscribe(subscription -> running.incrementAndGet())));
+		Flux<ChatResponse> stream = (Flux<ChatResponse>) assertInstanceOf(Flux.class, response.getMessage());
+		// The permit taken to create the stream is already given back
+		assertEquals(0, queuedCalls());
+
+		budget.acquire();
+		budget.acquire();
+		stream.subscribe();
+		assertEquals(0, running.get());
+		assertEquals(1, budget.getQueueLength());
+
+		budget.release();
+		assertEquals(1, running.get());
+		assertEquals(1, queuedCalls());
+		budget.release();
+	}
+
+	private long queuedCalls() {
+		Timer timer = meterRegistry.find("spring.ai.alibaba.agent.model.call.queue.duration").timer();
+		return timer != null ? timer.count() : 0;
+	}
+
+}
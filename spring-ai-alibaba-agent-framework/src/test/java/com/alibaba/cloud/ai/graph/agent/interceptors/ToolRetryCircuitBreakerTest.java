@@ -0,0 +1,163 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ToolCallResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolCircuitBreaker;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolCircuitOpenException;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolRetryBudget;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolRetryInterceptor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolRetryCircuitBreakerTest {
+
+	private static ToolCallRequest request() {
+		return ToolCallRequest.builder().toolName("flaky_tool").arguments("{}").toolCallId("call_1").build();
+	}
+
+	@Test
+	void retriesAsynchronouslyOnTimer() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		ToolRetryInterceptor interceptor = ToolRetryInterceptor.builder()
+				.maxRetries(3)
+				.initialDelay(20)
+				.jitter(false)
+				.build();
+
+		CompletableFuture<ToolCallResponse> response = interceptor.interceptToolCallAsync(request(), request -> {
+			if (attempts.incrementAndGet() < 3) {
+				return CompletableFuture.failedFuture(new IllegalStateException("unavailable"));
+			}
+			return CompletableFuture.completedFuture(
+					ToolCallResponse.of(request.getToolCallId(), request.getToolName(), "ok"));
+		});
+
+		// The first attempt failed and the retry is waiting on the timer, not on this thread
+		assertFalse(response.isDone());
+		assertEquals("ok", response.get(5, TimeUnit.SECONDS).getResult());
+		assertEquals(3, attempts.get());
+	}
+
+	@Test
+	void openCircuitFailsFastThenProbes() throws Exception {
+		ToolCircuitBreaker circuitBreaker = ToolCircuitBreaker.builder()
+				.failureThreshold(2)
+				.openDuration(Duration.ofMillis(100))
+				.build();
+		ToolRetryInterceptor interceptor = ToolRetryInterceptor.builder()
+				.maxRetries(0)
+				.circuitBreaker(circuitBreaker)
+				.build();
+		AtomicInteger calls = new AtomicInteger();
+		AtomicInteger failures = new AtomicInteger(2);
+
+		for (int i = 0; i < 3; i++) {
+			interceptor.interceptToolCall(request(), request -> {
+				calls.incrementAndGet();
+				if (failures.getAndDecrement() > 0) {
+					throw new IllegalStateException("unavailable");
+				}
+				return ToolCallResponse.of(request.getToolCallId(), request.getToolName(), "ok");
+			});
+		}
+		// The third call was rejected without calling the tool
+		assertEquals(2, calls.get());
+		assertEquals(ToolCircuitBreaker.State.OPEN, circuitBreaker.getState("flaky_tool"));
+
+		Thread.sleep(150);
+		assertEquals(ToolCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState("flaky_tool"));
+		ToolCallResponse response = interceptor.interceptToolCall(request(),
+				request -> ToolCallResponse.of(request.getToolCallId(), request.getToolName(), "ok"));
+		assertEquals("ok", response.getResult());
+		assertEquals(ToolCircuitBreaker.State.CLOSED, circuitBreaker.getState("flaky_tool"));
+	}
+
+	@Test
+	void halfOpenCircuitLetsOneProbeThrough() throws Exception {
+		ToolCircuitBreaker circuitBreaker = ToolCircuitBreaker.builder()
+				.failureThreshold(1)
+				.openDuration(Duration.ZERO)
+				.build();
+		circuitBreaker.onFailure("flaky_tool");
+
+		assertTrue(circuitBreaker.tryAcquire("flaky_tool"));
+		assertFalse(circuitBreaker.tryAcquire("flaky_tool"));
+		circuitBreaker.release("flaky_tool");
+		assertTrue(circuitBreaker.tryAcquire("flaky_tool"));
+	}
+
+	@Test
+	void raisesWhenCircuitIsOpen() {
+		ToolCircuitBreaker circuitBreaker = ToolCircuitBreaker.builder()
+				.failureThreshold(1)
+				.openDuration(Duration.ofMinutes(1))
+				.build();
+		circuitBreaker.onFailure("flaky_tool");
+		ToolRetryInterceptor interceptor = ToolRetryInterceptor.builder()
+				.circuitBreaker(circuitBreaker)
+				.onFailure(ToolRetryInterceptor.OnFailureBehavior.RAISE)
+				.build();
+
+		assertThrows(ToolCircuitOpenException.class, () -> interceptor.interceptToolCall(request(),
+				request -> ToolCallResponse.of(request.getToolCallId(), request.getToolName(), "ok")));
+	}
+
+	@Test
+	void retryBudgetIsSharedAcrossCalls() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ToolRetryInterceptor interceptor = ToolRetryInterceptor.builder()
+				.maxRetries(3)
+				.initialDelay(0)
+				.retryBudget(ToolRetryBudget.of(1, Duration.ofMinutes(1)))
+				.meterRegistry(meterRegistry)
+				.build();
+		AtomicInteger calls = new AtomicInteger();
+
+		for (int i = 0; i < 2; i++) {
+			ToolCallResponse response = interceptor.interceptToolCall(request(), request -> {
+				calls.incrementAndGet();
+				throw new IllegalStateException("unavailable");
+			});
+			assertTrue(response.getResult().startsWith("Tool call failed"));
+		}
+
+		// One retry for the first call, none for the second
+		assertEquals(3, calls.get());
+		assertEquals(1.0, meterRegistry.get("spring.ai.alibaba.agent.tool.retry")
+				.tag("spring.ai.alibaba.agent.tool.retry.outcome", "retried")
+				.counter()
+				.count());
+		assertEquals(2.0, meterRegistry.get("spring.ai.alibaba.agent.tool.retry")
+				.tag("spring.ai.alibaba.agent.tool.retry.outcome", "budget_exhausted")
+				.counter()
+				.count());
+	}
+
+}
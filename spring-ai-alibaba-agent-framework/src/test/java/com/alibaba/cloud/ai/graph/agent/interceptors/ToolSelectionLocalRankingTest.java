@@ -0,0 +1,184 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.interceptors;
+
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelRequest;
+import com.alibaba.cloud.ai.graph.agent.interceptor.ModelResponse;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolselection.ToolSelectionInterceptor;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolselection.ToolSelectionMode;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolSelectionLocalRankingTest {
+
+	private static final List<ToolCallback> TOOLS = List.of(
+			tool("get_weather", "Get the weather forecast for a city"),
+			tool("search_flights", "Search flights between two airports"),
+			tool("send_email", "Send an email message"),
+			tool("book_hotel", "Book a hotel room"),
+			tool("create_calendar_event", "Create an event in the calendar"));
+
+	private static ToolCallback tool(String name, String description) {
+		return FunctionToolCallback.builder(name, (Function<String, String>) input -> name)
+				.description(description)
+				.inputType(String.class)
+				.build();
+	}
+
+	private static ModelRequest request(String query, List<ToolCallback> tools) {
+		return ModelRequest.builder()
+				.messages(List.of(new UserMessage(query)))
+				.options(ToolCallingChatOptions.builder().toolCallbacks(tools).build())
+				.context(Map.of())
+				.build();
+	}
+
+	private static List<String> selectedTools(ToolSelectionInterceptor interceptor, ModelRequest request) {
+		AtomicReference<List<String>> selected = new AtomicReference<>();
+		interceptor.interceptModel(request, filteredRequest -> {
+			selected.set(filteredRequest.getTools());
+			return ModelResponse.of(new AssistantMessage("done"));
+		});
+		return selected.get();
+	}
+
+	private static ChatModel selectionModel(String answer, AtomicInteger calls, List<String> prompts) {
+		return new ChatModel() {
+			@Override
+			public ChatResponse call(Prompt prompt) {
+				calls.incrementAndGet();
+				prompts.add(prompt.getContents());
+				return new ChatResponse(List.of(new Generation(new AssistantMessage(answer))));
+			}
+		};
+	}
+
+	@Test
+	void localModeSelectsRelevantToolsWithoutModel() {
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.mode(ToolSelectionMode.LOCAL)
+				.maxTools(2)
+				.build();
+
+		assertEquals(List.of("search_flights", "book_hotel"),
+				selectedTools(interceptor, request("Find me flights from Paris to Berlin and a hotel", TOOLS)));
+	}
+
+	@Test
+	void alwaysIncludedToolsTakePrecedence() {
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.mode(ToolSelectionMode.LOCAL)
+				.maxTools(2)
+				.alwaysInclude("send_email")
+				.build();
+
+		// The always-included tool takes one of the two slots, the best ranked tool the other
+		assertEquals(List.of("search_flights", "send_email"),
+				selectedTools(interceptor, request("Find me flights from Paris to Berlin", TOOLS)));
+	}
+
+	@Test
+	void functionWordsDoNotRankTools() {
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.mode(ToolSelectionMode.LOCAL)
+				.maxTools(1)
+				.build();
+
+		// "a" would otherwise match "Book a hotel room", no tool matches so the first one is kept
+		assertEquals(List.of("get_weather"), selectedTools(interceptor, request("I need a ride", TOOLS)));
+	}
+
+	@Test
+	void cachesSelectionsByQueryAndToolSet() {
+		AtomicInteger calls = new AtomicInteger();
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.selectionModel(selectionModel("{\"tools\": [\"get_weather\"]}", calls, new ArrayList<>()))
+				.maxTools(2)
+				.build();
+
+		assertEquals(List.of("get_weather"), selectedTools(interceptor, request("Weather in Hangzhou?", TOOLS)));
+		assertEquals(List.of("get_weather"), selectedTools(interceptor, request("  weather in   HANGZHOU? ", TOOLS)));
+		assertEquals(1, calls.get());
+
+		// Another tool set is another selection
+		selectedTools(interceptor, request("Weather in Hangzhou?", TOOLS.subList(0, 4)));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void doesNotCacheFailedSelections() {
+		AtomicInteger calls = new AtomicInteger();
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.selectionModel(selectionModel("not json", calls, new ArrayList<>()))
+				.maxTools(2)
+				.build();
+
+		assertEquals(TOOLS.size(), selectedTools(interceptor, request("Weather in Hangzhou?", TOOLS)).size());
+		selectedTools(interceptor, request("Weather in Hangzhou?", TOOLS));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void modelPicksAmongBestRankedCandidates() {
+		AtomicInteger calls = new AtomicInteger();
+		List<String> prompts = new ArrayList<>();
+		ToolSelectionInterceptor interceptor = ToolSelectionInterceptor.builder()
+				.selectionModel(selectionModel("{\"tools\": [\"book_hotel\", \"send_email\"]}", calls, prompts))
+				.mode(ToolSelectionMode.LOCAL_THEN_MODEL)
+				.maxTools(1)
+				.candidateCount(2)
+				.build();
+
+		assertEquals(List.of("book_hotel"),
+				selectedTools(interceptor, request("Find me flights from Paris to Berlin and a hotel", TOOLS)));
+		String prompt = prompts.get(0);
+		assertTrue(prompt.contains("search_flights: Search flights between two airports"));
+		assertTrue(prompt.contains("book_hotel"));
+		assertFalse(prompt.contains("send_email"));
+	}
+
+	@Test
+	void rejectsIncompleteConfigurations() {
+		assertThrows(IllegalStateException.class,
+				() -> ToolSelectionInterceptor.builder().mode(ToolSelectionMode.LOCAL).build());
+		assertThrows(IllegalStateException.class,
+				() -> ToolSelectionInterceptor.builder().mode(ToolSelectionMode.LOCAL_THEN_MODEL).maxTools(2).build());
+		assertThrows(IllegalArgumentException.class, () -> ToolSelectionInterceptor.builder().cacheSize(-1));
+	}
+
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.agent.node;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.agent.interceptor.toolretry.ToolRetryInterceptor;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.function.FunctionToolCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import static com.alibaba.cloud.ai.graph.agent.tools.ToolContextConstants.AGENT_STATE_FOR_UPDATE_CONTEXT_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AgentToolNodeTest {
+
+	@Test
+	void parallelExecutionKeepsResponseOrderAndMergesState() throws Exception {
+		int toolCount = 4;
+		CountDownLatch allStarted = new CountDownLatch(toolCount);
+		List<ToolCallback> tools = new ArrayList<>();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < toolCount; i++) {
+			String name = "tool_" + i;
+			tools.add(FunctionToolCallback.builder(name, (String input, ToolContext context) -> {
+				allStarted.countDown();
+				try {
+					// every tool waits for all others, which only succeeds when they run concurrently
+					assertTrue(allStarted.await(5, TimeUnit.SECONDS));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				@SuppressWarnings("unchecked")
+				Map<String, Object> update = (Map<String, Object>) context.getContext()
+					.get(AGENT_STATE_FOR_UPDATE_CONTEXT_KEY);
+				update.put(name, input);
+				return name + " done";
+			}).description("test tool").inputType(String.class).build());
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", name, "\"" + i + "\""));
+		}
+
+		AgentToolNode toolNode = AgentToolNode.builder()
+			.agentName("test_agent")
+			.toolCallbacks(tools)
+			.parallelToolExecution(true)
+			.build();
+
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+		Map<String, Object> result = toolNode.apply(new OverAllState(data), RunnableConfig.builder().build());
+
+		ToolResponseMessage responseMessage = (ToolResponseMessage) result.get("messages");
+		assertEquals(toolCount, responseMessage.getResponses().size());
+		for (int i = 0; i < toolCount; i++) {
+			assertEquals("call_" + i, responseMessage.getResponses().get(i).id());
+			assertTrue(result.containsKey("tool_" + i));
+		}
+	}
+
+	@Test
+	void maxParallelToolCallsBoundsConcurrency() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		ToolCallback tool = FunctionToolCallback.builder("slow_tool", (String input, ToolContext context) -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+			return input;
+		}).description("slow tool").inputType(String.class).build();
+		for (int i = 0; i < 6; i++) {
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", "slow_tool", "\"" + i + "\""));
+		}
+
+		AgentToolNode toolNode = AgentToolNode.builder()
+			.agentName("test_agent")
+			.toolCallbacks(List.of(tool))
+			.parallelToolExecution(true)
+			.maxParallelToolCalls(2)
+			.build();
+
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+		Map<String, Object> result = toolNode.apply(new OverAllState(data), RunnableConfig.builder().build());
+
+		assertEquals(6, ((ToolResponseMessage) result.get("messages")).getResponses().size());
+		assertTrue(maxRunning.get() <= 2);
+	}
+
+	@Test
+	void maxParallelToolCallsIsSharedByConcurrentRuns() throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		ToolCallback tool = FunctionToolCallback.builder("slow_tool", (String input, ToolContext context) -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(30);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			running.decrementAndGet();
+			return input;
+		}).description("slow tool").inputType(String.class).build();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", "slow_tool", "\"" + i + "\""));
+		}
+
+		AgentToolNode toolNode = AgentToolNode.builder()
+			.agentName("test_agent")
+			.toolCallbacks(List.of(tool))
+			.parallelToolExecution(true)
+			.maxParallelToolCalls(2)
+			.build();
+
+		ExecutorService runs = Executors.newFixedThreadPool(3);
+		try {
+			List<Future<Map<String, Object>>> results = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				results.add(runs.submit(() -> {
+					Map<String, Object> data = new HashMap<>();
+					data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+					return toolNode.apply(new OverAllState(data), RunnableConfig.builder().build());
+				}));
+			}
+			for (Future<Map<String, Object>> result : results) {
+				assertEquals(3, ((ToolResponseMessage) result.get(10, TimeUnit.SECONDS).get("messages")).getResponses()
+					.size());
+			}
+		}
+		finally {
+			runs.shutdownNow();
+		}
+
+		assertEquals(2, maxRunning.get());
+	}
+
+	@Test
+	void failedToolCallCancelsPendingOnes() {
+		AtomicInteger started = new AtomicInteger();
+		ToolCallback tool = FunctionToolCallback.builder("failing_tool", (String input, ToolContext context) -> {
+			started.incrementAndGet();
+			throw new IllegalStateException("failed " + input);
+		}).description("failing tool").inputType(String.class).build();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", "failing_tool", "\"" + i + "\""));
+		}
+
+		AgentToolNode toolNode = AgentToolNode.builder()
+			.agentName("test_agent")
+			.toolCallbacks(List.of(tool))
+			.parallelToolExecution(true)
+			.maxParallelToolCalls(1)
+			.build();
+
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+		RuntimeException error = assertThrows(RuntimeException.class,
+				() -> toolNode.apply(new OverAllState(data), RunnableConfig.builder().build()));
+
+		assertTrue(error.getMessage().contains("failed 0"));
+		// The calls queued behind the failed one never started
+		assertEquals(1, started.get());
+	}
+
+	@Test
+	void parallelExecutionRetriesAsynchronously() throws Exception {
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+		ToolCallback tool = FunctionToolCallback.builder("flaky_tool", (String input, ToolContext context) -> {
+			if (attempts.computeIfAbsent(input, key -> new AtomicInteger()).incrementAndGet() < 2) {
+				throw new IllegalStateException("unavailable");
+			}
+			return input;
+		}).description("flaky tool").inputType(String.class).build();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", "flaky_tool", "\"" + i + "\""));
+		}
+		AtomicInteger scheduledRetries = new AtomicInteger();
+		Executor retryExecutor = command -> {
+			scheduledRetries.incrementAndGet();
+			command.run();
+		};
+
+		AgentToolNode toolNode = AgentToolNode.builder()
+			.agentName("test_agent")
+			.toolCallbacks(List.of(tool))
+			.parallelToolExecution(true)
+			.build();
+		toolNode.setToolInterceptors(List.of(ToolRetryInterceptor.builder()
+			.maxRetries(2)
+			.initialDelay(10)
+			.jitter(false)
+			.retryExecutor(retryExecutor)
+			.build()));
+
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+		Map<String, Object> result = toolNode.apply(new OverAllState(data), RunnableConfig.builder().build());
+
+		ToolResponseMessage responseMessage = (ToolResponseMessage) result.get("messages");
+		assertEquals(3, responseMessage.getResponses().size());
+		for (int i = 0; i < 3; i++) {
+			assertEquals("call_" + i, responseMessage.getResponses().get(i).id());
+			assertEquals(2, attempts.get(String.valueOf(i)).get());
+		}
+		// Retries went through the timer of the asynchronous path
+		assertEquals(3, scheduledRetries.get());
+	}
+
+	@Test
+	void parallelRetriesRunOnTheToolExecutor() throws Exception {
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+		List<String> threads = new CopyOnWriteArrayList<>();
+		ToolCallback tool = FunctionToolCallback.builder("flaky_tool", (String input, ToolContext context) -> {
+			threads.add(Thread.currentThread().getName());
+			if (attempts.computeIfAbsent(input, key -> new AtomicInteger()).incrementAndGet() < 2) {
+				throw new IllegalStateException("unavailable");
+			}
+			return input;
+		}).description("flaky tool").inputType(String.class).build();
+		List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			toolCalls.add(new AssistantMessage.ToolCall("call_" + i, "function", "flaky_tool", "\"" + i + "\""));
+		}
+		ExecutorService toolExecutor = Executors.newFixedThreadPool(2, runnable -> new Thread(runnable, "agent-tools"));
+
+		try {
+			AgentToolNode toolNode = AgentToolNode.builder()
+				.agentName("test_agent")
+				.toolCallbacks(List.of(tool))
+				.parallelToolExecution(true)
+				.toolExecutor(toolExecutor)
+				.build();
+			toolNode.setToolInterceptors(List.of(ToolRetryInterceptor.builder()
+				.maxRetries(2)
+				.initialDelay(10)
+				.jitter(false)
+				.build()));
+
+			Map<String, Object> data = new HashMap<>();
+			data.put("messages", List.of(new UserMessage("hi"), new AssistantMessage("", Map.of(), toolCalls)));
+			toolNode.apply(new OverAllState(data), RunnableConfig.builder().build());
+		}
+		finally {
+			toolExecutor.shutdownNow();
+		}
+
+		// Two first attempts and two retries, none of them on the common pool
+		assertEquals(List.of("agent-tools", "agent-tools", "agent-tools", "agent-tools"), threads);
+	}
+
+}
@@ -21,11 +21,13 @@ import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
 import com.alibaba.cloud.ai.graph.store.Store;
 import io.micrometer.observation.ObservationRegistry;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.stream.Collectors;
 
@@ -56,6 +58,22 @@ public class CompileConfig {
 
 	private int recursionLimit = 100;
 
+	private boolean deltaCheckpoints = false;
+
+	private int fullCheckpointInterval = 10;
+
+	private Executor parallelExecutor;
+
+	private boolean parallelVirtualThreads = false;
+
+	private int parallelMaxConcurrency = 0;
+
+	private Duration parallelBranchTimeout;
+
+	private boolean parallelFailFast = false;
+
+	private boolean streamParallelBranches = false;
+
 	// ================================================================================================================
 	// Getter Methods
 	// ================================================================================================================
@@ -64,6 +82,79 @@ public class CompileConfig {
 		return recursionLimit;
 	}
 
+	/**
+	 * Whether checkpoints only store the state changed since the previous checkpoint.
+	 * @see com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas
+	 * @return true if delta checkpoints are enabled
+	 */
+	public boolean deltaCheckpoints() {
+		return deltaCheckpoints;
+	}
+
+	/**
+	 * Returns the number of checkpoints between two full checkpoints when delta
+	 * checkpoints are enabled.
+	 * @return the full checkpoint interval
+	 */
+	public int fullCheckpointInterval() {
+		return fullCheckpointInterval;
+	}
+
+	/**
+	 * Returns the executor running the branches of parallel nodes when no executor is
+	 * registered for the node in the {@link RunnableConfig}.
+	 * @see RunnableConfig.Builder#addParallelNodeExecutor(String, Executor)
+	 * @return the default parallel executor, or null to use
+	 * {@link #parallelVirtualThreads()} or the calling thread
+	 */
+	public Executor parallelExecutor() {
+		return parallelExecutor;
+	}
+
+	/**
+	 * Whether the branches of parallel nodes run on virtual threads when no executor is
+	 * configured. Platform daemon threads are used on runtimes without virtual threads.
+	 * @return true if parallel branches default to virtual threads
+	 */
+	public boolean parallelVirtualThreads() {
+		return parallelVirtualThreads;
+	}
+
+	/**
+	 * Returns the maximum number of branches of a parallel node running at the same time.
+	 * @return the maximum concurrency, 0 meaning unbounded
+	 */
+	public int parallelMaxConcurrency() {
+		return parallelMaxConcurrency;
+	}
+
+	/**
+	 * Returns the time a single branch of a parallel node may take before it fails with a
+	 * {@link java.util.concurrent.TimeoutException}.
+	 * @return the branch timeout, or null if branches never time out
+	 */
+	public Duration parallelBranchTimeout() {
+		return parallelBranchTimeout;
+	}
+
+	/**
+	 * Whether a parallel node fails as soon as one of its branches fails, instead of
+	 * waiting for all branches and reporting every failure.
+	 * @return true if parallel nodes fail fast
+	 */
+	public boolean parallelFailFast() {
+		return parallelFailFast;
+	}
+
+	/**
+	 * Whether each branch of a parallel node emits its own output as soon as it completes,
+	 * before the results of all branches are merged.
+	 * @return true if branch outputs are streamed
+	 */
+	public boolean streamParallelBranches() {
+		return streamParallelBranches;
+	}
+
 	/**
 	 * Returns the current state of the thread release flag.
 	 *
@@ -196,6 +287,116 @@ public class CompileConfig {
 			return this;
 		}
 
+		/**
+		 * Sets whether checkpoints only store the state changed since the previous
+		 * checkpoint of the same run, instead of a full copy of the state. A full
+		 * checkpoint is still written every {@link #fullCheckpointInterval(int)}
+		 * checkpoints. Checkpoint savers resolve delta checkpoints to the full state on
+		 * read.
+		 * @param deltaCheckpoints Flag indicating whether to write delta checkpoints.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder deltaCheckpoints(boolean deltaCheckpoints) {
+			this.config.deltaCheckpoints = deltaCheckpoints;
+			return this;
+		}
+
+		/**
+		 * Sets the number of checkpoints between two full checkpoints when delta
+		 * checkpoints are enabled. Shorter intervals make resolving a checkpoint cheaper,
+		 * longer ones write less data.
+		 * @param fullCheckpointInterval the full checkpoint interval, must be > 0
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder fullCheckpointInterval(int fullCheckpointInterval) {
+			if (fullCheckpointInterval <= 0) {
+				throw new IllegalArgumentException("fullCheckpointInterval must be > 0!");
+			}
+			this.config.fullCheckpointInterval = fullCheckpointInterval;
+			return this;
+		}
+
+		/**
+		 * Sets the executor running the branches of parallel nodes. An executor
+		 * registered for a node through
+		 * {@link RunnableConfig.Builder#addParallelNodeExecutor(String, Executor)} takes
+		 * precedence.
+		 * @param parallelExecutor the default parallel executor, or null
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder parallelExecutor(Executor parallelExecutor) {
+			this.config.parallelExecutor = parallelExecutor;
+			return this;
+		}
+
+		/**
+		 * Sets whether the branches of parallel nodes run on virtual threads when no
+		 * executor is configured. Otherwise they run one after the other on the calling
+		 * thread.
+		 * @param parallelVirtualThreads Flag indicating whether to use virtual threads.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder parallelVirtualThreads(boolean parallelVirtualThreads) {
+			this.config.parallelVirtualThreads = parallelVirtualThreads;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of branches of a parallel node running at the same
+		 * time. Further branches start as running ones complete.
+		 * @param parallelMaxConcurrency the maximum concurrency, 0 for unbounded
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder parallelMaxConcurrency(int parallelMaxConcurrency) {
+			if (parallelMaxConcurrency < 0) {
+				throw new IllegalArgumentException("parallelMaxConcurrency must be >= 0!");
+			}
+			this.config.parallelMaxConcurrency = parallelMaxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Sets the time a single branch of a parallel node may take. The timed out work is
+		 * not interrupted: a branch running on the calling thread that overruns fails once
+		 * it returns, while a branch running on an executor fails as soon as the time is
+		 * up.
+		 * @param parallelBranchTimeout the branch timeout, or null for none
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder parallelBranchTimeout(Duration parallelBranchTimeout) {
+			if (parallelBranchTimeout != null
+					&& (parallelBranchTimeout.isZero() || parallelBranchTimeout.isNegative())) {
+				throw new IllegalArgumentException("parallelBranchTimeout must be > 0!");
+			}
+			this.config.parallelBranchTimeout = parallelBranchTimeout;
+			return this;
+		}
+
+		/**
+		 * Sets whether a parallel node fails as soon as one of its branches fails. Pending
+		 * branches are then not started. By default the node waits for all branches and
+		 * reports the first failure with the others attached as suppressed exceptions.
+		 * @param parallelFailFast Flag indicating whether parallel nodes fail fast.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder parallelFailFast(boolean parallelFailFast) {
+			this.config.parallelFailFast = parallelFailFast;
+			return this;
+		}
+
+		/**
+		 * Sets whether each branch of a parallel node emits an output as soon as it
+		 * completes. The output carries the branch id and the current state merged with
+		 * the update of that branch only; the graph state is still updated once, after
+		 * all branches completed, in declaration order.
+		 * @param streamParallelBranches Flag indicating whether to stream branch outputs.
+		 * @return This builder instance for method chaining.
+		 */
+		public Builder streamParallelBranches(boolean streamParallelBranches) {
+			this.config.streamParallelBranches = streamParallelBranches;
+			return this;
+		}
+
 		/**
 		 * Sets the observation registry for monitoring and tracing.
 		 * @param observationRegistry The ObservationRegistry to use.
@@ -332,6 +533,15 @@ public class CompileConfig {
 		this.observationRegistry = config.observationRegistry;
 		this.interruptBeforeEdge = config.interruptBeforeEdge;
 		this.store = config.store;
+		this.deltaCheckpoints = config.deltaCheckpoints;
+		this.fullCheckpointInterval = config.fullCheckpointInterval;
+		this.recursionLimit = config.recursionLimit;
+		this.parallelExecutor = config.parallelExecutor;
+		this.parallelVirtualThreads = config.parallelVirtualThreads;
+		this.parallelMaxConcurrency = config.parallelMaxConcurrency;
+		this.parallelBranchTimeout = config.parallelBranchTimeout;
+		this.parallelFailFast = config.parallelFailFast;
+		this.streamParallelBranches = config.streamParallelBranches;
 	}
 
 }
@@ -38,6 +38,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -79,6 +80,16 @@ public class CompiledGraph {
 	 */
 	final Map<String, Node.ActionFactory> nodeFactories = new LinkedHashMap<>();
 
+	/**
+	 * The scope of the actions created by the node factories.
+	 */
+	final Map<String, Node.ActionScope> nodeActionScopes = new HashMap<>();
+
+	/**
+	 * The actions of the {@link Node.ActionScope#SINGLETON} nodes, created on first use.
+	 */
+	private final Map<String, AsyncNodeActionWithConfig> singletonActions = new ConcurrentHashMap<>();
+
 	/**
 	 * The Edges.
 	 */
@@ -132,6 +143,7 @@ public class CompiledGraph {
 			var factory = n.actionFactory();
 			Objects.requireNonNull(factory, format("action factory for node id '%s' is null!", n.id()));
 			nodeFactories.put(n.id(), factory);
+			nodeActionScopes.put(n.id(), n.actionScope());
 		}
 
 		// EVALUATE EDGES
@@ -186,6 +198,7 @@ public class CompiledGraph {
 			var parallelNode = new ParallelNode(e.sourceId(), actions, actionNodeIds, keyStrategyMap, compileConfig);
 
 				nodeFactories.put(parallelNode.id(), parallelNode.actionFactory());
+				nodeActionScopes.put(parallelNode.id(), parallelNode.actionScope());
 
 				edges.put(e.sourceId(), new EdgeValue(parallelNode.id()));
 
@@ -248,9 +261,12 @@ public class CompiledGraph {
 		BaseCheckpointSaver saver = compileConfig.checkpointSaver()
 			.orElseThrow(() -> (new IllegalStateException("Missing CheckpointSaver!")));
 
-		// merge values with checkpoint values
+		// merge values with checkpoint values. With delta checkpoints the replaced
+		// checkpoint keeps its id, as later deltas refer to it as their parent; it is
+		// stored as a full checkpoint since the saver returns the resolved state
+		boolean keepId = compileConfig.deltaCheckpoints() && config.checkPointId().isPresent();
 		Checkpoint branchCheckpoint = saver.get(config)
-			.map(Checkpoint::copyOf)
+			.map(cp -> keepId ? cp : Checkpoint.copyOf(cp))
 			.map(cp -> cp.updateState(values, keyStrategyMap))
 			.orElseThrow(() -> (new IllegalStateException("Missing Checkpoint!")));
 
@@ -389,9 +405,28 @@ public class CompiledGraph {
 	}
 
 	/**
-	 * Package-private access to nodes for ReactiveNodeGenerator.
+	 * Package-private access to nodes for ReactiveNodeGenerator. Actions of
+	 * {@link Node.ActionScope#SINGLETON} nodes are created once and shared, any other
+	 * action is created on each call.
 	 */
 	public AsyncNodeActionWithConfig getNodeAction(String nodeId) {
+		if (nodeActionScopes.get(nodeId) == Node.ActionScope.SINGLETON) {
+			AsyncNodeActionWithConfig action = singletonActions.get(nodeId);
+			return action != null ? action : singletonActions.computeIfAbsent(nodeId, this::createNodeAction);
+		}
+		return createNodeAction(nodeId);
+	}
+
+	/**
+	 * Returns the scope of the actions of a node.
+	 * @param nodeId the node id
+	 * @return the action scope, or null if the node does not exist
+	 */
+	public Node.ActionScope getNodeActionScope(String nodeId) {
+		return nodeActionScopes.get(nodeId);
+	}
+
+	private AsyncNodeActionWithConfig createNodeAction(String nodeId) {
 		Node.ActionFactory factory = nodeFactories.get(nodeId);
 		try {
 			return factory != null ? factory.apply(compileConfig) : null;
@@ -56,6 +56,19 @@ public interface GraphLifecycleListener {
 	default void after(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
 	}
 
+	/**
+	 * Callback triggered once for each branch of a parallel node, with the time it waited
+	 * before starting. Branches wait for a free slot when
+	 * {@link CompileConfig#parallelMaxConcurrency()} is set. A branch is reported once its
+	 * result is known, or, when it returns a stream, when its stream is subscribed.
+	 * @param nodeId The unique identifier of the parallel node.
+	 * @param branchNodeId The unique identifier of the branch.
+	 * @param config The configuration associated with the runnable task.
+	 * @param queuedNanos The time the branch waited before starting, in nanoseconds.
+	 */
+	default void onParallelBranchStart(String nodeId, String branchNodeId, RunnableConfig config, long queuedNanos) {
+	}
+
 	/**
 	 * Callback triggered when an error occurs during the execution of a graph node.
 	 * @param nodeId The unique identifier of the node where the error occurred.
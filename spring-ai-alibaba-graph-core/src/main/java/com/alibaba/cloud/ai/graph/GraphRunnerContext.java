@@ -18,14 +18,21 @@ package com.alibaba.cloud.ai.graph;
 import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltaTracker;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
+import com.alibaba.cloud.ai.graph.internal.node.Node;
 import com.alibaba.cloud.ai.graph.internal.node.SubCompiledGraphNodeAction;
+import com.alibaba.cloud.ai.graph.observation.checkpoint.GraphCheckpointObservationContext;
 import com.alibaba.cloud.ai.graph.state.StateSnapshot;
 import com.alibaba.cloud.ai.graph.streaming.GraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.alibaba.cloud.ai.graph.utils.SystemClock;
 import com.alibaba.cloud.ai.graph.utils.TypeRef;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.metadata.Usage;
 
@@ -36,6 +43,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
@@ -76,16 +86,32 @@ public class GraphRunnerContext {
 
 	ReturnFromEmbed returnFromEmbed;
 
+	/**
+	 * Set when the current step asks for the next one, see {@link #requestNextStep()}.
+	 */
+	private final AtomicBoolean nextStepRequested = new AtomicBoolean();
+
+	final CheckpointDeltaTracker checkpointDeltaTracker;
+
+	/**
+	 * Actions of the {@link Node.ActionScope#PER_RUN} nodes, reused by every step of this
+	 * run.
+	 */
+	private final Map<String, AsyncNodeActionWithConfig> runActions = new ConcurrentHashMap<>();
+
 	public GraphRunnerContext(OverAllState initialState, RunnableConfig config, CompiledGraph compiledGraph)
 			throws Exception {
 		this.compiledGraph = compiledGraph;
 		this.config = config;
+		this.checkpointDeltaTracker = compiledGraph.compileConfig.deltaCheckpoints()
+				? new CheckpointDeltaTracker(compiledGraph.compileConfig.fullCheckpointInterval()) : null;
 
 		if (config.metadata(RunnableConfig.HUMAN_FEEDBACK_METADATA_KEY).isPresent()) {
 			initializeFromResume(initialState, config);
 		} else {
 			initializeFromStart(initialState, config);
 		}
+		this.config = this.config.withRunId(UUID.randomUUID().toString());
 	}
 
 	private void initializeFromResume(OverAllState initialState, RunnableConfig config) {
@@ -184,6 +210,10 @@ public class GraphRunnerContext {
 	// ================================================================================================================
 
 	public AsyncNodeActionWithConfig getNodeAction(String nodeId) {
+		if (compiledGraph.getNodeActionScope(nodeId) == Node.ActionScope.PER_RUN) {
+			AsyncNodeActionWithConfig action = runActions.get(nodeId);
+			return action != null ? action : runActions.computeIfAbsent(nodeId, compiledGraph::getNodeAction);
+		}
 		return compiledGraph.getNodeAction(nodeId);
 	}
 
@@ -223,20 +253,70 @@ public class GraphRunnerContext {
 
 	public Optional<Checkpoint> addCheckpoint(String nodeId, String nextNodeId) throws Exception {
 		if (compiledGraph.compileConfig.checkpointSaver().isPresent()) {
-			var cp = Checkpoint.builder().nodeId(nodeId).state(cloneState(overallState.data())).nextNodeId(nextNodeId).build();
-			compiledGraph.compileConfig.checkpointSaver().get().put(config, cp);
+			Checkpoint cp;
+			if (checkpointDeltaTracker != null) {
+				cp = checkpointDeltaTracker.next(nodeId, nextNodeId, overallState.data(), data -> cloneState(data).data());
+			}
+			else {
+				cp = Checkpoint.builder().nodeId(nodeId).state(cloneState(overallState.data())).nextNodeId(nextNodeId).build();
+			}
+			saveCheckpoint(nodeId, cp);
 			return Optional.of(cp);
 		}
 		return Optional.empty();
 	}
 
+	/**
+	 * Writes a checkpoint to the saver, observed as a {@link GraphCheckpointObservationContext}
+	 * unless the observation registry of the graph is a no-op.
+	 */
+	private void saveCheckpoint(String nodeId, Checkpoint checkpoint) throws Exception {
+		var saver = compiledGraph.compileConfig.checkpointSaver().get();
+		ObservationRegistry observationRegistry = compiledGraph.compileConfig.observationRegistry();
+		if (observationRegistry == null || observationRegistry.isNoop()) {
+			saver.put(config, checkpoint);
+			return;
+		}
+		int stateSize = overallState.data().size();
+		Observation observation = Observation
+			.createNotStarted(GraphCheckpointObservationContext.NAME,
+					() -> new GraphCheckpointObservationContext(nodeId, stateSize), observationRegistry)
+			.start();
+		try {
+			saver.put(config, checkpoint);
+		}
+		catch (Exception e) {
+			observation.error(e);
+			throw e;
+		}
+		finally {
+			observation.stop();
+		}
+	}
+
+	/**
+	 * Snapshots streamed to the caller always carry the full state, even when the saved
+	 * checkpoint is a delta.
+	 */
+	private Checkpoint fullCheckpoint(Checkpoint checkpoint) throws Exception {
+		if (!CheckpointDeltas.isDelta(checkpoint)) {
+			return checkpoint;
+		}
+		return Checkpoint.builder()
+			.id(checkpoint.getId())
+			.nodeId(checkpoint.getNodeId())
+			.nextNodeId(checkpoint.getNextNodeId())
+			.state(cloneState(overallState.data()))
+			.build();
+	}
+
 	// ================================================================================================================
 	// Output Building Methods
 	// ================================================================================================================
 
 	public NodeOutput buildOutput(String nodeId, Optional<Checkpoint> checkpoint) throws Exception {
 		if (checkpoint.isPresent() && config.streamMode() == CompiledGraph.StreamMode.SNAPSHOTS) {
-			return StateSnapshot.of(getKeyStrategyMap(), checkpoint.get(), config,
+			return StateSnapshot.of(getKeyStrategyMap(), fullCheckpoint(checkpoint.get()), config,
 					compiledGraph.stateGraph.getStateSerializer().stateFactory());
 		}
 		return buildNodeOutput(nodeId);
@@ -292,6 +372,21 @@ public class GraphRunnerContext {
 		);
 	}
 
+	/**
+	 * Builds the output of a single branch of a parallel node: a snapshot of the current
+	 * state merged with the update of that branch only, using the key strategies of the
+	 * graph. The snapshot shares the unchanged values with the state of the run, which is
+	 * not changed.
+	 * @param branchNodeId the id of the branch node
+	 * @param branchUpdate the update produced by the branch
+	 * @return the branch output
+	 */
+	public NodeOutput buildBranchOutput(String branchNodeId, Map<String, Object> branchUpdate) throws Exception {
+		OverAllState branchState = this.overallState.snapShot().orElseThrow();
+		branchState.updateStateWithKeyStrategies(branchUpdate, getKeyStrategyMap());
+		return NodeOutput.of(branchNodeId, (String) config.metadata("_AGENT_").orElse(""), branchState, this.tokenUsage);
+	}
+
 	public OverAllState cloneState(Map<String, Object> data) throws Exception {
 		return compiledGraph.cloneState(data);
 	}
@@ -327,6 +422,23 @@ public class GraphRunnerContext {
 		}
 	}
 
+	/**
+	 * Notifies the lifecycle listeners that a branch of the current parallel node
+	 * started.
+	 * @param branchNodeId the id of the branch
+	 * @param queuedNanos the time the branch waited before starting, in nanoseconds
+	 */
+	public void doParallelBranchListeners(String branchNodeId, long queuedNanos) {
+		for (GraphLifecycleListener listener : compiledGraph.compileConfig.lifecycleListeners()) {
+			try {
+				listener.onParallelBranchStart(getCurrentNodeId(), branchNodeId, config, queuedNanos);
+			}
+			catch (Exception ex) {
+				log.error("Error in listener", ex);
+			}
+		}
+	}
+
 	/**
 	 * This method updates both the current state data and the overall state.
 	 *
@@ -425,6 +537,21 @@ public class GraphRunnerContext {
 		return result;
 	}
 
+	/**
+	 * Asks for the next step of the run to be executed once the current step completes.
+	 */
+	public void requestNextStep() {
+		nextStepRequested.set(true);
+	}
+
+	/**
+	 * Returns whether the completed step asked for a next step, and clears the request.
+	 * @return true if the next step has to be executed
+	 */
+	public boolean pollNextStep() {
+		return nextStepRequested.getAndSet(false);
+	}
+
 	public void setReturnFromEmbedWithValue(Object value) {
 		returnFromEmbed = new ReturnFromEmbed(value);
 	}
@@ -447,7 +574,7 @@ public class GraphRunnerContext {
 
 	public NodeOutput buildOutput(String nodeId, Map<String, Object> updateStates, Optional<Checkpoint> checkpoint) throws Exception {
 		if (checkpoint.isPresent() && config.streamMode() == CompiledGraph.StreamMode.SNAPSHOTS) {
-			return StateSnapshot.of(getKeyStrategyMap(), checkpoint.get(), config,
+			return StateSnapshot.of(getKeyStrategyMap(), fullCheckpoint(checkpoint.get()), config,
 					compiledGraph.stateGraph.getStateSerializer().stateFactory());
 		}
 		return buildNodeOutput(nodeId, updateStates);
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph;
 
+import com.alibaba.cloud.ai.graph.state.PersistentStateMap;
 import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import com.alibaba.cloud.ai.graph.store.Store;
 import org.springframework.ai.util.json.JsonParser;
@@ -51,7 +52,10 @@ import static java.util.Optional.ofNullable;
  * <li><strong>Resume Mode:</strong> Supports a resume flag indicating whether the state
  * is used for resuming execution.</li>
  * <li><strong>Immutable Views:</strong> Provides unmodifiable views of data and
- * strategies via {@link #data()} and {@link #keyStrategies()}.</li>
+ * strategies via {@link #data()} and {@link #keyStrategies()}. The list values of keys
+ * managed by {@link com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy} are
+ * immutable as well, since they are shared with snapshots and checkpoints; copy them
+ * before modifying, and return the changes as a node update.</li>
  * <li><strong>Snapshots:</strong> Allows creating snapshots of the current state via
  * {@link #snapShot()}.</li>
  * <li><strong>Human Feedback:</strong> Supports integration of human feedback and
@@ -79,9 +83,10 @@ public final class OverAllState implements Serializable {
 
 	/**
 	 * Internal map storing the actual state data. All get/set operations on state values
-	 * go through this map.
+	 * go through this map. Its persistent backing map lets snapshots share the data
+	 * instead of copying it.
 	 */
-	private final Map<String, Object> data;
+	private final PersistentStateMap data;
 
 	/**
 	 * Mapping of keys to their respective update strategies. Determines how values for
@@ -113,7 +118,7 @@ public final class OverAllState implements Serializable {
 	 */
 	public Optional<OverAllState> snapShot() {
 		return Optional
-			.of(new OverAllState(new HashMap<>(this.data), new HashMap<>(this.keyStrategies), this.store));
+			.of(new OverAllState(this.data.snapshot(), new HashMap<>(this.keyStrategies), this.store));
 	}
 
 	/**
@@ -121,7 +126,7 @@ public final class OverAllState implements Serializable {
 	 * @param data the data
 	 */
 	public OverAllState(Map<String, Object> data) {
-		this.data = data != null ? new HashMap<>(data) : new HashMap<>();
+		this.data = new PersistentStateMap(data);
 		this.keyStrategies = new HashMap<>();
 	}
 
@@ -131,7 +136,7 @@ public final class OverAllState implements Serializable {
 	 * @param store the store instance
 	 */
 	public OverAllState(Map<String, Object> data, Store store) {
-		this.data = data != null ? new HashMap<>(data) : new HashMap<>();
+		this.data = new PersistentStateMap(data);
 		this.keyStrategies = new HashMap<>();
 		this.store = store;
 	}
@@ -140,7 +145,7 @@ public final class OverAllState implements Serializable {
 	 * Instantiates a new Over all state.
 	 */
 	public OverAllState() {
-		this.data = new HashMap<>();
+		this.data = new PersistentStateMap();
 		this.keyStrategies = new HashMap<>();
 		this.registerKeyAndStrategy(OverAllState.DEFAULT_INPUT_KEY, new ReplaceStrategy());
 	}
@@ -150,7 +155,7 @@ public final class OverAllState implements Serializable {
 	 * @param store the store instance
 	 */
 	public OverAllState(Store store) {
-		this.data = new HashMap<>();
+		this.data = new PersistentStateMap();
 		this.keyStrategies = new HashMap<>();
 		this.registerKeyAndStrategy(OverAllState.DEFAULT_INPUT_KEY, new ReplaceStrategy());
 		this.store = store;
@@ -162,7 +167,7 @@ public final class OverAllState implements Serializable {
 	 * @param keyStrategies the key strategies
 	 */
 	protected OverAllState(Map<String, Object> data, Map<String, KeyStrategy> keyStrategies) {
-		this.data = data != null ? data : new HashMap<>();
+		this.data = new PersistentStateMap(data);
 		this.keyStrategies = keyStrategies != null ? keyStrategies : new HashMap<>();
 		this.registerKeyAndStrategy(OverAllState.DEFAULT_INPUT_KEY, new ReplaceStrategy());
 	}
@@ -175,7 +180,7 @@ public final class OverAllState implements Serializable {
 	 */
 	protected OverAllState(Map<String, Object> data, Map<String, KeyStrategy> keyStrategies,
 			Store store) {
-		this.data = data != null ? data : new HashMap<>();
+		this.data = new PersistentStateMap(data);
 		this.keyStrategies = keyStrategies != null ? keyStrategies : new HashMap<>();
 		this.registerKeyAndStrategy(OverAllState.DEFAULT_INPUT_KEY, new ReplaceStrategy());
 		this.store = store;
@@ -200,7 +205,7 @@ public final class OverAllState implements Serializable {
 		this.keyStrategies.clear();
 		this.keyStrategies.putAll(overAllState.keyStrategies());
 		this.data.clear();
-		this.data.putAll(overAllState.data());
+		this.data.putAll(overAllState.data);
 		this.store = overAllState.store;
 	}
 
@@ -358,7 +363,8 @@ public final class OverAllState implements Serializable {
 			return state;
 		}
 
-		Map<String, Object> result = new HashMap<>(state);
+		Map<String, Object> result = state instanceof PersistentStateMap stateMap ? stateMap.snapshot()
+				: new HashMap<>(state);
 		for (Map.Entry<String, Object> entry : partialState.entrySet()) {
 			if (entry.getValue() == MARK_FOR_REMOVAL) {
 				result.remove(entry.getKey());
@@ -476,7 +482,9 @@ public final class OverAllState implements Serializable {
 	}
 
 	/**
-	 * Value optional.
+	 * Value optional. List values of keys managed by
+	 * {@link com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy} are immutable, their
+	 * mutators throw {@link UnsupportedOperationException}.
 	 * @param <T> the type parameter
 	 * @param key the key
 	 * @return the optional
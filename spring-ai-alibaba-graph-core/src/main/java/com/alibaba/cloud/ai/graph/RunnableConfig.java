@@ -48,6 +48,8 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 
 	private final String nextNode;
 
+	private final String runId;
+
 	private final CompiledGraph.StreamMode streamMode;
 
 	// Metadata is immutable during execution, it is used for environment information provided for a specific run.
@@ -72,6 +74,7 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 		this.threadId = builder.threadId;
 		this.checkPointId = builder.checkPointId;
 		this.nextNode = builder.nextNode;
+		this.runId = builder.runId;
 		this.streamMode = builder.streamMode;
 		this.metadata = ofNullable(builder.metadata()).map(Map::copyOf).orElse(null);
 		this.interruptedNodes = new ConcurrentHashMap<>();
@@ -79,6 +82,25 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 		this.context = builder.context;
 	}
 
+	/**
+	 * Creates a copy of {@code config} bound to another run. The copy shares the context
+	 * and the interrupted nodes of {@code config}, so changes made during the run stay
+	 * visible through the original configuration.
+	 * @param config the configuration to copy
+	 * @param runId the identifier of the run
+	 */
+	private RunnableConfig(RunnableConfig config, String runId) {
+		this.threadId = config.threadId;
+		this.checkPointId = config.checkPointId;
+		this.nextNode = config.nextNode;
+		this.runId = runId;
+		this.streamMode = config.streamMode;
+		this.metadata = config.metadata;
+		this.interruptedNodes = config.interruptedNodes;
+		this.store = config.store;
+		this.context = config.context;
+	}
+
 	public Store store() {
 		return this.store;
 	}
@@ -118,6 +140,17 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 		return ofNullable(nextNode);
 	}
 
+	/**
+	 * Returns the identifier of the graph run this configuration is bound to. Every
+	 * execution of a compiled graph gets its own run id, so it tells apart concurrent
+	 * runs sharing the same thread ID.
+	 * @return the run ID wrapped in an {@code Optional}, or an empty {@code Optional} if
+	 * the configuration is not bound to a run.
+	 */
+	public Optional<String> runId() {
+		return ofNullable(runId);
+	}
+
 	/**
 	 * Checks if a node is marked as interrupted in the metadata.
 	 * @param nodeId the ID of the node to check for interruption status
@@ -188,6 +221,19 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 
 	}
 
+	/**
+	 * Binds the configuration to a graph run.
+	 * @param runId the identifier of the run
+	 * @return a new instance of {@code RunnableConfig} sharing the context of this one,
+	 * or the current instance if it is already bound to {@code runId}.
+	 */
+	public RunnableConfig withRunId(String runId) {
+		if (Objects.equals(this.runId, runId)) {
+			return this;
+		}
+		return new RunnableConfig(this, runId);
+	}
+
 	/**
 	 * Retrieves interrupt data associated with the specified key.
 	 * @param key the key for which to retrieve interrupt data; may be null
@@ -227,8 +273,8 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 
 	@Override
 	public String toString() {
-		return format("RunnableConfig{ threadId=%s, checkPointId=%s, nextNode=%s, streamMode=%s }", threadId,
-				checkPointId, nextNode, streamMode);
+		return format("RunnableConfig{ threadId=%s, checkPointId=%s, nextNode=%s, runId=%s, streamMode=%s }",
+				threadId, checkPointId, nextNode, runId, streamMode);
 	}
 
 	/**
@@ -261,6 +307,8 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 
 		private String nextNode;
 
+		private String runId;
+
 		private Store store;
 
 		private Map<String, Object> context;
@@ -286,6 +334,7 @@ public final class RunnableConfig implements HasMetadata<RunnableConfig.Builder>
 			this.threadId = config.threadId;
 			this.checkPointId = config.checkPointId;
 			this.nextNode = config.nextNode;
+			this.runId = config.runId;
 			this.streamMode = config.streamMode;
 			this.store = config.store;
 			this.context = new ConcurrentHashMap<>(config.context);
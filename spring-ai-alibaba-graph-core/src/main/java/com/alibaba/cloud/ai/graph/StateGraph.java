@@ -31,6 +31,7 @@ import com.alibaba.cloud.ai.graph.internal.node.Node;
 import com.alibaba.cloud.ai.graph.internal.node.SubCompiledGraphNode;
 import com.alibaba.cloud.ai.graph.internal.node.SubStateGraphNode;
 import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.PlainTextStateSerializer;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
 import com.alibaba.cloud.ai.graph.serializer.std.SpringAIStateSerializer;
@@ -170,6 +171,30 @@ public class StateGraph {
 		this.stateSerializer = stateSerializer;
 	}
 
+	/**
+	 * Constructs a StateGraph with the specified name, key strategy factory, and binary
+	 * state serializer.
+	 * @param name the name of the graph
+	 * @param keyStrategyFactory the factory for providing key strategies
+	 * @param stateSerializer the binary state serializer to use
+	 */
+	public StateGraph(String name, KeyStrategyFactory keyStrategyFactory, BinaryStateSerializer stateSerializer) {
+		this.name = name;
+		this.keyStrategyFactory = keyStrategyFactory;
+		this.stateSerializer = stateSerializer;
+	}
+
+	/**
+	 * Constructs a StateGraph with the specified key strategy factory and binary state
+	 * serializer.
+	 * @param keyStrategyFactory the factory for providing key strategies
+	 * @param stateSerializer the binary state serializer to use
+	 */
+	public StateGraph(KeyStrategyFactory keyStrategyFactory, BinaryStateSerializer stateSerializer) {
+		this.keyStrategyFactory = keyStrategyFactory;
+		this.stateSerializer = stateSerializer;
+	}
+
 	public StateGraph(String name, KeyStrategyFactory keyStrategyFactory) {
 		this.name = name;
 		this.keyStrategyFactory = keyStrategyFactory;
@@ -247,10 +272,24 @@ public class StateGraph {
 	 * exists
 	 */
 	public StateGraph addNode(String id, AsyncNodeActionWithConfig actionWithConfig) throws GraphStateException {
-		Node node = new Node(id, (config) -> actionWithConfig);
+		Node node = new Node(id, (config) -> actionWithConfig, Node.ActionScope.SINGLETON);
 		return addNode(id, node);
 	}
 
+	/**
+	 * Adds a node whose actions are created by the given factory.
+	 * @param id the identifier of the node
+	 * @param actionFactory the factory creating the actions of the node
+	 * @param actionScope how long a created action is reused
+	 * @return this state graph instance
+	 * @throws GraphStateException if the node identifier is invalid or the node already
+	 * exists
+	 */
+	public StateGraph addNode(String id, Node.ActionFactory actionFactory, Node.ActionScope actionScope)
+			throws GraphStateException {
+		return addNode(id, new Node(id, actionFactory, actionScope));
+	}
+
 	/**
 	 * Adds a node to the graph with the specified identifier and node instance.
 	 * @param id the identifier of the node
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.state.strategy.AppendedList;
+import com.alibaba.cloud.ai.graph.utils.TryFunction;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas.APPENDED_KEYS;
+import static com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas.DELTA_METADATA_KEY;
+import static com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas.PARENT_ID;
+import static com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas.REMOVED_KEYS;
+
+/**
+ * Builds the checkpoints of a single graph run, writing a full checkpoint every
+ * {@code fullCheckpointInterval} checkpoints and delta checkpoints in between.
+ * <p>
+ * The tracker keeps references to the state values of the last checkpoint, so a delta
+ * is computed without cloning the whole state. Strings, numbers, booleans, characters and
+ * enums are left out of a delta when equal to their previous value. List values are
+ * stored as their appended tail when the previous elements are unchanged, which is the
+ * common case for {@code messages} managed by an append strategy. Lists that may be
+ * modified in place are remembered as a shallow copy of their elements, so a replaced
+ * element is detected even when the list instance is the same; the immutable lists of
+ * the append strategy are remembered as they are. Any other value is always stored when
+ * present, since it may have been modified in place.
+ * </p>
+ * <p>
+ * Instances are not thread safe and are meant to be owned by one graph run.
+ * </p>
+ */
+public class CheckpointDeltaTracker {
+
+	private final int fullCheckpointInterval;
+
+	/**
+	 * The values of the last checkpoint, lists being immutable or shallow copies.
+	 */
+	private Map<String, Object> lastValues;
+
+	private String lastCheckpointId;
+
+	private int deltasSinceFullCheckpoint;
+
+	/**
+	 * @param fullCheckpointInterval number of checkpoints between two full checkpoints,
+	 * values less than or equal to one disable delta checkpoints
+	 */
+	public CheckpointDeltaTracker(int fullCheckpointInterval) {
+		this.fullCheckpointInterval = fullCheckpointInterval;
+	}
+
+	/**
+	 * Creates the next checkpoint for the given state.
+	 * @param nodeId the node id
+	 * @param nextNodeId the next node id
+	 * @param state the current live state, which is not modified
+	 * @param cloner creates a deep copy of a state map, used for the stored values
+	 * @return the new full or delta checkpoint
+	 * @throws Exception if cloning fails
+	 */
+	public Checkpoint next(String nodeId, String nextNodeId, Map<String, Object> state,
+			TryFunction<Map<String, Object>, Map<String, Object>, Exception> cloner) throws Exception {
+
+		Checkpoint checkpoint;
+		if (lastCheckpointId == null || deltasSinceFullCheckpoint + 1 >= fullCheckpointInterval) {
+			checkpoint = Checkpoint.builder().nodeId(nodeId).nextNodeId(nextNodeId).state(cloner.tryApply(state)).build();
+			deltasSinceFullCheckpoint = 0;
+		}
+		else {
+			checkpoint = Checkpoint.builder()
+				.nodeId(nodeId)
+				.nextNodeId(nextNodeId)
+				.state(cloner.tryApply(diff(state)))
+				.build();
+			deltasSinceFullCheckpoint++;
+		}
+		remember(checkpoint.getId(), state);
+		return checkpoint;
+	}
+
+	/**
+	 * Forgets the last checkpoint, so the next one is a full checkpoint.
+	 */
+	public void reset() {
+		lastCheckpointId = null;
+		lastValues = null;
+		deltasSinceFullCheckpoint = 0;
+	}
+
+	private Map<String, Object> diff(Map<String, Object> state) {
+		Map<String, Object> delta = new HashMap<>();
+		List<String> appendedKeys = new ArrayList<>();
+		List<String> removedKeys = new ArrayList<>();
+
+		for (Map.Entry<String, Object> entry : state.entrySet()) {
+			String key = entry.getKey();
+			Object value = entry.getValue();
+			if (!lastValues.containsKey(key)) {
+				delta.put(key, value);
+				continue;
+			}
+			Object previous = lastValues.get(key);
+			if (value instanceof List<?> list) {
+				if (previous instanceof List<?> previousList && isAppendOnly(previousList, list)) {
+					if (list.size() > previousList.size()) {
+						delta.put(key, new ArrayList<>(list.subList(previousList.size(), list.size())));
+						appendedKeys.add(key);
+					}
+					continue;
+				}
+				delta.put(key, value);
+			}
+			else if (!lastValues.containsKey(key) || !isImmutable(value) || !Objects.equals(value, previous)) {
+				delta.put(key, value);
+			}
+		}
+		for (String key : lastValues.keySet()) {
+			if (!state.containsKey(key)) {
+				removedKeys.add(key);
+			}
+		}
+
+		Map<String, Object> metadata = new HashMap<>();
+		metadata.put(PARENT_ID, lastCheckpointId);
+		metadata.put(APPENDED_KEYS, appendedKeys);
+		metadata.put(REMOVED_KEYS, removedKeys);
+		delta.put(DELTA_METADATA_KEY, metadata);
+		return delta;
+	}
+
+	private static boolean isImmutable(Object value) {
+		return value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+				|| value instanceof Enum<?> || value instanceof Integer || value instanceof Long
+				|| value instanceof Double || value instanceof Float || value instanceof Short || value instanceof Byte
+				|| value instanceof BigDecimal || value instanceof BigInteger;
+	}
+
+	/**
+	 * Whether the current list starts with the same elements as the remembered one. The
+	 * remembered list cannot have changed since, so the same instance is unchanged.
+	 */
+	private static boolean isAppendOnly(List<?> previous, List<?> current) {
+		if (current == previous) {
+			return true;
+		}
+		int previousSize = previous.size();
+		if (current.size() < previousSize) {
+			return false;
+		}
+		for (int i = 0; i < previousSize; i++) {
+			if (previous.get(i) != current.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void remember(String checkpointId, Map<String, Object> state) {
+		lastCheckpointId = checkpointId;
+		lastValues = new HashMap<>(state);
+		for (Map.Entry<String, Object> entry : lastValues.entrySet()) {
+			if (entry.getValue() instanceof List<?> list && !(list instanceof AppendedList<?>)) {
+				entry.setValue(Arrays.asList(list.toArray()));
+			}
+		}
+	}
+
+}
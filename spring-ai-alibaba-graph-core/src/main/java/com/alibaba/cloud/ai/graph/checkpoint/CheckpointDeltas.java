@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * Utility methods for delta checkpoints.
+ * <p>
+ * A delta checkpoint stores only the state keys that changed since its parent checkpoint.
+ * List values that only grew are stored as the appended tail. The description of the
+ * delta is kept in the state map itself under {@link #DELTA_METADATA_KEY}, so every
+ * existing {@link BaseCheckpointSaver} can persist delta checkpoints without changing
+ * its storage format. Savers call {@link #resolve(Collection, Checkpoint)} or
+ * {@link #resolveAll(Collection)} before returning checkpoints, so callers always see
+ * the full state.
+ * </p>
+ *
+ * @see CheckpointDeltaTracker
+ */
+public final class CheckpointDeltas {
+
+	/**
+	 * State key holding the delta description of a delta checkpoint.
+	 */
+	public static final String DELTA_METADATA_KEY = "__checkpoint_delta__";
+
+	static final String PARENT_ID = "parentId";
+
+	static final String APPENDED_KEYS = "appendedKeys";
+
+	static final String REMOVED_KEYS = "removedKeys";
+
+	private CheckpointDeltas() {
+	}
+
+	/**
+	 * Whether the given checkpoint only contains the changes since its parent.
+	 * @param checkpoint the checkpoint
+	 * @return true if the checkpoint is a delta checkpoint
+	 */
+	public static boolean isDelta(Checkpoint checkpoint) {
+		return checkpoint != null && checkpoint.getState() != null
+				&& checkpoint.getState().get(DELTA_METADATA_KEY) instanceof Map<?, ?>;
+	}
+
+	/**
+	 * Returns the id of the checkpoint the given delta checkpoint applies to.
+	 * @param checkpoint a delta checkpoint
+	 * @return the parent checkpoint id
+	 * @throws IllegalArgumentException if the checkpoint is not a delta checkpoint
+	 */
+	public static String parentId(Checkpoint checkpoint) {
+		if (!isDelta(checkpoint)) {
+			throw new IllegalArgumentException(format("Checkpoint %s is not a delta checkpoint", checkpoint));
+		}
+		return (String) metadata(checkpoint).get(PARENT_ID);
+	}
+
+	/**
+	 * Resolves a checkpoint to its full state by replaying the delta chain starting from
+	 * the nearest full checkpoint. Full checkpoints are returned as they are.
+	 * @param checkpoints all the checkpoints of the thread
+	 * @param target the checkpoint to resolve
+	 * @return a checkpoint with the same id, node ids and the full state
+	 * @throws IllegalStateException if a checkpoint of the chain is missing
+	 */
+	public static Checkpoint resolve(Collection<Checkpoint> checkpoints, Checkpoint target) {
+		if (!isDelta(target)) {
+			return target;
+		}
+		return resolveChain(index(checkpoints), target);
+	}
+
+	/**
+	 * Same as {@link #resolve(Collection, Checkpoint)} using an existing id index of the
+	 * thread checkpoints.
+	 * @param checkpointsById the checkpoints of the thread by id
+	 * @param target the checkpoint to resolve
+	 * @return a checkpoint with the same id, node ids and the full state
+	 * @throws IllegalStateException if a checkpoint of the chain is missing
+	 */
+	public static Checkpoint resolve(Map<String, Checkpoint> checkpointsById, Checkpoint target) {
+		if (!isDelta(target)) {
+			return target;
+		}
+		return resolveChain(checkpointsById, target);
+	}
+
+	/**
+	 * Resolves all the given checkpoints to their full state, keeping their order.
+	 * @param checkpoints all the checkpoints of the thread
+	 * @return the resolved checkpoints, or the given collection if it contains no delta
+	 * checkpoint
+	 */
+	public static Collection<Checkpoint> resolveAll(Collection<Checkpoint> checkpoints) {
+		if (checkpoints == null || checkpoints.stream().noneMatch(CheckpointDeltas::isDelta)) {
+			return checkpoints;
+		}
+		Map<String, Checkpoint> byId = index(checkpoints);
+		List<Checkpoint> result = new ArrayList<>(checkpoints.size());
+		for (Checkpoint checkpoint : checkpoints) {
+			result.add(isDelta(checkpoint) ? resolveChain(byId, checkpoint) : checkpoint);
+		}
+		return result;
+	}
+
+	private static Checkpoint resolveChain(Map<String, Checkpoint> byId, Checkpoint target) {
+		Deque<Checkpoint> chain = new ArrayDeque<>();
+		Checkpoint current = target;
+		while (isDelta(current)) {
+			chain.push(current);
+			String parentId = parentId(current);
+			Checkpoint parent = byId.get(parentId);
+			if (parent == null) {
+				throw new IllegalStateException(format("Parent checkpoint %s of delta checkpoint %s not found!",
+						parentId, current.getId()));
+			}
+			current = parent;
+		}
+
+		Map<String, Object> state = new HashMap<>(current.getState());
+		// lists copied once per key, later deltas append in place
+		Set<String> ownedLists = new HashSet<>();
+		while (!chain.isEmpty()) {
+			apply(state, chain.pop(), ownedLists);
+		}
+
+		return Checkpoint.builder()
+			.id(target.getId())
+			.nodeId(target.getNodeId())
+			.nextNodeId(target.getNextNodeId())
+			.state(state)
+			.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void apply(Map<String, Object> state, Checkpoint delta, Set<String> ownedLists) {
+		Map<String, Object> metadata = metadata(delta);
+		Collection<String> appendedKeys = (Collection<String>) metadata.getOrDefault(APPENDED_KEYS,
+				Collections.emptyList());
+		Collection<String> removedKeys = (Collection<String>) metadata.getOrDefault(REMOVED_KEYS,
+				Collections.emptyList());
+
+		for (Map.Entry<String, Object> entry : delta.getState().entrySet()) {
+			String key = entry.getKey();
+			if (DELTA_METADATA_KEY.equals(key)) {
+				continue;
+			}
+			if (appendedKeys.contains(key) && state.get(key) instanceof List<?> oldList
+					&& entry.getValue() instanceof List<?> tail) {
+				List<Object> list;
+				if (ownedLists.add(key)) {
+					list = new ArrayList<>(oldList);
+					state.put(key, list);
+				}
+				else {
+					list = (List<Object>) oldList;
+				}
+				list.addAll(tail);
+			}
+			else {
+				ownedLists.remove(key);
+				state.put(key, entry.getValue());
+			}
+		}
+		for (String key : removedKeys) {
+			ownedLists.remove(key);
+			state.remove(key);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> metadata(Checkpoint checkpoint) {
+		return (Map<String, Object>) checkpoint.getState().get(DELTA_METADATA_KEY);
+	}
+
+	private static Map<String, Checkpoint> index(Collection<Checkpoint> checkpoints) {
+		Map<String, Checkpoint> byId = new HashMap<>();
+		if (checkpoints != null) {
+			for (Checkpoint checkpoint : checkpoints) {
+				byId.put(checkpoint.getId(), checkpoint);
+			}
+		}
+		return byId;
+	}
+
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint.savers;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RMap;
+import org.redisson.api.RScoredSortedSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.lang.String.format;
+
+/**
+ * A Redis checkpoint saver that stores every checkpoint as its own hash entry.
+ * <p>
+ * For each thread the saver keeps:
+ * <ul>
+ * <li>{@code graph:checkpoint:item:<threadId>}: a hash of checkpoint id to checkpoint
+ * JSON</li>
+ * <li>{@code graph:checkpoint:index:<threadId>}: a sorted set of checkpoint ids scored by
+ * insertion sequence</li>
+ * <li>{@code graph:checkpoint:seq:<threadId>}: the insertion sequence counter</li>
+ * </ul>
+ * so {@link #put(RunnableConfig, Checkpoint)} writes a single entry, {@link #get} by id is
+ * a single lookup and {@link #list(RunnableConfig, int, int)} can page through the
+ * history. Hash entry and index are written in one atomic batch.
+ * </p>
+ * <p>
+ * Threads stored by {@link RedisSaver} in its single bucket format are migrated on first
+ * access, see {@link #migrate(String)}. Only the most recently accessed threads are
+ * remembered as migrated, others are checked again on their next access.
+ * </p>
+ *
+ * @see RedisSaver
+ */
+public class IndexedRedisSaver implements BaseCheckpointSaver {
+
+	private static final String ITEM_PREFIX = "graph:checkpoint:item:";
+
+	private static final String INDEX_PREFIX = "graph:checkpoint:index:";
+
+	private static final String SEQUENCE_PREFIX = "graph:checkpoint:seq:";
+
+	/**
+	 * Key prefix of the bucket format used by {@link RedisSaver}.
+	 */
+	private static final String LEGACY_CONTENT_PREFIX = "graph:checkpoint:content:";
+
+	private static final String LEGACY_LOCK_PREFIX = "graph:checkpoint:lock:";
+
+	private static final int MAX_MIGRATED_THREADS = 10_000;
+
+	private final RedissonClient redisson;
+
+	private final ObjectMapper objectMapper;
+
+	private final Set<String> migratedThreads = Collections
+		.newSetFromMap(Collections.synchronizedMap(new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > MAX_MIGRATED_THREADS;
+			}
+		}));
+
+	/**
+	 * Instantiates a new indexed Redis saver.
+	 * @param redisson the redisson
+	 */
+	public IndexedRedisSaver(RedissonClient redisson) {
+		this(redisson, new ObjectMapper());
+	}
+
+	/**
+	 * Instantiates a new indexed Redis saver.
+	 * @param redisson the redisson
+	 * @param objectMapper the object mapper used to serialize checkpoints
+	 */
+	public IndexedRedisSaver(RedissonClient redisson, ObjectMapper objectMapper) {
+		this.redisson = Objects.requireNonNull(redisson, "redisson cannot be null");
+		this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper cannot be null");
+		this.objectMapper.registerModule(new Jdk8Module());
+	}
+
+	@Override
+	public Collection<Checkpoint> list(RunnableConfig config) {
+		return list(config, 0, -1);
+	}
+
+	/**
+	 * Lists a page of checkpoints of the thread, newest first.
+	 * @param config the runnable config holding the thread id
+	 * @param offset number of newest checkpoints to skip
+	 * @param limit maximum number of checkpoints to return, negative for all
+	 * @return the checkpoints of the page, resolved to their full state
+	 */
+	public Collection<Checkpoint> list(RunnableConfig config, int offset, int limit) {
+		String threadId = threadId(config);
+		migrateIfNeeded(threadId);
+
+		int end = limit < 0 ? -1 : offset + limit - 1;
+		if (limit == 0) {
+			return List.of();
+		}
+		Collection<String> ids = index(threadId).valueRangeReversed(offset, end);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		Map<String, String> contents = items(threadId).getAll(new LinkedHashSet<>(ids));
+		// keeps the page order, parents fetched while resolving are added to it
+		Map<String, Checkpoint> checkpointsById = new LinkedHashMap<>();
+		for (String id : ids) {
+			String content = contents.get(id);
+			if (content != null) {
+				checkpointsById.put(id, deserialize(content));
+			}
+		}
+		List<Checkpoint> result = new ArrayList<>(checkpointsById.size());
+		for (Checkpoint checkpoint : List.copyOf(checkpointsById.values())) {
+			result.add(resolve(threadId, checkpointsById, checkpoint));
+		}
+		return result;
+	}
+
+	@Override
+	public Optional<Checkpoint> get(RunnableConfig config) {
+		String threadId = threadId(config);
+		migrateIfNeeded(threadId);
+
+		String checkpointId = config.checkPointId().orElseGet(() -> index(threadId).last());
+		if (checkpointId == null) {
+			return Optional.empty();
+		}
+		return load(threadId, checkpointId).map(checkpoint -> resolve(threadId, new HashMap<>(), checkpoint));
+	}
+
+	@Override
+	public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+		String threadId = threadId(config);
+		migrateIfNeeded(threadId);
+
+		String content = objectMapper.writeValueAsString(checkpoint);
+
+		if (config.checkPointId().isPresent()) { // Replace Checkpoint
+			String checkPointId = config.checkPointId().get();
+			Double score = index(threadId).getScore(checkPointId);
+			if (score == null) {
+				throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId));
+			}
+			RBatch batch = atomicBatch();
+			if (!checkPointId.equals(checkpoint.getId())) {
+				batch.getMap(ITEM_PREFIX + threadId, StringCodec.INSTANCE).fastRemoveAsync(checkPointId);
+				batch.getScoredSortedSet(INDEX_PREFIX + threadId, StringCodec.INSTANCE).removeAsync(checkPointId);
+			}
+			batch.getMap(ITEM_PREFIX + threadId, StringCodec.INSTANCE).fastPutAsync(checkpoint.getId(), content);
+			batch.getScoredSortedSet(INDEX_PREFIX + threadId, StringCodec.INSTANCE).addAsync(score, checkpoint.getId());
+			batch.execute();
+			return config;
+		}
+
+		long sequence = redisson.getAtomicLong(SEQUENCE_PREFIX + threadId).incrementAndGet();
+		RBatch batch = atomicBatch();
+		batch.getMap(ITEM_PREFIX + threadId, StringCodec.INSTANCE).fastPutAsync(checkpoint.getId(), content);
+		batch.getScoredSortedSet(INDEX_PREFIX + threadId, StringCodec.INSTANCE).addAsync(sequence, checkpoint.getId());
+		batch.execute();
+
+		return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+	}
+
+	@Override
+	public boolean clear(RunnableConfig config) {
+		String threadId = threadId(config);
+		redisson.getKeys()
+			.delete(ITEM_PREFIX + threadId, INDEX_PREFIX + threadId, SEQUENCE_PREFIX + threadId,
+					LEGACY_CONTENT_PREFIX + threadId);
+		migratedThreads.add(threadId);
+		return true;
+	}
+
+	/**
+	 * Moves the checkpoints of a thread from the single bucket format of
+	 * {@link RedisSaver} to the indexed format, keeping their order, and deletes the
+	 * bucket. Does nothing if the thread has no bucket. Called automatically on first
+	 * access of each thread.
+	 * @param threadId the thread id
+	 * @return the number of migrated checkpoints
+	 */
+	public int migrate(String threadId) {
+		RLock lock = redisson.getLock(LEGACY_LOCK_PREFIX + threadId);
+		lock.lock();
+		try {
+			RBucket<String> bucket = redisson.getBucket(LEGACY_CONTENT_PREFIX + threadId);
+			String content = bucket.get();
+			if (content == null) {
+				return 0;
+			}
+			List<Checkpoint> checkpoints = objectMapper.readValue(content, new TypeReference<>() {
+			});
+			// legacy lists are ordered newest first
+			for (int i = checkpoints.size() - 1; i >= 0; i--) {
+				Checkpoint checkpoint = checkpoints.get(i);
+				long sequence = redisson.getAtomicLong(SEQUENCE_PREFIX + threadId).incrementAndGet();
+				RBatch batch = atomicBatch();
+				batch.getMap(ITEM_PREFIX + threadId, StringCodec.INSTANCE)
+					.fastPutAsync(checkpoint.getId(), objectMapper.writeValueAsString(checkpoint));
+				batch.getScoredSortedSet(INDEX_PREFIX + threadId, StringCodec.INSTANCE)
+					.addAsync(sequence, checkpoint.getId());
+				batch.execute();
+			}
+			bucket.delete();
+			return checkpoints.size();
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException("Failed to migrate checkpoints of thread " + threadId, e);
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private void migrateIfNeeded(String threadId) {
+		if (migratedThreads.contains(threadId)) {
+			return;
+		}
+		if (redisson.getBucket(LEGACY_CONTENT_PREFIX + threadId).isExists()) {
+			migrate(threadId);
+		}
+		migratedThreads.add(threadId);
+	}
+
+	private Checkpoint resolve(String threadId, Map<String, Checkpoint> loaded, Checkpoint checkpoint) {
+		if (!CheckpointDeltas.isDelta(checkpoint)) {
+			return checkpoint;
+		}
+		// fetch the missing checkpoints of the delta chain one by one, keeping them for
+		// the next checkpoints of the page
+		Checkpoint current = checkpoint;
+		loaded.putIfAbsent(current.getId(), current);
+		while (CheckpointDeltas.isDelta(current)) {
+			String parentId = CheckpointDeltas.parentId(current);
+			Checkpoint parent = loaded.get(parentId);
+			if (parent == null) {
+				parent = load(threadId, parentId).orElse(null);
+				if (parent == null) {
+					break;
+				}
+				loaded.put(parentId, parent);
+			}
+			current = parent;
+		}
+		return CheckpointDeltas.resolve(loaded, checkpoint);
+	}
+
+	private Optional<Checkpoint> load(String threadId, String checkpointId) {
+		String content = items(threadId).get(checkpointId);
+		return Optional.ofNullable(content).map(this::deserialize);
+	}
+
+	private Checkpoint deserialize(String content) {
+		try {
+			return objectMapper.readValue(content, Checkpoint.class);
+		}
+		catch (JsonProcessingException e) {
+			throw new RuntimeException("Failed to parse JSON", e);
+		}
+	}
+
+	private RMap<String, String> items(String threadId) {
+		return redisson.getMap(ITEM_PREFIX + threadId, StringCodec.INSTANCE);
+	}
+
+	private RScoredSortedSet<String> index(String threadId) {
+		return redisson.getScoredSortedSet(INDEX_PREFIX + threadId, StringCodec.INSTANCE);
+	}
+
+	private RBatch atomicBatch() {
+		return redisson.createBatch(BatchOptions.defaults().executionMode(BatchOptions.ExecutionMode.IN_MEMORY_ATOMIC));
+	}
+
+	private static String threadId(RunnableConfig config) {
+		return config.threadId().orElseThrow(() -> new IllegalArgumentException("threadId isn't allow null"));
+	}
+
+}
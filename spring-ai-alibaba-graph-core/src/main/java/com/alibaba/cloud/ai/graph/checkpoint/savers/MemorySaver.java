@@ -18,21 +18,69 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
 import com.alibaba.cloud.ai.graph.utils.TryFunction;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.IntStream;
 
 import static java.lang.String.format;
 
+/**
+ * A CheckpointSaver that keeps Checkpoints in memory.
+ * <p>
+ * Threads are guarded by striped locks, so operations on different threads rarely
+ * contend, and each thread keeps an id index for constant time lookups by checkpoint id.
+ * The number of checkpoints kept per thread can be bounded, in which case the oldest
+ * checkpoints are evicted first.
+ * </p>
+ */
 public class MemorySaver implements BaseCheckpointSaver {
 
-	final Map<String, LinkedList<Checkpoint>> _checkpointsByThread = new HashMap<>();
+	/**
+	 * Default number of lock stripes.
+	 */
+	public static final int DEFAULT_LOCK_STRIPES = 64;
+
+	final Map<String, LinkedList<Checkpoint>> _checkpointsByThread = new ConcurrentHashMap<>();
+
+	private final Map<String, Map<String, Checkpoint>> _checkpointIndexByThread = new ConcurrentHashMap<>();
+
+	private final ReentrantLock[] _locks;
 
-	private final ReentrantLock _lock = new ReentrantLock();
+	private final int maxCheckpointsPerThread;
 
 	public MemorySaver() {
+		this(Integer.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxCheckpointsPerThread maximum number of checkpoints kept per thread, the
+	 * oldest ones are evicted first
+	 */
+	public MemorySaver(int maxCheckpointsPerThread) {
+		this(maxCheckpointsPerThread, DEFAULT_LOCK_STRIPES);
+	}
+
+	/**
+	 * @param maxCheckpointsPerThread maximum number of checkpoints kept per thread, the
+	 * oldest ones are evicted first
+	 * @param lockStripes number of locks shared by all the threads
+	 */
+	public MemorySaver(int maxCheckpointsPerThread, int lockStripes) {
+		if (maxCheckpointsPerThread <= 0) {
+			throw new IllegalArgumentException("maxCheckpointsPerThread must be > 0!");
+		}
+		if (lockStripes <= 0) {
+			throw new IllegalArgumentException("lockStripes must be > 0!");
+		}
+		this.maxCheckpointsPerThread = maxCheckpointsPerThread;
+		this._locks = new ReentrantLock[lockStripes];
+		for (int i = 0; i < lockStripes; i++) {
+			_locks[i] = new ReentrantLock();
+		}
 	}
 
 	protected LinkedList<Checkpoint> loadedCheckpoints(RunnableConfig config, LinkedList<Checkpoint> checkpoints)
@@ -52,30 +100,52 @@ public class MemorySaver implements BaseCheckpointSaver {
 			throws Exception {
 	}
 
+	private ReentrantLock lockFor(String threadId) {
+		return _locks[Math.floorMod(threadId.hashCode(), _locks.length)];
+	}
+
 	protected final <T> T loadOrInitCheckpoints(RunnableConfig config,
 			TryFunction<LinkedList<Checkpoint>, T, Exception> transformer) throws Exception {
-		_lock.lock();
+		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+		var lock = lockFor(threadId);
+		lock.lock();
 		try {
-			var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
-			return transformer.tryApply(
-					loadedCheckpoints(config, _checkpointsByThread.computeIfAbsent(threadId, k -> new LinkedList<>())));
-
+			var checkpoints = loadedCheckpoints(config,
+					_checkpointsByThread.computeIfAbsent(threadId, k -> new LinkedList<>()));
+			return transformer.tryApply(checkpoints);
 		}
 		finally {
-			_lock.unlock();
+			lock.unlock();
 		}
 	}
 
+	/**
+	 * Returns the id index of the thread, rebuilding it when the checkpoints were changed
+	 * outside of this class, e.g. loaded by a subclass.
+	 */
+	private Map<String, Checkpoint> indexOf(String threadId, LinkedList<Checkpoint> checkpoints) {
+		var index = _checkpointIndexByThread.computeIfAbsent(threadId, k -> new HashMap<>());
+		if (index.size() != checkpoints.size()) {
+			index.clear();
+			for (Checkpoint checkpoint : checkpoints) {
+				index.put(checkpoint.getId(), checkpoint);
+			}
+		}
+		return index;
+	}
+
 	public Map<String, LinkedList<Checkpoint>> get_checkpointsByThread() {
 		return _checkpointsByThread;
 	}
 
 	@Override
 	public boolean clear(RunnableConfig config) {
-		_lock.lock();
+		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+		var lock = lockFor(threadId);
+		lock.lock();
 		try {
-			var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
 			LinkedList<Checkpoint> checkpoints = _checkpointsByThread.get(threadId);
+			_checkpointIndexByThread.remove(threadId);
 			if (checkpoints != null) {
 				checkpoints.clear();
 				return true;
@@ -83,18 +153,20 @@ public class MemorySaver implements BaseCheckpointSaver {
 			return false;
 		}
 		finally {
-			_lock.unlock();
+			lock.unlock();
 		}
 	}
 
 	protected final Collection<Checkpoint> remove(String threadId) {
-		return _checkpointsByThread.remove(Objects.requireNonNull(threadId));
+		_checkpointIndexByThread.remove(Objects.requireNonNull(threadId));
+		return _checkpointsByThread.remove(threadId);
 	}
 
 	@Override
 	public final Collection<Checkpoint> list(RunnableConfig config) {
 		try {
-			return loadOrInitCheckpoints(config, Collections::unmodifiableCollection);
+			return loadOrInitCheckpoints(config, checkpoints -> Collections
+				.unmodifiableCollection(new ArrayList<>(CheckpointDeltas.resolveAll(checkpoints))));
 		}
 		catch (Exception e) {
 			throw new RuntimeException(e);
@@ -106,14 +178,15 @@ public class MemorySaver implements BaseCheckpointSaver {
 
 		try {
 			return loadOrInitCheckpoints(config, checkpoints -> {
+				var index = indexOf(config.threadId().orElse(THREAD_ID_DEFAULT), checkpoints);
+				Optional<Checkpoint> checkpoint;
 				if (config.checkPointId().isPresent()) {
-					return config.checkPointId()
-						.flatMap(id -> checkpoints.stream()
-							.filter(checkpoint -> checkpoint.getId().equals(id))
-							.findFirst());
+					checkpoint = config.checkPointId().map(index::get);
 				}
-				return getLast(checkpoints, config);
-
+				else {
+					checkpoint = getLast(checkpoints, config);
+				}
+				return checkpoint.map(cp -> CheckpointDeltas.resolve(index, cp));
 			});
 		}
 		catch (Exception e) {
@@ -126,19 +199,27 @@ public class MemorySaver implements BaseCheckpointSaver {
 
 		return loadOrInitCheckpoints(config, checkpoints -> {
 
+			var index = indexOf(config.threadId().orElse(THREAD_ID_DEFAULT), checkpoints);
+
 			if (config.checkPointId().isPresent()) { // Replace Checkpoint
 				String checkPointId = config.checkPointId().get();
-				int index = IntStream.range(0, checkpoints.size())
+				if (!index.containsKey(checkPointId)) {
+					throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId));
+				}
+				int position = IntStream.range(0, checkpoints.size())
 					.filter(i -> checkpoints.get(i).getId().equals(checkPointId))
 					.findFirst()
-					.orElseThrow(() -> (new NoSuchElementException(
-							format("Checkpoint with id %s not found!", checkPointId))));
-				checkpoints.set(index, checkpoint);
+					.orElseThrow();
+				checkpoints.set(position, checkpoint);
+				index.remove(checkPointId);
+				index.put(checkpoint.getId(), checkpoint);
 				updatedCheckpoint(config, checkpoints, checkpoint);
 				return config;
 			}
 
 			checkpoints.push(checkpoint); // Add Checkpoint
+			index.put(checkpoint.getId(), checkpoint);
+			evictOldest(checkpoints, index);
 			insertedCheckpoint(config, checkpoints, checkpoint);
 
 			return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
@@ -146,6 +227,26 @@ public class MemorySaver implements BaseCheckpointSaver {
 		});
 	}
 
+	/**
+	 * Drops the oldest checkpoints above the per thread limit. When the new oldest
+	 * checkpoint is a delta checkpoint it is replaced with its resolved full state, so
+	 * the remaining history stays resolvable.
+	 */
+	private void evictOldest(LinkedList<Checkpoint> checkpoints, Map<String, Checkpoint> index) {
+		if (checkpoints.size() <= maxCheckpointsPerThread) {
+			return;
+		}
+		Checkpoint oldestKept = checkpoints.get(maxCheckpointsPerThread - 1);
+		if (CheckpointDeltas.isDelta(oldestKept)) {
+			Checkpoint resolved = CheckpointDeltas.resolve(index, oldestKept);
+			checkpoints.set(maxCheckpointsPerThread - 1, resolved);
+			index.put(resolved.getId(), resolved);
+		}
+		while (checkpoints.size() > maxCheckpointsPerThread) {
+			index.remove(checkpoints.removeLast().getId());
+		}
+	}
+
 	@Override
 	public final Tag release(RunnableConfig config) throws Exception {
 
@@ -153,7 +254,8 @@ public class MemorySaver implements BaseCheckpointSaver {
 
 			var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
 
-			var tag = new Tag(threadId, remove(threadId));
+			var removed = remove(threadId);
+			var tag = new Tag(threadId, removed != null ? CheckpointDeltas.resolveAll(removed) : null);
 
 			releasedCheckpoints(config, checkpoints, tag);
 
@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.BasicDBObject;
@@ -117,7 +118,7 @@ public class MongoSaver implements BaseCheckpointSaver {
 			finally {
 				clientSession.close();
 			}
-			return checkpoints;
+			return CheckpointDeltas.resolveAll(checkpoints);
 		}
 		else {
 			throw new IllegalArgumentException("threadId is not allow null");
@@ -143,14 +144,16 @@ public class MongoSaver implements BaseCheckpointSaver {
 				checkpoints = objectMapper.readValue(checkpointsStr, new TypeReference<>() {
 				});
 				clientSession.commitTransaction();
+				List<Checkpoint> finalCheckpoints = checkpoints;
 				if (config.checkPointId().isPresent()) {
-					List<Checkpoint> finalCheckpoints = checkpoints;
 					return config.checkPointId()
 						.flatMap(id -> finalCheckpoints.stream()
 							.filter(checkpoint -> checkpoint.getId().equals(id))
-							.findFirst());
+							.findFirst())
+						.map(checkpoint -> CheckpointDeltas.resolve(finalCheckpoints, checkpoint));
 				}
-				return getLast(getLinkedList(checkpoints), config);
+				return getLast(getLinkedList(checkpoints), config)
+					.map(checkpoint -> CheckpointDeltas.resolve(finalCheckpoints, checkpoint));
 			}
 			catch (Exception e) {
 				clientSession.abortTransaction();
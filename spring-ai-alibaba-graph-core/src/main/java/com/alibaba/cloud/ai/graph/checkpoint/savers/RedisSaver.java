@@ -18,6 +18,7 @@ package com.alibaba.cloud.ai.graph.checkpoint.savers;
 import com.alibaba.cloud.ai.graph.RunnableConfig;
 import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
 import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -91,8 +92,9 @@ public class RedisSaver implements BaseCheckpointSaver {
 					if (content == null) {
 						return new LinkedList<>();
 					}
-					return objectMapper.readValue(content, new TypeReference<>() {
+					List<Checkpoint> checkpoints = objectMapper.readValue(content, new TypeReference<>() {
 					});
+					return CheckpointDeltas.resolveAll(checkpoints);
 				}
 				else {
 					return List.of();
@@ -141,9 +143,11 @@ public class RedisSaver implements BaseCheckpointSaver {
 						return config.checkPointId()
 							.flatMap(id -> checkpoints.stream()
 								.filter(checkpoint -> checkpoint.getId().equals(id))
-								.findFirst());
+								.findFirst())
+							.map(checkpoint -> CheckpointDeltas.resolve(checkpoints, checkpoint));
 					}
-					return getLast(getLinkedList(checkpoints), config);
+					return getLast(getLinkedList(checkpoints), config)
+						.map(checkpoint -> CheckpointDeltas.resolve(checkpoints, checkpoint));
 				}
 				else {
 					return Optional.empty();
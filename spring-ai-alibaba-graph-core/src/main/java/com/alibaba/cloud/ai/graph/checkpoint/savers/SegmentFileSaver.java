@@ -0,0 +1,636 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint.savers;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.BaseCheckpointSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.CheckpointDeltas;
+import com.alibaba.cloud.ai.graph.serializer.Serializer;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.check_point.CheckPointSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * A CheckpointSaver that stores Checkpoints in append-only segment files.
+ * <p>
+ * Each thread is associated with a file named "thread-<i>threadId</i>.segment" in the
+ * provided targetFolder. Every {@link #put(RunnableConfig, Checkpoint)} appends one
+ * length-prefixed record instead of rewriting the whole history as
+ * {@link FileSystemSaver} does. Record layout:
+ * </p>
+ * <pre>
+ * int    record length, not including this field
+ * byte   record type (PUT or REPLACE)
+ * short  checkpoint id length, followed by the UTF-8 id
+ * short  replaced checkpoint id length, followed by the UTF-8 id (REPLACE only)
+ * byte[] checkpoint written by {@link CheckPointSerializer}
+ * </pre>
+ * <p>
+ * When a thread is first accessed the file is memory mapped window by window and only
+ * the record headers and checkpoint ids are read. Checkpoints are decoded on demand, so
+ * resuming a thread only decodes its latest checkpoint. A truncated last record, left by
+ * a crash during an append, is discarded. Files are compacted when replaced records make
+ * up more than half of the file, or explicitly with {@link #compact(RunnableConfig)}.
+ * </p>
+ * <p>
+ * The index and file channel of the most recently used threads are kept open, up to
+ * {@code maxOpenSegments}; the least recently used one is closed when another thread is
+ * accessed and reloaded from its file on its next access. {@link #close()} closes all of
+ * them.
+ * </p>
+ */
+public class SegmentFileSaver implements BaseCheckpointSaver, AutoCloseable {
+
+	private static final org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(SegmentFileSaver.class);
+
+	public static final String EXTENSION = ".segment";
+
+	public static final int DEFAULT_MAX_OPEN_SEGMENTS = 256;
+
+	private static final int MAGIC = 0x53454731; // "SEG1"
+
+	private static final int HEADER_SIZE = Integer.BYTES;
+
+	private static final int LENGTH_SIZE = Integer.BYTES;
+
+	/** largest record header: length, type and two ids of at most 0xFFFF bytes */
+	private static final int MAX_RECORD_HEADER_SIZE = LENGTH_SIZE + 1 + 2 * (Short.BYTES + 0xFFFF);
+
+	/** size of the windows mapped while loading, files may be larger than 2 GB */
+	private static final long MAP_WINDOW_SIZE = 64L * 1024 * 1024;
+
+	private static final byte RECORD_PUT = 1;
+
+	private static final byte RECORD_REPLACE = 2;
+
+	/**
+	 * When checkpoint records are forced to the storage device.
+	 */
+	public enum FsyncPolicy {
+
+		/**
+		 * Leave flushing to the operating system.
+		 */
+		NEVER,
+
+		/**
+		 * Force every appended record to the storage device before put returns.
+		 */
+		ALWAYS
+
+	}
+
+	private final Path targetFolder;
+
+	private final Serializer<Checkpoint> serializer;
+
+	private final FsyncPolicy fsyncPolicy;
+
+	private final int maxOpenSegments;
+
+	/**
+	 * Open segments by thread id, least recently used first. Guarded by itself, which is
+	 * always taken before the monitor of a segment.
+	 */
+	private final LinkedHashMap<String, Segment> segments = new LinkedHashMap<>(16, 0.75f, true);
+
+	public SegmentFileSaver(Path targetFolder, StateSerializer stateSerializer) {
+		this(targetFolder, stateSerializer, FsyncPolicy.NEVER);
+	}
+
+	public SegmentFileSaver(Path targetFolder, StateSerializer stateSerializer, FsyncPolicy fsyncPolicy) {
+		this(targetFolder, stateSerializer, fsyncPolicy, DEFAULT_MAX_OPEN_SEGMENTS);
+	}
+
+	/**
+	 * @param targetFolder the folder of the segment files
+	 * @param stateSerializer the serializer of the checkpoint state
+	 * @param fsyncPolicy when appended records are forced to the storage device
+	 * @param maxOpenSegments maximum number of threads whose index and file channel are
+	 * kept open, the least recently used ones are closed first
+	 */
+	public SegmentFileSaver(Path targetFolder, StateSerializer stateSerializer, FsyncPolicy fsyncPolicy,
+			int maxOpenSegments) {
+		Objects.requireNonNull(stateSerializer, "stateSerializer cannot be null");
+		if (maxOpenSegments <= 0) {
+			throw new IllegalArgumentException("maxOpenSegments must be > 0!");
+		}
+		this.targetFolder = Objects.requireNonNull(targetFolder, "targetFolder cannot be null");
+		this.fsyncPolicy = Objects.requireNonNull(fsyncPolicy, "fsyncPolicy cannot be null");
+		this.maxOpenSegments = maxOpenSegments;
+		this.serializer = new CheckPointSerializer(stateSerializer);
+
+		try {
+			if (Files.exists(targetFolder) && !Files.isDirectory(targetFolder)) {
+				throw new IllegalArgumentException(format("targetFolder '%s' must be a directory", targetFolder));
+			}
+			Files.createDirectories(targetFolder);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException(format("targetFolder '%s' cannot be created", targetFolder), ex);
+		}
+	}
+
+	private String getBaseName(RunnableConfig config) {
+		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+		return format("thread-%s", threadId);
+	}
+
+	private Path getPath(RunnableConfig config) {
+		return targetFolder.resolve(getBaseName(config).concat(EXTENSION));
+	}
+
+	private Segment segment(String threadId, RunnableConfig config) {
+		synchronized (segments) {
+			Segment segment = segments.get(threadId);
+			if (segment == null) {
+				segment = new Segment(getPath(config));
+				segments.put(threadId, segment);
+				if (segments.size() > maxOpenSegments) {
+					Iterator<Segment> eldest = segments.values().iterator();
+					// closed before its thread can be reopened, so it has a single index
+					closeQuietly(eldest.next());
+					eldest.remove();
+				}
+			}
+			return segment;
+		}
+	}
+
+	/**
+	 * Runs the action on the loaded segment of the thread while holding its monitor.
+	 */
+	private <T, E extends Exception> T withSegment(RunnableConfig config, SegmentAction<T, E> action) throws E {
+		String threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+		while (true) {
+			Segment segment = segment(threadId, config);
+			synchronized (segment) {
+				if (!segment.closed) {
+					segment.open();
+					return action.apply(segment);
+				}
+			}
+			// released or evicted meanwhile
+			synchronized (segments) {
+				segments.remove(threadId, segment);
+			}
+		}
+	}
+
+	private static void closeQuietly(Segment segment) {
+		synchronized (segment) {
+			try {
+				segment.close();
+			}
+			catch (IOException e) {
+				log.warn("Failed to close checkpoint segment {}", segment.path, e);
+			}
+		}
+	}
+
+	@Override
+	public Collection<Checkpoint> list(RunnableConfig config) {
+		return withSegment(config, this::checkpoints);
+	}
+
+	private Collection<Checkpoint> checkpoints(Segment segment) {
+		List<Checkpoint> checkpoints = new ArrayList<>(segment.entries.size());
+		// newest first, like the other savers
+		for (int i = segment.entries.size() - 1; i >= 0; i--) {
+			checkpoints.add(segment.decode(segment.entries.get(i)));
+		}
+		return CheckpointDeltas.resolveAll(checkpoints);
+	}
+
+	@Override
+	public Optional<Checkpoint> get(RunnableConfig config) {
+		return withSegment(config, segment -> {
+			Optional<Entry> entry = config.checkPointId().isPresent()
+					? Optional.ofNullable(segment.byId.get(config.checkPointId().get()))
+					: Optional.ofNullable(segment.entries.isEmpty() ? null : segment.entries.get(segment.entries.size() - 1));
+			return entry.map(segment::decode).map(segment::resolve);
+		});
+	}
+
+	@Override
+	public RunnableConfig put(RunnableConfig config, Checkpoint checkpoint) throws Exception {
+		return withSegment(config, segment -> {
+			if (config.checkPointId().isPresent()) { // Replace Checkpoint
+				String checkPointId = config.checkPointId().get();
+				if (!segment.byId.containsKey(checkPointId)) {
+					throw new NoSuchElementException(format("Checkpoint with id %s not found!", checkPointId));
+				}
+				segment.append(RECORD_REPLACE, checkPointId, checkpoint);
+				segment.compactIfNeeded();
+				return config;
+			}
+			segment.append(RECORD_PUT, null, checkpoint);
+			return RunnableConfig.builder(config).checkPointId(checkpoint.getId()).build();
+		});
+	}
+
+	@Override
+	public boolean clear(RunnableConfig config) {
+		try {
+			return withSegment(config, segment -> {
+				segment.truncate();
+				return true;
+			});
+		}
+		catch (IOException e) {
+			log.warn("Failed to clear checkpoint segment {}", getPath(config), e);
+			return false;
+		}
+	}
+
+	/**
+	 * Releases the checkpoints of the thread, moving the segment file to a versioned
+	 * backup file (e.g., "thread-123-v1.segment").
+	 */
+	@Override
+	public Tag release(RunnableConfig config) throws Exception {
+		var threadId = config.threadId().orElse(THREAD_ID_DEFAULT);
+		Tag tag = withSegment(config, segment -> {
+			var released = new Tag(threadId, checkpoints(segment));
+			segment.close();
+			if (Files.exists(segment.path)) {
+				var versionPattern = Pattern.compile(format("%s-v(\\d+)\\%s$", getBaseName(config), EXTENSION));
+				int maxVersion;
+				try (var stream = Files.list(targetFolder)) {
+					maxVersion = stream.map(path -> path.getFileName().toString())
+						.map(versionPattern::matcher)
+						.filter(Matcher::matches)
+						.mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+						.max()
+						.orElse(0);
+				}
+				var backupPath = targetFolder.resolve(format("%s-v%d%s", getBaseName(config), maxVersion + 1, EXTENSION));
+				Files.move(segment.path, backupPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+			return released;
+		});
+		synchronized (segments) {
+			Segment segment = segments.get(threadId);
+			if (segment != null && segment.closed) {
+				segments.remove(threadId);
+			}
+		}
+		return tag;
+	}
+
+	/**
+	 * Rewrites the segment file of the thread keeping only the live checkpoints.
+	 * @param config the config holding the thread id
+	 * @throws IOException if the file cannot be rewritten
+	 */
+	public void compact(RunnableConfig config) throws IOException {
+		withSegment(config, segment -> {
+			segment.compact();
+			return null;
+		});
+	}
+
+	/**
+	 * Closes the file channels of all the open segments. Threads accessed afterwards are
+	 * reloaded from their files.
+	 */
+	@Override
+	public void close() {
+		synchronized (segments) {
+			segments.values().forEach(SegmentFileSaver::closeQuietly);
+			segments.clear();
+		}
+	}
+
+	@FunctionalInterface
+	private interface SegmentAction<T, E extends Exception> {
+
+		T apply(Segment segment) throws E;
+
+	}
+
+	/**
+	 * Position of a live checkpoint in the segment file.
+	 */
+	private record Entry(String id, long offset, int length) {
+	}
+
+	private static void putId(ByteBuffer buffer, byte[] id) {
+		buffer.putShort((short) id.length).put(id);
+	}
+
+	private static String getId(ByteBuffer buffer) {
+		byte[] id = new byte[Short.toUnsignedInt(buffer.getShort())];
+		buffer.get(id);
+		return new String(id, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * In-memory index of one segment file. All methods must be called while holding the
+	 * segment monitor.
+	 */
+	private final class Segment {
+
+		final Path path;
+
+		/** live checkpoints, oldest first */
+		final List<Entry> entries = new ArrayList<>();
+
+		final Map<String, Entry> byId = new HashMap<>();
+
+		/** position where the next record is appended */
+		long size;
+
+		int deadRecords;
+
+		/** set once the segment is released or evicted, it must not be used anymore */
+		volatile boolean closed;
+
+		private boolean loaded;
+
+		/** opened on first use and kept open until the segment is closed */
+		private FileChannel channel;
+
+		Segment(Path path) {
+			this.path = path;
+		}
+
+		void open() {
+			if (loaded) {
+				return;
+			}
+			try {
+				load();
+				loaded = true;
+			}
+			catch (IOException e) {
+				entries.clear();
+				byId.clear();
+				deadRecords = 0;
+				try {
+					closeChannel();
+				}
+				catch (IOException suppressed) {
+					e.addSuppressed(suppressed);
+				}
+				throw new UncheckedIOException(format("Failed to load checkpoint segment '%s'", path), e);
+			}
+		}
+
+		private FileChannel channel() throws IOException {
+			if (channel == null) {
+				channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+						StandardOpenOption.WRITE);
+			}
+			return channel;
+		}
+
+		private void closeChannel() throws IOException {
+			if (channel != null) {
+				try {
+					channel.close();
+				}
+				finally {
+					channel = null;
+				}
+			}
+		}
+
+		void close() throws IOException {
+			closed = true;
+			closeChannel();
+		}
+
+		private void load() throws IOException {
+			if (!Files.exists(path)) {
+				size = 0;
+				return;
+			}
+			FileChannel channel = channel();
+			long fileSize = channel.size();
+			if (fileSize < HEADER_SIZE) {
+				channel.truncate(0);
+				size = 0;
+				return;
+			}
+			long windowStart = 0;
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(MAP_WINDOW_SIZE, fileSize));
+			if (window.getInt() != MAGIC) {
+				throw new IOException(format("'%s' is not a checkpoint segment file", path));
+			}
+			long position = HEADER_SIZE;
+			while (position + LENGTH_SIZE <= fileSize) {
+				long windowEnd = windowStart + window.capacity();
+				if (position + MAX_RECORD_HEADER_SIZE > windowEnd && windowEnd < fileSize) {
+					// map the next window from this record, so that its header is fully mapped
+					windowStart = position;
+					window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+							Math.min(MAP_WINDOW_SIZE, fileSize - windowStart));
+				}
+				window.position((int) (position - windowStart));
+				int length = window.getInt();
+				long recordEnd = position + LENGTH_SIZE + length;
+				if (length <= 0 || recordEnd > fileSize) {
+					break;
+				}
+				// only the header is read, the checkpoint itself is decoded on demand
+				byte type = window.get();
+				String id = getId(window);
+				String replacedId = type == RECORD_REPLACE ? getId(window) : null;
+				long payloadOffset = windowStart + window.position();
+				index(type, replacedId, new Entry(id, payloadOffset, (int) (recordEnd - payloadOffset)));
+				position = recordEnd;
+			}
+			if (position < fileSize) {
+				log.warn("Discarding {} trailing bytes of incomplete record in {}", fileSize - position, path);
+				channel.truncate(position);
+			}
+			size = position;
+		}
+
+		private void index(byte type, String replacedId, Entry entry) {
+			if (type == RECORD_REPLACE) {
+				Entry replaced = byId.remove(replacedId);
+				int position = entries.indexOf(replaced);
+				if (position >= 0) {
+					entries.set(position, entry);
+				}
+				else {
+					entries.add(entry);
+				}
+				deadRecords++;
+			}
+			else {
+				entries.add(entry);
+			}
+			byId.put(entry.id(), entry);
+		}
+
+		void append(byte type, String replacedId, Checkpoint checkpoint) throws IOException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				serializer.write(checkpoint, out);
+			}
+			byte[] payload = bytes.toByteArray();
+			byte[] id = checkpoint.getId().getBytes(StandardCharsets.UTF_8);
+			byte[] replaced = type == RECORD_REPLACE ? replacedId.getBytes(StandardCharsets.UTF_8) : null;
+			int headerLength = 1 + Short.BYTES + id.length + (replaced != null ? Short.BYTES + replaced.length : 0);
+
+			ByteBuffer record = ByteBuffer.allocate(LENGTH_SIZE + headerLength + payload.length);
+			record.putInt(headerLength + payload.length).put(type);
+			putId(record, id);
+			if (replaced != null) {
+				putId(record, replaced);
+			}
+			record.put(payload);
+			record.flip();
+
+			FileChannel channel = channel();
+			if (size == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC);
+				header.flip();
+				channel.write(header, 0);
+				size = HEADER_SIZE;
+			}
+			long position = size;
+			while (record.hasRemaining()) {
+				position += channel.write(record, position);
+			}
+			if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+				channel.force(false);
+			}
+			index(type, replacedId, new Entry(checkpoint.getId(), size + LENGTH_SIZE + headerLength, payload.length));
+			size = position;
+		}
+
+		Checkpoint decode(Entry entry) {
+			try {
+				FileChannel channel = channel();
+				ByteBuffer buffer = ByteBuffer.allocate(entry.length());
+				long position = entry.offset();
+				while (buffer.hasRemaining()) {
+					int read = channel.read(buffer, position);
+					if (read < 0) {
+						throw new IOException(format("Unexpected end of segment '%s'", path));
+					}
+					position += read;
+				}
+				try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer.array()))) {
+					return serializer.read(in);
+				}
+			}
+			catch (IOException | ClassNotFoundException e) {
+				throw new IllegalStateException(format("Failed to read checkpoint %s from '%s'", entry.id(), path), e);
+			}
+		}
+
+		Checkpoint resolve(Checkpoint checkpoint) {
+			if (!CheckpointDeltas.isDelta(checkpoint)) {
+				return checkpoint;
+			}
+			List<Checkpoint> chain = new ArrayList<>();
+			chain.add(checkpoint);
+			Checkpoint current = checkpoint;
+			while (CheckpointDeltas.isDelta(current)) {
+				Entry parent = byId.get(CheckpointDeltas.parentId(current));
+				if (parent == null) {
+					break;
+				}
+				current = decode(parent);
+				chain.add(current);
+			}
+			return CheckpointDeltas.resolve(chain, checkpoint);
+		}
+
+		void compactIfNeeded() throws IOException {
+			if (deadRecords > entries.size()) {
+				compact();
+			}
+		}
+
+		void compact() throws IOException {
+			if (deadRecords == 0) {
+				return;
+			}
+			LinkedList<Checkpoint> live = new LinkedList<>();
+			for (Entry entry : entries) {
+				live.add(decode(entry));
+			}
+			Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+			Files.deleteIfExists(tmp);
+			Segment compacted = new Segment(tmp);
+			try {
+				compacted.open();
+				for (Checkpoint checkpoint : live) {
+					compacted.append(RECORD_PUT, null, checkpoint);
+				}
+			}
+			finally {
+				compacted.close();
+			}
+			// reopened on the compacted file by the next access
+			closeChannel();
+			Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			entries.clear();
+			entries.addAll(compacted.entries);
+			byId.clear();
+			byId.putAll(compacted.byId);
+			size = compacted.size;
+			deadRecords = 0;
+		}
+
+		void truncate() throws IOException {
+			closeChannel();
+			Files.deleteIfExists(path);
+			entries.clear();
+			byId.clear();
+			size = 0;
+			deadRecords = 0;
+		}
+
+	}
+
+}
@@ -35,6 +35,9 @@ import static java.util.Optional.ofNullable;
  * VersionedMemorySaver is a class that implements {@link BaseCheckpointSaver} and
  * {@link HasVersions}. It provides methods to save checkpoints with versioning and
  * retrieve them based on thread IDs and versions. Experimental feature
+ *
+ * Checkpoints are stored by a {@link MemorySaver}, which resolves delta checkpoints to
+ * their full state, including the checkpoints of released versions.
  */
 public class VersionedMemorySaver implements BaseCheckpointSaver, HasVersions {
 
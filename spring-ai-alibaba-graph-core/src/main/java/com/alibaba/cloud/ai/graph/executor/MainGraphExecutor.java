@@ -49,12 +49,41 @@ public class MainGraphExecutor extends BaseGraphExecutor {
 	/**
 	 * Implementation of the execute method. This demonstrates polymorphism as it provides
 	 * a specific implementation for main execution flow.
+	 * <p>
+	 * Steps are executed in a loop: each step emits its own responses and, through
+	 * {@link #nextStep(GraphRunnerContext)}, asks for the next one, which is subscribed
+	 * once the step completes. The operator chain keeps the same depth however many steps
+	 * the run takes.
 	 * @param context the graph runner context
 	 * @param resultValue the atomic reference to store the result value
 	 * @return Flux of GraphResponse with execution result
 	 */
 	@Override
 	public Flux<GraphResponse<NodeOutput>> execute(GraphRunnerContext context, AtomicReference<Object> resultValue) {
+		return Flux.defer(() -> executeStep(context, resultValue)).repeat(context::pollNextStep);
+	}
+
+	/**
+	 * Returns the continuation of a step, which asks for the next step of the run when it
+	 * is reached.
+	 * @param context the graph runner context
+	 * @return an empty Flux requesting the next step on subscription
+	 */
+	Flux<GraphResponse<NodeOutput>> nextStep(GraphRunnerContext context) {
+		return Flux.defer(() -> {
+			context.requestNextStep();
+			return Flux.empty();
+		});
+	}
+
+	/**
+	 * Executes a single step of the run.
+	 * @param context the graph runner context
+	 * @param resultValue the atomic reference to store the result value
+	 * @return Flux of GraphResponse with the responses of the step
+	 */
+	private Flux<GraphResponse<NodeOutput>> executeStep(GraphRunnerContext context,
+			AtomicReference<Object> resultValue) {
 		try {
 			if (context.shouldStop() || context.isMaxIterationsReached()) {
 				return handleCompletion(context, resultValue);
@@ -130,9 +159,8 @@ public class MainGraphExecutor extends BaseGraphExecutor {
 			NodeOutput output = context.buildOutput(START, cp);
 
 			context.setCurrentNodeId(context.getNextNodeId());
-			// Recursively call the main execution handler
-			return Flux.just(GraphResponse.of(output))
-				.concatWith(Flux.defer(() -> execute(context, new AtomicReference<>())));
+			// Continue with the next step of the run
+			return Flux.just(GraphResponse.of(output)).concatWith(nextStep(context));
 		}
 		catch (Exception e) {
 			return Flux.just(GraphResponse.error(e));
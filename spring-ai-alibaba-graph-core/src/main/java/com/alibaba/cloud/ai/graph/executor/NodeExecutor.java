@@ -24,18 +24,20 @@ import com.alibaba.cloud.ai.graph.action.Command;
 import com.alibaba.cloud.ai.graph.action.InterruptableAction;
 import com.alibaba.cloud.ai.graph.action.InterruptionMetadata;
 import com.alibaba.cloud.ai.graph.exception.RunnableErrors;
+import com.alibaba.cloud.ai.graph.internal.node.ParallelNode;
+import com.alibaba.cloud.ai.graph.streaming.ChatResponseAggregator;
 import com.alibaba.cloud.ai.graph.streaming.GraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.ParallelGraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.model.Generation;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.StringUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
 import java.util.HashMap;
 import java.util.List;
@@ -43,11 +45,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.alibaba.cloud.ai.graph.GraphRunnerContext.INTERRUPT_AFTER;
 import static com.alibaba.cloud.ai.graph.StateGraph.*;
-import static java.util.Objects.requireNonNull;
 
 /**
  * Node executor that processes node execution and result handling. This class
@@ -111,6 +113,11 @@ public class NodeExecutor extends BaseGraphExecutor {
 
 			context.doListeners(NODE_BEFORE, null);
 
+			if (action instanceof ParallelNode.AsyncParallelNodeAction parallelAction
+					&& context.getCompiledGraph().compileConfig.streamParallelBranches()) {
+				return executeParallelNode(context, parallelAction, resultValue);
+			}
+
 			CompletableFuture<Map<String, Object>> future = action.apply(context.getOverallState(),
 					context.getConfig());
 
@@ -127,6 +134,47 @@ public class NodeExecutor extends BaseGraphExecutor {
 		}
 	}
 
+	/**
+	 * Executes a parallel node, emitting the output of each branch as soon as it
+	 * completes, then the output of the node once all branch results are merged.
+	 * @param context the graph runner context
+	 * @param action the parallel node action
+	 * @param resultValue the atomic reference to store the result value
+	 * @return Flux of GraphResponse with the branch outputs and the node result
+	 */
+	private Flux<GraphResponse<NodeOutput>> executeParallelNode(GraphRunnerContext context,
+			ParallelNode.AsyncParallelNodeAction action, AtomicReference<Object> resultValue) {
+		Sinks.Many<GraphResponse<NodeOutput>> branchOutputs = Sinks.many().unicast().onBackpressureBuffer();
+
+		CompletableFuture<Map<String, Object>> future = action.apply(context.getOverallState(), context.getConfig(),
+				(branchNodeId, branchUpdate) -> {
+					try {
+						GraphResponse<NodeOutput> output = GraphResponse
+							.of(context.buildBranchOutput(branchNodeId, branchUpdate));
+						// Branches may complete concurrently, the sink needs serialized emissions
+						synchronized (branchOutputs) {
+							branchOutputs.tryEmitNext(output);
+						}
+					}
+					catch (Exception e) {
+						log.warn("Failed to build the output of parallel branch '{}'", branchNodeId, e);
+					}
+				});
+		future.whenComplete((updateState, error) -> {
+			synchronized (branchOutputs) {
+				branchOutputs.tryEmitComplete();
+			}
+		});
+
+		return branchOutputs.asFlux()
+			.concatWith(Mono.fromFuture(future)
+				.flatMapMany(updateState -> handleActionResult(context, updateState, resultValue)))
+			.onErrorResume(error -> {
+				context.doListeners(ERROR, new Exception(error));
+				return Flux.just(GraphResponse.error(error));
+			});
+	}
+
 	/**
 	 * Handles the action result and returns appropriate response.
 	 * @param context the graph runner context
@@ -169,9 +217,9 @@ public class NodeExecutor extends BaseGraphExecutor {
 			NodeOutput output = context.buildNodeOutputAndAddCheckpoint(updateState);
 
 			context.doListeners(NODE_AFTER, null);
-			// Recursively call the main execution handler
+			// Continue with the next step of the run
 			return Flux.just(GraphResponse.of(output))
-				.concatWith(Flux.defer(() -> mainGraphExecutor.execute(context, resultValue)));
+				.concatWith(mainGraphExecutor.nextStep(context));
 		}
 		catch (Exception e) {
 			return Flux.just(GraphResponse.error(e));
@@ -188,107 +236,71 @@ public class NodeExecutor extends BaseGraphExecutor {
 			Map<String, Object> partialState) {
 		return partialState.entrySet().stream().filter(e -> e.getValue() instanceof Flux<?>).findFirst().map(e -> {
 			var chatFlux = (Flux<?>) e.getValue();
-			var lastChatResponseRef = new AtomicReference<ChatResponse>(null);
-			var lastGraphResponseRef = new AtomicReference<GraphResponse<NodeOutput>>(null);
-
-            return chatFlux.filter(element -> {
-                // skip ChatResponse.getResult() == null
-                if (element instanceof ChatResponse response) {
-                    return response.getResult() != null;
-                }
-                return true;
-            })
-			.doOnError(error -> {
-				// Debug logging for Flux errors
-				log.error("Error occurred in embedded Flux stream for key '{}': {}",
-					e.getKey(), error.getMessage(), error);
-			})
-			.map(element -> {
-				if (element instanceof ChatResponse response) {
-					ChatResponse lastResponse = lastChatResponseRef.get();
-					if (lastResponse == null) {
-						var message = response.getResult().getOutput();
-						GraphResponse<NodeOutput> lastGraphResponse = null;
-						if (message.hasToolCalls()) {
-							lastGraphResponse =
-									GraphResponse.of(context.buildStreamingOutput(message, response, context.getCurrentNodeId()));
-						} else {
-							lastGraphResponse =
-									GraphResponse.of(context.buildStreamingOutput(message, response, context.getCurrentNodeId()));
-						}
-						lastChatResponseRef.set(response);
-						lastGraphResponseRef.set(lastGraphResponse);
-						return lastGraphResponse;
+			// Chunks are aggregated as they arrive, the final message is built on completion.
+			// Each subscription gets its own aggregator, a resubscribed flux starts over.
+			return Flux.defer(() -> {
+				var aggregator = new ChatResponseAggregator();
+				var lastGraphResponseRef = new AtomicReference<GraphResponse<NodeOutput>>(null);
+
+				return chatFlux.filter(element -> {
+					// skip ChatResponse.getResult() == null
+					if (element instanceof ChatResponse response) {
+						return response.getResult() != null;
 					}
-
-					final var currentMessage = response.getResult().getOutput();
-
-					if (currentMessage.hasToolCalls()) {
-						GraphResponse<NodeOutput> lastGraphResponse = GraphResponse
-							.of(context.buildStreamingOutput(currentMessage, response, context.getCurrentNodeId()));
-						lastGraphResponseRef.set(lastGraphResponse);
-						return lastGraphResponse;
+					return true;
+				})
+				.doOnError(error -> {
+					// Debug logging for Flux errors
+					log.error("Error occurred in embedded Flux stream for key '{}': {}",
+						e.getKey(), error.getMessage(), error);
+				})
+				.map(element -> {
+					if (element instanceof ChatResponse response) {
+						aggregator.append(response);
+						return GraphResponse.<NodeOutput>of(
+								context.buildStreamingOutput(response.getResult().getOutput(), response, context.getCurrentNodeId()));
 					}
-
-					final var lastMessageText = requireNonNull(lastResponse.getResult().getOutput().getText(),
-							"lastResponse text cannot be null");
-
-					final var currentMessageText = currentMessage.getText();
-
-					var newMessage = new AssistantMessage(
-							currentMessageText != null ? lastMessageText.concat(currentMessageText) : lastMessageText,
-							currentMessage.getMetadata(), currentMessage.getToolCalls(), currentMessage.getMedia());
-
-					var newGeneration = new Generation(newMessage,
-							response.getResult().getMetadata());
-
-					ChatResponse newResponse = new ChatResponse(
-							List.of(newGeneration), response.getMetadata());
-					lastChatResponseRef.set(newResponse);
-					GraphResponse<NodeOutput> lastGraphResponse = GraphResponse
-						.of(context.buildStreamingOutput(response.getResult().getOutput(), response, context.getCurrentNodeId()));
-					// lastGraphResponseRef.set(lastGraphResponse);
-					return lastGraphResponse;
-				}
-				else if (element instanceof GraphResponse) {
-					GraphResponse<NodeOutput> graphResponse = (GraphResponse<NodeOutput>) element;
-					lastGraphResponseRef.set(graphResponse);
-					return graphResponse;
-				}
-				else {
-					String errorMsg = "Unsupported flux element type: "
-							+ (element != null ? element.getClass().getSimpleName() : "null");
-					return GraphResponse.<NodeOutput>error(new IllegalArgumentException(errorMsg));
-				}
-			}).concatWith(Mono.defer(() -> {
-				if (lastChatResponseRef.get() == null) {
-					GraphResponse<?> lastGraphResponse = lastGraphResponseRef.get();
-					if (lastGraphResponse != null && lastGraphResponse.resultValue().isPresent()) {
-						Object result = lastGraphResponse.resultValue().get();
-						if (result instanceof Map resultMap) {
-							if (!resultMap.containsKey(e.getKey()) && resultMap.containsKey("messages")) {
-								List<Object> messages = (List<Object>) resultMap.get("messages");
-								Object lastMessage = messages.get(messages.size() - 1);
-								if (lastMessage instanceof AssistantMessage lastAssistantMessage) {
-									resultMap.put(e.getKey(), lastAssistantMessage.getText());
+					else if (element instanceof GraphResponse) {
+						GraphResponse<NodeOutput> graphResponse = (GraphResponse<NodeOutput>) element;
+						lastGraphResponseRef.set(graphResponse);
+						return graphResponse;
+					}
+					else {
+						String errorMsg = "Unsupported flux element type: "
+								+ (element != null ? element.getClass().getSimpleName() : "null");
+						return GraphResponse.<NodeOutput>error(new IllegalArgumentException(errorMsg));
+					}
+				}).concatWith(Mono.defer(() -> {
+					if (aggregator.isEmpty()) {
+						GraphResponse<?> lastGraphResponse = lastGraphResponseRef.get();
+						if (lastGraphResponse != null && lastGraphResponse.resultValue().isPresent()) {
+							Object result = lastGraphResponse.resultValue().get();
+							if (result instanceof Map resultMap) {
+								if (!resultMap.containsKey(e.getKey()) && resultMap.containsKey("messages")) {
+									List<Object> messages = (List<Object>) resultMap.get("messages");
+									Object lastMessage = messages.get(messages.size() - 1);
+									if (lastMessage instanceof AssistantMessage lastAssistantMessage) {
+										resultMap.put(e.getKey(), lastAssistantMessage.getText());
+									}
 								}
 							}
+							return Mono.just(lastGraphResponseRef.get());
 						}
-						return Mono.just(lastGraphResponseRef.get());
+						return Mono.empty();
 					}
-					return Mono.empty();
-				}
-				else {
-					return Mono.fromCallable(() -> {
-						Map<String, Object> completionResult = new HashMap<>();
-						completionResult.put(e.getKey(), lastChatResponseRef.get().getResult().getOutput());
-						if (!e.getKey().equals("messages")) {
-							completionResult.put("messages", lastChatResponseRef.get().getResult().getOutput());
-						}
-						return GraphResponse.done(completionResult);
-					});
-				}
-			}));
+					else {
+						return Mono.fromCallable(() -> {
+							Map<String, Object> completionResult = new HashMap<>();
+							AssistantMessage message = aggregator.getMessage();
+							completionResult.put(e.getKey(), message);
+							if (!e.getKey().equals("messages")) {
+								completionResult.put("messages", message);
+							}
+							return GraphResponse.done(completionResult);
+						});
+					}
+				}));
+			});
 		});
 	}
 
@@ -362,7 +374,7 @@ public class NodeExecutor extends BaseGraphExecutor {
 		});
 
 		return processedFlux
-			.concatWith(updateContextMono.thenMany(Flux.defer(() -> mainGraphExecutor.execute(context, resultValue))));
+			.concatWith(updateContextMono.thenMany(mainGraphExecutor.nextStep(context)));
 	}
 
 	/**
@@ -376,12 +388,10 @@ public class NodeExecutor extends BaseGraphExecutor {
 				.filter(e -> e.getValue() instanceof GraphFlux)
 				.findFirst()
 				.map(e -> {
-					GraphFlux<Object> graphFlux = (GraphFlux<Object>) e.getValue();
-					return GraphFlux.of(StringUtils.hasText(graphFlux.getNodeId()) ? graphFlux.getNodeId() : context.getCurrentNodeId(),
-							StringUtils.hasText(graphFlux.getKey()) ? graphFlux.getKey() : e.getKey(),
-							graphFlux.getFlux(),
-							graphFlux.getMapResult(),
-							graphFlux.getChunkResult());
+					GraphFlux<?> graphFlux = (GraphFlux<?>) e.getValue();
+					return graphFlux.withNodeId(
+							StringUtils.hasText(graphFlux.getNodeId()) ? graphFlux.getNodeId() : context.getCurrentNodeId(),
+							StringUtils.hasText(graphFlux.getKey()) ? graphFlux.getKey() : e.getKey());
 				});
 	}
 
@@ -415,10 +425,8 @@ public class NodeExecutor extends BaseGraphExecutor {
 		AtomicReference<Object> lastDataRef = new AtomicReference<>();
 
 		// Process the GraphFlux stream with preserved node ID
-		Flux<GraphResponse<NodeOutput>> processedFlux = graphFlux.getFlux()
+		Flux<GraphResponse<NodeOutput>> processedFlux = withResult(graphFlux, lastDataRef)
 				.map(element -> {
-					lastDataRef.set(graphFlux.hasMapResult() ? graphFlux.getMapResult().apply(element) : element);
-
 					// Create StreamingOutput with GraphFlux's nodeId (preserves real node identity)
 					StreamingOutput output = context.buildStreamingOutput(graphFlux, element, effectiveNodeId);
 					return GraphResponse.<NodeOutput>of(output);
@@ -459,7 +467,7 @@ public class NodeExecutor extends BaseGraphExecutor {
 		});
 
 		return processedFlux
-				.concatWith(updateContextMono.thenMany(Flux.defer(() -> mainGraphExecutor.execute(context, resultValue))));
+				.concatWith(updateContextMono.thenMany(mainGraphExecutor.nextStep(context)));
 	}
 
 	/**
@@ -481,6 +489,12 @@ public class NodeExecutor extends BaseGraphExecutor {
 
 		Map<String, AtomicReference<Object>> nodeDataRefs = new HashMap<>();
 
+		// Branch streams do the actual work when subscribed, so bounding the number of
+		// subscribed streams bounds the number of branches running at the same time
+		int maxConcurrency = context.getCompiledGraph().compileConfig.parallelMaxConcurrency();
+		boolean throttled = maxConcurrency > 0 && maxConcurrency < parallelGraphFlux.size();
+		long fanOutNanos = System.nanoTime();
+
 		// Create merged flux from all GraphFlux instances with preserved node IDs
 		List<Flux<GraphResponse<NodeOutput>>> fluxList = parallelGraphFlux.getGraphFluxes()
 				.stream()
@@ -489,9 +503,14 @@ public class NodeExecutor extends BaseGraphExecutor {
 					AtomicReference<Object> nodeDataRef = new AtomicReference<>();
 					nodeDataRefs.put(nodeId, nodeDataRef);
 
-					return graphFlux.getFlux()
+					// The parallel node leaves streaming branches to be reported here, once,
+					// when their stream is subscribed
+					Flux<?> branchFlux = Flux.defer(() -> {
+						context.doParallelBranchListeners(nodeId, System.nanoTime() - fanOutNanos);
+						return withResult(graphFlux, nodeDataRef);
+					});
+					return branchFlux
 							.map(element -> {
-								nodeDataRef.set(graphFlux.hasMapResult() ? graphFlux.getMapResult().apply(element) : element);
 								// Create StreamingOutput with specific nodeId (preserves parallel node identity)
 								StreamingOutput output = context.buildStreamingOutput(graphFlux, element, nodeId);
 								return GraphResponse.<NodeOutput>of(output);
@@ -501,7 +520,8 @@ public class NodeExecutor extends BaseGraphExecutor {
 				.collect(Collectors.toList());
 
 		// Merge all parallel streams while preserving node identities
-		Flux<GraphResponse<NodeOutput>> mergedFlux = Flux.merge(fluxList);
+		Flux<GraphResponse<NodeOutput>> mergedFlux = throttled ? Flux.merge(Flux.fromIterable(fluxList), maxConcurrency)
+				: Flux.merge(fluxList);
 
 		// Handle completion and result mapping for all nodes
 		Mono<Void> updateContextMono = Mono.fromRunnable(() -> {
@@ -541,7 +561,33 @@ public class NodeExecutor extends BaseGraphExecutor {
 		});
 
 		return mergedFlux
-				.concatWith(updateContextMono.thenMany(Flux.defer(() -> mainGraphExecutor.execute(context, resultValue))));
+				.concatWith(updateContextMono.thenMany(mainGraphExecutor.nextStep(context)));
+	}
+
+	/**
+	 * Returns the elements of a GraphFlux, leaving the value of the stream for the state
+	 * in {@code resultRef}: the mapped last element, or for aggregated chat responses the
+	 * mapped aggregated response. Chunks are aggregated per subscription, and the
+	 * aggregated response is only built once the stream completes.
+	 * @param graphFlux the GraphFlux to stream
+	 * @param resultRef receives the value of the stream
+	 * @return the elements of the GraphFlux
+	 */
+	@SuppressWarnings("unchecked")
+	private static Flux<?> withResult(GraphFlux<?> graphFlux, AtomicReference<Object> resultRef) {
+		Function<Object, ?> mapResult = graphFlux.hasMapResult() ? graphFlux.getMapResult() : Function.identity();
+		if (!graphFlux.isAggregated()) {
+			return graphFlux.getFlux().doOnNext(element -> resultRef.set(mapResult.apply(element)));
+		}
+		return Flux.defer(() -> {
+			ChatResponseAggregator aggregator = new ChatResponseAggregator();
+			return graphFlux.getFlux()
+				.doOnNext(element -> aggregator.append((ChatResponse) element))
+				.doOnComplete(() -> {
+					ChatResponse response = aggregator.getResult();
+					resultRef.set(response != null ? mapResult.apply(response) : null);
+				});
+		});
 	}
 
 	/**
@@ -564,8 +610,8 @@ public class NodeExecutor extends BaseGraphExecutor {
 		}
 
 		NodeOutput output = context.buildNodeOutputAndAddCheckpoint(partialState);
-		// Recursively call the main execution handler
+		// Continue with the next step of the run
 		return Flux.just(GraphResponse.of(output))
-				.concatWith(Flux.defer(() -> mainGraphExecutor.execute(context, resultValue)));
+				.concatWith(mainGraphExecutor.nextStep(context));
 	}
 }
@@ -46,13 +46,51 @@ public class Node {
 
 	}
 
+	/**
+	 * How long an action created by the {@link ActionFactory} is reused.
+	 */
+	public enum ActionScope {
+
+		/**
+		 * A new action is created every time the node is executed.
+		 */
+		PER_CALL,
+
+		/**
+		 * One action is created per graph execution and reused by every step of it. Suited
+		 * to actions keeping state that must not be shared between executions.
+		 */
+		PER_RUN,
+
+		/**
+		 * One action is created per compiled graph and shared by all its executions, which
+		 * may run concurrently. Suited to stateless or thread-safe actions.
+		 */
+		SINGLETON
+
+	}
+
 	private final String id;
 
 	private final ActionFactory actionFactory;
 
+	private final ActionScope actionScope;
+
 	public Node(String id, ActionFactory actionFactory) {
+		this(id, actionFactory, ActionScope.PER_CALL);
+	}
+
+	/**
+	 * Constructor that accepts the `id`, the `actionFactory` and the scope of the created
+	 * actions.
+	 * @param id the unique identifier for the node
+	 * @param actionFactory the factory creating the node actions
+	 * @param actionScope how long a created action is reused
+	 */
+	public Node(String id, ActionFactory actionFactory, ActionScope actionScope) {
 		this.id = id;
 		this.actionFactory = actionFactory;
+		this.actionScope = Objects.requireNonNull(actionScope, "actionScope cannot be null");
 	}
 
 	/**
@@ -94,13 +132,21 @@ public class Node {
 		return actionFactory;
 	}
 
+	/**
+	 * actionScope
+	 * @return how long an action created by the {@link #actionFactory()} is reused.
+	 */
+	public ActionScope actionScope() {
+		return actionScope;
+	}
+
 	public boolean isParallel() {
 		// return id.startsWith(PARALLEL_PREFIX);
 		return false;
 	}
 
 	public Node withIdUpdated(Function<String, String> newId) {
-		return new Node(newId.apply(id), actionFactory);
+		return new Node(newId.apply(id), actionFactory, actionScope);
 	}
 
 	/**
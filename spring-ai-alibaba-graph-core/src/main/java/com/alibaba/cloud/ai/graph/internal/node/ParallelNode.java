@@ -19,17 +19,28 @@ import com.alibaba.cloud.ai.graph.*;
 import com.alibaba.cloud.ai.graph.action.AsyncNodeActionWithConfig;
 import com.alibaba.cloud.ai.graph.streaming.GraphFlux;
 import com.alibaba.cloud.ai.graph.streaming.ParallelGraphFlux;
+import com.alibaba.cloud.ai.graph.utils.ExecutorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import com.alibaba.cloud.ai.graph.utils.LifeListenerUtil;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import static com.alibaba.cloud.ai.graph.StateGraph.NODE_AFTER;
 import static com.alibaba.cloud.ai.graph.StateGraph.NODE_BEFORE;
@@ -38,8 +49,21 @@ import static java.util.Objects.requireNonNull;
 
 public class ParallelNode extends Node {
 
+	private static final Logger log = LoggerFactory.getLogger(ParallelNode.class);
+
 	public static final String PARALLEL_PREFIX = "__PARALLEL__";
 
+	/**
+	 * Lazily creates the shared executor used when parallel branches default to virtual
+	 * threads.
+	 */
+	private static final class VirtualThreadExecutorHolder {
+
+		private static final ExecutorService EXECUTOR = ExecutorUtils
+			.newVirtualThreadPerTaskExecutor("graph-parallel-");
+
+	}
+
 	public static String formatNodeId(String nodeId) {
 		return format("%s(%s)", PARALLEL_PREFIX, requireNonNull(nodeId, "nodeId cannot be null!"));
 	}
@@ -48,55 +72,237 @@ public class ParallelNode extends Node {
 			List<String> actionNodeIds, Map<String, KeyStrategy> channels, CompileConfig compileConfig)
 			implements AsyncNodeActionWithConfig {
 
+		/**
+		 * Runs the given branch on the calling thread, notifying the lifecycle listeners
+		 * before and after it.
+		 */
 		private CompletableFuture<Map<String, Object>> evalNodeActionSync(AsyncNodeActionWithConfig action,
-				String actualNodeId, OverAllState state, RunnableConfig config) {
-			LifeListenerUtil.processListenersLIFO(actualNodeId,
-					new LinkedBlockingDeque<>(compileConfig.lifecycleListeners()), state.data(), config, NODE_BEFORE,
-					null);
-			return action.apply(state, config)
-				.whenComplete((stringObjectMap, throwable) -> LifeListenerUtil.processListenersLIFO(actualNodeId,
-						new LinkedBlockingDeque<>(compileConfig.lifecycleListeners()), state.data(), config, NODE_AFTER,
-						throwable));
-		}
-
-	private CompletableFuture<Map<String, Object>> evalNodeActionAsync(AsyncNodeActionWithConfig action,
-			String actualNodeId, OverAllState state, RunnableConfig config, Executor executor) {
-		return CompletableFuture.supplyAsync(() -> {
+				String actualNodeId, OverAllState state, RunnableConfig config, List<GraphLifecycleListener> listeners) {
+			LifeListenerUtil.processListenersLIFO(actualNodeId, listeners, state.data(), config, NODE_BEFORE, null);
+			CompletableFuture<Map<String, Object>> future;
 			try {
-				return evalNodeActionSync(action, actualNodeId, state, config).join();
+				future = action.apply(state, config);
 			}
 			catch (Exception e) {
-				throw new RuntimeException(e);
+				future = CompletableFuture.failedFuture(e);
 			}
-	}, executor);
-	}
+			return future.whenComplete((stringObjectMap, throwable) -> LifeListenerUtil
+				.processListenersLIFO(actualNodeId, listeners, state.data(), config, NODE_AFTER, throwable));
+		}
 
-	@Override
-	public CompletableFuture<Map<String, Object>> apply(OverAllState state, RunnableConfig config) {
-		List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>();
-		for (int i = 0; i < actions.size(); i++) {
-			AsyncNodeActionWithConfig action = actions.get(i);
-			String actualNodeId = actionNodeIds.get(i);
+		private CompletableFuture<Map<String, Object>> evalNodeActionAsync(AsyncNodeActionWithConfig action,
+				String actualNodeId, OverAllState state, RunnableConfig config, List<GraphLifecycleListener> listeners,
+				Executor executor) {
+			return CompletableFuture
+				.supplyAsync(() -> evalNodeActionSync(action, actualNodeId, state, config, listeners), executor)
+				.thenCompose(Function.identity());
+		}
 
-			CompletableFuture<Map<String, Object>> future = config.metadata(nodeId)
+		/**
+		 * Resolves the executor running the branches: the one registered for this node in
+		 * the {@link RunnableConfig} first, then the one of the {@link CompileConfig}.
+		 * @return the executor, or null to run the branches on the calling thread
+		 */
+		private Executor resolveExecutor(RunnableConfig config) {
+			return config.metadata(nodeId)
 				.filter(value -> value instanceof Executor)
 				.map(Executor.class::cast)
-				.map(executor -> evalNodeActionAsync(action, actualNodeId, state, config, executor))
-				.orElseGet(() -> evalNodeActionSync(action, actualNodeId, state, config));
+				.orElseGet(() -> {
+					if (compileConfig.parallelExecutor() != null) {
+						return compileConfig.parallelExecutor();
+					}
+					return compileConfig.parallelVirtualThreads() ? VirtualThreadExecutorHolder.EXECUTOR : null;
+				});
+		}
 
-			futures.add(future);
+		@Override
+		public CompletableFuture<Map<String, Object>> apply(OverAllState state, RunnableConfig config) {
+			return apply(state, config, (branchNodeId, branchResult) -> {
+			});
 		}
 
-		// Wait for all tasks to complete
-		return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).thenApply(v -> {
-			// Collect all results
-			List<Map<String, Object>> results = futures.stream()
-				.map(CompletableFuture::join)
-				.collect(Collectors.toList());
+		/**
+		 * Runs all branches and merges their results in declaration order. Branches run
+		 * on the resolved executor, at most
+		 * {@link CompileConfig#parallelMaxConcurrency()} at a time.
+		 * @param state the current state
+		 * @param config the runnable config
+		 * @param branchListener called with the branch node id and the result of each
+		 * branch as soon as it completes successfully; results holding streams are not
+		 * reported
+		 * @return the merged results of all branches
+		 */
+		public CompletableFuture<Map<String, Object>> apply(OverAllState state, RunnableConfig config,
+				BiConsumer<String, Map<String, Object>> branchListener) {
+			final int size = actions.size();
+			final Executor executor = resolveExecutor(config);
+			final List<GraphLifecycleListener> listeners = List.copyOf(compileConfig.lifecycleListeners());
+			final Duration timeout = compileConfig.parallelBranchTimeout();
+			final boolean failFast = compileConfig.parallelFailFast();
+			final long fanOutNanos = System.nanoTime();
 
-			return processParallelResults(results, state, actions);
-		});
-	}
+			final List<CompletableFuture<Map<String, Object>>> futures = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				futures.add(new CompletableFuture<>());
+			}
+			final CompletableFuture<Map<String, Object>> result = new CompletableFuture<>();
+			final AtomicInteger nextBranch = new AtomicInteger();
+			final AtomicInteger remaining = new AtomicInteger(size);
+			final AtomicBoolean aborted = new AtomicBoolean();
+
+			for (int i = 0; i < size; i++) {
+				final int index = i;
+				futures.get(index).whenComplete((branchResult, throwable) -> {
+					if (throwable == null) {
+						notifyBranch(branchListener, actionNodeIds.get(index), branchResult);
+					}
+					else if (failFast && aborted.compareAndSet(false, true)) {
+						result.completeExceptionally(unwrap(throwable));
+						futures.forEach(future -> future.cancel(false));
+					}
+					if (remaining.decrementAndGet() == 0) {
+						completeResult(result, futures, state);
+					}
+				});
+			}
+
+			// Each completed branch starts the next pending one, which bounds concurrency
+			// without blocking any thread
+			Runnable startNext = new Runnable() {
+				@Override
+				public void run() {
+					int index = nextBranch.getAndIncrement();
+					if (index >= size) {
+						return;
+					}
+					CompletableFuture<Map<String, Object>> slot = futures.get(index);
+					if (slot.isDone()) {
+						run();
+						return;
+					}
+					AsyncNodeActionWithConfig action = actions.get(index);
+					String actualNodeId = actionNodeIds.get(index);
+					long startNanos = System.nanoTime();
+					CompletableFuture<Map<String, Object>> branch = executor != null
+							? evalNodeActionAsync(action, actualNodeId, state, config, listeners, executor)
+							: evalNodeActionSync(action, actualNodeId, state, config, listeners);
+					if (timeout != null) {
+						branch = withTimeout(branch, actualNodeId, startNanos, timeout);
+					}
+					branch.whenComplete((branchResult, throwable) -> {
+						// A branch returning streams only starts its work when they are
+						// subscribed, it is reported then by the node executor
+						if (throwable != null || !holdsStreams(branchResult)) {
+							notifyBranchStart(listeners, actualNodeId, config, startNanos - fanOutNanos);
+						}
+						if (throwable != null) {
+							slot.completeExceptionally(throwable);
+						}
+						else {
+							slot.complete(branchResult);
+						}
+						run();
+					});
+				}
+			};
+
+			int maxConcurrency = compileConfig.parallelMaxConcurrency();
+			int initial = maxConcurrency > 0 ? Math.min(maxConcurrency, size) : size;
+			for (int i = 0; i < initial; i++) {
+				startNext.run();
+			}
+			if (size == 0) {
+				completeResult(result, futures, state);
+			}
+			return result;
+		}
+
+		/**
+		 * Fails a branch with a {@link TimeoutException} once the timeout has elapsed since
+		 * it started. A branch run on the calling thread has already returned here, it
+		 * fails if it overran.
+		 */
+		private static CompletableFuture<Map<String, Object>> withTimeout(CompletableFuture<Map<String, Object>> branch,
+				String branchNodeId, long startNanos, Duration timeout) {
+			long remainingNanos = timeout.toNanos() - (System.nanoTime() - startNanos);
+			if (remainingNanos > 0) {
+				return branch.orTimeout(remainingNanos, TimeUnit.NANOSECONDS);
+			}
+			if (branch.isDone() && !branch.isCompletedExceptionally()) {
+				return CompletableFuture.failedFuture(new TimeoutException(
+						format("Parallel branch '%s' took longer than %s", branchNodeId, timeout)));
+			}
+			return branch.orTimeout(0, TimeUnit.NANOSECONDS);
+		}
+
+		private void notifyBranchStart(List<GraphLifecycleListener> listeners, String branchNodeId,
+				RunnableConfig config, long queuedNanos) {
+			for (GraphLifecycleListener listener : listeners) {
+				try {
+					listener.onParallelBranchStart(nodeId, branchNodeId, config, queuedNanos);
+				}
+				catch (Exception e) {
+					log.debug("Error occurred during listener processing: {}", e.getMessage(), e);
+				}
+			}
+		}
+
+		private static boolean holdsStreams(Map<String, Object> branchResult) {
+			return branchResult != null && branchResult.values()
+				.stream()
+				.anyMatch(value -> value instanceof GraphFlux || value instanceof Flux);
+		}
+
+		private void notifyBranch(BiConsumer<String, Map<String, Object>> branchListener, String branchNodeId,
+				Map<String, Object> branchResult) {
+			if (branchResult == null || holdsStreams(branchResult)) {
+				return;
+			}
+			try {
+				branchListener.accept(branchNodeId, branchResult);
+			}
+			catch (Exception e) {
+				log.warn("Failed to report the result of parallel branch '{}'", branchNodeId, e);
+			}
+		}
+
+		private void completeResult(CompletableFuture<Map<String, Object>> result,
+				List<CompletableFuture<Map<String, Object>>> futures, OverAllState state) {
+			if (result.isDone()) {
+				return;
+			}
+			Throwable failure = null;
+			List<Map<String, Object>> results = new ArrayList<>(futures.size());
+			for (CompletableFuture<Map<String, Object>> future : futures) {
+				try {
+					results.add(future.join());
+				}
+				catch (CompletionException | CancellationException e) {
+					Throwable cause = unwrap(e);
+					if (failure == null) {
+						failure = cause;
+					}
+					else if (failure != cause) {
+						failure.addSuppressed(cause);
+					}
+				}
+			}
+			if (failure != null) {
+				result.completeExceptionally(failure);
+				return;
+			}
+			try {
+				result.complete(processParallelResults(results, state, actions));
+			}
+			catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		}
+
+		private static Throwable unwrap(Throwable throwable) {
+			return throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause()
+					: throwable;
+		}
 
 		/**
 		 * Process parallel execution results, handling GraphFlux, traditional Flux, and regular objects.
@@ -128,12 +334,7 @@ public class ParallelNode extends Node {
 
 						// Create new GraphFlux with correct nodeId if needed
 						if (!graphFluxNodeId.equals(graphFlux.getNodeId())) {
-							@SuppressWarnings("unchecked")
-							GraphFlux<Object> castedFlux = (GraphFlux<Object>) graphFlux;
-							@SuppressWarnings("unchecked")
-							GraphFlux<Object> newGraphFlux = GraphFlux.of(graphFluxNodeId, entry.getKey(), 
-									castedFlux.getFlux(), castedFlux.getMapResult(), castedFlux.getChunkResult());
-							graphFlux = newGraphFlux;
+							graphFlux = graphFlux.withNodeId(graphFluxNodeId, entry.getKey());
 						}
 
 						graphFluxList.add(graphFlux);
@@ -180,7 +381,8 @@ public class ParallelNode extends Node {
 	public ParallelNode(String id, List<AsyncNodeActionWithConfig> actions, List<String> actionNodeIds,
 			Map<String, KeyStrategy> channels, CompileConfig compileConfig) {
 		super(formatNodeId(id),
-				(config) -> new AsyncParallelNodeAction(formatNodeId(id), actions, actionNodeIds, channels, compileConfig));
+				(config) -> new AsyncParallelNodeAction(formatNodeId(id), actions, actionNodeIds, channels, compileConfig),
+				ActionScope.SINGLETON);
 	}
 
 	@Override
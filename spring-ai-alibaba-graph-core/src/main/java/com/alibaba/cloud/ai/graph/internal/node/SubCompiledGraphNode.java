@@ -28,7 +28,7 @@ public class SubCompiledGraphNode extends Node implements SubGraphNode {
 
 	public SubCompiledGraphNode(String id, CompiledGraph subGraph) {
 		super(Objects.requireNonNull(id, "id cannot be null"),
-				(config) -> new SubCompiledGraphNodeAction(id, config, subGraph));
+				(config) -> new SubCompiledGraphNodeAction(id, config, subGraph), ActionScope.SINGLETON);
 		this.subGraph = subGraph;
 	}
 
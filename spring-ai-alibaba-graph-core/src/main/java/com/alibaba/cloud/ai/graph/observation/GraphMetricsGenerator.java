@@ -21,18 +21,34 @@ import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationM
 import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricNames;
 import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
 import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
-import io.micrometer.observation.Observation;
+import io.micrometer.core.instrument.Timer;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+import static java.util.Objects.requireNonNull;
 
 /**
- * Utility class for generating metrics from graph observation contexts. Creates counters
- * for graph nodes, edges, and overall graph operations. Supports success/failure tracking
- * and custom tagging for metric aggregation.
+ * Generates metrics from graph observation contexts. Creates counters for graph nodes,
+ * edges, and overall graph operations, percentile-histogram timers of their durations,
+ * and meters of checkpoint writes, agent model/tool calls and in-flight executions.
+ * Supports success/failure tracking and custom tagging for metric aggregation.
+ * <p>
+ * An instance caches its meters by name and tags, so recording a metric does not go
+ * through the meter registry once the meter exists.
  *
  * @author XiaoYunTao
  * @since 2025/6/28
@@ -41,7 +57,297 @@ public class GraphMetricsGenerator {
 
 	private static final String DESCRIPTION = "Counts the number of times a graph is used";
 
-	private GraphMetricsGenerator() {
+	private static final String GRAPH_DURATION_DESCRIPTION = "Measures the execution time of graph runs";
+
+	private static final String NODE_DURATION_DESCRIPTION = "Measures the execution time of graph nodes";
+
+	private static final String EDGE_DURATION_DESCRIPTION = "Measures the evaluation time of graph edges";
+
+	private static final String CHECKPOINT_DURATION_DESCRIPTION = "Measures the write time of graph checkpoints";
+
+	private static final String STATE_SIZE_DESCRIPTION = "Number of entries of the checkpointed graph states";
+
+	private static final String MODEL_CALL_DESCRIPTION = "Measures the latency of the model calls of agents";
+
+	private static final String BRANCH_QUEUE_DESCRIPTION = "Measures the time branches of parallel nodes wait before they start";
+
+	private static final String MODEL_CALL_QUEUE_DESCRIPTION = "Measures the time model calls wait for a concurrency budget";
+
+	private static final String TOOL_CALL_DESCRIPTION = "Measures the latency of the tool calls of agents";
+
+	private static final String TOOL_RETRY_DESCRIPTION = "Counts the failed tool call attempts by outcome";
+
+	private static final String TOOL_CIRCUIT_STATE_DESCRIPTION = "State of the circuit breakers of tools: 0 closed, 1 half open, 2 open";
+
+	private static final String ACTIVE_NODES_DESCRIPTION = "Number of graph node executions in progress";
+
+	private static final String ACTIVE_GRAPHS_DESCRIPTION = "Number of graph runs in progress";
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs a new GraphMetricsGenerator registering its meters in the specified
+	 * registry.
+	 * @param meterRegistry the meter registry for metric registration
+	 */
+	public GraphMetricsGenerator(MeterRegistry meterRegistry) {
+		this.meterRegistry = requireNonNull(meterRegistry, "meterRegistry cannot be null");
+	}
+
+	/**
+	 * Generates metrics for a graph node observation context. Increments a counter with
+	 * node-specific tags and records the node duration.
+	 * @param context the node observation context
+	 * @param isSuccess whether the node operation was successful
+	 * @param durationNanos the execution time of the node in nanoseconds
+	 */
+	public void generate(GraphNodeObservationContext context, boolean isSuccess, long durationNanos) {
+		KeyValues tags = context.getLowCardinalityKeyValues();
+		Counter counter = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_NODE, context.getNodeName(),
+				null, isSuccess, tags), key -> Counter.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(DESCRIPTION)
+					.tags(createTags(key.tags()))
+					.register(meterRegistry));
+		counter.increment();
+		recordNodeDuration(context.getNodeName(), isSuccess, durationNanos);
+	}
+
+	/**
+	 * Generates metrics for a graph observation context. Increments a counter with
+	 * graph-specific tags and records the graph duration.
+	 * @param context the graph observation context
+	 * @param isSuccess whether the graph operation was successful
+	 * @param durationNanos the execution time of the graph in nanoseconds
+	 */
+	public void generate(GraphObservationContext context, boolean isSuccess, long durationNanos) {
+		KeyValues tags = context.getLowCardinalityKeyValues();
+		Counter counter = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH, context.getGraphName(), null,
+				isSuccess, tags), key -> Counter.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS.value(), String.valueOf(key.success()))
+					.description(DESCRIPTION)
+					.tags(createTags(key.tags()))
+					.register(meterRegistry));
+		counter.increment();
+
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_DURATION, context.getGraphName(),
+				null, isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS.value(), String.valueOf(key.success()))
+					.description(GRAPH_DURATION_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Generates metrics for a graph edge observation context. Increments a counter with
+	 * edge-specific tags and records the edge duration.
+	 * @param context the edge observation context
+	 * @param isSuccess whether the edge operation was successful
+	 * @param durationNanos the evaluation time of the edge in nanoseconds
+	 */
+	public void generate(GraphEdgeObservationContext context, boolean isSuccess, long durationNanos) {
+		KeyValues tags = context.getLowCardinalityKeyValues();
+		Counter counter = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE,
+				context.getGraphEdgeName(), null, isSuccess, tags), key -> Counter.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(DESCRIPTION)
+					.tags(createTags(key.tags()))
+					.register(meterRegistry));
+		counter.increment();
+
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE_DURATION,
+				context.getGraphEdgeName(), null, isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(EDGE_DURATION_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the execution time of a graph node in a percentile-histogram timer tagged
+	 * with the node name and success/failure.
+	 * @param nodeName the name of the node
+	 * @param isSuccess whether the node operation was successful
+	 * @param durationNanos the execution time of the node in nanoseconds
+	 */
+	public void recordNodeDuration(String nodeName, boolean isSuccess, long durationNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION, nodeName, null,
+				isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(NODE_DURATION_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records a checkpoint write: its duration, and the number of entries of the
+	 * checkpointed state.
+	 * @param nodeName the name of the node the checkpoint was taken after
+	 * @param stateSize the number of entries of the checkpointed state
+	 * @param isSuccess whether the checkpoint was written
+	 * @param durationNanos the write time of the checkpoint in nanoseconds
+	 */
+	public void recordCheckpoint(String nodeName, int stateSize, boolean isSuccess, long durationNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_CHECKPOINT_DURATION, nodeName,
+				null, isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(CHECKPOINT_DURATION_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+
+		DistributionSummary summary = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_STATE_SIZE,
+				nodeName, null, true, null), key -> DistributionSummary.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), key.first())
+					.description(STATE_SIZE_DESCRIPTION)
+					.register(meterRegistry));
+		summary.record(stateSize);
+	}
+
+	/**
+	 * Records the time a branch of a parallel node waited for a free slot before it
+	 * started.
+	 * @param branchNodeId the id of the branch node
+	 * @param queuedNanos the waiting time in nanoseconds
+	 */
+	public void recordParallelBranchQueueTime(String branchNodeId, long queuedNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.GRAPH_PARALLEL_BRANCH_QUEUE_DURATION,
+				branchNodeId, null, true, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), key.first())
+					.description(BRANCH_QUEUE_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(queuedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the time a model call of an agent waited for the concurrency budget of a
+	 * model endpoint.
+	 * @param agentName the name of the agent
+	 * @param endpoint the name of the model endpoint
+	 * @param queuedNanos the waiting time in nanoseconds
+	 */
+	public void recordModelCallQueueTime(String agentName, String endpoint, long queuedNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.AGENT_MODEL_CALL_QUEUE_DURATION,
+				agentName, endpoint, true, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_MODEL_ENDPOINT.value(), key.second())
+					.description(MODEL_CALL_QUEUE_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(queuedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the latency of a model call of an agent.
+	 * @param agentName the name of the agent
+	 * @param isSuccess whether the model call was successful
+	 * @param durationNanos the latency of the call in nanoseconds
+	 */
+	public void recordModelCall(String agentName, boolean isSuccess, long durationNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.AGENT_MODEL_CALL_DURATION, agentName,
+				null, isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_CALL_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(MODEL_CALL_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Records the latency of a tool call of an agent.
+	 * @param agentName the name of the agent
+	 * @param toolName the name of the called tool
+	 * @param isSuccess whether the tool call was successful
+	 * @param durationNanos the latency of the call in nanoseconds
+	 */
+	public void recordToolCall(String agentName, String toolName, boolean isSuccess, long durationNanos) {
+		Timer timer = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.AGENT_TOOL_CALL_DURATION, agentName,
+				toolName, isSuccess, null), key -> Timer.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_TOOL_NAME.value(), key.second())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_CALL_SUCCESS.value(),
+							String.valueOf(key.success()))
+					.description(TOOL_CALL_DESCRIPTION)
+					.publishPercentileHistogram()
+					.register(meterRegistry));
+		timer.record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Counts a failed tool call attempt by outcome, such as retried or given up.
+	 * @param toolName the name of the called tool
+	 * @param outcome the outcome of the failed attempt
+	 */
+	public void recordToolRetry(String toolName, String outcome) {
+		Counter counter = meter(new MeterKey(SpringAiAlibabaObservationMetricNames.AGENT_TOOL_RETRY, toolName, outcome,
+				true, null), key -> Counter.builder(key.name().value())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_TOOL_NAME.value(), key.first())
+					.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_TOOL_RETRY_OUTCOME.value(), key.second())
+					.description(TOOL_RETRY_DESCRIPTION)
+					.register(meterRegistry));
+		counter.increment();
+	}
+
+	/**
+	 * Registers a gauge reporting the state of the circuit breaker of a tool, 0 when
+	 * closed, 1 when half open and 2 when open. The gauge only holds a weak reference to
+	 * {@code breaker}, so the caller has to keep it reachable for as long as it should be
+	 * reported.
+	 * @param toolName the name of the tool
+	 * @param breaker the circuit breaker
+	 * @param state returns the state of the circuit of the tool
+	 */
+	public <T> void registerToolCircuitState(String toolName, T breaker, ToDoubleFunction<T> state) {
+		Gauge.builder(SpringAiAlibabaObservationMetricNames.AGENT_TOOL_CIRCUIT_STATE.value(), breaker, state)
+			.tag(SpringAiAlibabaObservationMetricAttributes.AGENT_TOOL_NAME.value(), toolName)
+			.description(TOOL_CIRCUIT_STATE_DESCRIPTION)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Registers a gauge reporting the number of executions of a graph node in progress.
+	 * The gauge only holds a weak reference to {@code inFlight}, so the caller has to keep
+	 * it reachable for as long as it should be reported.
+	 * @param nodeName the name of the node
+	 * @param inFlight the number of executions in progress
+	 */
+	public void registerActiveNodes(String nodeName, AtomicInteger inFlight) {
+		Gauge.builder(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_ACTIVE.value(), inFlight, AtomicInteger::get)
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), nodeName)
+			.description(ACTIVE_NODES_DESCRIPTION)
+			.register(meterRegistry);
+	}
+
+	/**
+	 * Registers a gauge reporting the number of graph runs in progress. The gauge only
+	 * holds a weak reference to {@code inFlight}, so the caller has to keep it reachable
+	 * for as long as it should be reported.
+	 * @param inFlight the number of runs in progress
+	 */
+	public void registerActiveGraphs(AtomicInteger inFlight) {
+		Gauge.builder(SpringAiAlibabaObservationMetricNames.GRAPH_ACTIVE.value(), inFlight, AtomicInteger::get)
+			.description(ACTIVE_GRAPHS_DESCRIPTION)
+			.register(meterRegistry);
 	}
 
 	/**
@@ -50,13 +356,16 @@ public class GraphMetricsGenerator {
 	 * @param context the node observation context
 	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the node operation was successful
+	 * @deprecated looks the counter up in the registry on every call, use
+	 * {@link #generate(GraphNodeObservationContext, boolean, long)} instead
 	 */
+	@Deprecated
 	public static void generate(GraphNodeObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
 		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), context.getNodeName())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(), String.valueOf(isSuccess))
 			.description(DESCRIPTION)
-			.tags(createTags(context))
+			.tags(createTags(context.getLowCardinalityKeyValues()))
 			.register(meterRegistry)
 			.increment();
 	}
@@ -67,13 +376,16 @@ public class GraphMetricsGenerator {
 	 * @param context the graph observation context
 	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the graph operation was successful
+	 * @deprecated looks the counter up in the registry on every call, use
+	 * {@link #generate(GraphObservationContext, boolean, long)} instead
 	 */
+	@Deprecated
 	public static void generate(GraphObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
 		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH.value())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NAME.value(), context.getGraphName())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_SUCCESS.value(), String.valueOf(isSuccess))
 			.description(DESCRIPTION)
-			.tags(createTags(context))
+			.tags(createTags(context.getLowCardinalityKeyValues()))
 			.register(meterRegistry)
 			.increment();
 	}
@@ -84,29 +396,52 @@ public class GraphMetricsGenerator {
 	 * @param context the edge observation context
 	 * @param meterRegistry the meter registry for metric registration
 	 * @param isSuccess whether the edge operation was successful
+	 * @deprecated looks the counter up in the registry on every call, use
+	 * {@link #generate(GraphEdgeObservationContext, boolean, long)} instead
 	 */
+	@Deprecated
 	public static void generate(GraphEdgeObservationContext context, MeterRegistry meterRegistry, boolean isSuccess) {
 		Counter.builder(SpringAiAlibabaObservationMetricNames.GRAPH_EDGE.value())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_NAME.value(), context.getGraphEdgeName())
 			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_EDGE_SUCCESS.value(), String.valueOf(isSuccess))
 			.description(DESCRIPTION)
-			.tags(createTags(context))
+			.tags(createTags(context.getLowCardinalityKeyValues()))
 			.register(meterRegistry)
 			.increment();
 	}
 
+	@SuppressWarnings("unchecked")
+	private <M extends Meter> M meter(MeterKey key, Function<MeterKey, M> factory) {
+		Meter meter = meters.get(key);
+		if (meter == null) {
+			meter = meters.computeIfAbsent(key, factory);
+		}
+		return (M) meter;
+	}
+
 	/**
 	 * Creates tags from the low cardinality key-values of an observation context.
 	 * Converts KeyValue objects to Tag objects for metric registration.
-	 * @param context the observation context containing key-values
+	 * @param keyValues the key-values of the observation context
 	 * @return a list of tags created from the context's key-values
 	 */
-	private static List<Tag> createTags(Observation.Context context) {
+	private static List<Tag> createTags(KeyValues keyValues) {
 		List<Tag> tags = new ArrayList<>();
-		for (KeyValue keyValue : context.getLowCardinalityKeyValues()) {
-			tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+		if (keyValues != null) {
+			for (KeyValue keyValue : keyValues) {
+				tags.add(Tag.of(keyValue.getKey(), keyValue.getValue()));
+			}
 		}
 		return tags;
 	}
 
+	/**
+	 * Identity of a cached meter. The meaning of {@code first} and {@code second} depends
+	 * on the metric, {@code tags} holds the low cardinality key-values of the observation
+	 * a counter is created from.
+	 */
+	private record MeterKey(SpringAiAlibabaObservationMetricNames name, String first, String second, boolean success,
+			KeyValues tags) {
+	}
+
 }
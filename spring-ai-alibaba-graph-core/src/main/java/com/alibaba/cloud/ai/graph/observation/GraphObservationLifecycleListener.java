@@ -22,18 +22,39 @@ import com.alibaba.cloud.ai.graph.observation.graph.GraphObservationContext;
 import com.alibaba.cloud.ai.graph.observation.node.DefaultGraphNodeObservationConvention;
 import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
 import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationDocumentation;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.observation.Observation;
 import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Lifecycle listener for graph observation operations. Implements GraphLifecycleListener
- * to create observations for different graph lifecycle events. Records complete node
- * execution information including input and output states.
+ * to create observations for different graph lifecycle events.
+ * <p>
+ * Observations are tracked per run, keyed by the thread ID and run ID of the
+ * {@link RunnableConfig}, so concurrent runs of the same compiled graph do not interfere.
+ * Input and output states are only recorded when state capture is enabled, for a sample
+ * of the runs, and are truncated to a maximum length. When a {@link MeterRegistry} is
+ * set, gauges of the graph runs and nodes in progress are registered as well. Node
+ * durations are recorded by {@code GraphNodeObservationHandler} from the node
+ * observations.
+ * <p>
+ * The lifecycle events of a run may be emitted on different threads, so observations
+ * are parented explicitly and no observation scope is opened: the graph observation of a
+ * run is the child of the observation current on the thread starting the run, and the
+ * node observations are children of the graph observation of their run.
  */
 public class GraphObservationLifecycleListener implements GraphLifecycleListener {
 
@@ -43,23 +64,57 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 
 	private static final DefaultGraphNodeObservationConvention DEFAULT_GRAPH_NODE_OBSERVATION_CONVENTION = new DefaultGraphNodeObservationConvention();
 
+	private static final int DEFAULT_MAX_STATE_LENGTH = 4096;
+
+	private static final int DEFAULT_MAX_TRACKED_RUNS = 10_000;
+
+	private static final String TRUNCATED = "...";
+
 	private final ObservationRegistry observationRegistry;
 
-	private volatile Observation graphObservation;
+	private final GraphMetricsGenerator metricsGenerator;
+
+	private final boolean captureState;
+
+	private final double stateSampleRate;
+
+	private final int maxStateLength;
+
+	private final int maxTrackedRuns;
 
-	private volatile Observation.Scope graphScope;
+	private final Map<String, RunObservation> runs = new ConcurrentHashMap<>();
 
-	private final Map<String, Observation> nodeObservations = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> activeNodes = new ConcurrentHashMap<>();
 
-	private final Map<String, Observation.Scope> nodeScopes = new ConcurrentHashMap<>();
+	private final AtomicInteger activeRuns = new AtomicInteger();
 
 	/**
 	 * Constructs a new GraphObservationLifecycleListener with the specified observation
-	 * registry.
+	 * registry. States are not captured and no node metrics are registered.
 	 * @param observationRegistry the registry for managing observations
 	 */
 	public GraphObservationLifecycleListener(ObservationRegistry observationRegistry) {
-		this.observationRegistry = observationRegistry;
+		this(builder().observationRegistry(observationRegistry));
+	}
+
+	private GraphObservationLifecycleListener(Builder builder) {
+		this.observationRegistry = requireNonNull(builder.observationRegistry, "observationRegistry cannot be null");
+		this.metricsGenerator = builder.meterRegistry != null ? new GraphMetricsGenerator(builder.meterRegistry) : null;
+		this.captureState = builder.captureState;
+		this.stateSampleRate = builder.stateSampleRate;
+		this.maxStateLength = builder.maxStateLength;
+		this.maxTrackedRuns = builder.maxTrackedRuns;
+		if (metricsGenerator != null) {
+			metricsGenerator.registerActiveGraphs(activeRuns);
+		}
+	}
+
+	/**
+	 * Creates a new builder of GraphObservationLifecycleListener.
+	 * @return a new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
 	}
 
 	/**
@@ -72,21 +127,30 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	public void onStart(String nodeId, Map<String, Object> state, RunnableConfig config) {
 		log.debug("Starting graph execution observation");
 
-		graphObservation = Observation.createNotStarted(DEFAULT_GRAPH_OBSERVATION_CONVENTION,
-				() -> new GraphObservationContext("graph-execution", state, null), observationRegistry);
+		String runKey = runKey(config);
+		RunObservation run = newRun();
+		RunObservation previous = runs.put(runKey, run);
+		if (previous != null) {
+			log.debug("Replacing unfinished observation of run: {}", runKey);
+			finishRun(previous, null);
+		}
+		evictOldestRuns();
+
+		Map<String, Object> capturedState = run.captureState ? captureState(state) : null;
+		Observation graphObservation = Observation.createNotStarted(DEFAULT_GRAPH_OBSERVATION_CONVENTION,
+				() -> new GraphObservationContext("graph-execution", capturedState, null), observationRegistry);
 
 		Observation currentObservation = observationRegistry.getCurrentObservation();
 		if (currentObservation != null) {
 			graphObservation.parentObservation(currentObservation);
 		}
 
-		graphObservation.start();
-		graphScope = graphObservation.openScope();
+		run.graphObservation = graphObservation.start();
 	}
 
 	/**
 	 * Handles the before execution phase of a graph node. Creates node observation and
-	 * records input state.
+	 * records input state if it is captured for the run.
 	 * @param nodeId the identifier of the node
 	 * @param state the current state of the graph execution
 	 * @param config the runnable configuration for the node
@@ -96,31 +160,40 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	public void before(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
 		log.debug("Starting observation for node: {}", nodeId);
 
+		// Resumed runs do not go through onStart
+		RunObservation run = runs.computeIfAbsent(runKey(config), key -> newRun());
+
 		// Create minimal context for the observation
 		GraphNodeObservationContext context = new GraphNodeObservationContext(nodeId, "execution");
 
 		Observation nodeObservation = Observation.createNotStarted(DEFAULT_GRAPH_NODE_OBSERVATION_CONVENTION,
 				() -> context, observationRegistry);
 
+		Observation graphObservation = run.graphObservation;
 		if (graphObservation != null) {
 			nodeObservation.parentObservation(graphObservation);
 		}
 
-		// Add input state using Documentation constant
-		nodeObservation.highCardinalityKeyValue(
-				GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_BEFOR_STATE.asString(),
-				state != null ? state.toString() : "");
+		if (run.captureState) {
+			// Add input state using Documentation constant
+			nodeObservation.highCardinalityKeyValue(
+					GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_BEFOR_STATE.asString(),
+					String.valueOf(captureState(state)));
+		}
 
 		nodeObservation.start();
-		nodeObservations.put(nodeId, nodeObservation);
-
-		Observation.Scope scope = nodeObservation.openScope();
-		nodeScopes.put(nodeId, scope);
+		Observation previous = run.nodes.put(nodeId, nodeObservation);
+		if (previous != null) {
+			finishNode(nodeId, previous, null);
+		}
+		if (metricsGenerator != null) {
+			activeNodes(nodeId).incrementAndGet();
+		}
 	}
 
 	/**
-	 * Handles the after execution phase of a graph node. Adds output state and stops
-	 * observation.
+	 * Handles the after execution phase of a graph node. Adds output state if it is
+	 * captured for the run and stops observation.
 	 * @param nodeId the identifier of the node
 	 * @param state the current state of the graph execution
 	 * @param config the runnable configuration for the node
@@ -130,20 +203,17 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	public void after(String nodeId, Map<String, Object> state, RunnableConfig config, Long curTime) {
 		log.debug("Stopping observation for node: {}", nodeId);
 
-		Observation.Scope scope = nodeScopes.remove(nodeId);
-		if (scope != null) {
-			scope.close();
-		}
-
-		Observation nodeObservation = nodeObservations.remove(nodeId);
+		RunObservation run = runs.get(runKey(config));
+		Observation node = run != null ? run.nodes.remove(nodeId) : null;
 
-		if (nodeObservation != null) {
-			// Add output state using Documentation constant
-			nodeObservation.highCardinalityKeyValue(
-					GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_AFTER_STATE.asString(),
-					state != null ? state.toString() : "");
-
-			nodeObservation.stop();
+		if (node != null) {
+			if (run.captureState) {
+				// Add output state using Documentation constant
+				node.highCardinalityKeyValue(
+						GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_AFTER_STATE.asString(),
+						String.valueOf(captureState(state)));
+			}
+			finishNode(nodeId, node, null);
 		}
 		else {
 			log.warn("No observation found for node: {}", nodeId);
@@ -151,8 +221,23 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	}
 
 	/**
-	 * Handles errors during graph node execution. Records the error and stops
-	 * observation.
+	 * Records the time a branch of a parallel node waited before it started.
+	 * @param nodeId the identifier of the parallel node
+	 * @param branchNodeId the identifier of the branch
+	 * @param config the runnable configuration for the node
+	 * @param queuedNanos the waiting time in nanoseconds
+	 */
+	@Override
+	public void onParallelBranchStart(String nodeId, String branchNodeId, RunnableConfig config, long queuedNanos) {
+		if (metricsGenerator != null) {
+			metricsGenerator.recordParallelBranchQueueTime(branchNodeId, queuedNanos);
+		}
+	}
+
+	/**
+	 * Handles errors during graph node execution. Records the error, stops the node
+	 * observation and ends the observation of the run, as the run does not go on after
+	 * an error.
 	 * @param nodeId the identifier of the node that encountered an error
 	 * @param state the current state of the graph execution
 	 * @param ex the exception that occurred
@@ -162,29 +247,27 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	public void onError(String nodeId, Map<String, Object> state, Throwable ex, RunnableConfig config) {
 		log.error("Error occurred in node: {}", nodeId, ex);
 
-		Observation.Scope scope = nodeScopes.remove(nodeId);
-		if (scope != null) {
-			scope.close();
+		RunObservation run = runs.remove(runKey(config));
+		if (run == null) {
+			return;
 		}
 
-		Observation nodeObservation = nodeObservations.remove(nodeId);
-
-		if (nodeObservation != null) {
-			// Add error state using Documentation constant
-			nodeObservation.highCardinalityKeyValue(
-					GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_AFTER_STATE.asString(),
-					state != null ? state.toString() : "");
-
-			nodeObservation.error(ex).stop();
+		Observation node = run.nodes.remove(nodeId);
+		if (node != null) {
+			if (run.captureState) {
+				// Add error state using Documentation constant
+				node.highCardinalityKeyValue(
+						GraphNodeObservationDocumentation.HighCardinalityKeyNames.NODE_AFTER_STATE.asString(),
+						String.valueOf(captureState(state)));
+			}
+			finishNode(nodeId, node, ex);
 		}
 
-		if (graphObservation != null) {
-			graphObservation.error(ex);
-		}
+		finishRun(run, ex);
 	}
 
 	/**
-	 * Handles the completion of graph execution. Cleans up all observations.
+	 * Handles the completion of graph execution. Cleans up all observations of the run.
 	 * @param nodeId the identifier of the completed node
 	 * @param state the current state of the graph execution
 	 * @param config the runnable configuration for the node
@@ -193,40 +276,135 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 	public void onComplete(String nodeId, Map<String, Object> state, RunnableConfig config) {
 		log.debug("Graph execution completed");
 
-		// Close all node scopes with proper error handling
-		nodeScopes.values().forEach(this::safeCloseScope);
-		nodeScopes.clear();
+		RunObservation run = runs.remove(runKey(config));
+		if (run != null) {
+			finishRun(run, null);
+		}
+	}
 
-		// Stop all node observations with proper error handling
-		nodeObservations.values().forEach(this::safeStopObservation);
-		nodeObservations.clear();
+	/**
+	 * Builds the key of the run a lifecycle event belongs to.
+	 * @param config the runnable configuration of the event
+	 * @return the run key
+	 */
+	private static String runKey(RunnableConfig config) {
+		if (config == null) {
+			return "";
+		}
+		return config.threadId().orElse("") + '/' + config.runId().orElse("");
+	}
 
-		// Close graph scope with proper error handling
-		if (graphScope != null) {
-			safeCloseScope(graphScope);
-			graphScope = null;
+	private RunObservation newRun() {
+		if (metricsGenerator != null) {
+			activeRuns.incrementAndGet();
 		}
+		boolean sampled = captureState && (stateSampleRate >= 1.0d
+				|| ThreadLocalRandom.current().nextDouble() < stateSampleRate);
+		return new RunObservation(sampled);
+	}
 
-		// Stop graph observation with proper error handling
-		if (graphObservation != null) {
-			safeStopObservation(graphObservation);
-			graphObservation = null;
+	/**
+	 * Ends the observations of runs that were never completed, e.g. interrupted runs,
+	 * once more than the maximum number of runs are tracked. The oldest runs are ended
+	 * first.
+	 */
+	private void evictOldestRuns() {
+		int excess = runs.size() - maxTrackedRuns;
+		if (excess <= 0) {
+			return;
+		}
+		List<Map.Entry<String, RunObservation>> oldest = runs.entrySet()
+			.stream()
+			.sorted(Comparator.comparingLong(entry -> entry.getValue().startNanos))
+			.limit(excess)
+			.toList();
+		for (Map.Entry<String, RunObservation> entry : oldest) {
+			if (runs.remove(entry.getKey(), entry.getValue())) {
+				log.debug("Evicting unfinished observation of run: {}", entry.getKey());
+				finishRun(entry.getValue(), null);
+			}
+		}
+	}
+
+	private void finishRun(RunObservation run, Throwable error) {
+		// Stop the observations of the nodes that are still running
+		run.nodes.forEach((nodeId, node) -> finishNode(nodeId, node, error));
+		run.nodes.clear();
+
+		if (run.graphObservation != null) {
+			if (error != null) {
+				run.graphObservation.error(error);
+			}
+			safeStopObservation(run.graphObservation);
 		}
+		if (metricsGenerator != null) {
+			activeRuns.decrementAndGet();
+		}
+	}
+
+	private void finishNode(String nodeId, Observation node, Throwable error) {
+		if (error != null) {
+			node.error(error);
+		}
+		safeStopObservation(node);
+		if (metricsGenerator != null) {
+			activeNodes(nodeId).decrementAndGet();
+		}
+	}
+
+	private AtomicInteger activeNodes(String nodeId) {
+		AtomicInteger inFlight = activeNodes.get(nodeId);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		return activeNodes.computeIfAbsent(nodeId, key -> {
+			AtomicInteger counter = new AtomicInteger();
+			metricsGenerator.registerActiveNodes(key, counter);
+			return counter;
+		});
 	}
 
 	/**
-	 * Safely close an observation scope, catching and logging any exceptions.
-	 * @param scope the scope to close
+	 * Renders a state for an observation. Collections and maps are summarized instead of
+	 * being rendered in full, and the rendering stops once the maximum state length is
+	 * reached.
+	 * @param state the state to render
+	 * @return the rendered values by key
 	 */
-	private void safeCloseScope(Observation.Scope scope) {
-		try {
-			if (scope != null) {
-				scope.close();
+	private Map<String, Object> captureState(Map<String, Object> state) {
+		Map<String, Object> captured = new LinkedHashMap<>();
+		if (state == null) {
+			return captured;
+		}
+		int remaining = maxStateLength;
+		for (Map.Entry<String, Object> entry : state.entrySet()) {
+			if (remaining <= 0) {
+				captured.put(TRUNCATED, TRUNCATED);
+				break;
 			}
+			String value = describe(entry.getValue(), remaining);
+			captured.put(entry.getKey(), value);
+			remaining -= entry.getKey().length() + value.length();
 		}
-		catch (Exception e) {
-			log.debug("Error closing observation scope: {}", e.getMessage(), e);
+		return captured;
+	}
+
+	private static String describe(Object value, int maxLength) {
+		if (value instanceof List<?> list && !list.isEmpty()) {
+			return "[" + list.size() + " items, last: " + truncate(String.valueOf(list.get(list.size() - 1)), maxLength)
+					+ "]";
+		}
+		if (value instanceof Collection<?> collection) {
+			return "[" + collection.size() + " items]";
+		}
+		if (value instanceof Map<?, ?> map) {
+			return "{" + map.size() + " entries}";
 		}
+		return truncate(String.valueOf(value), maxLength);
+	}
+
+	private static String truncate(String value, int maxLength) {
+		return value.length() <= maxLength ? value : value.substring(0, maxLength) + TRUNCATED;
 	}
 
 	/**
@@ -244,4 +422,122 @@ public class GraphObservationLifecycleListener implements GraphLifecycleListener
 		}
 	}
 
+	/**
+	 * Observations of a single graph run.
+	 */
+	private static final class RunObservation {
+
+		private final boolean captureState;
+
+		private final long startNanos = System.nanoTime();
+
+		private final Map<String, Observation> nodes = new ConcurrentHashMap<>();
+
+		private volatile Observation graphObservation;
+
+		private RunObservation(boolean captureState) {
+			this.captureState = captureState;
+		}
+
+	}
+
+	/**
+	 * Builder of GraphObservationLifecycleListener.
+	 */
+	public static final class Builder {
+
+		private ObservationRegistry observationRegistry;
+
+		private MeterRegistry meterRegistry;
+
+		private boolean captureState;
+
+		private double stateSampleRate = 1.0d;
+
+		private int maxStateLength = DEFAULT_MAX_STATE_LENGTH;
+
+		private int maxTrackedRuns = DEFAULT_MAX_TRACKED_RUNS;
+
+		private Builder() {
+		}
+
+		/**
+		 * Sets the registry for managing observations.
+		 * @param observationRegistry the observation registry
+		 * @return this builder
+		 */
+		public Builder observationRegistry(ObservationRegistry observationRegistry) {
+			this.observationRegistry = observationRegistry;
+			return this;
+		}
+
+		/**
+		 * Sets the registry of the in-flight gauges. No gauges are registered when it is
+		 * not set.
+		 * @param meterRegistry the meter registry
+		 * @return this builder
+		 */
+		public Builder meterRegistry(MeterRegistry meterRegistry) {
+			this.meterRegistry = meterRegistry;
+			return this;
+		}
+
+		/**
+		 * Sets whether the input and output states of the nodes are recorded as high
+		 * cardinality key values. Disabled by default.
+		 * @param captureState whether states are recorded
+		 * @return this builder
+		 */
+		public Builder captureState(boolean captureState) {
+			this.captureState = captureState;
+			return this;
+		}
+
+		/**
+		 * Sets the fraction of the runs whose states are recorded when state capture is
+		 * enabled. Defaults to all runs.
+		 * @param stateSampleRate the sample rate, between 0 and 1
+		 * @return this builder
+		 */
+		public Builder stateSampleRate(double stateSampleRate) {
+			if (stateSampleRate < 0.0d || stateSampleRate > 1.0d) {
+				throw new IllegalArgumentException("stateSampleRate must be between 0 and 1");
+			}
+			this.stateSampleRate = stateSampleRate;
+			return this;
+		}
+
+		/**
+		 * Sets the approximate maximum length of a recorded state. Defaults to 4096.
+		 * @param maxStateLength the maximum state length
+		 * @return this builder
+		 */
+		public Builder maxStateLength(int maxStateLength) {
+			if (maxStateLength <= 0) {
+				throw new IllegalArgumentException("maxStateLength must be positive");
+			}
+			this.maxStateLength = maxStateLength;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of unfinished runs tracked at once. When it is
+		 * exceeded, the observations of the oldest runs are ended. Defaults to 10000.
+		 * @param maxTrackedRuns the maximum number of tracked runs
+		 * @return this builder
+		 */
+		public Builder maxTrackedRuns(int maxTrackedRuns) {
+			if (maxTrackedRuns <= 0) {
+				throw new IllegalArgumentException("maxTrackedRuns must be positive");
+			}
+			this.maxTrackedRuns = maxTrackedRuns;
+			return this;
+		}
+
+		public GraphObservationLifecycleListener build() {
+			return new GraphObservationLifecycleListener(this);
+		}
+
+	}
+
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.observation.checkpoint;
+
+import io.micrometer.observation.Observation;
+
+/**
+ * Context class for graph checkpoint observation operations. Provides the node the
+ * checkpoint is taken after and the number of entries of the checkpointed state.
+ */
+public class GraphCheckpointObservationContext extends Observation.Context {
+
+	/**
+	 * Name of the checkpoint observations.
+	 */
+	public static final String NAME = "spring.ai.alibaba.graph.checkpoint";
+
+	private final String nodeName;
+
+	private final int stateSize;
+
+	/**
+	 * Constructs a new GraphCheckpointObservationContext.
+	 * @param nodeName the name of the node the checkpoint is taken after
+	 * @param stateSize the number of entries of the checkpointed state
+	 */
+	public GraphCheckpointObservationContext(String nodeName, int stateSize) {
+		this.nodeName = nodeName;
+		this.stateSize = stateSize;
+		setName(NAME);
+	}
+
+	/**
+	 * Gets the name of the node the checkpoint is taken after.
+	 * @return the node name
+	 */
+	public String getNodeName() {
+		return this.nodeName;
+	}
+
+	/**
+	 * Gets the number of entries of the checkpointed state.
+	 * @return the state size
+	 */
+	public int getStateSize() {
+		return this.stateSize;
+	}
+
+}
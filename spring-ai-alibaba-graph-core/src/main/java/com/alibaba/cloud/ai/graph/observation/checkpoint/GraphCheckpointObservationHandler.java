@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.observation.checkpoint;
+
+import com.alibaba.cloud.ai.graph.observation.GraphMetricsGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Handler for graph checkpoint observation events. Records the write time of the
+ * checkpoints and the size of the checkpointed states through GraphMetricsGenerator.
+ */
+public class GraphCheckpointObservationHandler implements ObservationHandler<GraphCheckpointObservationContext> {
+
+	private static final String START_NANOS = GraphCheckpointObservationHandler.class.getName() + ".startNanos";
+
+	private final GraphMetricsGenerator metricsGenerator;
+
+	/**
+	 * Constructs a new GraphCheckpointObservationHandler with the specified meter
+	 * registry.
+	 * @param meterRegistry the meter registry for metric collection
+	 */
+	public GraphCheckpointObservationHandler(MeterRegistry meterRegistry) {
+		this.metricsGenerator = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Records the start time of an observation, so its duration is known on stop.
+	 * @param context the observation context
+	 */
+	@Override
+	public void onStart(GraphCheckpointObservationContext context) {
+		context.put(START_NANOS, System.nanoTime());
+	}
+
+	/**
+	 * Handles the completion of a checkpoint write. Records its duration and the state
+	 * size, the write counts as failed when an error was recorded before the stop.
+	 * @param context the checkpoint observation context
+	 */
+	@Override
+	public void onStop(GraphCheckpointObservationContext context) {
+		long startNanos = context.getOrDefault(START_NANOS, System.nanoTime());
+		metricsGenerator.recordCheckpoint(context.getNodeName(), context.getStateSize(), context.getError() == null,
+				System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Determines if this handler supports the given observation context.
+	 * @param context the observation context to check
+	 * @return true if the context is a GraphCheckpointObservationContext
+	 */
+	@Override
+	public boolean supportsContext(Observation.Context context) {
+		return context instanceof GraphCheckpointObservationContext;
+	}
+
+}
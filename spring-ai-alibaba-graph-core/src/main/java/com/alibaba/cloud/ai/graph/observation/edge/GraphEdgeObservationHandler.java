@@ -35,38 +35,48 @@ public class GraphEdgeObservationHandler implements ObservationHandler<GraphEdge
 
 	private static final Logger logger = LoggerFactory.getLogger(GraphObservationHandler.class);
 
-	private final MeterRegistry meterRegistry;
+	private static final String START_NANOS = GraphEdgeObservationHandler.class.getName() + ".startNanos";
+
+	private final GraphMetricsGenerator metricsGenerator;
 
 	/**
 	 * Constructs a new GraphEdgeObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metric collection
 	 */
 	public GraphEdgeObservationHandler(MeterRegistry meterRegistry) {
-		this.meterRegistry = meterRegistry;
+		this.metricsGenerator = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Records the start time of an observation, so its duration is known on stop.
+	 * @param context the observation context
+	 */
+	@Override
+	public void onStart(GraphEdgeObservationContext context) {
+		context.put(START_NANOS, System.nanoTime());
 	}
 
 	/**
-	 * Handles the completion of a graph edge observation. Logs successful edge execution
-	 * details and generates success metrics.
+	 * Handles the completion of a graph edge observation. Generates the metrics of the
+	 * edge, which count as failed when an error was recorded before the stop.
 	 * @param context the edge observation context containing execution details
 	 */
 	@Override
 	public void onStop(GraphEdgeObservationContext context) {
-		logger.info("Graph graphName: {} state: {} nextNode : {}", context.getGraphEdgeName(),
-				context.getState().toString(), context.getNextNode());
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		logger.debug("Graph graphName: {} state: {} nextNode : {}", context.getGraphEdgeName(), context.getState(),
+				context.getNextNode());
+		long startNanos = context.getOrDefault(START_NANOS, System.nanoTime());
+		metricsGenerator.generate(context, context.getError() == null, System.nanoTime() - startNanos);
 	}
 
 	/**
-	 * Handles errors during graph edge observation. Logs error details and generates
-	 * failure metrics.
+	 * Handles errors during graph edge observation. Only logs them, the failure metrics
+	 * are generated when the observation stops.
 	 * @param context the edge observation context containing error details
 	 */
 	@Override
 	public void onError(GraphEdgeObservationContext context) {
-		logger.info("Graph graphName: {} state: {} nextNode : {}", context.getGraphEdgeName(),
-				context.getState().toString(), context.getNextNode());
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		logger.debug("Graph graphName: {} failed", context.getGraphEdgeName(), context.getError());
 	}
 
 	/**
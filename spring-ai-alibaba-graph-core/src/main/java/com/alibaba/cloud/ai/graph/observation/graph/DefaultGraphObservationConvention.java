@@ -87,10 +87,13 @@ public class DefaultGraphObservationConvention implements GraphObservationConven
 	 */
 	@Override
 	public KeyValues getHighCardinalityKeyValues(GraphObservationContext context) {
-		KeyValues keyValues = KeyValues
-			.of(KeyValue.of(HighCardinalityKeyNames.GRAPH_NODE_STATE, context.getState().toString()));
+		KeyValues keyValues = KeyValues.empty();
+		if (context.getState() != null) {
+			keyValues = keyValues.and(KeyValue.of(HighCardinalityKeyNames.GRAPH_NODE_STATE, context.getState().toString()));
+		}
 		if (context.getOutput() != null) {
-			keyValues.and(KeyValue.of(HighCardinalityKeyNames.GRAPH_NODE_OUTPUT, context.getOutput().toString()));
+			keyValues = keyValues
+				.and(KeyValue.of(HighCardinalityKeyNames.GRAPH_NODE_OUTPUT, context.getOutput().toString()));
 		}
 		return keyValues;
 	}
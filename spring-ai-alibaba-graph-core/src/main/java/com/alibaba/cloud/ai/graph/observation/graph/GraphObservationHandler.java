@@ -33,36 +33,46 @@ public class GraphObservationHandler implements ObservationHandler<GraphObservat
 
 	private static final Logger logger = LoggerFactory.getLogger(GraphObservationHandler.class);
 
-	private final MeterRegistry meterRegistry;
+	private static final String START_NANOS = GraphObservationHandler.class.getName() + ".startNanos";
+
+	private final GraphMetricsGenerator metricsGenerator;
 
 	/**
 	 * Constructs a new GraphObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metrics collection
 	 */
 	public GraphObservationHandler(MeterRegistry meterRegistry) {
-		this.meterRegistry = meterRegistry;
+		this.metricsGenerator = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Records the start time of an observation, so its duration is known on stop.
+	 * @param context the observation context
+	 */
+	@Override
+	public void onStart(GraphObservationContext context) {
+		context.put(START_NANOS, System.nanoTime());
 	}
 
 	/**
-	 * Handles successful graph observation completion. Logs graph information and
-	 * generates success metrics.
+	 * Handles the completion of a graph graph observation. Generates the metrics of the
+	 * graph, which count as failed when an error was recorded before the stop.
 	 */
 	@Override
 	public void onStop(GraphObservationContext context) {
-		logger.info("Graph graphName: {} state: {} output : {}", context.getGraphName(), context.getState().toString(),
-				context.getOutput().toString());
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		logger.debug("Graph graphName: {} state: {} output : {}", context.getGraphName(), context.getState(),
+				context.getOutput());
+		long startNanos = context.getOrDefault(START_NANOS, System.nanoTime());
+		metricsGenerator.generate(context, context.getError() == null, System.nanoTime() - startNanos);
 	}
 
 	/**
-	 * Handles graph observation errors. Logs graph information and generates error
-	 * metrics.
+	 * Handles errors during graph graph observation. Only logs them, the failure metrics
+	 * are generated when the observation stops.
 	 */
 	@Override
 	public void onError(GraphObservationContext context) {
-		logger.info("Graph graphName: {} state: {} output : {}", context.getGraphName(), context.getState().toString(),
-				context.getOutput().toString());
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		logger.debug("Graph graphName: {} failed", context.getGraphName(), context.getError());
 	}
 
 	/**
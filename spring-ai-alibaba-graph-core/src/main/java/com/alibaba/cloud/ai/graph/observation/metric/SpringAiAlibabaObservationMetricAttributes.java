@@ -53,7 +53,32 @@ public enum SpringAiAlibabaObservationMetricAttributes {
 	/**
 	 * Attribute indicating the success status of a graph edge operation.
 	 */
-	GRAPH_EDGE_SUCCESS("spring.ai.alibaba.graph.edge.success");
+	GRAPH_EDGE_SUCCESS("spring.ai.alibaba.graph.edge.success"),
+
+	/**
+	 * Attribute for the name of an agent.
+	 */
+	AGENT_NAME("spring.ai.alibaba.agent.name"),
+
+	/**
+	 * Attribute for the name of a tool called by an agent.
+	 */
+	AGENT_TOOL_NAME("spring.ai.alibaba.agent.tool.name"),
+
+	/**
+	 * Attribute for the model endpoint a concurrency budget is shared for.
+	 */
+	AGENT_MODEL_ENDPOINT("spring.ai.alibaba.agent.model.endpoint"),
+
+	/**
+	 * Attribute indicating the success status of an agent model or tool call.
+	 */
+	AGENT_CALL_SUCCESS("spring.ai.alibaba.agent.call.success"),
+
+	/**
+	 * Attribute for the outcome of a failed tool call attempt.
+	 */
+	AGENT_TOOL_RETRY_OUTCOME("spring.ai.alibaba.agent.tool.retry.outcome");
 
 	private final String value;
 
@@ -38,7 +38,72 @@ public enum SpringAiAlibabaObservationMetricNames {
 	/**
 	 * Metric name for graph edge operations.
 	 */
-	GRAPH_EDGE("spring.ai.alibaba.graph.edge");
+	GRAPH_EDGE("spring.ai.alibaba.graph.edge"),
+
+	/**
+	 * Metric name for the number of graph runs in progress.
+	 */
+	GRAPH_ACTIVE("spring.ai.alibaba.graph.active"),
+
+	/**
+	 * Metric name for the execution time of graph runs.
+	 */
+	GRAPH_DURATION("spring.ai.alibaba.graph.duration"),
+
+	/**
+	 * Metric name for the execution time of graph nodes.
+	 */
+	GRAPH_NODE_DURATION("spring.ai.alibaba.graph.node.duration"),
+
+	/**
+	 * Metric name for the number of graph nodes in progress.
+	 */
+	GRAPH_NODE_ACTIVE("spring.ai.alibaba.graph.node.active"),
+
+	/**
+	 * Metric name for the evaluation time of graph edges.
+	 */
+	GRAPH_EDGE_DURATION("spring.ai.alibaba.graph.edge.duration"),
+
+	/**
+	 * Metric name for the write time of graph checkpoints.
+	 */
+	GRAPH_CHECKPOINT_DURATION("spring.ai.alibaba.graph.checkpoint.duration"),
+
+	/**
+	 * Metric name for the number of entries of the checkpointed graph states.
+	 */
+	GRAPH_STATE_SIZE("spring.ai.alibaba.graph.state.size"),
+
+	/**
+	 * Metric name for the time branches of parallel nodes wait before they start.
+	 */
+	GRAPH_PARALLEL_BRANCH_QUEUE_DURATION("spring.ai.alibaba.graph.parallel.branch.queue.duration"),
+
+	/**
+	 * Metric name for the latency of the model calls of agents.
+	 */
+	AGENT_MODEL_CALL_DURATION("spring.ai.alibaba.agent.model.call.duration"),
+
+	/**
+	 * Metric name for the time model calls of agents wait for a concurrency budget.
+	 */
+	AGENT_MODEL_CALL_QUEUE_DURATION("spring.ai.alibaba.agent.model.call.queue.duration"),
+
+	/**
+	 * Metric name for the latency of the tool calls of agents.
+	 */
+	AGENT_TOOL_CALL_DURATION("spring.ai.alibaba.agent.tool.call.duration"),
+
+	/**
+	 * Metric name for the outcomes of failed tool call attempts: retried, or given up.
+	 */
+	AGENT_TOOL_RETRY("spring.ai.alibaba.agent.tool.retry"),
+
+	/**
+	 * Metric name for the state of the circuit breakers of tools.
+	 */
+	AGENT_TOOL_CIRCUIT_STATE("spring.ai.alibaba.agent.tool.circuit.state");
 
 	private final String value;
 
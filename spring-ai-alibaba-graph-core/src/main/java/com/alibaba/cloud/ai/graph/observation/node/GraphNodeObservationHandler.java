@@ -34,34 +34,46 @@ public class GraphNodeObservationHandler implements ObservationHandler<GraphNode
 
 	private static final Logger logger = LoggerFactory.getLogger(GraphNodeObservationHandler.class);
 
-	private final MeterRegistry meterRegistry;
+	private static final String START_NANOS = GraphNodeObservationHandler.class.getName() + ".startNanos";
+
+	private final GraphMetricsGenerator metricsGenerator;
 
 	/**
 	 * Constructs a new GraphNodeObservationHandler with the specified meter registry.
 	 * @param meterRegistry the meter registry for metric collection
 	 */
 	public GraphNodeObservationHandler(MeterRegistry meterRegistry) {
-		this.meterRegistry = meterRegistry;
+		this.metricsGenerator = new GraphMetricsGenerator(meterRegistry);
+	}
+
+	/**
+	 * Records the start time of an observation, so its duration is known on stop.
+	 * @param context the observation context
+	 */
+	@Override
+	public void onStart(GraphNodeObservationContext context) {
+		context.put(START_NANOS, System.nanoTime());
 	}
 
 	/**
-	 * Handles the completion of a graph node observation. Logs successful node execution
-	 * details and generates success metrics.
+	 * Handles the completion of a graph node observation. Generates the metrics of the
+	 * node, which count as failed when an error was recorded before the stop.
 	 * @param context the node observation context containing execution details
 	 */
 	@Override
 	public void onStop(GraphNodeObservationContext context) {
-		GraphMetricsGenerator.generate(context, meterRegistry, true);
+		long startNanos = context.getOrDefault(START_NANOS, System.nanoTime());
+		metricsGenerator.generate(context, context.getError() == null, System.nanoTime() - startNanos);
 	}
 
 	/**
-	 * Handles errors during graph node observation. Logs error details and generates
-	 * failure metrics.
+	 * Handles errors during graph node observation. Only logs them, the failure metrics
+	 * are generated when the observation stops.
 	 * @param context the node observation context containing error details
 	 */
 	@Override
 	public void onError(GraphNodeObservationContext context) {
-		GraphMetricsGenerator.generate(context, meterRegistry, false);
+		logger.debug("Graph node: {} failed", context.getNodeName(), context.getError());
 	}
 
 	/**
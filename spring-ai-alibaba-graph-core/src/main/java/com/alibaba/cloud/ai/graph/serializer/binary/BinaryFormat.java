@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+/**
+ * Constants of the binary state format. An encoded state starts with
+ * {@link #VERSION}, followed by the top level map. Every value starts with one of the
+ * type tags below; sizes, lengths and integers are varints, integers being zigzag
+ * encoded first.
+ * <p>
+ * Short strings are written once per encoded state: the first occurrence is tagged
+ * {@link #STRING_DEF} and appended to a dictionary, later occurrences are tagged
+ * {@link #STRING_REF} with their index in the dictionary. Longer strings are tagged
+ * {@link #STRING} and never added to the dictionary.
+ */
+final class BinaryFormat {
+
+	static final byte VERSION = 1;
+
+	static final byte NULL = 0;
+
+	static final byte STRING = 1;
+
+	static final byte STRING_DEF = 2;
+
+	static final byte STRING_REF = 3;
+
+	static final byte TRUE = 4;
+
+	static final byte FALSE = 5;
+
+	static final byte INT = 6;
+
+	static final byte LONG = 7;
+
+	static final byte DOUBLE = 8;
+
+	static final byte FLOAT = 9;
+
+	static final byte SHORT = 10;
+
+	static final byte BYTE = 11;
+
+	static final byte CHAR = 12;
+
+	static final byte BYTES = 13;
+
+	static final byte LIST = 14;
+
+	static final byte SET = 15;
+
+	static final byte MAP = 16;
+
+	static final byte ENUM = 17;
+
+	static final byte USER_MESSAGE = 18;
+
+	static final byte ASSISTANT_MESSAGE = 19;
+
+	static final byte SYSTEM_MESSAGE = 20;
+
+	static final byte TOOL_RESPONSE_MESSAGE = 21;
+
+	static final byte AGENT_INSTRUCTION_MESSAGE = 22;
+
+	static final byte TOOL_CALL = 23;
+
+	static final byte TOOL_RESPONSE = 24;
+
+	/**
+	 * Any other {@link java.io.Serializable} value, written with Java serialization.
+	 */
+	static final byte JAVA_OBJECT = 25;
+
+	/**
+	 * Strings up to this length are added to the dictionary.
+	 */
+	static final int MAX_DICTIONARY_STRING_LENGTH = 128;
+
+	private BinaryFormat() {
+	}
+
+}
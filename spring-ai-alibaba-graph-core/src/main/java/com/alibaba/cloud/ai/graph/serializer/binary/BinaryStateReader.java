@@ -0,0 +1,272 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryFormat.*;
+
+/**
+ * Decodes a state written by {@link BinaryStateWriter}. A reader decodes a single state
+ * and is not thread safe.
+ */
+final class BinaryStateReader {
+
+	private static final Map<String, Class<?>> ENUM_TYPES = new ConcurrentHashMap<>();
+
+	private final List<String> dictionary = new ArrayList<>();
+
+	private final byte[] buffer;
+
+	private final int limit;
+
+	private int position;
+
+	BinaryStateReader(byte[] buffer, int length) {
+		this.buffer = buffer;
+		this.limit = length;
+	}
+
+	Map<String, Object> readState() throws IOException, ClassNotFoundException {
+		byte version = readByte();
+		if (version != VERSION) {
+			throw new StreamCorruptedException("Unsupported binary state version: " + version);
+		}
+		byte tag = readByte();
+		if (tag != MAP) {
+			throw new StreamCorruptedException("Expected a map at the top level, but got tag: " + tag);
+		}
+		int size = readSize();
+		Map<String, Object> data = new HashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+		for (int i = 0; i < size; i++) {
+			data.put((String) readValue(), readValue());
+		}
+		return data;
+	}
+
+	Object readValue() throws IOException, ClassNotFoundException {
+		byte tag = readByte();
+		return switch (tag) {
+			case NULL -> null;
+			case STRING -> readUtf8();
+			case STRING_DEF -> {
+				String value = readUtf8();
+				dictionary.add(value);
+				yield value;
+			}
+			case STRING_REF -> lookup(readSize());
+			case TRUE -> Boolean.TRUE;
+			case FALSE -> Boolean.FALSE;
+			case INT -> (int) unZigZag(readVarLong());
+			case LONG -> unZigZag(readVarLong());
+			case DOUBLE -> Double.longBitsToDouble(readFixedLong());
+			case FLOAT -> Float.intBitsToFloat((int) readVarLong());
+			case SHORT -> (short) unZigZag(readVarLong());
+			case BYTE -> readByte();
+			case CHAR -> (char) readVarLong();
+			case BYTES -> readBytes(readSize());
+			case LIST -> {
+				int size = readSize();
+				List<Object> list = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readValue());
+				}
+				yield list;
+			}
+			case SET -> {
+				int size = readSize();
+				Set<Object> set = new LinkedHashSet<>(Math.max(16, (int) (size / 0.75f) + 1));
+				for (int i = 0; i < size; i++) {
+					set.add(readValue());
+				}
+				yield set;
+			}
+			case MAP -> readMapBody();
+			case ENUM -> readEnum();
+			case USER_MESSAGE -> UserMessage.builder()
+				.text((String) readValue())
+				.metadata(readMetadata())
+				.build();
+			case ASSISTANT_MESSAGE -> {
+				String text = (String) readValue();
+				Map<String, Object> metadata = readMetadata();
+				int size = readSize();
+				List<AssistantMessage.ToolCall> toolCalls = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					toolCalls.add(readToolCall());
+				}
+				yield new AssistantMessage(text, metadata, toolCalls);
+			}
+			case SYSTEM_MESSAGE -> SystemMessage.builder()
+				.text((String) readValue())
+				.metadata(readMetadata())
+				.build();
+			case TOOL_RESPONSE_MESSAGE -> {
+				int size = readSize();
+				List<ToolResponseMessage.ToolResponse> responses = new ArrayList<>(size);
+				for (int i = 0; i < size; i++) {
+					responses.add(readToolResponse());
+				}
+				yield ToolResponseMessage.builder().responses(responses).metadata(readMetadata()).build();
+			}
+			case AGENT_INSTRUCTION_MESSAGE -> new AgentInstructionMessage((String) readValue(), readMetadata());
+			case TOOL_CALL -> readToolCall();
+			case TOOL_RESPONSE -> readToolResponse();
+			case JAVA_OBJECT -> readJavaObject(readSize());
+			default -> throw new StreamCorruptedException("Unknown type tag: " + tag);
+		};
+	}
+
+	private Map<Object, Object> readMapBody() throws IOException, ClassNotFoundException {
+		int size = readSize();
+		Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+		for (int i = 0; i < size; i++) {
+			map.put(readValue(), readValue());
+		}
+		return map;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> readMetadata() throws IOException, ClassNotFoundException {
+		byte tag = readByte();
+		if (tag != MAP) {
+			throw new StreamCorruptedException("Expected message metadata, but got tag: " + tag);
+		}
+		return (Map<String, Object>) (Map<?, ?>) readMapBody();
+	}
+
+	private AssistantMessage.ToolCall readToolCall() throws IOException, ClassNotFoundException {
+		return new AssistantMessage.ToolCall((String) readValue(), (String) readValue(), (String) readValue(),
+				(String) readValue());
+	}
+
+	private ToolResponseMessage.ToolResponse readToolResponse() throws IOException, ClassNotFoundException {
+		return new ToolResponseMessage.ToolResponse((String) readValue(), (String) readValue(),
+				(String) readValue());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum() throws IOException, ClassNotFoundException {
+		String className = (String) readValue();
+		String name = (String) readValue();
+		Class<?> type = ENUM_TYPES.get(className);
+		if (type == null) {
+			type = Class.forName(className, false, Thread.currentThread().getContextClassLoader() != null
+					? Thread.currentThread().getContextClassLoader() : BinaryStateReader.class.getClassLoader());
+			if (!type.isEnum()) {
+				throw new StreamCorruptedException("Not an enum type: " + className);
+			}
+			ENUM_TYPES.putIfAbsent(className, type);
+		}
+		return Enum.valueOf((Class<? extends Enum>) type, name);
+	}
+
+	private Object readJavaObject(int length) throws IOException, ClassNotFoundException {
+		checkAvailable(length);
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(buffer, position, length))) {
+			position += length;
+			return in.readObject();
+		}
+	}
+
+	private String lookup(int index) throws StreamCorruptedException {
+		if (index >= dictionary.size()) {
+			throw new StreamCorruptedException("Unknown string reference: " + index);
+		}
+		return dictionary.get(index);
+	}
+
+	private String readUtf8() throws IOException {
+		int length = readSize();
+		checkAvailable(length);
+		String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+		position += length;
+		return value;
+	}
+
+	private byte[] readBytes(int length) throws IOException {
+		checkAvailable(length);
+		byte[] bytes = new byte[length];
+		System.arraycopy(buffer, position, bytes, 0, length);
+		position += length;
+		return bytes;
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private byte readByte() throws IOException {
+		checkAvailable(1);
+		return buffer[position++];
+	}
+
+	private int readSize() throws IOException {
+		long size = readVarLong();
+		if (size < 0 || size > Integer.MAX_VALUE) {
+			throw new StreamCorruptedException("Invalid size: " + size);
+		}
+		return (int) size;
+	}
+
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new StreamCorruptedException("Malformed varint");
+	}
+
+	private long readFixedLong() throws IOException {
+		checkAvailable(8);
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (buffer[position++] & 0xFF);
+		}
+		return value;
+	}
+
+	private void checkAvailable(int length) throws EOFException {
+		if (length > limit - position) {
+			throw new EOFException();
+		}
+	}
+
+}
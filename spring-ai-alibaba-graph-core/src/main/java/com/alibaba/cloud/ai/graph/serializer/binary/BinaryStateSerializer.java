@@ -0,0 +1,129 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A compact binary {@link StateSerializer}. Values are written with a one byte type tag
+ * and varint sizes; map keys, message metadata keys, message types and other short
+ * strings are written once per state and referenced afterwards. Spring AI messages, tool
+ * calls and tool responses have dedicated codecs, other {@link java.io.Serializable}
+ * values fall back to Java serialization.
+ * <p>
+ * Encoding buffers are reused per thread. {@link #cloneObject(OverAllState)} decodes
+ * straight from the encoding buffer without going through object streams.
+ * <p>
+ * Subclasses of the supported message types are decoded as their base type, and media
+ * attached to messages is not serialized.
+ */
+public class BinaryStateSerializer extends StateSerializer {
+
+	public BinaryStateSerializer() {
+		this(OverAllState::new);
+	}
+
+	public BinaryStateSerializer(AgentStateFactory<OverAllState> stateFactory) {
+		super(stateFactory);
+	}
+
+	@Override
+	public void writeData(Map<String, Object> data, ObjectOutput out) throws IOException {
+		BinaryStateWriter writer = BinaryStateWriter.acquire();
+		try {
+			writer.writeState(data);
+			out.writeInt(writer.size());
+			writer.writeTo(out);
+		}
+		finally {
+			writer.release();
+		}
+	}
+
+	@Override
+	public Map<String, Object> readData(ObjectInput in) throws IOException, ClassNotFoundException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new BinaryStateReader(bytes, bytes.length).readState();
+	}
+
+	/**
+	 * Encodes the given state data.
+	 * @param data the state data
+	 * @return the encoded data
+	 * @throws IOException if a value cannot be serialized
+	 */
+	public byte[] encode(Map<String, Object> data) throws IOException {
+		Objects.requireNonNull(data, "data cannot be null");
+		BinaryStateWriter writer = BinaryStateWriter.acquire();
+		try {
+			writer.writeState(data);
+			return writer.toByteArray();
+		}
+		finally {
+			writer.release();
+		}
+	}
+
+	/**
+	 * Decodes state data produced by {@link #encode(Map)}.
+	 * @param bytes the encoded data
+	 * @return the state data
+	 * @throws IOException if the data is malformed
+	 * @throws ClassNotFoundException if the class of a value cannot be found
+	 */
+	public Map<String, Object> decode(byte[] bytes) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		return new BinaryStateReader(bytes, bytes.length).readState();
+	}
+
+	@Override
+	public byte[] objectToBytes(OverAllState object) throws IOException {
+		Objects.requireNonNull(object, "object cannot be null");
+		return encode(object.data());
+	}
+
+	@Override
+	public OverAllState bytesToObject(byte[] bytes) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(bytes, "bytes cannot be null");
+		if (bytes.length == 0) {
+			throw new IllegalArgumentException("bytes cannot be empty");
+		}
+		return stateOf(decode(bytes));
+	}
+
+	@Override
+	public OverAllState cloneObject(OverAllState object) throws IOException, ClassNotFoundException {
+		Objects.requireNonNull(object, "object cannot be null");
+		BinaryStateWriter writer = BinaryStateWriter.acquire();
+		try {
+			writer.writeState(object.data());
+			return stateOf(new BinaryStateReader(writer.buffer(), writer.size()).readState());
+		}
+		finally {
+			writer.release();
+		}
+	}
+
+}
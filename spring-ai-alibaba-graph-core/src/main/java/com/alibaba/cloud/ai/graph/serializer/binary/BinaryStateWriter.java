@@ -0,0 +1,348 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.alibaba.cloud.ai.graph.serializer.binary.BinaryFormat.*;
+
+/**
+ * Encodes a state in the {@link BinaryFormat binary format}. Writers are pooled per
+ * thread: {@link #acquire()} returns the writer of the current thread, whose buffer and
+ * string dictionary are reused once {@link #release() released}.
+ */
+final class BinaryStateWriter {
+
+	private static final int INITIAL_CAPACITY = 4096;
+
+	/**
+	 * Buffers grown beyond this size are not kept by the pool.
+	 */
+	private static final int MAX_POOLED_CAPACITY = 1 << 20;
+
+	private static final ThreadLocal<BinaryStateWriter> POOL = ThreadLocal.withInitial(BinaryStateWriter::new);
+
+	private final Map<String, Integer> dictionary = new HashMap<>();
+
+	private byte[] buffer = new byte[INITIAL_CAPACITY];
+
+	private int position;
+
+	private boolean inUse;
+
+	private BinaryStateWriter() {
+	}
+
+	/**
+	 * Returns the writer of the current thread, or a new writer if it is already in use.
+	 * @return a writer to release once done
+	 */
+	static BinaryStateWriter acquire() {
+		BinaryStateWriter writer = POOL.get();
+		if (writer.inUse) {
+			writer = new BinaryStateWriter();
+		}
+		writer.inUse = true;
+		return writer;
+	}
+
+	/**
+	 * Resets the writer so that the current thread can reuse it.
+	 */
+	void release() {
+		position = 0;
+		dictionary.clear();
+		if (buffer.length > MAX_POOLED_CAPACITY) {
+			buffer = new byte[INITIAL_CAPACITY];
+		}
+		inUse = false;
+	}
+
+	byte[] buffer() {
+		return buffer;
+	}
+
+	int size() {
+		return position;
+	}
+
+	byte[] toByteArray() {
+		return Arrays.copyOf(buffer, position);
+	}
+
+	void writeTo(DataOutput out) throws IOException {
+		out.write(buffer, 0, position);
+	}
+
+	void writeState(Map<String, Object> data) throws IOException {
+		writeByte(VERSION);
+		writeMap(data);
+	}
+
+	void writeValue(Object value) throws IOException {
+		if (value == null) {
+			writeByte(NULL);
+		}
+		else if (value instanceof String string) {
+			writeString(string);
+		}
+		else if (value instanceof Boolean bool) {
+			writeByte(bool ? TRUE : FALSE);
+		}
+		else if (value instanceof Integer number) {
+			writeByte(INT);
+			writeVarLong(zigZag(number));
+		}
+		else if (value instanceof Long number) {
+			writeByte(LONG);
+			writeVarLong(zigZag(number));
+		}
+		else if (value instanceof Double number) {
+			writeByte(DOUBLE);
+			writeFixedLong(Double.doubleToRawLongBits(number));
+		}
+		else if (value instanceof Float number) {
+			writeByte(FLOAT);
+			writeVarLong(Integer.toUnsignedLong(Float.floatToRawIntBits(number)));
+		}
+		else if (value instanceof Short number) {
+			writeByte(SHORT);
+			writeVarLong(zigZag(number));
+		}
+		else if (value instanceof Byte number) {
+			writeByte(BYTE);
+			writeByte(number);
+		}
+		else if (value instanceof Character character) {
+			writeByte(CHAR);
+			writeVarLong(character);
+		}
+		else if (value instanceof byte[] bytes) {
+			writeByte(BYTES);
+			writeVarLong(bytes.length);
+			writeBytes(bytes, 0, bytes.length);
+		}
+		else if (value instanceof UserMessage message) {
+			writeByte(USER_MESSAGE);
+			writeValue(message.getText());
+			writeMap(message.getMetadata());
+		}
+		else if (value instanceof AssistantMessage message) {
+			writeByte(ASSISTANT_MESSAGE);
+			writeValue(message.getText());
+			writeMap(message.getMetadata());
+			List<AssistantMessage.ToolCall> toolCalls = message.getToolCalls();
+			writeVarLong(toolCalls.size());
+			for (AssistantMessage.ToolCall toolCall : toolCalls) {
+				writeToolCall(toolCall);
+			}
+		}
+		else if (value instanceof SystemMessage message) {
+			writeByte(SYSTEM_MESSAGE);
+			writeValue(message.getText());
+			writeMap(message.getMetadata());
+		}
+		else if (value instanceof ToolResponseMessage message) {
+			writeByte(TOOL_RESPONSE_MESSAGE);
+			List<ToolResponseMessage.ToolResponse> responses = message.getResponses();
+			writeVarLong(responses.size());
+			for (ToolResponseMessage.ToolResponse response : responses) {
+				writeToolResponse(response);
+			}
+			writeMap(message.getMetadata());
+		}
+		else if (value instanceof AgentInstructionMessage message) {
+			writeByte(AGENT_INSTRUCTION_MESSAGE);
+			writeValue(message.getText());
+			writeMap(message.getMetadata());
+		}
+		else if (value instanceof AssistantMessage.ToolCall toolCall) {
+			writeByte(TOOL_CALL);
+			writeToolCall(toolCall);
+		}
+		else if (value instanceof ToolResponseMessage.ToolResponse response) {
+			writeByte(TOOL_RESPONSE);
+			writeToolResponse(response);
+		}
+		else if (value instanceof Set<?> set) {
+			writeByte(SET);
+			writeElements(set);
+		}
+		else if (value instanceof Collection<?> collection) {
+			writeByte(LIST);
+			writeElements(collection);
+		}
+		else if (value instanceof Map<?, ?> map) {
+			writeMap(map);
+		}
+		else if (value instanceof Enum<?> constant) {
+			writeByte(ENUM);
+			writeString(constant.getDeclaringClass().getName());
+			writeString(constant.name());
+		}
+		else if (value instanceof Serializable) {
+			writeByte(JAVA_OBJECT);
+			writeJavaObject(value);
+		}
+		else {
+			throw new NotSerializableException(value.getClass().getName());
+		}
+	}
+
+	private void writeMap(Map<?, ?> map) throws IOException {
+		writeByte(MAP);
+		writeVarLong(map.size());
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			writeValue(entry.getKey());
+			writeValue(entry.getValue());
+		}
+	}
+
+	private void writeElements(Collection<?> collection) throws IOException {
+		writeVarLong(collection.size());
+		for (Object element : collection) {
+			writeValue(element);
+		}
+	}
+
+	private void writeToolCall(AssistantMessage.ToolCall toolCall) throws IOException {
+		writeValue(toolCall.id());
+		writeValue(toolCall.type());
+		writeValue(toolCall.name());
+		writeValue(toolCall.arguments());
+	}
+
+	private void writeToolResponse(ToolResponseMessage.ToolResponse response) throws IOException {
+		writeValue(response.id());
+		writeValue(response.name());
+		writeValue(response.responseData());
+	}
+
+	private void writeString(String value) {
+		if (value.length() <= MAX_DICTIONARY_STRING_LENGTH) {
+			Integer index = dictionary.get(value);
+			if (index != null) {
+				writeByte(STRING_REF);
+				writeVarLong(index);
+				return;
+			}
+			dictionary.put(value, dictionary.size());
+			writeByte(STRING_DEF);
+		}
+		else {
+			writeByte(STRING);
+		}
+		writeUtf8(value);
+	}
+
+	private void writeUtf8(String value) {
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) >= 0x80) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				writeVarLong(bytes.length);
+				writeBytes(bytes, 0, bytes.length);
+				return;
+			}
+		}
+		// ASCII only: one byte per char, no intermediate array
+		writeVarLong(length);
+		ensureCapacity(length);
+		for (int i = 0; i < length; i++) {
+			buffer[position++] = (byte) value.charAt(i);
+		}
+	}
+
+	private void writeJavaObject(Object value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(value);
+		}
+		writeVarLong(bytes.size());
+		ensureCapacity(bytes.size());
+		bytes.writeTo(new OutputStream() {
+			@Override
+			public void write(int b) {
+				buffer[position++] = (byte) b;
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				System.arraycopy(b, off, buffer, position, len);
+				position += len;
+			}
+		});
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private void writeByte(int value) {
+		ensureCapacity(1);
+		buffer[position++] = (byte) value;
+	}
+
+	private void writeBytes(byte[] bytes, int offset, int length) {
+		ensureCapacity(length);
+		System.arraycopy(bytes, offset, buffer, position, length);
+		position += length;
+	}
+
+	private void writeVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+	}
+
+	private void writeFixedLong(long value) {
+		ensureCapacity(8);
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			buffer[position++] = (byte) (value >>> shift);
+		}
+	}
+
+	private void ensureCapacity(int additional) {
+		int required = position + additional;
+		if (required > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length << 1));
+		}
+	}
+
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list sharing its structure with the lists it was derived from.
+ * <p>
+ * Elements are kept in a 32-way trie plus a tail chunk, so {@link #plus(Object)} returns
+ * a new list in amortized O(1) and {@link #get(int)} is O(log32 n), while the original
+ * list stays untouched. Removing elements rebuilds the list. The {@link java.util.List}
+ * mutators throw {@link UnsupportedOperationException}.
+ * </p>
+ * <p>
+ * Used for the values of keys managed by
+ * {@link com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy}, so state snapshots
+ * and parallel branches share the message history instead of copying it.
+ * </p>
+ *
+ * @param <E> the type of elements
+ */
+public final class PersistentList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final int BITS = 5;
+
+	private static final int WIDTH = 1 << BITS;
+
+	private static final int MASK = WIDTH - 1;
+
+	private static final Object[] EMPTY_NODE = new Object[WIDTH];
+
+	private static final PersistentList<?> EMPTY = new PersistentList<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+	private final transient int size;
+
+	private final transient int shift;
+
+	private final transient Object[] root;
+
+	private final transient Object[] tail;
+
+	private PersistentList(int size, int shift, Object[] root, Object[] tail) {
+		this.size = size;
+		this.shift = shift;
+		this.root = root;
+		this.tail = tail;
+	}
+
+	/**
+	 * Returns the empty list.
+	 * @param <E> the type of elements
+	 * @return the empty list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentList<E> empty() {
+		return (PersistentList<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a persistent list with the given elements, or the given collection itself
+	 * if it is already a persistent list.
+	 * @param elements the elements
+	 * @param <E> the type of elements
+	 * @return the persistent list
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+	@SuppressWarnings("unchecked")
+	public static <E> PersistentList<E> copyOf(Collection<? extends E> elements) {
+		if (elements instanceof PersistentList<?> persistentList) {
+			return (PersistentList<E>) persistentList;
+		}
+		PersistentList<E> result = empty();
+		return result.plusAll(elements);
+	}
+
+	/**
+	 * Returns a list with the given element appended.
+	 * @param element the element
+	 * @return the new list
+	 */
+	public PersistentList<E> plus(E element) {
+		int tailSize = size - tailOffset();
+		if (tailSize < WIDTH) {
+			Object[] newTail = new Object[tailSize + 1];
+			System.arraycopy(tail, 0, newTail, 0, tailSize);
+			newTail[tailSize] = element;
+			return new PersistentList<>(size + 1, shift, root, newTail);
+		}
+		// the tail is full, push it into the trie
+		Object[] newRoot;
+		int newShift = shift;
+		if ((size >>> BITS) > (1 << shift)) {
+			newRoot = new Object[WIDTH];
+			newRoot[0] = root;
+			newRoot[1] = newPath(shift, tail);
+			newShift += BITS;
+		}
+		else {
+			newRoot = pushTail(shift, root, tail);
+		}
+		return new PersistentList<>(size + 1, newShift, newRoot, new Object[] { element });
+	}
+
+	/**
+	 * Returns a list with the given elements appended.
+	 * @param elements the elements
+	 * @return the new list, or this list if there are no elements
+	 */
+	public PersistentList<E> plusAll(Collection<? extends E> elements) {
+		PersistentList<E> result = this;
+		if (elements != null) {
+			for (E element : elements) {
+				result = result.plus(element);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a list without the element at the given index, rebuilding the list in O(n).
+	 * @param index the index of the element to remove
+	 * @return the new list
+	 */
+	public PersistentList<E> minus(int index) {
+		checkIndex(index);
+		PersistentList<E> result = empty();
+		for (int i = 0; i < size; i++) {
+			if (i != index) {
+				result = result.plus(get(i));
+			}
+		}
+		return result;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		checkIndex(index);
+		return (E) chunkFor(index)[index & MASK];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<>() {
+
+			private int index;
+
+			private Object[] chunk;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public E next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				if ((index & MASK) == 0 || chunk == null) {
+					chunk = chunkFor(index);
+				}
+				return (E) chunk[index++ & MASK];
+			}
+		};
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	private int tailOffset() {
+		return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+	}
+
+	private Object[] chunkFor(int index) {
+		if (index >= tailOffset()) {
+			return tail;
+		}
+		Object[] node = root;
+		for (int level = shift; level > 0; level -= BITS) {
+			node = (Object[]) node[(index >>> level) & MASK];
+		}
+		return node;
+	}
+
+	private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+		int subIndex = ((size - 1) >>> level) & MASK;
+		Object[] result = parent.clone();
+		Object[] nodeToInsert;
+		if (level == BITS) {
+			nodeToInsert = tailNode;
+		}
+		else {
+			Object[] child = (Object[]) parent[subIndex];
+			nodeToInsert = child != null ? pushTail(level - BITS, child, tailNode) : newPath(level - BITS, tailNode);
+		}
+		result[subIndex] = nodeToInsert;
+		return result;
+	}
+
+	private static Object[] newPath(int level, Object[] node) {
+		if (level == 0) {
+			return node;
+		}
+		Object[] result = new Object[WIDTH];
+		result[0] = newPath(level - BITS, node);
+		return result;
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return new SerializationProxy(this);
+	}
+
+	@Serial
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	/**
+	 * Serializes the elements as a plain {@link ArrayList}, so the trie layout never ends
+	 * up in the serialized form.
+	 */
+	private static final class SerializationProxy implements Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final ArrayList<Object> elements;
+
+		SerializationProxy(PersistentList<?> list) {
+			this.elements = new ArrayList<>(list);
+		}
+
+		@Serial
+		private Object readResolve() {
+			return copyOf(elements);
+		}
+
+	}
+
+}
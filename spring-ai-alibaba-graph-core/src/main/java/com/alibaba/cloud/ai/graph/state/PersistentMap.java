@@ -0,0 +1,527 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable map sharing its structure with the maps it was derived from.
+ * <p>
+ * Entries are kept in a hash array mapped trie, so {@link #with(Object, Object)} and
+ * {@link #without(Object)} return a new map in O(log32 n) copying only the path to the
+ * changed entry, while the original map stays untouched. The {@link Map} mutators throw
+ * {@link UnsupportedOperationException}. {@code null} keys and values are allowed.
+ * </p>
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @see PersistentStateMap
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+	private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	/**
+	 * Root of the trie, either {@code null}, a {@link Leaf}, a {@link BitmapNode} or a
+	 * {@link CollisionNode}.
+	 */
+	private final transient Object root;
+
+	private final transient int size;
+
+	private transient Set<Entry<K, V>> entrySet;
+
+	private PersistentMap(Object root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the empty map.
+	 * @param <K> the type of keys
+	 * @param <V> the type of values
+	 * @return the empty map
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> empty() {
+		return (PersistentMap<K, V>) EMPTY;
+	}
+
+	/**
+	 * Returns a persistent map with the entries of the given map, or the given map itself
+	 * if it is already a persistent map.
+	 * @param map the source map
+	 * @param <K> the type of keys
+	 * @param <V> the type of values
+	 * @return the persistent map
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+	@SuppressWarnings("unchecked")
+	public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+		if (map instanceof PersistentMap<?, ?> persistentMap) {
+			return (PersistentMap<K, V>) persistentMap;
+		}
+		PersistentMap<K, V> result = empty();
+		return result.withAll(map);
+	}
+
+	/**
+	 * Returns a map with the given entry added or replaced.
+	 * @param key the key
+	 * @param value the value
+	 * @return the new map, or this map if it already holds the same value
+	 */
+	public PersistentMap<K, V> with(K key, V value) {
+		Leaf leaf = new Leaf(hash(key), key, value);
+		if (root == null) {
+			return new PersistentMap<>(leaf, 1);
+		}
+		boolean[] added = new boolean[1];
+		Object newRoot = put(root, 0, leaf, added);
+		if (newRoot == root) {
+			return this;
+		}
+		return new PersistentMap<>(newRoot, added[0] ? size + 1 : size);
+	}
+
+	/**
+	 * Returns a map with all the entries of the given map added or replaced.
+	 * @param map the entries to add
+	 * @return the new map
+	 */
+	public PersistentMap<K, V> withAll(Map<? extends K, ? extends V> map) {
+		PersistentMap<K, V> result = this;
+		if (map != null) {
+			for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+				result = result.with(entry.getKey(), entry.getValue());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a map without the given key.
+	 * @param key the key
+	 * @return the new map, or this map if it does not contain the key
+	 */
+	public PersistentMap<K, V> without(Object key) {
+		if (root == null) {
+			return this;
+		}
+		Object newRoot = remove(root, 0, hash(key), key);
+		if (newRoot == root) {
+			return this;
+		}
+		return newRoot == null ? empty() : new PersistentMap<>(newRoot, size - 1);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return find(key) != null;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		Leaf leaf = find(key);
+		return leaf != null ? (V) leaf.value : null;
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<K, V>> iterator() {
+					return new EntryIterator<>(root);
+				}
+
+				@Override
+				public int size() {
+					return size;
+				}
+			};
+		}
+		return entrySet;
+	}
+
+	private Leaf find(Object key) {
+		int hash = hash(key);
+		Object node = root;
+		int shift = 0;
+		while (node != null) {
+			if (node instanceof Leaf leaf) {
+				return leaf.matches(hash, key) ? leaf : null;
+			}
+			if (node instanceof CollisionNode collision) {
+				return collision.hash == hash ? collision.find(key) : null;
+			}
+			BitmapNode bitmapNode = (BitmapNode) node;
+			int bit = bit(hash, shift);
+			if ((bitmapNode.bitmap & bit) == 0) {
+				return null;
+			}
+			node = bitmapNode.slots[bitmapNode.index(bit)];
+			shift += BITS;
+		}
+		return null;
+	}
+
+	private static int hash(Object key) {
+		return Objects.hashCode(key);
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static int hashOf(Object slot) {
+		return slot instanceof Leaf leaf ? leaf.hash : ((CollisionNode) slot).hash;
+	}
+
+	private static Object put(Object node, int shift, Leaf leaf, boolean[] added) {
+		if (node instanceof Leaf existing) {
+			if (existing.matches(leaf.hash, leaf.key)) {
+				return existing.value == leaf.value ? existing : leaf;
+			}
+			added[0] = true;
+			return merge(shift, existing, leaf);
+		}
+		if (node instanceof CollisionNode collision) {
+			if (collision.hash != leaf.hash) {
+				added[0] = true;
+				return merge(shift, collision, leaf);
+			}
+			return collision.put(leaf, added);
+		}
+		BitmapNode bitmapNode = (BitmapNode) node;
+		int bit = bit(leaf.hash, shift);
+		int index = bitmapNode.index(bit);
+		if ((bitmapNode.bitmap & bit) == 0) {
+			added[0] = true;
+			Object[] slots = new Object[bitmapNode.slots.length + 1];
+			System.arraycopy(bitmapNode.slots, 0, slots, 0, index);
+			slots[index] = leaf;
+			System.arraycopy(bitmapNode.slots, index, slots, index + 1, bitmapNode.slots.length - index);
+			return new BitmapNode(bitmapNode.bitmap | bit, slots);
+		}
+		Object child = bitmapNode.slots[index];
+		Object newChild = put(child, shift + BITS, leaf, added);
+		if (newChild == child) {
+			return bitmapNode;
+		}
+		Object[] slots = bitmapNode.slots.clone();
+		slots[index] = newChild;
+		return new BitmapNode(bitmapNode.bitmap, slots);
+	}
+
+	/**
+	 * Builds the smallest node holding two slots with different keys.
+	 */
+	private static Object merge(int shift, Object first, Leaf second) {
+		int firstHash = hashOf(first);
+		if (firstHash == second.hash) {
+			if (first instanceof CollisionNode collision) {
+				return collision.put(second, new boolean[1]);
+			}
+			return new CollisionNode(firstHash, new Leaf[] { (Leaf) first, second });
+		}
+		int firstBit = bit(firstHash, shift);
+		int secondBit = bit(second.hash, shift);
+		if (firstBit == secondBit) {
+			return new BitmapNode(firstBit, new Object[] { merge(shift + BITS, first, second) });
+		}
+		Object[] slots = Integer.compareUnsigned(firstBit, secondBit) < 0 ? new Object[] { first, second }
+				: new Object[] { second, first };
+		return new BitmapNode(firstBit | secondBit, slots);
+	}
+
+	private static Object remove(Object node, int shift, int hash, Object key) {
+		if (node instanceof Leaf leaf) {
+			return leaf.matches(hash, key) ? null : leaf;
+		}
+		if (node instanceof CollisionNode collision) {
+			return collision.hash == hash ? collision.remove(key) : collision;
+		}
+		BitmapNode bitmapNode = (BitmapNode) node;
+		int bit = bit(hash, shift);
+		if ((bitmapNode.bitmap & bit) == 0) {
+			return bitmapNode;
+		}
+		int index = bitmapNode.index(bit);
+		Object child = bitmapNode.slots[index];
+		Object newChild = remove(child, shift + BITS, hash, key);
+		if (newChild == child) {
+			return bitmapNode;
+		}
+		if (newChild == null) {
+			if (bitmapNode.slots.length == 1) {
+				return null;
+			}
+			Object[] slots = new Object[bitmapNode.slots.length - 1];
+			System.arraycopy(bitmapNode.slots, 0, slots, 0, index);
+			System.arraycopy(bitmapNode.slots, index + 1, slots, index, slots.length - index);
+			if (slots.length == 1 && !(slots[0] instanceof BitmapNode)) {
+				// a single leaf or collision node does not need its own level
+				return slots[0];
+			}
+			return new BitmapNode(bitmapNode.bitmap & ~bit, slots);
+		}
+		if (bitmapNode.slots.length == 1 && !(newChild instanceof BitmapNode)) {
+			return newChild;
+		}
+		Object[] slots = bitmapNode.slots.clone();
+		slots[index] = newChild;
+		return new BitmapNode(bitmapNode.bitmap, slots);
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return new SerializationProxy(this);
+	}
+
+	@Serial
+	private void readObject(ObjectInputStream in) throws InvalidObjectException {
+		throw new InvalidObjectException("Proxy required");
+	}
+
+	private static final class Leaf implements Entry<Object, Object> {
+
+		final int hash;
+
+		final Object key;
+
+		final Object value;
+
+		Leaf(int hash, Object key, Object value) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+		}
+
+		boolean matches(int hash, Object key) {
+			return this.hash == hash && Objects.equals(this.key, key);
+		}
+
+		@Override
+		public Object getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof Entry<?, ?> entry && Objects.equals(key, entry.getKey())
+					&& Objects.equals(value, entry.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+
+	}
+
+	private static final class BitmapNode {
+
+		final int bitmap;
+
+		final Object[] slots;
+
+		BitmapNode(int bitmap, Object[] slots) {
+			this.bitmap = bitmap;
+			this.slots = slots;
+		}
+
+		int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+	}
+
+	private static final class CollisionNode {
+
+		final int hash;
+
+		final Leaf[] leaves;
+
+		CollisionNode(int hash, Leaf[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		Leaf find(Object key) {
+			for (Leaf leaf : leaves) {
+				if (Objects.equals(leaf.key, key)) {
+					return leaf;
+				}
+			}
+			return null;
+		}
+
+		Object put(Leaf leaf, boolean[] added) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (Objects.equals(leaves[i].key, leaf.key)) {
+					if (leaves[i].value == leaf.value) {
+						return this;
+					}
+					Leaf[] newLeaves = leaves.clone();
+					newLeaves[i] = leaf;
+					return new CollisionNode(hash, newLeaves);
+				}
+			}
+			added[0] = true;
+			Leaf[] newLeaves = new Leaf[leaves.length + 1];
+			System.arraycopy(leaves, 0, newLeaves, 0, leaves.length);
+			newLeaves[leaves.length] = leaf;
+			return new CollisionNode(hash, newLeaves);
+		}
+
+		Object remove(Object key) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (Objects.equals(leaves[i].key, key)) {
+					if (leaves.length == 2) {
+						return leaves[1 - i];
+					}
+					Leaf[] newLeaves = new Leaf[leaves.length - 1];
+					System.arraycopy(leaves, 0, newLeaves, 0, i);
+					System.arraycopy(leaves, i + 1, newLeaves, i, newLeaves.length - i);
+					return new CollisionNode(hash, newLeaves);
+				}
+			}
+			return this;
+		}
+
+	}
+
+	/**
+	 * Depth first iterator over the leaves of the trie.
+	 */
+	private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+		private final Deque<Object[]> stack = new ArrayDeque<>();
+
+		private final Deque<Integer> positions = new ArrayDeque<>();
+
+		private Leaf next;
+
+		EntryIterator(Object root) {
+			if (root != null) {
+				stack.push(new Object[] { root });
+				positions.push(0);
+				advance();
+			}
+		}
+
+		private void advance() {
+			next = null;
+			while (!stack.isEmpty()) {
+				Object[] slots = stack.peek();
+				int position = positions.pop();
+				if (position >= slots.length) {
+					stack.pop();
+					continue;
+				}
+				positions.push(position + 1);
+				Object slot = slots[position];
+				if (slot instanceof Leaf leaf) {
+					next = leaf;
+					return;
+				}
+				stack.push(slot instanceof BitmapNode bitmapNode ? bitmapNode.slots : ((CollisionNode) slot).leaves);
+				positions.push(0);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Entry<K, V> result = (Entry<K, V>) (Entry<?, ?>) next;
+			advance();
+			return result;
+		}
+
+	}
+
+	/**
+	 * Serializes the entries as a plain {@link HashMap}, so the trie layout never ends up
+	 * in the serialized form.
+	 */
+	private static final class SerializationProxy implements Serializable {
+
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		private final HashMap<Object, Object> entries;
+
+		SerializationProxy(PersistentMap<?, ?> map) {
+			this.entries = new HashMap<>(map);
+		}
+
+		@Serial
+		private Object readResolve() {
+			return copyOf(entries);
+		}
+
+	}
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A mutable state map backed by a {@link PersistentMap}.
+ * <p>
+ * Every update swaps the backing map for a new version sharing the unchanged entries, so
+ * {@link #snapshot()} and {@link #toPersistentMap()} are O(1) and later updates never
+ * leak into a snapshot. Readers iterating the map while it is updated see a consistent
+ * version of it.
+ * </p>
+ *
+ * @see com.alibaba.cloud.ai.graph.OverAllState
+ */
+public class PersistentStateMap extends AbstractMap<String, Object> implements Serializable {
+
+	@Serial
+	private static final long serialVersionUID = 1L;
+
+	private volatile PersistentMap<String, Object> entries;
+
+	public PersistentStateMap() {
+		this.entries = PersistentMap.empty();
+	}
+
+	/**
+	 * @param data the initial entries, copied unless they already are a persistent map
+	 */
+	public PersistentStateMap(Map<String, Object> data) {
+		if (data instanceof PersistentStateMap stateMap) {
+			this.entries = stateMap.entries;
+		}
+		else {
+			this.entries = data != null ? PersistentMap.copyOf(data) : PersistentMap.empty();
+		}
+	}
+
+	/**
+	 * Returns an independent copy of this map in O(1).
+	 * @return the copy
+	 */
+	public PersistentStateMap snapshot() {
+		PersistentStateMap copy = new PersistentStateMap();
+		copy.entries = entries;
+		return copy;
+	}
+
+	/**
+	 * Returns the current immutable version of this map.
+	 * @return the immutable map
+	 */
+	public PersistentMap<String, Object> toPersistentMap() {
+		return entries;
+	}
+
+	@Override
+	public int size() {
+		return entries.size();
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return entries.containsKey(key);
+	}
+
+	@Override
+	public Object get(Object key) {
+		return entries.get(key);
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		PersistentMap<String, Object> current = entries;
+		entries = current.with(key, value);
+		return current.get(key);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		PersistentMap<String, Object> current = entries;
+		entries = current.without(key);
+		return current.get(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ?> map) {
+		if (map instanceof PersistentStateMap stateMap && entries.isEmpty()) {
+			entries = stateMap.entries;
+			return;
+		}
+		entries = entries.withAll(map);
+	}
+
+	@Override
+	public void clear() {
+		entries = PersistentMap.empty();
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<Entry<String, Object>> iterator = entries.entrySet().iterator();
+				return new Iterator<>() {
+
+					private Entry<String, Object> last;
+
+					@Override
+					public boolean hasNext() {
+						return iterator.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						last = iterator.next();
+						return last;
+					}
+
+					@Override
+					public void remove() {
+						if (last == null) {
+							throw new IllegalStateException();
+						}
+						PersistentStateMap.this.remove(last.getKey());
+						last = null;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return entries.size();
+			}
+		};
+	}
+
+}
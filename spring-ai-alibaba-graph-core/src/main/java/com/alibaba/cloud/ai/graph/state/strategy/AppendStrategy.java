@@ -16,24 +16,30 @@
 package com.alibaba.cloud.ai.graph.state.strategy;
 
 import com.alibaba.cloud.ai.graph.KeyStrategy;
-import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
 import com.alibaba.cloud.ai.graph.state.AppenderChannel;
+import com.alibaba.cloud.ai.graph.state.PersistentList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.chat.messages.AssistantMessage;
-import org.springframework.ai.chat.messages.SystemMessage;
-import org.springframework.ai.chat.messages.UserMessage;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 
-import static java.util.Collections.unmodifiableList;
-
+/**
+ * Appends new values to the list value of a key.
+ * <p>
+ * The merged value is an immutable {@link AppendedList} sharing its elements with the
+ * previous value, so snapshots, checkpoints and parallel branches do not copy the whole
+ * history on every update. Its mutators throw {@link UnsupportedOperationException}:
+ * nodes reading the list from the state must copy it before modifying it, and return
+ * the values to append, or {@link AppenderChannel.RemoveIdentifier}s, as their update.
+ * Lists restored from a checkpoint by a serializer may be of another type, the next
+ * update turns them into an {@link AppendedList} again.
+ * </p>
+ */
 public class AppendStrategy implements KeyStrategy {
 
 	private static final Logger log = LoggerFactory.getLogger(AppendStrategy.class);
@@ -59,15 +65,14 @@ public class AppendStrategy implements KeyStrategy {
 
 		boolean oldValueIsList = oldValue instanceof List<?>;
 
-		if (oldValueIsList && newValue instanceof AppenderChannel.RemoveIdentifier<?>) {
-			var result = new ArrayList<>((List<Object>) oldValue);
-			removeFromList(result, (AppenderChannel.RemoveIdentifier) newValue);
-			return unmodifiableList(result);
+		if (oldValueIsList && newValue instanceof AppenderChannel.RemoveIdentifier<?> removeIdentifier) {
+			return removeAll(AppendedList.copyOf((List<Object>) oldValue),
+					List.of((AppenderChannel.RemoveIdentifier<Object>) removeIdentifier));
 		}
 
 		List<Object> list = null;
 		if (newValue instanceof List) {
-			list = new ArrayList<>((List<?>) newValue);
+			list = (List<Object>) newValue;
 		}
 		else if (newValue.getClass().isArray()) {
 			list = Arrays.asList((Object[]) newValue);
@@ -77,134 +82,114 @@ public class AppendStrategy implements KeyStrategy {
 		}
 
 		if (oldValueIsList) {
-			List<Object> oldList = (List<Object>) oldValue;
+			AppendedList<Object> oldList = AppendedList.copyOf((List<Object>) oldValue);
 			if (list != null) {
 				if (list.isEmpty()) {
 					return oldValue;
 				}
-				if (oldValueIsList) {
-					var result = evaluateRemoval((List<Object>) oldValue, list);
-					return mergeValuesWithMessageTypeHandling(result, allowDuplicate);
-				}
-				oldList.addAll(list);
-			}
-			else {
-				oldList.add(newValue);
+				return merge(oldList, list);
 			}
-			return oldList;
+			// single values are appended as they are, the old list may be shared by a
+			// snapshot
+			return oldList.plus(newValue);
 		}
 		else {
-			ArrayList<Object> arrayResult = new ArrayList<>();
 			if (list != null) {
-				arrayResult.addAll(list);
+				return AppendedList.copyOf(list);
 			}
-			else {
-				arrayResult.add(newValue);
+			return AppendedList.empty().plus(newValue);
+		}
+	}
+
+	/**
+	 * Removes from the list the first element matching each identifier, keeping the
+	 * deduplication index of the list up to date.
+	 */
+	private static AppendedList<Object> removeAll(AppendedList<Object> list,
+			List<AppenderChannel.RemoveIdentifier<Object>> removeIdentifiers) {
+		List<Object> result = new ArrayList<>(list);
+		MergeIndex index = list.index();
+		for (AppenderChannel.RemoveIdentifier<Object> removeIdentifier : removeIdentifiers) {
+			Object removed = removeFromList(result, removeIdentifier);
+			if (removed != null && index != null) {
+				index = index.removed(removed);
 			}
-			return arrayResult;
 		}
+		return new AppendedList<>(PersistentList.copyOf(result), index);
 	}
 
-	private static void removeFromList(List<Object> result, AppenderChannel.RemoveIdentifier<Object> removeIdentifier) {
+	private static Object removeFromList(List<Object> result, AppenderChannel.RemoveIdentifier<Object> removeIdentifier) {
 		for (int i = 0; i < result.size(); i++) {
 			if (removeIdentifier.compareTo(result.get(i), i) == 0) {
-				result.remove(i);
-				break;
+				return result.remove(i);
 			}
 		}
-	}
-
-	private static AppenderChannel.RemoveData<Object> evaluateRemoval(List<Object> oldValues, List<?> newValues) {
-
-		final var result = new AppenderChannel.RemoveData<>(oldValues, newValues);
-
-		newValues.stream().filter(value -> value instanceof AppenderChannel.RemoveIdentifier<?>).forEach(value -> {
-			result.newValues().remove(value);
-			var removeIdentifier = (AppenderChannel.RemoveIdentifier<Object>) value;
-			removeFromList(result.oldValues(), removeIdentifier);
-
-		});
-		return result;
-
+		return null;
 	}
 
 	/**
 	 * Merges old values and new values with special handling based on message types:
 	 * <ul>
 	 *   <li>AssistantMessage: duplicates are not allowed</li>
-	 *   <li>UserMessage or AgentInstructionMessage: duplicates are allowed (unless allowDuplicate is false)</li>
+	 *   <li>UserMessage or AgentInstructionMessage: duplicates are allowed</li>
 	 *   <li>SystemMessage: duplicates are allowed but an error log is printed</li>
 	 *   <li>Other types: duplicates are handled according to allowDuplicate flag</li>
 	 * </ul>
+	 * <p>
+	 * {@link AppenderChannel.RemoveIdentifier} values remove the matching old values
+	 * first. The old values are deduplicated once, the index kept by the returned list
+	 * lets the following merges only process their new values.
+	 * </p>
 	 *
-	 * @param result the RemoveData containing old and new values
-	 * @param allowDuplicate whether to allow duplicates for non-message types
+	 * @param oldList the current list
+	 * @param newValues the values to append
 	 * @return merged list with message type-specific deduplication applied
 	 */
-	private List<Object> mergeValuesWithMessageTypeHandling(AppenderChannel.RemoveData<Object> result, boolean allowDuplicate) {
-		List<Object> merged = new ArrayList<>();
-		LinkedHashSet<AssistantMessage> seenAssistantMessages = new LinkedHashSet<>();
-		LinkedHashSet<Object> seenOtherTypes = allowDuplicate ? null : new LinkedHashSet<>();
-
-		// Process old values - maintain order
-		for (Object value : result.oldValues()) {
-			if (value instanceof AssistantMessage assistantMessage) {
-				// AssistantMessage: not allowed to duplicate
-				if (seenAssistantMessages.add(assistantMessage)) {
-					merged.add(value);
-				}
-			}
-			else if (value instanceof SystemMessage || value instanceof UserMessage || value instanceof AgentInstructionMessage) {
-				// SystemMessage, UserMessage, AgentInstructionMessage: always allow duplicates
-				merged.add(value);
-			}
-			else {
-				// Other types: handle according to allowDuplicate flag
-				if (allowDuplicate) {
-					merged.add(value);
-				}
-				else {
-					if (seenOtherTypes.add(value)) {
-						merged.add(value);
-					}
-				}
+	private AppendedList<Object> merge(AppendedList<Object> oldList, List<Object> newValues) {
+		List<AppenderChannel.RemoveIdentifier<Object>> removeIdentifiers = new ArrayList<>();
+		for (Object value : newValues) {
+			if (value instanceof AppenderChannel.RemoveIdentifier<?> removeIdentifier) {
+				removeIdentifiers.add((AppenderChannel.RemoveIdentifier<Object>) removeIdentifier);
 			}
 		}
+		AppendedList<Object> base = removeIdentifiers.isEmpty() ? oldList : removeAll(oldList, removeIdentifiers);
 
-		// Process new values - maintain order
-		for (Object value : result.newValues()) {
-			if (value instanceof AssistantMessage assistantMessage) {
-				// AssistantMessage: not allowed to duplicate
-				if (seenAssistantMessages.add(assistantMessage)) {
-					merged.add(value);
+		MergeIndex index = base.index();
+		PersistentList<Object> merged;
+		if (index != null && index.allowDuplicate() == allowDuplicate) {
+			merged = base.elements();
+		}
+		else {
+			// list not built by a merge yet, deduplicate the old values too
+			index = MergeIndex.empty(allowDuplicate);
+			merged = PersistentList.empty();
+			for (Object value : base) {
+				MergeIndex next = index.accept(value);
+				if (next != null) {
+					index = next;
+					merged = merged.plus(value);
 				}
 			}
-			else if (value instanceof SystemMessage || value instanceof UserMessage || value instanceof AgentInstructionMessage) {
-				// SystemMessage, UserMessage, AgentInstructionMessage: always allow duplicates
-				merged.add(value);
+		}
+
+		for (Object value : newValues) {
+			if (value instanceof AppenderChannel.RemoveIdentifier<?>) {
+				continue;
 			}
-			else {
-				// Other types: handle according to allowDuplicate flag
-				if (allowDuplicate) {
-					merged.add(value);
-				}
-				else {
-					if (seenOtherTypes.add(value)) {
-						merged.add(value);
-					}
-				}
+			MergeIndex next = index.accept(value);
+			if (next != null) {
+				index = next;
+				merged = merged.plus(value);
 			}
 		}
 
 		// Check for multiple SystemMessages and log error
-		long systemMessageCount = merged.stream()
-				.filter(SystemMessage.class::isInstance)
-				.count();
-		if (systemMessageCount > 1) {
-			log.error("Multiple SystemMessage instances detected (count: {}). This may cause unexpected behavior.", systemMessageCount);
+		if (index.systemMessageCount() > 1) {
+			log.error("Multiple SystemMessage instances detected (count: {}). This may cause unexpected behavior.",
+					index.systemMessageCount());
 		}
 
-		return merged;
+		return new AppendedList<>(merged, index);
 	}
 
 }
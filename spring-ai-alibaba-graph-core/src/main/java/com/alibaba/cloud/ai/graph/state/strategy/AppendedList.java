@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state.strategy;
+
+import com.alibaba.cloud.ai.graph.state.PersistentList;
+import com.fasterxml.jackson.annotation.JsonCreator;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.RandomAccess;
+
+/**
+ * The immutable list value produced by {@link AppendStrategy}. The {@link java.util.List}
+ * mutators throw {@link UnsupportedOperationException}, copy the list to modify it.
+ * <p>
+ * Wraps a {@link PersistentList} together with the deduplication index of its elements,
+ * so the next merge only processes the new values instead of the whole history. Lists
+ * restored from a checkpoint have no index, which is rebuilt by the next merge.
+ * </p>
+ *
+ * @param <E> the type of elements
+ */
+public final class AppendedList<E> extends AbstractList<E> implements RandomAccess, Serializable {
+
+	private static final AppendedList<?> EMPTY = new AppendedList<>(PersistentList.empty(), null);
+
+	private final transient PersistentList<E> elements;
+
+	private final transient MergeIndex index;
+
+	AppendedList(PersistentList<E> elements, MergeIndex index) {
+		this.elements = elements;
+		this.index = index;
+	}
+
+	/**
+	 * Returns the empty list.
+	 * @param <E> the type of elements
+	 * @return the empty list
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> AppendedList<E> empty() {
+		return (AppendedList<E>) EMPTY;
+	}
+
+	/**
+	 * Returns a list with the given elements, or the given collection itself if it is
+	 * already an appended list.
+	 * @param elements the elements
+	 * @param <E> the type of elements
+	 * @return the list
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+	@SuppressWarnings("unchecked")
+	public static <E> AppendedList<E> copyOf(Collection<? extends E> elements) {
+		if (elements instanceof AppendedList<?> appendedList) {
+			return (AppendedList<E>) appendedList;
+		}
+		return new AppendedList<>(PersistentList.copyOf(elements), null);
+	}
+
+	/**
+	 * Returns a list with the given element appended, without deduplication.
+	 * @param element the element
+	 * @return the new list
+	 */
+	public AppendedList<E> plus(E element) {
+		// a duplicate invalidates the index, the next merge rebuilds it
+		return new AppendedList<>(elements.plus(element), index != null ? index.accept(element) : null);
+	}
+
+	PersistentList<E> elements() {
+		return elements;
+	}
+
+	MergeIndex index() {
+		return index;
+	}
+
+	@Override
+	public E get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return elements.iterator();
+	}
+
+	@Serial
+	private Object writeReplace() {
+		return elements;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state.strategy;
+
+import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
+import com.alibaba.cloud.ai.graph.state.PersistentMap;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+/**
+ * Immutable deduplication index of a list merged by {@link AppendStrategy}.
+ * <p>
+ * Holds the values already present in the list that later values must not duplicate,
+ * and the number of {@link SystemMessage}s, so a merge only looks at the new values.
+ * The sets are persistent maps, so every version of the list keeps its own index at
+ * O(log n) cost per change.
+ * </p>
+ */
+final class MergeIndex {
+
+	private final boolean allowDuplicate;
+
+	private final PersistentMap<Object, Boolean> assistantMessages;
+
+	private final PersistentMap<Object, Boolean> otherValues;
+
+	private final int systemMessageCount;
+
+	private MergeIndex(boolean allowDuplicate, PersistentMap<Object, Boolean> assistantMessages,
+			PersistentMap<Object, Boolean> otherValues, int systemMessageCount) {
+		this.allowDuplicate = allowDuplicate;
+		this.assistantMessages = assistantMessages;
+		this.otherValues = otherValues;
+		this.systemMessageCount = systemMessageCount;
+	}
+
+	static MergeIndex empty(boolean allowDuplicate) {
+		return new MergeIndex(allowDuplicate, PersistentMap.empty(), PersistentMap.empty(), 0);
+	}
+
+	boolean allowDuplicate() {
+		return allowDuplicate;
+	}
+
+	int systemMessageCount() {
+		return systemMessageCount;
+	}
+
+	/**
+	 * Adds a value to the index.
+	 * @param value the value appended to the list
+	 * @return the new index, or {@code null} if the value duplicates a value of the list
+	 * and must be dropped
+	 */
+	MergeIndex accept(Object value) {
+		if (value instanceof AssistantMessage) {
+			// AssistantMessage: not allowed to duplicate
+			if (assistantMessages.containsKey(value)) {
+				return null;
+			}
+			return new MergeIndex(allowDuplicate, assistantMessages.with(value, Boolean.TRUE), otherValues,
+					systemMessageCount);
+		}
+		if (value instanceof SystemMessage) {
+			return new MergeIndex(allowDuplicate, assistantMessages, otherValues, systemMessageCount + 1);
+		}
+		if (value instanceof UserMessage || value instanceof AgentInstructionMessage || allowDuplicate) {
+			// UserMessage, AgentInstructionMessage: always allow duplicates
+			return this;
+		}
+		if (otherValues.containsKey(value)) {
+			return null;
+		}
+		return new MergeIndex(allowDuplicate, assistantMessages, otherValues.with(value, Boolean.TRUE),
+				systemMessageCount);
+	}
+
+	/**
+	 * Removes a value of the list from the index.
+	 * @param value the value removed from the list
+	 * @return the new index
+	 */
+	MergeIndex removed(Object value) {
+		if (value instanceof AssistantMessage) {
+			return new MergeIndex(allowDuplicate, assistantMessages.without(value), otherValues, systemMessageCount);
+		}
+		if (value instanceof SystemMessage) {
+			return new MergeIndex(allowDuplicate, assistantMessages, otherValues, systemMessageCount - 1);
+		}
+		if (value instanceof UserMessage || value instanceof AgentInstructionMessage || allowDuplicate) {
+			return this;
+		}
+		return new MergeIndex(allowDuplicate, assistantMessages, otherValues.without(value), systemMessageCount);
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.store;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -93,6 +94,57 @@ public interface Store {
 	 */
 	boolean deleteItem(List<String> namespace, String key);
 
+	/**
+	 * Store several items, as {@link #putItem(StoreItem)} does for each of them.
+	 * Implementations may write them in a single round trip.
+	 * @param items the items to store
+	 * @throws IllegalArgumentException if items is null or contains an invalid item
+	 */
+	default void putItems(List<StoreItem> items) {
+		if (items == null) {
+			throw new IllegalArgumentException("items cannot be null");
+		}
+		items.forEach(this::putItem);
+	}
+
+	/**
+	 * Retrieve several items from the specified namespace.
+	 * @param namespace the hierarchical namespace path
+	 * @param keys the item keys
+	 * @return the items found, in the order of the keys
+	 * @throws IllegalArgumentException if namespace or keys is null/invalid
+	 */
+	default List<StoreItem> getItems(List<String> namespace, List<String> keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys cannot be null");
+		}
+		List<StoreItem> items = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			getItem(namespace, key).ifPresent(items::add);
+		}
+		return items;
+	}
+
+	/**
+	 * Delete several items from the specified namespace.
+	 * @param namespace the hierarchical namespace path
+	 * @param keys the item keys
+	 * @return the number of items deleted
+	 * @throws IllegalArgumentException if namespace or keys is null/invalid
+	 */
+	default int deleteItems(List<String> namespace, List<String> keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys cannot be null");
+		}
+		int deleted = 0;
+		for (String key : keys) {
+			if (deleteItem(namespace, key)) {
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+
 	/**
 	 * Search for items based on the provided search criteria.
 	 * @param searchRequest the search parameters
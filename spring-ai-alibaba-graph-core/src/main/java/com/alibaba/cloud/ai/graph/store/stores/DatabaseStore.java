@@ -21,9 +21,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Relational database-based implementation of the Store interface.
@@ -32,11 +38,62 @@ import java.util.stream.Collectors;
  * and other JDBC-compatible databases. It provides ACID compliance and enterprise-grade
  * reliability.
  * </p>
+ * <p>
+ * Searches are pushed down to the database: namespace prefixes match an indexed,
+ * normalized {@code namespace_path} column, string and boolean filters become JSON
+ * predicates on MySQL and PostgreSQL, and sorts on {@code createdAt}, {@code updatedAt}
+ * and {@code key} run as {@code ORDER BY ... LIMIT ... OFFSET}. Keys are ordered in
+ * binary order rather than in the collation of the database, so the pages match the
+ * order of the other stores. Other criteria, including sorts on {@code namespace}, are
+ * checked in Java on the rows streamed from the narrowed query.
+ * </p>
+ * <p>
+ * Items are written with the upsert statement of the database: {@code MERGE} on H2,
+ * {@code ON DUPLICATE KEY UPDATE} on MySQL and {@code ON CONFLICT} on PostgreSQL, or an
+ * update followed by an insert on other databases. The encoded namespace of an item is
+ * limited to {@value #MAX_NAMESPACE_PATH_LENGTH} characters, longer namespaces are
+ * rejected.
+ * </p>
+ * <p>
+ * Concurrency is left to the database. The batch operations write their rows in one
+ * transaction with JDBC batching, and an optional write-behind buffer groups the writes
+ * of several calls into one batch.
+ * </p>
  *
  * @author Spring AI Alibaba
  * @since 1.0.0.3
  */
-public class DatabaseStore extends BaseStore {
+public class DatabaseStore extends BaseStore implements AutoCloseable {
+
+	private static final Logger log = LoggerFactory.getLogger(DatabaseStore.class);
+
+	private static final String ITEM_COLUMNS = "namespace, key_name, value_json, created_at, updated_at";
+
+	private static final int FETCH_SIZE = 500;
+
+	/**
+	 * Rows per JDBC batch and ids per IN list.
+	 */
+	private static final int MAX_BATCH_SIZE = 500;
+
+	/**
+	 * Maximum length of the {@code namespace_path} column, the longest indexable
+	 * {@code VARCHAR} of MySQL with utf8mb4.
+	 */
+	static final int MAX_NAMESPACE_PATH_LENGTH = 768;
+
+	/**
+	 * Sortable item fields backed by a column. Namespaces are not, the encoded path
+	 * orders differently from the joined namespace compared in Java.
+	 */
+	private static final Map<String, String> SORT_COLUMNS = Map.of("createdAt", "created_at", "updatedAt",
+			"updated_at", "key", "key_name");
+
+	/**
+	 * Columns written by an upsert besides the id.
+	 */
+	private static final List<String> UPSERT_COLUMNS = List.of("namespace", "namespace_path", "key_name",
+			"value_json", "created_at", "updated_at");
 
 	private final DataSource dataSource;
 
@@ -44,7 +101,12 @@ public class DatabaseStore extends BaseStore {
 
 	private final String tableName;
 
-	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Dialect dialect;
+
+	/**
+	 * Write-behind buffer, null when the items are written immediately.
+	 */
+	private final WriteBuffer writeBuffer;
 
 	/**
 	 * Constructor with default table name.
@@ -60,157 +122,217 @@ public class DatabaseStore extends BaseStore {
 	 * @param tableName table name
 	 */
 	public DatabaseStore(DataSource dataSource, String tableName) {
+		this(dataSource, tableName, null, 0);
+	}
+
+	/**
+	 * Constructor with a write-behind buffer. Writes are buffered and flushed in one
+	 * batch when {@code maxBufferedWrites} writes are pending, at the latest after
+	 * {@code flushInterval}, and before every search, listing or count. Reads of a
+	 * buffered item see the buffered write. Buffered writes are lost if the application
+	 * stops without {@link #close() closing} the store.
+	 * @param dataSource database data source
+	 * @param tableName table name
+	 * @param flushInterval maximum time a write stays buffered
+	 * @param maxBufferedWrites number of pending writes triggering a flush
+	 */
+	public DatabaseStore(DataSource dataSource, String tableName, Duration flushInterval, int maxBufferedWrites) {
 		this.dataSource = dataSource;
 		this.tableName = tableName;
 		this.objectMapper = new ObjectMapper();
 		this.objectMapper.findAndRegisterModules();
+		this.dialect = detectDialect();
 		initializeTable();
+		this.writeBuffer = flushInterval != null ? new WriteBuffer(flushInterval, maxBufferedWrites) : null;
+	}
+
+	@Override
+	protected void validatePutItem(StoreItem item) {
+		super.validatePutItem(item);
+		if (namespacePath(item.getNamespace()).length() > MAX_NAMESPACE_PATH_LENGTH) {
+			throw new IllegalArgumentException("namespace " + item.getNamespace() + " exceeds "
+					+ MAX_NAMESPACE_PATH_LENGTH + " characters once encoded");
+		}
 	}
 
 	@Override
 	public void putItem(StoreItem item) {
 		validatePutItem(item);
 
-		lock.writeLock().lock();
-		try {
-			String itemId = createItemId(item.getNamespace(), item.getKey());
-			String namespaceJson = objectMapper.writeValueAsString(item.getNamespace());
-			String valueJson = objectMapper.writeValueAsString(item.getValue());
-
-			// Use MERGE for H2 compatibility instead of ON DUPLICATE KEY UPDATE
-			String sql = "MERGE INTO " + tableName + " (id, namespace, key_name, value_json, created_at, updated_at) "
-					+ "KEY(id) VALUES (?, ?, ?, ?, ?, ?)";
-
-			try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-				stmt.setString(1, itemId);
-				stmt.setString(2, namespaceJson);
-				stmt.setString(3, item.getKey());
-				stmt.setString(4, valueJson);
-				stmt.setTimestamp(5, new Timestamp(item.getCreatedAt()));
-				stmt.setTimestamp(6, new Timestamp(item.getUpdatedAt()));
-
-				stmt.executeUpdate();
-			}
+		if (writeBuffer != null) {
+			writeBuffer.write(createItemId(item.getNamespace(), item.getKey()), item);
+			return;
 		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to store item in database", e);
+		writeBatch(List.of(item), Collections.emptyList());
+	}
+
+	@Override
+	public void putItems(List<StoreItem> items) {
+		if (items == null) {
+			throw new IllegalArgumentException("items cannot be null");
 		}
-		finally {
-			lock.writeLock().unlock();
+		items.forEach(this::validatePutItem);
+
+		if (writeBuffer != null) {
+			items.forEach(item -> writeBuffer.write(createItemId(item.getNamespace(), item.getKey()), item));
+			return;
 		}
+		writeBatch(items, Collections.emptyList());
 	}
 
 	@Override
 	public Optional<StoreItem> getItem(List<String> namespace, String key) {
 		validateGetItem(namespace, key);
 
-		lock.readLock().lock();
-		try {
-			String itemId = createItemId(namespace, key);
-			String sql = "SELECT namespace, key_name, value_json, created_at, updated_at FROM " + tableName
-					+ " WHERE id = ?";
-
-			try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-				stmt.setString(1, itemId);
-				ResultSet rs = stmt.executeQuery();
+		List<StoreItem> items = getItems(namespace, List.of(key));
+		return items.isEmpty() ? Optional.empty() : Optional.of(items.get(0));
+	}
 
-				if (rs.next()) {
-					return Optional.of(resultSetToStoreItem(rs));
-				}
+	@Override
+	public List<StoreItem> getItems(List<String> namespace, List<String> keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys cannot be null");
+		}
+		keys.forEach(key -> validateGetItem(namespace, key));
 
-				return Optional.empty();
+		Map<String, StoreItem> itemsById = new HashMap<>();
+		List<String> ids = new ArrayList<>(keys.size());
+		List<String> unbufferedIds = new ArrayList<>(keys.size());
+		for (String key : keys) {
+			String id = createItemId(namespace, key);
+			ids.add(id);
+			StoreItem buffered = writeBuffer != null ? writeBuffer.lookup(id) : null;
+			if (buffered == null) {
+				unbufferedIds.add(id);
+			}
+			else if (buffered != WriteBuffer.DELETED) {
+				itemsById.put(id, buffered);
 			}
 		}
-		catch (Exception e) {
+
+		try {
+			itemsById.putAll(selectItems(unbufferedIds));
+		}
+		catch (SQLException e) {
 			throw new RuntimeException("Failed to retrieve item from database", e);
 		}
-		finally {
-			lock.readLock().unlock();
+
+		List<StoreItem> items = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			StoreItem item = itemsById.get(id);
+			if (item != null) {
+				items.add(item);
+			}
 		}
+		return items;
 	}
 
 	@Override
 	public boolean deleteItem(List<String> namespace, String key) {
 		validateDeleteItem(namespace, key);
 
-		lock.writeLock().lock();
-		try {
-			String itemId = createItemId(namespace, key);
-			String sql = "DELETE FROM " + tableName + " WHERE id = ?";
+		return deleteItems(namespace, List.of(key)) > 0;
+	}
 
-			try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql)) {
+	@Override
+	public int deleteItems(List<String> namespace, List<String> keys) {
+		if (keys == null) {
+			throw new IllegalArgumentException("keys cannot be null");
+		}
+		keys.forEach(key -> validateDeleteItem(namespace, key));
+
+		Set<String> ids = new LinkedHashSet<>(keys.size());
+		for (String key : keys) {
+			ids.add(createItemId(namespace, key));
+		}
+		if (writeBuffer == null) {
+			return writeBatch(Collections.emptyList(), ids);
+		}
 
-				stmt.setString(1, itemId);
-				return stmt.executeUpdate() > 0;
+		int deleted = 0;
+		List<String> unbufferedIds = new ArrayList<>();
+		for (String id : ids) {
+			StoreItem buffered = writeBuffer.lookup(id);
+			if (buffered == null) {
+				unbufferedIds.add(id);
+			}
+			else if (buffered != WriteBuffer.DELETED) {
+				deleted++;
 			}
 		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed to delete item from database", e);
+		try {
+			deleted += selectItems(unbufferedIds).size();
 		}
-		finally {
-			lock.writeLock().unlock();
+		catch (SQLException e) {
+			throw new RuntimeException("Failed to delete item from database", e);
 		}
+		ids.forEach(id -> writeBuffer.write(id, WriteBuffer.DELETED));
+		return deleted;
 	}
 
 	@Override
 	public StoreSearchResult searchItems(StoreSearchRequest searchRequest) {
 		validateSearchItems(searchRequest);
+		flush();
 
-		lock.readLock().lock();
 		try {
-			List<StoreItem> allItems = getAllItems();
-
-			// Apply filters
-			List<StoreItem> filteredItems = allItems.stream()
-				.filter(item -> matchesSearchCriteria(item, searchRequest))
-				.collect(Collectors.toList());
-
-			// Sort items
-			if (!searchRequest.getSortFields().isEmpty()) {
-				filteredItems.sort(createComparator(searchRequest));
-			}
-
-			long totalCount = filteredItems.size();
-
-			// Apply pagination
+			SearchQuery query = new SearchQuery(searchRequest);
 			int offset = searchRequest.getOffset();
 			int limit = searchRequest.getLimit();
 
-			if (offset >= filteredItems.size()) {
+			if (!query.exact) {
+				// Narrow the rows in the database, check the rest of the criteria in Java
+				SearchCollector collector = new SearchCollector(this, searchRequest, -1);
+				streamItems("SELECT " + ITEM_COLUMNS + " FROM " + tableName + query.where, query.params, collector);
+				return collector.result();
+			}
+
+			long totalCount = count(query);
+			if (offset >= totalCount) {
 				return StoreSearchResult.of(Collections.emptyList(), totalCount, offset, limit);
 			}
 
-			int endIndex = Math.min(offset + limit, filteredItems.size());
-			List<StoreItem> resultItems = filteredItems.subList(offset, endIndex);
+			List<Object> params = new ArrayList<>(query.params);
+			params.add(limit);
+			params.add(offset);
+			List<StoreItem> resultItems = new ArrayList<>((int) Math.min(limit, totalCount - offset));
+			streamItems("SELECT " + ITEM_COLUMNS + " FROM " + tableName + query.where + query.orderBy
+					+ " LIMIT ? OFFSET ?", params, resultItems::add);
 
 			return StoreSearchResult.of(resultItems, totalCount, offset, limit);
 		}
-		finally {
-			lock.readLock().unlock();
+		catch (SQLException e) {
+			throw new RuntimeException("Failed to search items in database", e);
 		}
 	}
 
 	@Override
 	public List<String> listNamespaces(NamespaceListRequest namespaceRequest) {
 		validateListNamespaces(namespaceRequest);
+		flush();
 
-		lock.readLock().lock();
 		try {
 			Set<String> namespaceSet = new HashSet<>();
 			List<String> prefixFilter = namespaceRequest.getNamespace();
 
-			List<StoreItem> allItems = getAllItems();
-
-			for (StoreItem item : allItems) {
-				List<String> itemNamespace = item.getNamespace();
+			// Only the distinct namespaces under the prefix are read
+			String sql = "SELECT DISTINCT namespace_path FROM " + tableName;
+			List<Object> params = new ArrayList<>();
+			if (!prefixFilter.isEmpty()) {
+				sql += " WHERE namespace_path LIKE ? ESCAPE '!'";
+				params.add(likePrefix(namespacePath(prefixFilter)));
+			}
 
-				// Check if namespace starts with prefix filter
-				if (!prefixFilter.isEmpty() && !startsWithPrefix(itemNamespace, prefixFilter)) {
-					continue;
+			List<List<String>> itemNamespaces = new ArrayList<>();
+			try (Connection conn = dataSource.getConnection();
+					PreparedStatement stmt = prepare(conn, sql, params);
+					ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					itemNamespaces.add(parseNamespacePath(rs.getString(1)));
 				}
+			}
 
+			for (List<String> itemNamespace : itemNamespaces) {
 				// Generate all possible namespace paths up to maxDepth
 				int maxDepth = namespaceRequest.getMaxDepth();
 				int depth = (maxDepth == -1) ? itemNamespace.size() : Math.min(maxDepth, itemNamespace.size());
@@ -235,25 +357,24 @@ public class DatabaseStore extends BaseStore {
 			int endIndex = Math.min(offset + limit, namespaces.size());
 			return namespaces.subList(offset, endIndex);
 		}
-		finally {
-			lock.readLock().unlock();
+		catch (SQLException e) {
+			throw new RuntimeException("Failed to list namespaces from database", e);
 		}
 	}
 
 	@Override
 	public void clear() {
-		String sql = "DELETE FROM " + tableName;
-
-		try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
-			stmt.executeUpdate(sql);
+		if (writeBuffer != null) {
+			writeBuffer.discard(this::deleteAll);
 		}
-		catch (SQLException e) {
-			throw new RuntimeException("Failed to clear database store", e);
+		else {
+			deleteAll();
 		}
 	}
 
 	@Override
 	public long size() {
+		flush();
 		String sql = "SELECT COUNT(*) FROM " + tableName;
 
 		try (Connection conn = dataSource.getConnection();
@@ -273,23 +394,267 @@ public class DatabaseStore extends BaseStore {
 		return size() == 0;
 	}
 
+	/**
+	 * Writes the buffered writes to the database. Does nothing without a write-behind
+	 * buffer.
+	 */
+	public void flush() {
+		if (writeBuffer != null) {
+			writeBuffer.flush();
+		}
+	}
+
+	/**
+	 * Flushes the buffered writes and stops the background flushes.
+	 */
+	@Override
+	public void close() {
+		if (writeBuffer != null) {
+			writeBuffer.close();
+		}
+	}
+
+	private void deleteAll() {
+		String sql = "DELETE FROM " + tableName;
+
+		try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate(sql);
+		}
+		catch (SQLException e) {
+			throw new RuntimeException("Failed to clear database store", e);
+		}
+	}
+
+	/**
+	 * Writes the items and deletes the ids in one transaction, with one round trip per
+	 * {@link #MAX_BATCH_SIZE} rows.
+	 * @param items the items to put
+	 * @param deletedIds the ids of the items to delete
+	 * @return the number of deleted items
+	 */
+	private int writeBatch(Collection<StoreItem> items, Collection<String> deletedIds) {
+		if (items.isEmpty() && deletedIds.isEmpty()) {
+			return 0;
+		}
+		String upsertSql = dialect.upsertSql(tableName);
+
+		try (Connection conn = dataSource.getConnection()) {
+			boolean autoCommit = conn.getAutoCommit();
+			boolean transaction = autoCommit && items.size() + deletedIds.size() > 1;
+			if (transaction) {
+				conn.setAutoCommit(false);
+			}
+			try {
+				if (!items.isEmpty() && upsertSql == null) {
+					updateOrInsert(conn, items);
+				}
+				else if (!items.isEmpty()) {
+					try (PreparedStatement stmt = conn.prepareStatement(upsertSql)) {
+						int batched = 0;
+						for (StoreItem item : items) {
+							Object[] values = rowValues(item);
+							for (int i = 0; i < values.length; i++) {
+								stmt.setObject(i + 1, values[i]);
+							}
+							stmt.addBatch();
+							if (++batched % MAX_BATCH_SIZE == 0) {
+								stmt.executeBatch();
+							}
+						}
+						if (batched % MAX_BATCH_SIZE != 0) {
+							stmt.executeBatch();
+						}
+					}
+				}
+
+				int deleted = 0;
+				for (List<String> chunk : chunks(deletedIds)) {
+					try (PreparedStatement stmt = prepare(conn,
+							"DELETE FROM " + tableName + " WHERE id IN (" + placeholders(chunk.size()) + ")",
+							new ArrayList<>(chunk))) {
+						deleted += stmt.executeUpdate();
+					}
+				}
+
+				if (transaction) {
+					conn.commit();
+				}
+				return deleted;
+			}
+			catch (Exception e) {
+				if (transaction) {
+					conn.rollback();
+				}
+				throw e;
+			}
+			finally {
+				if (transaction) {
+					conn.setAutoCommit(true);
+				}
+			}
+		}
+		catch (Exception e) {
+			throw new RuntimeException("Failed to store items in database", e);
+		}
+	}
+
+	/**
+	 * Upserts the items one by one on databases without a known upsert statement.
+	 */
+	private void updateOrInsert(Connection conn, Collection<StoreItem> items) throws Exception {
+		String updateSql = "UPDATE " + tableName + " SET " + String.join(" = ?, ", UPSERT_COLUMNS)
+				+ " = ? WHERE id = ?";
+		String insertSql = "INSERT INTO " + tableName + " (id, " + String.join(", ", UPSERT_COLUMNS) + ") VALUES ("
+				+ placeholders(UPSERT_COLUMNS.size() + 1) + ")";
+		try (PreparedStatement update = conn.prepareStatement(updateSql);
+				PreparedStatement insert = conn.prepareStatement(insertSql)) {
+			for (StoreItem item : items) {
+				Object[] values = rowValues(item);
+				for (int i = 1; i < values.length; i++) {
+					update.setObject(i, values[i]);
+				}
+				update.setObject(values.length, values[0]);
+				if (update.executeUpdate() == 0) {
+					for (int i = 0; i < values.length; i++) {
+						insert.setObject(i + 1, values[i]);
+					}
+					insert.executeUpdate();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Column values of an item, the id followed by the {@link #UPSERT_COLUMNS}.
+	 */
+	private Object[] rowValues(StoreItem item) throws Exception {
+		return new Object[] { createItemId(item.getNamespace(), item.getKey()),
+				objectMapper.writeValueAsString(item.getNamespace()), namespacePath(item.getNamespace()),
+				item.getKey(), objectMapper.writeValueAsString(item.getValue()), new Timestamp(item.getCreatedAt()),
+				new Timestamp(item.getUpdatedAt()) };
+	}
+
+	/**
+	 * Reads the items with the given ids, one round trip per {@link #MAX_BATCH_SIZE} ids.
+	 * @param ids the item ids
+	 * @return the items found by id
+	 */
+	private Map<String, StoreItem> selectItems(Collection<String> ids) throws SQLException {
+		Map<String, StoreItem> items = new HashMap<>();
+		for (List<String> chunk : chunks(ids)) {
+			String sql = "SELECT id, " + ITEM_COLUMNS + " FROM " + tableName + " WHERE id IN ("
+					+ placeholders(chunk.size()) + ")";
+			try (Connection conn = dataSource.getConnection();
+					PreparedStatement stmt = prepare(conn, sql, new ArrayList<>(chunk));
+					ResultSet rs = stmt.executeQuery()) {
+				while (rs.next()) {
+					try {
+						items.put(rs.getString("id"), resultSetToStoreItem(rs));
+					}
+					catch (Exception e) {
+						throw new SQLException("Failed to read item " + rs.getString("id"), e);
+					}
+				}
+			}
+		}
+		return items;
+	}
+
+	private static List<List<String>> chunks(Collection<String> ids) {
+		List<String> list = new ArrayList<>(ids);
+		List<List<String>> chunks = new ArrayList<>();
+		for (int i = 0; i < list.size(); i += MAX_BATCH_SIZE) {
+			chunks.add(list.subList(i, Math.min(i + MAX_BATCH_SIZE, list.size())));
+		}
+		return chunks;
+	}
+
+	private static String placeholders(int count) {
+		return String.join(", ", Collections.nCopies(count, "?"));
+	}
+
 	/**
 	 * Initialize database table.
 	 */
 	private void initializeTable() {
 		// Create table with database-agnostic SQL
 		String sql = "CREATE TABLE IF NOT EXISTS " + tableName + " (" + "id VARCHAR(1000) PRIMARY KEY, "
-				+ "namespace TEXT, " + "key_name VARCHAR(500), " + "value_json TEXT, " + "created_at TIMESTAMP, "
-				+ "updated_at TIMESTAMP" + ")";
+				+ "namespace TEXT, " + "namespace_path VARCHAR(" + MAX_NAMESPACE_PATH_LENGTH + "), "
+				+ "key_name VARCHAR(500), "
+				+ "value_json TEXT, " + "created_at TIMESTAMP, " + "updated_at TIMESTAMP" + ")";
 
 		try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
 			stmt.executeUpdate(sql);
+			if (!hasNamespacePathColumn(conn)) {
+				// Table created before namespace_path was introduced
+				stmt.executeUpdate("ALTER TABLE " + tableName + " ADD COLUMN namespace_path VARCHAR("
+						+ MAX_NAMESPACE_PATH_LENGTH + ")");
+				backfillNamespacePaths(conn);
+			}
+			createNamespacePathIndex(stmt);
 		}
 		catch (SQLException e) {
 			throw new RuntimeException("Failed to initialize table", e);
 		}
 	}
 
+	private boolean hasNamespacePathColumn(Connection conn) {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeQuery("SELECT namespace_path FROM " + tableName + " WHERE 1 = 0").close();
+			return true;
+		}
+		catch (SQLException e) {
+			return false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void backfillNamespacePaths(Connection conn) throws SQLException {
+		Map<String, String> paths = new LinkedHashMap<>();
+		try (Statement stmt = conn.createStatement();
+				ResultSet rs = stmt.executeQuery("SELECT id, namespace FROM " + tableName)) {
+			while (rs.next()) {
+				try {
+					List<String> namespace = objectMapper.readValue(rs.getString(2), List.class);
+					paths.put(rs.getString(1), namespacePath(namespace));
+				}
+				catch (Exception e) {
+					// Skip invalid items
+				}
+			}
+		}
+		try (PreparedStatement stmt = conn
+			.prepareStatement("UPDATE " + tableName + " SET namespace_path = ? WHERE id = ?")) {
+			for (Map.Entry<String, String> path : paths.entrySet()) {
+				stmt.setString(1, path.getValue());
+				stmt.setString(2, path.getKey());
+				stmt.addBatch();
+			}
+			stmt.executeBatch();
+		}
+	}
+
+	private void createNamespacePathIndex(Statement stmt) {
+		String indexName = tableName.replaceAll("\\W", "_") + "_ns_path_idx";
+		String ifNotExists = dialect.supportsCreateIndexIfNotExists ? "IF NOT EXISTS " : "";
+		try {
+			stmt.executeUpdate(
+					"CREATE INDEX " + ifNotExists + indexName + " ON " + tableName + " (namespace_path)");
+		}
+		catch (SQLException e) {
+			// Already created, namespace searches still work without it
+		}
+	}
+
+	private Dialect detectDialect() {
+		try (Connection conn = dataSource.getConnection()) {
+			return Dialect.of(conn.getMetaData().getDatabaseProductName());
+		}
+		catch (SQLException e) {
+			throw new RuntimeException("Failed to detect database type", e);
+		}
+	}
+
 	/**
 	 * Create item ID from namespace and key.
 	 * @param namespace namespace
@@ -300,32 +665,123 @@ public class DatabaseStore extends BaseStore {
 		return createStoreKey(namespace, key);
 	}
 
-	/**
-	 * Get all items from database.
-	 * @return list of all items
-	 */
-	private List<StoreItem> getAllItems() {
-		List<StoreItem> items = new ArrayList<>();
-		String sql = "SELECT namespace, key_name, value_json, created_at, updated_at FROM " + tableName;
-
+	private long count(SearchQuery query) throws SQLException {
 		try (Connection conn = dataSource.getConnection();
-				Statement stmt = conn.createStatement();
-				ResultSet rs = stmt.executeQuery(sql)) {
+				PreparedStatement stmt = prepare(conn, "SELECT COUNT(*) FROM " + tableName + query.where,
+						query.params);
+				ResultSet rs = stmt.executeQuery()) {
+			rs.next();
+			return rs.getLong(1);
+		}
+	}
 
-			while (rs.next()) {
-				try {
-					items.add(resultSetToStoreItem(rs));
+	/**
+	 * Runs the query and passes the items to the consumer as they are read, without
+	 * loading the whole result in memory.
+	 * @param sql the query selecting {@link #ITEM_COLUMNS}
+	 * @param params the query parameters
+	 * @param consumer returns false to stop reading
+	 */
+	private void streamItems(String sql, List<Object> params, Predicate<StoreItem> consumer) throws SQLException {
+		try (Connection conn = dataSource.getConnection()) {
+			// PostgreSQL only uses a cursor inside a transaction
+			boolean cursorTransaction = dialect == Dialect.POSTGRESQL && conn.getAutoCommit();
+			if (cursorTransaction) {
+				conn.setAutoCommit(false);
+			}
+			try (PreparedStatement stmt = prepare(conn, sql, params)) {
+				stmt.setFetchSize(dialect.fetchSize);
+				try (ResultSet rs = stmt.executeQuery()) {
+					while (rs.next()) {
+						StoreItem item;
+						try {
+							item = resultSetToStoreItem(rs);
+						}
+						catch (Exception e) {
+							// Skip invalid items
+							continue;
+						}
+						if (!consumer.test(item)) {
+							break;
+						}
+					}
 				}
-				catch (Exception e) {
-					// Skip invalid items
+			}
+			finally {
+				if (cursorTransaction) {
+					conn.rollback();
+					conn.setAutoCommit(true);
 				}
 			}
 		}
+	}
+
+	private static PreparedStatement prepare(Connection conn, String sql, List<Object> params) throws SQLException {
+		PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+		try {
+			for (int i = 0; i < params.size(); i++) {
+				stmt.setObject(i + 1, params.get(i));
+			}
+			return stmt;
+		}
 		catch (SQLException e) {
-			throw new RuntimeException("Failed to retrieve all items from database", e);
+			stmt.close();
+			throw e;
 		}
+	}
 
-		return items;
+	/**
+	 * Encodes a namespace into the value of the {@code namespace_path} column: every
+	 * segment followed by {@code /}, with {@code %} and {@code /} percent-encoded, so a
+	 * namespace prefix is a string prefix of the path.
+	 * @param namespace namespace
+	 * @return namespace path
+	 */
+	static String namespacePath(List<String> namespace) {
+		StringBuilder path = new StringBuilder();
+		for (String segment : namespace) {
+			if (segment == null) {
+				path.append("%00");
+			}
+			else {
+				for (int i = 0; i < segment.length(); i++) {
+					char c = segment.charAt(i);
+					if (c == '%') {
+						path.append("%25");
+					}
+					else if (c == '/') {
+						path.append("%2F");
+					}
+					else {
+						path.append(c);
+					}
+				}
+			}
+			path.append('/');
+		}
+		return path.toString();
+	}
+
+	/**
+	 * Decodes a value of the {@code namespace_path} column.
+	 * @param path namespace path
+	 * @return namespace
+	 */
+	static List<String> parseNamespacePath(String path) {
+		List<String> namespace = new ArrayList<>();
+		int start = 0;
+		for (int end = path.indexOf('/'); end >= 0; start = end + 1, end = path.indexOf('/', start)) {
+			String segment = path.substring(start, end);
+			namespace.add("%00".equals(segment) ? null : segment.replace("%2F", "/").replace("%25", "%"));
+		}
+		return namespace;
+	}
+
+	/**
+	 * LIKE pattern, escaped with {@code !}, matching the strings starting with the prefix.
+	 */
+	private static String likePrefix(String prefix) {
+		return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
 	}
 
 	/**
@@ -348,4 +804,303 @@ public class DatabaseStore extends BaseStore {
 		return new StoreItem(namespace, key, value, createdAt.getTime(), updatedAt.getTime());
 	}
 
+	/**
+	 * Pending writes, by item id, flushed in one batch. Deletes are recorded with the
+	 * {@link #DELETED} marker. Writes being flushed stay visible to the reads until they
+	 * are committed.
+	 */
+	private final class WriteBuffer {
+
+		static final StoreItem DELETED = new StoreItem();
+
+		private final int maxBufferedWrites;
+
+		private final ReentrantLock flushLock = new ReentrantLock();
+
+		private final ScheduledExecutorService flusher;
+
+		private Map<String, StoreItem> pending = new LinkedHashMap<>();
+
+		private Map<String, StoreItem> inFlight = Collections.emptyMap();
+
+		WriteBuffer(Duration flushInterval, int maxBufferedWrites) {
+			if (flushInterval.isNegative() || flushInterval.isZero()) {
+				throw new IllegalArgumentException("flushInterval must be > 0");
+			}
+			if (maxBufferedWrites <= 0) {
+				throw new IllegalArgumentException("maxBufferedWrites must be > 0");
+			}
+			this.maxBufferedWrites = maxBufferedWrites;
+			this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "database-store-flusher");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long period = flushInterval.toMillis();
+			this.flusher.scheduleWithFixedDelay(this::flushQuietly, period, period, TimeUnit.MILLISECONDS);
+		}
+
+		void write(String id, StoreItem item) {
+			boolean full;
+			synchronized (this) {
+				pending.put(id, item);
+				full = pending.size() >= maxBufferedWrites;
+			}
+			if (full) {
+				flush();
+			}
+		}
+
+		/**
+		 * @return the buffered item, {@link #DELETED}, or null if there is no buffered
+		 * write for the id
+		 */
+		synchronized StoreItem lookup(String id) {
+			StoreItem item = pending.get(id);
+			return item != null ? item : inFlight.get(id);
+		}
+
+		void flush() {
+			flushLock.lock();
+			try {
+				Map<String, StoreItem> batch;
+				synchronized (this) {
+					if (pending.isEmpty()) {
+						return;
+					}
+					batch = pending;
+					pending = new LinkedHashMap<>();
+					inFlight = batch;
+				}
+				List<StoreItem> items = new ArrayList<>(batch.size());
+				List<String> deletedIds = new ArrayList<>();
+				batch.forEach((id, item) -> {
+					if (item == DELETED) {
+						deletedIds.add(id);
+					}
+					else {
+						items.add(item);
+					}
+				});
+				try {
+					writeBatch(items, deletedIds);
+				}
+				catch (RuntimeException e) {
+					// Keep the writes for the next flush, unless overwritten meanwhile
+					synchronized (this) {
+						batch.forEach(pending::putIfAbsent);
+					}
+					throw e;
+				}
+				finally {
+					synchronized (this) {
+						inFlight = Collections.emptyMap();
+					}
+				}
+			}
+			finally {
+				flushLock.unlock();
+			}
+		}
+
+		/**
+		 * Drops the pending writes, then runs the action while no flush is running.
+		 */
+		void discard(Runnable action) {
+			flushLock.lock();
+			try {
+				synchronized (this) {
+					pending.clear();
+				}
+				action.run();
+			}
+			finally {
+				flushLock.unlock();
+			}
+		}
+
+		void close() {
+			flusher.shutdown();
+			flush();
+		}
+
+		private void flushQuietly() {
+			try {
+				flush();
+			}
+			catch (RuntimeException e) {
+				log.warn("Failed to flush buffered writes to {}, retrying later", tableName, e);
+			}
+		}
+
+	}
+
+	/**
+	 * WHERE and ORDER BY clauses pushed down to the database for a search.
+	 */
+	private final class SearchQuery {
+
+		private String where = "";
+
+		private final List<Object> params = new ArrayList<>();
+
+		private String orderBy = " ORDER BY id";
+
+		/**
+		 * Whether the clauses select exactly the matching items in the requested order,
+		 * so the count and the page can be computed by the database.
+		 */
+		private boolean exact = true;
+
+		SearchQuery(StoreSearchRequest searchRequest) {
+			List<String> predicates = new ArrayList<>();
+
+			if (!searchRequest.getNamespace().isEmpty()) {
+				predicates.add("namespace_path LIKE ? ESCAPE '!'");
+				params.add(likePrefix(namespacePath(searchRequest.getNamespace())));
+			}
+
+			// Text queries match the Map representation of the value, checked in Java
+			String query = searchRequest.getQuery();
+			if (query != null && !query.trim().isEmpty()) {
+				exact = false;
+			}
+
+			for (Map.Entry<String, Object> filter : searchRequest.getFilter().entrySet()) {
+				Object value = filter.getValue();
+				if (dialect.jsonEquals == null || value == null) {
+					exact = false;
+					continue;
+				}
+				try {
+					String jsonValue = objectMapper.writeValueAsString(value);
+					predicates.add(dialect.jsonEquals);
+					params.add(dialect.jsonPath(filter.getKey()));
+					params.add(jsonValue);
+				}
+				catch (Exception e) {
+					exact = false;
+					continue;
+				}
+				// JSON equality ignores the Java number types, numbers are checked again
+				if (!(value instanceof String) && !(value instanceof Boolean)) {
+					exact = false;
+				}
+			}
+
+			if (!predicates.isEmpty()) {
+				where = " WHERE " + String.join(" AND ", predicates);
+			}
+
+			List<String> sortFields = searchRequest.getSortFields();
+			if (!sortFields.isEmpty()) {
+				String direction = searchRequest.isAscending() ? " ASC" : " DESC";
+				StringBuilder columns = new StringBuilder(" ORDER BY ");
+				for (String field : sortFields) {
+					String column = SORT_COLUMNS.get(field);
+					if ("key_name".equals(column)) {
+						column = dialect.binaryOrder(column);
+					}
+					if (column == null) {
+						// Value fields are compared in Java
+						exact = false;
+						break;
+					}
+					columns.append(column).append(direction).append(", ");
+				}
+				orderBy = columns.append("id").toString();
+			}
+		}
+
+	}
+
+	enum Dialect {
+
+		H2(null, true, FETCH_SIZE),
+
+		MYSQL("JSON_EXTRACT(value_json, ?) = CAST(? AS JSON)", false, Integer.MIN_VALUE),
+
+		POSTGRESQL("CAST(value_json AS jsonb) -> ? = CAST(? AS jsonb)", true, FETCH_SIZE),
+
+		OTHER(null, false, FETCH_SIZE);
+
+		/**
+		 * Predicate comparing a value field, given by {@link #jsonPath(String)}, with a
+		 * JSON value, or null if JSON functions are not supported.
+		 */
+		private final String jsonEquals;
+
+		private final boolean supportsCreateIndexIfNotExists;
+
+		/**
+		 * Fetch size streaming the rows, {@link Integer#MIN_VALUE} for MySQL Connector/J
+		 * row-by-row streaming.
+		 */
+		private final int fetchSize;
+
+		Dialect(String jsonEquals, boolean supportsCreateIndexIfNotExists, int fetchSize) {
+			this.jsonEquals = jsonEquals;
+			this.supportsCreateIndexIfNotExists = supportsCreateIndexIfNotExists;
+			this.fetchSize = fetchSize;
+		}
+
+		static Dialect of(String productName) {
+			String name = productName == null ? "" : productName.toLowerCase(Locale.ROOT);
+			if (name.contains("h2")) {
+				return H2;
+			}
+			if (name.contains("mysql")) {
+				return MYSQL;
+			}
+			if (name.contains("postgresql")) {
+				return POSTGRESQL;
+			}
+			return OTHER;
+		}
+
+		String jsonPath(String field) {
+			return this == MYSQL ? "$.\"" + field.replace("\\", "\\\\").replace("\"", "\\\"") + "\"" : field;
+		}
+
+		/**
+		 * Statement inserting a row or updating the row with the same id, with the id and
+		 * the {@link #UPSERT_COLUMNS} as parameters, or null if not supported.
+		 */
+		String upsertSql(String tableName) {
+			String columns = " (id, " + String.join(", ", UPSERT_COLUMNS) + ")";
+			String values = " VALUES (" + placeholders(UPSERT_COLUMNS.size() + 1) + ")";
+			return switch (this) {
+				case H2 -> "MERGE INTO " + tableName + columns + " KEY(id)" + values;
+				case MYSQL -> "INSERT INTO " + tableName + columns + values + " ON DUPLICATE KEY UPDATE "
+						+ assignments("VALUES(", ")");
+				case POSTGRESQL -> "INSERT INTO " + tableName + columns + values + " ON CONFLICT (id) DO UPDATE SET "
+						+ assignments("EXCLUDED.", "");
+				case OTHER -> null;
+			};
+		}
+
+		private static String assignments(String prefix, String suffix) {
+			StringJoiner assignments = new StringJoiner(", ");
+			for (String column : UPSERT_COLUMNS) {
+				assignments.add(column + " = " + prefix + column + suffix);
+			}
+			return assignments.toString();
+		}
+
+		/**
+		 * Expression ordering a text column by code point, like {@link String#compareTo}
+		 * apart from supplementary characters, or null if not supported. H2 compares
+		 * strings this way without a collation.
+		 */
+		String binaryOrder(String column) {
+			return switch (this) {
+				case H2 -> column;
+				case MYSQL -> "CAST(" + column + " AS BINARY)";
+				case POSTGRESQL -> column + " COLLATE \"C\"";
+				case OTHER -> null;
+			};
+		}
+
+	}
+
 }
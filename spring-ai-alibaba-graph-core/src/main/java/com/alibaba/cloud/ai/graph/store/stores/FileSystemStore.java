@@ -18,12 +18,17 @@ package com.alibaba.cloud.ai.graph.store.stores;
 import com.alibaba.cloud.ai.graph.store.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * File system-based implementation of the Store interface.
@@ -32,18 +37,53 @@ import java.util.stream.Collectors;
  * the hierarchical namespace organization. It's suitable for single-node deployments
  * where local file system persistence is sufficient.
  * </p>
+ * <p>
+ * A catalog of the items, organized by namespace, lets searches and namespace listings
+ * read only the files of the matching namespaces. Value fields declared with
+ * {@link #FileSystemStore(Path, Collection)} are also indexed for equality filters. The
+ * catalog is kept in memory and journaled to {@value #CATALOG_FILE} in the root
+ * directory. It is loaded on first use, and rebuilt from the item files if the journal
+ * is missing, unreadable, or was written for other indexed fields. Delete the journal to
+ * rebuild the catalog after the item files were changed by another process.
+ * </p>
  *
  * @author Spring AI Alibaba
  * @since 1.0.0.3
  */
 public class FileSystemStore extends BaseStore {
 
+	static final String CATALOG_FILE = ".catalog.jsonl";
+
+	/**
+	 * Journal size, in records, below which the journal is never compacted.
+	 */
+	private static final int MIN_COMPACTION_RECORDS = 1024;
+
 	private final Path rootPath;
 
+	private final Path catalogPath;
+
 	private final ObjectMapper objectMapper;
 
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+	/**
+	 * Indexed value fields, in declaration order.
+	 */
+	private final List<String> indexedFields;
+
+	/**
+	 * Field name -> field value -> catalog entries having that value.
+	 */
+	private final Map<String, Map<Object, Set<CatalogEntry>>> fieldIndexes = new HashMap<>();
+
+	/**
+	 * The catalog, null until first used.
+	 */
+	private volatile NamespaceTrie<CatalogEntry> catalog;
+
+	private long journalRecords;
+
 	/**
 	 * Constructor with root directory path.
 	 * @param rootDirectory the root directory for storage
@@ -57,7 +97,22 @@ public class FileSystemStore extends BaseStore {
 	 * @param rootPath the root path for storage
 	 */
 	public FileSystemStore(Path rootPath) {
+		this(rootPath, Collections.emptyList());
+	}
+
+	/**
+	 * Constructor with root path and indexed fields.
+	 * @param rootPath the root path for storage
+	 * @param indexedFields the {@link StoreItem#getValue() value} fields used by search
+	 * filters
+	 */
+	public FileSystemStore(Path rootPath, Collection<String> indexedFields) {
+		if (indexedFields == null) {
+			throw new IllegalArgumentException("indexedFields cannot be null");
+		}
 		this.rootPath = rootPath;
+		this.catalogPath = rootPath.resolve(CATALOG_FILE);
+		this.indexedFields = List.copyOf(new LinkedHashSet<>(indexedFields));
 		this.objectMapper = new ObjectMapper();
 		this.objectMapper.findAndRegisterModules();
 		initializeRootDirectory();
@@ -66,12 +121,23 @@ public class FileSystemStore extends BaseStore {
 	@Override
 	public void putItem(StoreItem item) {
 		validatePutItem(item);
+		ensureCatalog();
 
 		lock.writeLock().lock();
 		try {
 			Path itemPath = createItemPath(item.getNamespace(), item.getKey());
 			ensureDirectoryExists(itemPath.getParent());
 
+			// Journal first, so the catalog never misses a file
+			CatalogEntry entry = new CatalogEntry(List.copyOf(item.getNamespace()), item.getKey(),
+					indexedValues(item));
+			appendJournal(entry, true);
+			CatalogEntry previous = catalog.put(entry.namespace, entry.key, entry);
+			if (previous != null) {
+				unindex(previous);
+			}
+			index(entry);
+
 			String itemJson = objectMapper.writeValueAsString(item);
 			Files.write(itemPath, itemJson.getBytes());
 		}
@@ -109,17 +175,23 @@ public class FileSystemStore extends BaseStore {
 	@Override
 	public boolean deleteItem(List<String> namespace, String key) {
 		validateDeleteItem(namespace, key);
+		ensureCatalog();
 
 		lock.writeLock().lock();
 		try {
 			Path itemPath = createItemPath(namespace, key);
-			if (Files.exists(itemPath)) {
+			boolean exists = Files.exists(itemPath);
+			if (exists) {
 				Files.delete(itemPath);
 				// Clean up empty directories
 				cleanupEmptyDirectories(itemPath.getParent());
-				return true;
 			}
-			return false;
+			CatalogEntry removed = catalog.remove(namespace, key);
+			if (removed != null) {
+				unindex(removed);
+				appendJournal(removed, false);
+			}
+			return exists;
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to delete item from file system", e);
@@ -132,35 +204,49 @@ public class FileSystemStore extends BaseStore {
 	@Override
 	public StoreSearchResult searchItems(StoreSearchRequest searchRequest) {
 		validateSearchItems(searchRequest);
+		ensureCatalog();
 
 		lock.readLock().lock();
 		try {
-			List<StoreItem> allItems = getAllItems();
-
-			// Apply filters
-			List<StoreItem> filteredItems = allItems.stream()
-				.filter(item -> matchesSearchCriteria(item, searchRequest))
-				.collect(Collectors.toList());
-
-			// Sort items
-			if (!searchRequest.getSortFields().isEmpty()) {
-				filteredItems.sort(createComparator(searchRequest));
-			}
-
-			long totalCount = filteredItems.size();
-
-			// Apply pagination
 			int offset = searchRequest.getOffset();
 			int limit = searchRequest.getLimit();
-
-			if (offset >= filteredItems.size()) {
-				return StoreSearchResult.of(Collections.emptyList(), totalCount, offset, limit);
+			List<String> namespace = searchRequest.getNamespace();
+			int scopeSize = catalog.size(namespace);
+			if (scopeSize == 0) {
+				return StoreSearchResult.of(Collections.emptyList(), 0, offset, limit);
 			}
 
-			int endIndex = Math.min(offset + limit, filteredItems.size());
-			List<StoreItem> resultItems = filteredItems.subList(offset, endIndex);
+			// Use the smallest indexed filter bucket when it is narrower than the namespace
+			Set<CatalogEntry> candidates = null;
+			for (Map.Entry<String, Object> filter : searchRequest.getFilter().entrySet()) {
+				Map<Object, Set<CatalogEntry>> fieldIndex = fieldIndexes.get(filter.getKey());
+				if (fieldIndex != null) {
+					Set<CatalogEntry> bucket = fieldIndex.getOrDefault(filter.getValue(), Collections.emptySet());
+					if (candidates == null || bucket.size() < candidates.size()) {
+						candidates = bucket;
+					}
+				}
+			}
 
-			return StoreSearchResult.of(resultItems, totalCount, offset, limit);
+			// Only the files of the candidates are read
+			String query = searchRequest.getQuery();
+			boolean unfiltered = (query == null || query.trim().isEmpty()) && searchRequest.getFilter().isEmpty();
+			SearchCollector collector = new SearchCollector(this, searchRequest, unfiltered ? scopeSize : -1);
+			Predicate<CatalogEntry> visitor = entry -> {
+				StoreItem item = readItem(entry);
+				return item == null || collector.test(item);
+			};
+			if (candidates != null && candidates.size() < scopeSize) {
+				for (CatalogEntry entry : candidates) {
+					if (startsWithPrefix(entry.namespace, namespace) && !visitor.test(entry)) {
+						break;
+					}
+				}
+			}
+			else {
+				catalog.visit(namespace, visitor);
+			}
+			return collector.result();
 		}
 		finally {
 			lock.readLock().unlock();
@@ -170,14 +256,19 @@ public class FileSystemStore extends BaseStore {
 	@Override
 	public List<String> listNamespaces(NamespaceListRequest namespaceRequest) {
 		validateListNamespaces(namespaceRequest);
+		ensureCatalog();
 
 		lock.readLock().lock();
 		try {
-			Set<String> namespaceSet = new HashSet<>();
-			scanDirectoriesForNamespaces(rootPath, List.of(), namespaceSet, namespaceRequest);
+			List<String> prefixFilter = namespaceRequest.getNamespace();
+			SortedSet<String> namespaceSet = new TreeSet<>();
+			if (!prefixFilter.isEmpty() && catalog.size(prefixFilter) > 0
+					&& matchesMaxDepth(prefixFilter, namespaceRequest.getMaxDepth())) {
+				namespaceSet.add(String.join("/", prefixFilter));
+			}
+			catalog.collectNamespaces(prefixFilter, namespaceRequest.getMaxDepth(), namespaceSet);
 
 			List<String> namespaces = new ArrayList<>(namespaceSet);
-			Collections.sort(namespaces);
 
 			// Apply pagination
 			int offset = namespaceRequest.getOffset();
@@ -203,6 +294,9 @@ public class FileSystemStore extends BaseStore {
 				deleteDirectoryRecursively(rootPath);
 			}
 			initializeRootDirectory();
+			catalog = new NamespaceTrie<>();
+			fieldIndexes.clear();
+			writeCatalogSnapshot();
 		}
 		catch (Exception e) {
 			throw new RuntimeException("Failed to clear file system store", e);
@@ -214,7 +308,15 @@ public class FileSystemStore extends BaseStore {
 
 	@Override
 	public long size() {
-		return getAllItems().size();
+		ensureCatalog();
+
+		lock.readLock().lock();
+		try {
+			return catalog.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	@Override
@@ -259,81 +361,216 @@ public class FileSystemStore extends BaseStore {
 	}
 
 	/**
-	 * Get all items from file system.
-	 * @return list of all items
+	 * Read the item of a catalog entry.
+	 * @param entry catalog entry
+	 * @return the item, or null if its file is missing or invalid
 	 */
-	private List<StoreItem> getAllItems() {
-		List<StoreItem> items = new ArrayList<>();
-		if (!Files.exists(rootPath)) {
-			return items;
+	private StoreItem readItem(CatalogEntry entry) {
+		try {
+			Path itemPath = createItemPath(entry.namespace, entry.key);
+			if (!Files.exists(itemPath)) {
+				return null;
+			}
+			return objectMapper.readValue(Files.readString(itemPath), StoreItem.class);
 		}
+		catch (Exception e) {
+			// Skip invalid files
+			return null;
+		}
+	}
 
+	/**
+	 * Load the catalog from its journal, or rebuild it from the item files.
+	 */
+	private void ensureCatalog() {
+		if (catalog != null) {
+			return;
+		}
+		lock.writeLock().lock();
 		try {
-			Files.walk(rootPath).filter(path -> path.toString().endsWith(".json")).forEach(path -> {
-				try {
-					String itemJson = Files.readString(path);
-					StoreItem item = objectMapper.readValue(itemJson, StoreItem.class);
-					items.add(item);
-				}
-				catch (Exception e) {
-					// Skip invalid files
-				}
-			});
+			if (catalog != null) {
+				return;
+			}
+			fieldIndexes.clear();
+			NamespaceTrie<CatalogEntry> loaded = replayJournal();
+			if (loaded == null) {
+				fieldIndexes.clear();
+				catalog = scanItemFiles();
+				writeCatalogSnapshot();
+			}
+			else {
+				catalog = loaded;
+			}
 		}
 		catch (IOException e) {
-			throw new RuntimeException("Failed to scan file system for items", e);
+			throw new RuntimeException("Failed to load file system store catalog", e);
+		}
+		finally {
+			lock.writeLock().unlock();
 		}
-
-		return items;
 	}
 
 	/**
-	 * Scan directories for namespaces.
-	 * @param path current path
-	 * @param currentNamespace current namespace path
-	 * @param namespaceSet set to collect namespaces
-	 * @param request namespace request
+	 * Replay the catalog journal.
+	 * @return the catalog, or null if the journal must be rebuilt
 	 */
-	private void scanDirectoriesForNamespaces(Path path, List<String> currentNamespace, Set<String> namespaceSet,
-			NamespaceListRequest request) {
-		try {
-			if (!Files.exists(path) || !Files.isDirectory(path)) {
-				return;
+	@SuppressWarnings("unchecked")
+	private NamespaceTrie<CatalogEntry> replayJournal() {
+		if (!Files.exists(catalogPath)) {
+			return null;
+		}
+		NamespaceTrie<CatalogEntry> loaded = new NamespaceTrie<>();
+		long records = 0;
+		try (BufferedReader reader = Files.newBufferedReader(catalogPath, StandardCharsets.UTF_8)) {
+			Map<String, Object> header = objectMapper.readValue(reader.readLine(), Map.class);
+			if (!indexedFields.equals(header.get("indexedFields"))) {
+				return null;
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				Map<String, Object> record = objectMapper.readValue(line, Map.class);
+				List<String> namespace = (List<String>) record.get("namespace");
+				String key = (String) record.get("key");
+				CatalogEntry previous;
+				if (Boolean.TRUE.equals(record.get("put"))) {
+					List<Object> values = (List<Object>) record.get("fields");
+					CatalogEntry entry = new CatalogEntry(namespace, key, values.toArray());
+					previous = loaded.put(namespace, key, entry);
+					index(entry);
+				}
+				else {
+					previous = loaded.remove(namespace, key);
+				}
+				if (previous != null) {
+					unindex(previous);
+				}
+				records++;
 			}
+		}
+		catch (Exception e) {
+			// Torn or corrupted journal
+			return null;
+		}
+		journalRecords = records;
+		return loaded;
+	}
 
-			Files.list(path).forEach(subPath -> {
-				if (Files.isDirectory(subPath)) {
-					List<String> newNamespace = new ArrayList<>(currentNamespace);
-					newNamespace.add(subPath.getFileName().toString());
+	/**
+	 * Build the catalog from the item files.
+	 * @return the catalog
+	 */
+	private NamespaceTrie<CatalogEntry> scanItemFiles() throws IOException {
+		NamespaceTrie<CatalogEntry> scanned = new NamespaceTrie<>();
+		try (Stream<Path> paths = Files.walk(rootPath)) {
+			paths.filter(path -> path.toString().endsWith(".json") && Files.isRegularFile(path)).forEach(path -> {
+				Path relativePath = rootPath.relativize(path);
+				List<String> namespace = new ArrayList<>(relativePath.getNameCount() - 1);
+				for (int i = 0; i < relativePath.getNameCount() - 1; i++) {
+					namespace.add(relativePath.getName(i).toString());
+				}
+				String fileName = relativePath.getFileName().toString();
+				String key = fileName.substring(0, fileName.length() - ".json".length());
 
-					// Check constraints
-					if (matchesNamespacePrefix(newNamespace, request.getNamespace())
-							&& matchesMaxDepth(newNamespace, request.getMaxDepth())) {
-						String namespacePath = String.join("/", newNamespace);
-						namespaceSet.add(namespacePath);
+				Object[] values = new Object[indexedFields.size()];
+				if (!indexedFields.isEmpty()) {
+					try {
+						values = indexedValues(objectMapper.readValue(Files.readString(path), StoreItem.class));
+					}
+					catch (Exception e) {
+						// Skip invalid files
+						return;
 					}
+				}
+				CatalogEntry entry = new CatalogEntry(namespace, key, values);
+				scanned.put(namespace, key, entry);
+				index(entry);
+			});
+		}
+		return scanned;
+	}
 
-					// Recurse into subdirectory
-					scanDirectoriesForNamespaces(subPath, newNamespace, namespaceSet, request);
+	/**
+	 * Append a put or a delete to the catalog journal, compacting the journal when it
+	 * holds more than twice as many records as the catalog.
+	 */
+	private void appendJournal(CatalogEntry entry, boolean put) throws IOException {
+		String record = objectMapper.writeValueAsString(journalRecord(entry, put)) + "\n";
+		Files.write(catalogPath, record.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+		if (++journalRecords > Math.max(MIN_COMPACTION_RECORDS, 2L * catalog.size())) {
+			writeCatalogSnapshot();
+		}
+	}
+
+	/**
+	 * Replace the catalog journal with the puts of the current entries.
+	 */
+	private void writeCatalogSnapshot() throws IOException {
+		Path tempPath = rootPath.resolve(CATALOG_FILE + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+			writer.write(objectMapper.writeValueAsString(Map.of("indexedFields", indexedFields)));
+			writer.newLine();
+			catalog.visit(List.of(), entry -> {
+				try {
+					writer.write(objectMapper.writeValueAsString(journalRecord(entry, true)));
+					writer.newLine();
+					return true;
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
 				}
 			});
 		}
-		catch (IOException e) {
-			// Skip directories that can't be read
+		catch (UncheckedIOException e) {
+			throw e.getCause();
 		}
+		Files.move(tempPath, catalogPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		journalRecords = catalog.size();
+	}
+
+	private Map<String, Object> journalRecord(CatalogEntry entry, boolean put) {
+		Map<String, Object> record = new LinkedHashMap<>();
+		record.put("put", put);
+		record.put("namespace", entry.namespace);
+		record.put("key", entry.key);
+		if (put) {
+			record.put("fields", Arrays.asList(entry.indexedValues));
+		}
+		return record;
 	}
 
 	/**
-	 * Check if namespace matches prefix filter.
-	 * @param namespace namespace to check
-	 * @param prefixFilter prefix filter
-	 * @return true if matches
+	 * Values of the indexed fields, as read back from the JSON file of the item.
 	 */
-	private boolean matchesNamespacePrefix(List<String> namespace, List<String> prefixFilter) {
-		if (prefixFilter.isEmpty()) {
-			return true;
+	private Object[] indexedValues(StoreItem item) throws IOException {
+		Object[] values = new Object[indexedFields.size()];
+		Map<String, Object> itemValue = item.getValue();
+		if (itemValue != null) {
+			for (int i = 0; i < values.length; i++) {
+				Object value = itemValue.get(indexedFields.get(i));
+				values[i] = value != null ? objectMapper.readValue(objectMapper.writeValueAsBytes(value), Object.class)
+						: null;
+			}
+		}
+		return values;
+	}
+
+	private void index(CatalogEntry entry) {
+		for (int i = 0; i < indexedFields.size(); i++) {
+			fieldIndexes.computeIfAbsent(indexedFields.get(i), k -> new HashMap<>())
+				.computeIfAbsent(entry.indexedValues[i], k -> new HashSet<>())
+				.add(entry);
+		}
+	}
+
+	private void unindex(CatalogEntry entry) {
+		for (int i = 0; i < indexedFields.size(); i++) {
+			Map<Object, Set<CatalogEntry>> fieldIndex = fieldIndexes.get(indexedFields.get(i));
+			Set<CatalogEntry> bucket = fieldIndex != null ? fieldIndex.get(entry.indexedValues[i]) : null;
+			if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+				fieldIndex.remove(entry.indexedValues[i]);
+			}
 		}
-		return startsWithPrefix(namespace, prefixFilter);
 	}
 
 	/**
@@ -390,4 +627,23 @@ public class FileSystemStore extends BaseStore {
 		});
 	}
 
+	/**
+	 * An item of the catalog, with the values of the indexed fields when it was put.
+	 */
+	private static final class CatalogEntry {
+
+		final List<String> namespace;
+
+		final String key;
+
+		final Object[] indexedValues;
+
+		CatalogEntry(List<String> namespace, String key, Object[] indexedValues) {
+			this.namespace = namespace;
+			this.key = key;
+			this.indexedValues = indexedValues;
+		}
+
+	}
+
 }
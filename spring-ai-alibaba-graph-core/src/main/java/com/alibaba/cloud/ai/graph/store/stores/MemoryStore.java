@@ -18,20 +18,23 @@ package com.alibaba.cloud.ai.graph.store.stores;
 import com.alibaba.cloud.ai.graph.store.*;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
 
 /**
  * In-memory implementation of the Store interface.
  * <p>
- * This implementation stores all data in memory using a ConcurrentHashMap. It's suitable
- * for testing, development, and lightweight applications where persistence is not
- * required.
+ * Items are kept in a namespace trie, so namespace prefix searches and
+ * {@link #listNamespaces(NamespaceListRequest)} only visit the matching part of the
+ * store. Value fields declared with {@link #MemoryStore(Collection)} are indexed for
+ * equality filters, and sorted searches keep only the top {@code offset + limit} items
+ * instead of sorting every match. It's suitable for testing, development, and
+ * lightweight applications where persistence is not required.
  * </p>
  * <p>
- * <strong>Note:</strong> All data is lost when the application restarts.
+ * <strong>Note:</strong> All data is lost when the application restarts. Items are
+ * indexed when they are put, so a changed item value must be put again to be found by
+ * indexed filters.
  * </p>
  *
  * @author Spring AI Alibaba
@@ -40,23 +43,56 @@ import java.util.stream.Collectors;
 public class MemoryStore extends BaseStore {
 
 	/**
-	 * Thread-safe storage for store items. Key format: "namespace1/namespace2/key"
+	 * The items, by namespace.
 	 */
-	private final Map<String, StoreItem> storage = new ConcurrentHashMap<>();
+	private final NamespaceTrie<Entry> items = new NamespaceTrie<>();
 
 	/**
-	 * Read-write lock for thread safety during search operations.
+	 * Indexed value fields, in declaration order.
+	 */
+	private final String[] indexedFields;
+
+	/**
+	 * Field name -> field value -> items having that value.
+	 */
+	private final Map<String, Map<Object, Set<StoreItem>>> fieldIndexes = new HashMap<>();
+
+	/**
+	 * Read-write lock guarding the trie and the field indexes.
 	 */
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
+	public MemoryStore() {
+		this(Collections.emptyList());
+	}
+
+	/**
+	 * Creates a store indexing the given value fields.
+	 * @param indexedFields the {@link StoreItem#getValue() value} fields used by search
+	 * filters
+	 */
+	public MemoryStore(Collection<String> indexedFields) {
+		if (indexedFields == null) {
+			throw new IllegalArgumentException("indexedFields cannot be null");
+		}
+		this.indexedFields = new LinkedHashSet<>(indexedFields).toArray(new String[0]);
+		for (String field : this.indexedFields) {
+			fieldIndexes.put(field, new HashMap<>());
+		}
+	}
+
 	@Override
 	public void putItem(StoreItem item) {
 		validatePutItem(item);
 
 		lock.writeLock().lock();
 		try {
-			String storeKey = createStoreKey(item.getNamespace(), item.getKey());
-			storage.put(storeKey, item);
+			Entry entry = new Entry(item, indexedValues(item));
+			Entry previous = items.put(item.getNamespace(), item.getKey(), entry);
+			if (previous != null) {
+				unindex(previous);
+			}
+			index(entry);
 		}
 		finally {
 			lock.writeLock().unlock();
@@ -70,8 +106,8 @@ public class MemoryStore extends BaseStore {
 
 		lock.readLock().lock();
 		try {
-			String storeKey = createStoreKey(namespace, key);
-			return Optional.ofNullable(storage.get(storeKey));
+			Entry entry = items.get(namespace, key);
+			return Optional.ofNullable(entry != null ? entry.item : null);
 		}
 		finally {
 			lock.readLock().unlock();
@@ -84,8 +120,12 @@ public class MemoryStore extends BaseStore {
 
 		lock.writeLock().lock();
 		try {
-			String storeKey = createStoreKey(namespace, key);
-			return storage.remove(storeKey) != null;
+			Entry removed = items.remove(namespace, key);
+			if (removed == null) {
+				return false;
+			}
+			unindex(removed);
+			return true;
 		}
 		finally {
 			lock.writeLock().unlock();
@@ -96,34 +136,43 @@ public class MemoryStore extends BaseStore {
 	public StoreSearchResult searchItems(StoreSearchRequest searchRequest) {
 		validateSearchItems(searchRequest);
 
+		int offset = searchRequest.getOffset();
+		int limit = searchRequest.getLimit();
+
 		lock.readLock().lock();
 		try {
-			List<StoreItem> allItems = new ArrayList<>(storage.values());
-
-			// Apply filters
-			List<StoreItem> filteredItems = allItems.stream()
-				.filter(item -> matchesSearchCriteria(item, searchRequest))
-				.collect(Collectors.toList());
-
-			// Sort items
-			if (!searchRequest.getSortFields().isEmpty()) {
-				filteredItems.sort(createComparator(searchRequest));
+			List<String> namespace = searchRequest.getNamespace();
+			int scopeSize = items.size(namespace);
+			if (scopeSize == 0) {
+				return StoreSearchResult.of(Collections.emptyList(), 0, offset, limit);
 			}
 
-			long totalCount = filteredItems.size();
-
-			// Apply pagination
-			int offset = searchRequest.getOffset();
-			int limit = searchRequest.getLimit();
-
-			if (offset >= filteredItems.size()) {
-				return StoreSearchResult.of(Collections.emptyList(), totalCount, offset, limit);
+			// Use the smallest indexed filter bucket when it is narrower than the namespace
+			Set<StoreItem> candidates = null;
+			for (Map.Entry<String, Object> filter : searchRequest.getFilter().entrySet()) {
+				Map<Object, Set<StoreItem>> fieldIndex = fieldIndexes.get(filter.getKey());
+				if (fieldIndex != null) {
+					Set<StoreItem> bucket = fieldIndex.getOrDefault(filter.getValue(), Collections.emptySet());
+					if (candidates == null || bucket.size() < candidates.size()) {
+						candidates = bucket;
+					}
+				}
 			}
 
-			int endIndex = Math.min(offset + limit, filteredItems.size());
-			List<StoreItem> resultItems = filteredItems.subList(offset, endIndex);
-
-			return StoreSearchResult.of(resultItems, totalCount, offset, limit);
+			String query = searchRequest.getQuery();
+			boolean unfiltered = (query == null || query.trim().isEmpty()) && searchRequest.getFilter().isEmpty();
+			SearchCollector collector = new SearchCollector(this, searchRequest, unfiltered ? scopeSize : -1);
+			if (candidates != null && candidates.size() < scopeSize) {
+				for (StoreItem item : candidates) {
+					if (!collector.test(item)) {
+						break;
+					}
+				}
+			}
+			else {
+				items.visit(namespace, entry -> collector.test(entry.item));
+			}
+			return collector.result();
 		}
 		finally {
 			lock.readLock().unlock();
@@ -136,40 +185,38 @@ public class MemoryStore extends BaseStore {
 
 		lock.readLock().lock();
 		try {
-			Set<String> namespaceSet = new HashSet<>();
 			List<String> prefixFilter = namespaceRequest.getNamespace();
+			if (items.size(prefixFilter) == 0) {
+				return Collections.emptyList();
+			}
 
-			for (StoreItem item : storage.values()) {
-				List<String> itemNamespace = item.getNamespace();
-
-				// Check if namespace starts with prefix filter
-				if (!prefixFilter.isEmpty() && !startsWithPrefix(itemNamespace, prefixFilter)) {
-					continue;
-				}
-
-				// Generate all possible namespace paths up to maxDepth
-				int maxDepth = namespaceRequest.getMaxDepth();
-				int depth = (maxDepth == -1) ? itemNamespace.size() : Math.min(maxDepth, itemNamespace.size());
+			int maxDepth = namespaceRequest.getMaxDepth();
+			int depth = (maxDepth == -1) ? Integer.MAX_VALUE : maxDepth;
 
-				for (int i = 1; i <= depth; i++) {
-					String namespacePath = String.join("/", itemNamespace.subList(0, i));
-					namespaceSet.add(namespacePath);
-				}
+			// The prefix itself and its ancestors, then the namespaces below it
+			SortedSet<String> namespaceSet = new TreeSet<>();
+			for (int i = 1; i <= Math.min(depth, prefixFilter.size()); i++) {
+				namespaceSet.add(String.join("/", prefixFilter.subList(0, i)));
 			}
-
-			List<String> namespaces = new ArrayList<>(namespaceSet);
-			Collections.sort(namespaces);
+			items.collectNamespaces(prefixFilter, maxDepth, namespaceSet);
 
 			// Apply pagination
 			int offset = namespaceRequest.getOffset();
 			int limit = namespaceRequest.getLimit();
 
-			if (offset >= namespaces.size()) {
+			if (offset >= namespaceSet.size()) {
 				return Collections.emptyList();
 			}
 
-			int endIndex = Math.min(offset + limit, namespaces.size());
-			return namespaces.subList(offset, endIndex);
+			List<String> namespaces = new ArrayList<>(Math.min(limit, namespaceSet.size() - offset));
+			Iterator<String> iterator = namespaceSet.iterator();
+			for (int i = 0; i < offset; i++) {
+				iterator.next();
+			}
+			while (iterator.hasNext() && namespaces.size() < limit) {
+				namespaces.add(iterator.next());
+			}
+			return namespaces;
 		}
 		finally {
 			lock.readLock().unlock();
@@ -178,17 +225,75 @@ public class MemoryStore extends BaseStore {
 
 	@Override
 	public void clear() {
-		storage.clear();
+		lock.writeLock().lock();
+		try {
+			items.clear();
+			fieldIndexes.values().forEach(Map::clear);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	@Override
 	public long size() {
-		return storage.size();
+		lock.readLock().lock();
+		try {
+			return items.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return storage.isEmpty();
+		return size() == 0;
+	}
+
+	private Object[] indexedValues(StoreItem item) {
+		Object[] values = new Object[indexedFields.length];
+		Map<String, Object> itemValue = item.getValue();
+		if (itemValue != null) {
+			for (int i = 0; i < indexedFields.length; i++) {
+				values[i] = itemValue.get(indexedFields[i]);
+			}
+		}
+		return values;
+	}
+
+	private void index(Entry entry) {
+		for (int i = 0; i < indexedFields.length; i++) {
+			fieldIndexes.get(indexedFields[i])
+				.computeIfAbsent(entry.indexedValues[i], k -> new HashSet<>())
+				.add(entry.item);
+		}
+	}
+
+	private void unindex(Entry entry) {
+		for (int i = 0; i < indexedFields.length; i++) {
+			Map<Object, Set<StoreItem>> fieldIndex = fieldIndexes.get(indexedFields[i]);
+			Set<StoreItem> bucket = fieldIndex.get(entry.indexedValues[i]);
+			if (bucket != null && bucket.remove(entry.item) && bucket.isEmpty()) {
+				fieldIndex.remove(entry.indexedValues[i]);
+			}
+		}
+	}
+
+	/**
+	 * A stored item with the values of the indexed fields at the time it was put.
+	 */
+	private static final class Entry {
+
+		final StoreItem item;
+
+		final Object[] indexedValues;
+
+		Entry(StoreItem item, Object[] indexedValues) {
+			this.item = item;
+			this.indexedValues = indexedValues;
+		}
+
 	}
 
 }
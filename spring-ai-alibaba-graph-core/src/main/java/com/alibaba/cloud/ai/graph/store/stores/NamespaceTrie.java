@@ -0,0 +1,186 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.store.stores;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Entries of a store organized by namespace, so namespace prefix queries only visit the
+ * matching part of the store. Every node counts the entries stored in it and below it,
+ * and nodes left empty are pruned. Not thread-safe.
+ *
+ * @param <E> the type of entries
+ */
+final class NamespaceTrie<E> {
+
+	private final Node<E> root = new Node<>();
+
+	/**
+	 * Number of entries.
+	 * @return the entry count
+	 */
+	int size() {
+		return root.size;
+	}
+
+	/**
+	 * Number of entries in the namespace and below it.
+	 * @param prefix namespace prefix
+	 * @return the entry count
+	 */
+	int size(List<String> prefix) {
+		Node<E> node = find(prefix);
+		return node != null ? node.size : 0;
+	}
+
+	E get(List<String> namespace, String key) {
+		Node<E> node = find(namespace);
+		return node != null ? node.entries.get(key) : null;
+	}
+
+	/**
+	 * Stores the entry of the key.
+	 * @return the replaced entry, or null
+	 */
+	E put(List<String> namespace, String key, E entry) {
+		List<Node<E>> path = new ArrayList<>(namespace.size() + 1);
+		Node<E> node = root;
+		path.add(node);
+		for (String segment : namespace) {
+			node = node.children.computeIfAbsent(segment, k -> new Node<>());
+			path.add(node);
+		}
+
+		E previous = node.entries.put(key, entry);
+		if (previous == null) {
+			path.forEach(n -> n.size++);
+		}
+		return previous;
+	}
+
+	/**
+	 * Removes the entry of the key.
+	 * @return the removed entry, or null
+	 */
+	E remove(List<String> namespace, String key) {
+		List<Node<E>> path = new ArrayList<>(namespace.size() + 1);
+		Node<E> node = root;
+		path.add(node);
+		for (String segment : namespace) {
+			node = node.children.get(segment);
+			if (node == null) {
+				return null;
+			}
+			path.add(node);
+		}
+
+		E removed = node.entries.remove(key);
+		if (removed == null) {
+			return null;
+		}
+		path.forEach(n -> n.size--);
+		// prune the namespaces left empty, so every node of the trie holds entries
+		for (int i = path.size() - 1; i > 0 && path.get(i).size == 0; i--) {
+			path.get(i - 1).children.remove(namespace.get(i - 1));
+		}
+		return removed;
+	}
+
+	void clear() {
+		root.children.clear();
+		root.entries.clear();
+		root.size = 0;
+	}
+
+	/**
+	 * Visits the entries of the namespace and of the namespaces below it.
+	 * @param prefix namespace prefix
+	 * @param visitor returns false to stop the visit
+	 */
+	void visit(List<String> prefix, Predicate<E> visitor) {
+		Node<E> node = find(prefix);
+		if (node != null) {
+			node.visit(visitor);
+		}
+	}
+
+	/**
+	 * Collects the {@code /} separated paths of the namespaces strictly below the prefix,
+	 * up to the given depth.
+	 * @param prefix namespace prefix
+	 * @param maxDepth maximum namespace size, -1 for no limit
+	 * @param namespaces set collecting the paths
+	 */
+	void collectNamespaces(List<String> prefix, int maxDepth, Set<String> namespaces) {
+		Node<E> node = find(prefix);
+		int depth = maxDepth == -1 ? Integer.MAX_VALUE : maxDepth;
+		if (node != null && prefix.size() < depth) {
+			node.collectNamespaces(prefix.isEmpty() ? null : String.join("/", prefix), depth - prefix.size(),
+					namespaces);
+		}
+	}
+
+	private Node<E> find(List<String> namespace) {
+		Node<E> node = root;
+		for (String segment : namespace) {
+			node = node.children.get(segment);
+			if (node == null) {
+				return null;
+			}
+		}
+		return node;
+	}
+
+	private static final class Node<E> {
+
+		final Map<String, Node<E>> children = new HashMap<>();
+
+		final Map<String, E> entries = new HashMap<>();
+
+		int size;
+
+		boolean visit(Predicate<E> visitor) {
+			for (E entry : entries.values()) {
+				if (!visitor.test(entry)) {
+					return false;
+				}
+			}
+			for (Node<E> child : children.values()) {
+				if (!child.visit(visitor)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		void collectNamespaces(String parentPath, int remainingDepth, Set<String> namespaces) {
+			for (Map.Entry<String, Node<E>> child : children.entrySet()) {
+				String path = parentPath == null ? child.getKey() : parentPath + "/" + child.getKey();
+				namespaces.add(path);
+				if (remainingDepth > 1) {
+					child.getValue().collectNamespaces(path, remainingDepth - 1, namespaces);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.store.stores;
+
+import com.alibaba.cloud.ai.graph.store.StoreItem;
+import com.alibaba.cloud.ai.graph.store.StoreSearchRequest;
+import com.alibaba.cloud.ai.graph.store.StoreSearchResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Collects the requested page of the items matching a search, as they are visited.
+ * Sorted searches keep the first {@code offset + limit} items in a bounded heap instead
+ * of sorting every match. Ties of the requested sort are broken by namespace and key, so
+ * pages do not depend on the order in which the items are visited.
+ */
+final class SearchCollector implements Predicate<StoreItem> {
+
+	private final BaseStore store;
+
+	private final StoreSearchRequest searchRequest;
+
+	private final int offset;
+
+	private final int limit;
+
+	private final int topK;
+
+	private final Comparator<StoreItem> comparator;
+
+	private final PriorityQueue<StoreItem> heap;
+
+	private final List<StoreItem> page = new ArrayList<>();
+
+	private final long knownTotal;
+
+	private long totalCount;
+
+	/**
+	 * @param store the store providing the search criteria and the sort order
+	 * @param searchRequest the search
+	 * @param knownTotal the number of matches if already known, in which case an unsorted
+	 * visit stops at the end of the page, or -1
+	 */
+	SearchCollector(BaseStore store, StoreSearchRequest searchRequest, long knownTotal) {
+		this.store = store;
+		this.searchRequest = searchRequest;
+		this.offset = searchRequest.getOffset();
+		this.limit = searchRequest.getLimit();
+		this.topK = (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+		this.knownTotal = knownTotal;
+		if (searchRequest.getSortFields().isEmpty()) {
+			this.comparator = null;
+			this.heap = null;
+		}
+		else {
+			this.comparator = store.createComparator(searchRequest)
+				.thenComparing(item -> String.join("/", item.getNamespace()))
+				.thenComparing(StoreItem::getKey);
+			this.heap = new PriorityQueue<>(Math.min(topK, 1024), comparator.reversed());
+		}
+	}
+
+	/**
+	 * Collects the item if it matches the search.
+	 * @param item the visited item
+	 * @return false if the visit can stop
+	 */
+	@Override
+	public boolean test(StoreItem item) {
+		if (!store.matchesSearchCriteria(item, searchRequest)) {
+			return true;
+		}
+		long position = totalCount++;
+		if (heap == null) {
+			if (position >= offset && page.size() < limit) {
+				page.add(item);
+			}
+			return knownTotal < 0 || page.size() < limit;
+		}
+		if (heap.size() < topK) {
+			heap.add(item);
+		}
+		else if (comparator.compare(item, heap.peek()) < 0) {
+			heap.poll();
+			heap.add(item);
+		}
+		return true;
+	}
+
+	StoreSearchResult result() {
+		long total = knownTotal >= 0 ? knownTotal : totalCount;
+		if (heap == null) {
+			return StoreSearchResult.of(page, total, offset, limit);
+		}
+		if (offset >= heap.size()) {
+			return StoreSearchResult.of(Collections.emptyList(), total, offset, limit);
+		}
+		List<StoreItem> sorted = new ArrayList<>(heap);
+		sorted.sort(comparator);
+		return StoreSearchResult.of(sorted.subList(offset, sorted.size()), total, offset, limit);
+	}
+
+}
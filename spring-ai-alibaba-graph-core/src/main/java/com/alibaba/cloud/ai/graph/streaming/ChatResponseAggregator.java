@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.streaming;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.content.Media;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the chunks of a streamed chat response into a single response.
+ *
+ * Appending a chunk costs time proportional to the chunk only: text is collected in a
+ * growable buffer and the aggregated {@link AssistantMessage} is built once, when
+ * {@link #getResult()} or {@link #getMessage()} is called after the last chunk.
+ *
+ * Tool calls are merged by id: a chunk carrying the id of a known tool call, or no id at
+ * all, updates that call, any other id starts a new call. Providers either stream the
+ * arguments as deltas or resend the arguments received so far with every chunk: arguments
+ * starting with the ones already collected replace them, others are appended. The
+ * metadata of the aggregated response is the one of the last chunk.
+ *
+ * An aggregator collects the chunks of one stream and is not thread safe.
+ */
+public class ChatResponseAggregator {
+
+	private final StringBuilder text = new StringBuilder();
+
+	private final List<ToolCallBuilder> toolCalls = new ArrayList<>();
+
+	private final List<Media> media = new ArrayList<>();
+
+	private boolean hasText;
+
+	private Map<String, Object> messageMetadata = Map.of();
+
+	private ChatGenerationMetadata generationMetadata;
+
+	private ChatResponseMetadata responseMetadata;
+
+	private int chunks;
+
+	private ChatResponse result;
+
+	/**
+	 * Appends a chunk. Chunks without a generation are ignored.
+	 * @param response the chunk
+	 */
+	public void append(ChatResponse response) {
+		if (response == null || response.getResult() == null) {
+			return;
+		}
+		Generation generation = response.getResult();
+		AssistantMessage message = generation.getOutput();
+		chunks++;
+		result = null;
+
+		if (message.getText() != null) {
+			text.append(message.getText());
+			hasText = true;
+		}
+		for (AssistantMessage.ToolCall toolCall : message.getToolCalls()) {
+			mergeToolCall(toolCall);
+		}
+		media.addAll(message.getMedia());
+		messageMetadata = message.getMetadata();
+		generationMetadata = generation.getMetadata();
+		responseMetadata = response.getMetadata();
+	}
+
+	private void mergeToolCall(AssistantMessage.ToolCall delta) {
+		ToolCallBuilder target = null;
+		if (StringUtils.hasText(delta.id())) {
+			for (ToolCallBuilder toolCall : toolCalls) {
+				if (delta.id().equals(toolCall.id)) {
+					target = toolCall;
+					break;
+				}
+			}
+		}
+		else if (!toolCalls.isEmpty()) {
+			target = toolCalls.get(toolCalls.size() - 1);
+		}
+		if (target == null) {
+			target = new ToolCallBuilder(delta.id());
+			toolCalls.add(target);
+		}
+		target.merge(delta);
+	}
+
+	/**
+	 * Returns whether no chunk has been appended yet.
+	 * @return {@code true} if no chunk has been appended
+	 */
+	public boolean isEmpty() {
+		return chunks == 0;
+	}
+
+	/**
+	 * Returns the aggregated message.
+	 * @return the aggregated message, or {@code null} if no chunk has been appended
+	 */
+	public AssistantMessage getMessage() {
+		ChatResponse response = getResult();
+		return response != null ? response.getResult().getOutput() : null;
+	}
+
+	/**
+	 * Returns the aggregated response. The response is built on the first call following
+	 * an append and reused afterwards.
+	 * @return the aggregated response, or {@code null} if no chunk has been appended
+	 */
+	public ChatResponse getResult() {
+		if (result == null && chunks > 0) {
+			List<AssistantMessage.ToolCall> aggregatedToolCalls = new ArrayList<>(toolCalls.size());
+			for (ToolCallBuilder toolCall : toolCalls) {
+				aggregatedToolCalls.add(toolCall.build());
+			}
+			AssistantMessage message = new AssistantMessage(hasText ? text.toString() : null, messageMetadata,
+					aggregatedToolCalls, List.copyOf(media));
+			result = new ChatResponse(List.of(new Generation(message, generationMetadata)), responseMetadata);
+		}
+		return result;
+	}
+
+	private static final class ToolCallBuilder {
+
+		private final String id;
+
+		private final StringBuilder arguments = new StringBuilder();
+
+		private String type;
+
+		private String name;
+
+		private ToolCallBuilder(String id) {
+			this.id = id;
+		}
+
+		private void merge(AssistantMessage.ToolCall delta) {
+			if (StringUtils.hasText(delta.type()) && type == null) {
+				type = delta.type();
+			}
+			if (StringUtils.hasText(delta.name()) && name == null) {
+				name = delta.name();
+			}
+			if (delta.arguments() != null) {
+				if (isCumulative(delta.arguments())) {
+					arguments.setLength(0);
+				}
+				arguments.append(delta.arguments());
+			}
+		}
+
+		/**
+		 * Whether the given arguments repeat the arguments collected so far. Only checked
+		 * when they are at least as long, so appending deltas stays linear.
+		 */
+		private boolean isCumulative(String value) {
+			if (arguments.length() == 0 || value.length() < arguments.length()) {
+				return false;
+			}
+			for (int i = 0; i < arguments.length(); i++) {
+				if (value.charAt(i) != arguments.charAt(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private AssistantMessage.ToolCall build() {
+			return new AssistantMessage.ToolCall(id, type, name, arguments.toString());
+		}
+
+	}
+
+}
@@ -15,6 +15,7 @@
  */
 package com.alibaba.cloud.ai.graph.streaming;
 
+import org.springframework.ai.chat.model.ChatResponse;
 import reactor.core.publisher.Flux;
 
 import java.util.function.Function;
@@ -58,16 +59,23 @@ public class GraphFlux<T> {
      */
     private final Function<Object,String> chunkResult;
 
+    /**
+     * Whether the elements are chat response chunks aggregated per subscription
+     */
+    private final boolean aggregated;
+
 
     /**
      * Private constructor, instances are created through static factory methods
      */
-    private GraphFlux(String nodeId, Flux<T> flux, String key, Function<T,?> mapResult, Function<Object, String> chunkResult) {
+    private GraphFlux(String nodeId, Flux<T> flux, String key, Function<T,?> mapResult, Function<Object, String> chunkResult,
+            boolean aggregated) {
         this.nodeId = nodeId;
         this.flux = flux;
         this.key = key;
         this.mapResult = mapResult;
         this.chunkResult = chunkResult;
+        this.aggregated = aggregated;
     }
 
     /**
@@ -79,7 +87,7 @@ public class GraphFlux<T> {
      * @return GraphFlux instance
      */
     public static <T> GraphFlux<T> of(String nodeId, Flux<T> flux) {
-        return new GraphFlux<>(nodeId, flux,null, null,null);
+        return new GraphFlux<>(nodeId, flux,null, null,null, false);
     }
 
     /**
@@ -96,7 +104,37 @@ public class GraphFlux<T> {
     public static <T> GraphFlux<T> of(String nodeId, String key, Flux<T> flux, Function<T, ?> mapResult, Function<T, String> chunkResult) {
 
         return new GraphFlux<>(nodeId, flux, key, mapResult, 
-            chunkResult != null ? o -> chunkResult.apply((T) o) : null);
+            chunkResult != null ? o -> chunkResult.apply((T) o) : null, false);
+    }
+
+    /**
+     * Static factory method to create a GraphFlux of streamed chat response chunks. The
+     * chunks of each subscription are aggregated, and the result mapping function is
+     * applied once to the aggregated response when the stream completes.
+     *
+     * @param nodeId      node identifier
+     * @param key         storage key
+     * @param flux        streamed chat response chunks
+     * @param mapResult   result mapping function applied to the aggregated response, or
+     *                    null to keep the aggregated response
+     * @param chunkResult chunk processing function
+     * @return GraphFlux instance
+     */
+    public static GraphFlux<ChatResponse> ofChatResponses(String nodeId, String key, Flux<ChatResponse> flux,
+            Function<ChatResponse, ?> mapResult, Function<ChatResponse, String> chunkResult) {
+        return new GraphFlux<>(nodeId, flux, key, mapResult,
+            chunkResult != null ? o -> chunkResult.apply((ChatResponse) o) : null, true);
+    }
+
+    /**
+     * Creates a copy of this GraphFlux bound to another node identifier and storage key
+     *
+     * @param nodeId node identifier
+     * @param key    storage key
+     * @return GraphFlux instance
+     */
+    public GraphFlux<T> withNodeId(String nodeId, String key) {
+        return new GraphFlux<>(nodeId, flux, key, mapResult, chunkResult, aggregated);
     }
 
     public Function<Object,String> getChunkResult() {
@@ -149,6 +187,16 @@ public class GraphFlux<T> {
         return chunkResult != null;
     }
 
+    /**
+     * Check if the elements are chat response chunks aggregated per subscription, the
+     * result mapping function then applying to the aggregated response
+     *
+     * @return true if the chunks are aggregated, false otherwise
+     */
+    public boolean isAggregated() {
+        return aggregated;
+    }
+
 
 
 
@@ -15,17 +15,10 @@
  */
 package com.alibaba.cloud.ai.graph.streaming;
 
-import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.model.ChatResponse;
-import org.springframework.ai.chat.model.Generation;
 import reactor.core.publisher.Flux;
 
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReference;
-import java.util.function.Function;
-
-import static java.util.Objects.requireNonNull;
 
 public interface GraphFluxGenerator {
 
@@ -68,35 +61,11 @@ public interface GraphFluxGenerator {
 		private GraphFlux<ChatResponse> buildInternal(Flux<ChatResponse> flux) {
 			Objects.requireNonNull(flux, "flux cannot be null");
 
-			var result = new AtomicReference<ChatResponse>(null);
-
-			Function<ChatResponse,ChatResponse> mergeMessage = (response) -> result.updateAndGet(lastResponse -> {
-
-				if (lastResponse == null) {
-					return response;
-				}
-
-				final var currentMessage = response.getResult().getOutput();
-
-				if (currentMessage.hasToolCalls()) {
-					return response;
-				}
-
-				final var lastMessageText = requireNonNull(lastResponse.getResult().getOutput().getText(),
-						"lastResponse text cannot be null");
-
-				final var currentMessageText = currentMessage.getText();
-
-				var newMessage = new AssistantMessage(
-						currentMessageText != null ? lastMessageText.concat(currentMessageText) : lastMessageText,
-						currentMessage.getMetadata(), currentMessage.getToolCalls(), currentMessage.getMedia());
-
-				var newGeneration = new Generation(newMessage, response.getResult().getMetadata());
-				return new ChatResponse(List.of(newGeneration), response.getMetadata());
-
-			});
-
-			return GraphFlux.of(startingNode, outKey, flux, mergeMessage, response -> response.getResult().getOutput().getText());
+			// The chunks of each subscription are aggregated, the state receives the
+			// aggregated message once the stream completes. The message is stored rather
+			// than the ChatResponse, whose metadata the state serializer cannot copy.
+			return GraphFlux.ofChatResponses(startingNode, outKey, flux, response -> response.getResult().getOutput(),
+					response -> response.getResult().getOutput().getText());
 		}
 
 	}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Utility class for creating executors used by the graph and agent runtime.
+ * <p>
+ * The project is compiled against Java 17, so virtual threads are looked up reflectively
+ * and only used when the running JVM provides them (Java 21+). On older runtimes a
+ * cached pool of daemon platform threads is returned instead.
+ * </p>
+ */
+public final class ExecutorUtils {
+
+	private static final Logger log = LoggerFactory.getLogger(ExecutorUtils.class);
+
+	private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findVirtualThreadFactoryMethod();
+
+	private ExecutorUtils() {
+	}
+
+	/**
+	 * Whether the running JVM supports virtual threads.
+	 * @return true if {@code Executors.newVirtualThreadPerTaskExecutor()} is available
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+	}
+
+	/**
+	 * Creates an executor that starts a new virtual thread per task, falling back to
+	 * {@link #newDaemonCachedThreadPool(String)} when virtual threads are unavailable.
+	 * @param fallbackThreadNamePrefix the thread name prefix used by the fallback pool
+	 * @return a new executor service
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor(String fallbackThreadNamePrefix) {
+		if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+			try {
+				return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+			}
+			catch (ReflectiveOperationException e) {
+				log.debug("Failed to create virtual thread executor, falling back to platform threads", e);
+			}
+		}
+		return newDaemonCachedThreadPool(fallbackThreadNamePrefix);
+	}
+
+	/**
+	 * Creates a cached thread pool whose threads are daemon threads, so an unused pool
+	 * never prevents the JVM from exiting.
+	 * @param threadNamePrefix the thread name prefix
+	 * @return a new executor service
+	 */
+	public static ExecutorService newDaemonCachedThreadPool(String threadNamePrefix) {
+		return Executors.newCachedThreadPool(daemonThreadFactory(threadNamePrefix));
+	}
+
+	/**
+	 * Creates a thread factory producing named daemon threads.
+	 * @param threadNamePrefix the thread name prefix
+	 * @return the thread factory
+	 */
+	public static ThreadFactory daemonThreadFactory(String threadNamePrefix) {
+		AtomicInteger counter = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static Method findVirtualThreadFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
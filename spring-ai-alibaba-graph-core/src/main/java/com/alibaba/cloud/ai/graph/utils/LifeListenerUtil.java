@@ -21,6 +21,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 
 import static com.alibaba.cloud.ai.graph.StateGraph.*;
@@ -85,4 +87,43 @@ public class LifeListenerUtil {
 		}
 	}
 
+	/**
+	 * Process graph lifecycle listeners in LIFO (Last In, First Out) order without
+	 * consuming them, so the same snapshot can be reused for several events. A failing
+	 * listener does not prevent the remaining ones from being invoked.
+	 * @param currentNodeId The ID of the current node being processed
+	 * @param listeners The listeners to process, in registration order
+	 * @param currentState The current state of the graph
+	 * @param runnableConfig The configuration for the runnable task
+	 * @param scene The scene or event type (START, END, ERROR, NODE_BEFORE, NODE_AFTER)
+	 * @param e The exception object (used only in ERROR scene)
+	 */
+	public static void processListenersLIFO(String currentNodeId, List<GraphLifecycleListener> listeners,
+			Map<String, Object> currentState, RunnableConfig runnableConfig, String scene, Throwable e) {
+		ListIterator<GraphLifecycleListener> iterator = listeners.listIterator(listeners.size());
+		while (iterator.hasPrevious()) {
+			GraphLifecycleListener listener = iterator.previous();
+			try {
+				if (START.equals(scene)) {
+					listener.onStart(START, currentState, runnableConfig);
+				}
+				else if (END.equals(scene)) {
+					listener.onComplete(END, currentState, runnableConfig);
+				}
+				else if (ERROR.equals(scene)) {
+					listener.onError(currentNodeId, currentState, e, runnableConfig);
+				}
+				else if (NODE_BEFORE.equals(scene)) {
+					listener.before(currentNodeId, currentState, runnableConfig, SystemClock.now());
+				}
+				else if (NODE_AFTER.equals(scene)) {
+					listener.after(currentNodeId, currentState, runnableConfig, SystemClock.now());
+				}
+			}
+			catch (Exception ex) {
+				log.debug("Error occurred during listener processing: {}", ex.getMessage(), ex);
+			}
+		}
+	}
+
 }
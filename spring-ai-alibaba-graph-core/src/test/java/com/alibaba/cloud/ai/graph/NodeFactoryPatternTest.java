@@ -20,12 +20,17 @@ import com.alibaba.cloud.ai.graph.exception.GraphStateException;
 import com.alibaba.cloud.ai.graph.internal.node.Node;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+import static com.alibaba.cloud.ai.graph.action.AsyncEdgeAction.edge_async;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -97,6 +102,49 @@ public class NodeFactoryPatternTest {
         assertEquals(50, creationCount.get(), "Factory should be called 50 times");
     }
 
+    @Test
+    public void testSingletonScopeReusesInstance() throws Exception {
+        Node.ActionFactory mockFactory = mock(Node.ActionFactory.class);
+        when(mockFactory.apply(any(CompileConfig.class)))
+                .thenAnswer(invocation -> mock(AsyncNodeActionWithConfig.class));
+
+        TestableCompiledGraph compiledGraph = new TestableCompiledGraph();
+        compiledGraph.putNodeFactory("testNode", mockFactory, Node.ActionScope.SINGLETON);
+
+        AsyncNodeActionWithConfig action1 = compiledGraph.getNodeAction("testNode");
+        AsyncNodeActionWithConfig action2 = compiledGraph.getNodeAction("testNode");
+
+        assertSame(action1, action2, "Singleton scope should return the same instance");
+        verify(mockFactory, times(1)).apply(any(CompileConfig.class));
+    }
+
+    @Test
+    public void testPerRunScopeReusesInstanceWithinRun() throws Exception {
+        AtomicInteger creationCount = new AtomicInteger(0);
+        Node.ActionFactory factory = config -> {
+            creationCount.incrementAndGet();
+            return AsyncNodeActionWithConfig.node_async((state, runnableConfig) -> Map.of("count",
+                    state.value("count", 0) + 1));
+        };
+
+        StateGraph workflow = new StateGraph(() -> {
+            HashMap<String, KeyStrategy> keyStrategyHashMap = new HashMap<>();
+            keyStrategyHashMap.put("count", (o, o2) -> o2);
+            return keyStrategyHashMap;
+        }).addNode("counter", factory, Node.ActionScope.PER_RUN)
+            .addEdge(START, "counter")
+            .addConditionalEdges("counter", edge_async(state -> state.value("count", 0) < 3 ? "loop" : "end"),
+                    Map.of("loop", "counter", "end", END));
+
+        CompiledGraph app = workflow.compile();
+
+        assertEquals(3, app.invoke(Map.of()).orElseThrow().value("count", 0));
+        assertEquals(1, creationCount.get(), "One action should be created for the whole run");
+
+        app.invoke(Map.of());
+        assertEquals(2, creationCount.get(), "Each run should create its own action");
+    }
+
     private static class TestableCompiledGraph extends CompiledGraph {
 
         public TestableCompiledGraph() throws GraphStateException {
@@ -107,6 +155,11 @@ public class NodeFactoryPatternTest {
             this.nodeFactories.put(nodeId, factory);
         }
 
+        public void putNodeFactory(String nodeId, Node.ActionFactory factory, Node.ActionScope actionScope) {
+            this.nodeFactories.put(nodeId, factory);
+            this.nodeActionScopes.put(nodeId, actionScope);
+        }
+
         private static StateGraph createMinimalStateGraph() throws GraphStateException {
             return new StateGraph();
         }
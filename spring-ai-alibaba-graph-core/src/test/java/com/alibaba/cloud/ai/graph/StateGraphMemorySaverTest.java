@@ -346,6 +346,47 @@ public class StateGraphMemorySaverTest {
 
 	}
 
+	@Test
+	public void testUpdatePastGraphStateWithDeltaCheckpoints() throws Exception {
+
+		var workflow = new StateGraph(keyStrategyFactory).addNode("agent", node_async(agent_whether))
+			.addNode("tools", node_async(tool_whether))
+			.addEdge(START, "agent")
+			.addConditionalEdges("agent", edge_async(shouldContinue_whether), Map.of("tools", "tools", END, END))
+			.addEdge("tools", "agent");
+
+		var compileConfig = CompileConfig.builder()
+			.saverConfig(SaverConfig.builder().register(new MemorySaver()).build())
+			.deltaCheckpoints(true)
+			.build();
+
+		var app = workflow.compile(compileConfig);
+
+		var runnableConfig = RunnableConfig.builder().threadId("thread_1").build();
+
+		app.stream(Map.of("messages", "whether in Naples?"), runnableConfig).blockLast();
+
+		var stateHistory = app.getStateHistory(runnableConfig);
+		assertEquals(4, stateHistory.size());
+
+		// the oldest checkpoint is the parent of the delta checkpoints written after it
+		var oldest = stateHistory.stream().reduce((first, second) -> second).orElseThrow();
+		var updated = app.updateState(oldest.config(), Map.of("messages", "i'm bartolo"));
+		assertEquals(oldest.config().checkPointId(), updated.checkPointId());
+
+		stateHistory = app.getStateHistory(runnableConfig);
+		assertEquals(4, stateHistory.size());
+		List<String> messages = (List<String>) stateHistory.stream()
+			.reduce((first, second) -> second)
+			.orElseThrow()
+			.state()
+			.value("messages")
+			.get();
+		assertEquals("i'm bartolo", messages.get(messages.size() - 1));
+		messages = (List<String>) app.getState(runnableConfig).state().value("messages").get();
+		assertEquals("whether in Naples is sunny", messages.get(messages.size() - 1));
+	}
+
 	@Test
 	public void testPauseAndUpdatePastGraphState() throws Exception {
 
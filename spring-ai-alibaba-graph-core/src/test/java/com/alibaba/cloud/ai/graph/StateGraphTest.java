@@ -23,6 +23,7 @@ import com.alibaba.cloud.ai.graph.action.CommandAction;
 import com.alibaba.cloud.ai.graph.async.AsyncGenerator;
 import com.alibaba.cloud.ai.graph.async.AsyncGeneratorQueue;
 import com.alibaba.cloud.ai.graph.exception.GraphStateException;
+import com.alibaba.cloud.ai.graph.internal.node.ParallelNode;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.PlainTextStateSerializer;
 import com.alibaba.cloud.ai.graph.state.AppenderChannel;
 import com.alibaba.cloud.ai.graph.state.RemoveByHash;
@@ -31,15 +32,18 @@ import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
 import com.alibaba.cloud.ai.graph.streaming.StreamingOutput;
 import com.alibaba.cloud.ai.graph.utils.EdgeMappings;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.NamedExecutable;
@@ -516,6 +520,122 @@ public class StateGraphTest {
 
 	}
 
+	/**
+	 * Tests the parallel execution settings of the compile config: bounded concurrency,
+	 * branch outputs streamed as branches complete and fail-fast error handling.
+	 */
+	@Test
+	void testParallelBranchSettings() throws Exception {
+		var running = new AtomicInteger();
+		var maxRunning = new AtomicInteger();
+		java.util.function.Function<String, AsyncNodeAction> trackedNode = id -> node_async(state -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(50);
+			}
+			finally {
+				running.decrementAndGet();
+			}
+			return Map.of("messages", id);
+		});
+
+		var workflow = new StateGraph(createKeyStrategyFactory()).addNode("A", makeNode("A"))
+			.addNode("A1", trackedNode.apply("A1"))
+			.addNode("A2", trackedNode.apply("A2"))
+			.addNode("A3", trackedNode.apply("A3"))
+			.addNode("B", makeNode("B"))
+			.addEdge(START, "A")
+			.addEdge("A", "A1")
+			.addEdge("A", "A2")
+			.addEdge("A", "A3")
+			.addEdge("A1", "B")
+			.addEdge("A2", "B")
+			.addEdge("A3", "B")
+			.addEdge("B", END);
+
+		var app = workflow.compile(CompileConfig.builder()
+			.parallelVirtualThreads(true)
+			.parallelMaxConcurrency(2)
+			.streamParallelBranches(true)
+			.build());
+
+		List<NodeOutput> outputs = app.stream(Map.of()).collectList().block();
+		assertNotNull(outputs);
+		assertTrue(maxRunning.get() <= 2, "At most 2 branches should run at the same time");
+
+		List<String> nodeIds = outputs.stream().map(NodeOutput::node).toList();
+		int parallelIndex = nodeIds.indexOf(ParallelNode.formatNodeId("A"));
+		assertTrue(parallelIndex > 0);
+		List<String> branchIds = nodeIds.subList(nodeIds.indexOf("A") + 1, parallelIndex);
+		assertEquals(3, branchIds.size());
+		assertTrue(branchIds.containsAll(List.of("A1", "A2", "A3")));
+
+		// Each branch output only holds the update of its own branch
+		NodeOutput branchOutput = outputs.get(nodeIds.indexOf("A1"));
+		assertEquals(List.of("A", "A1"), branchOutput.state().value("messages").orElseThrow());
+
+		// The merged state keeps the declaration order of the branches
+		OverAllState finalState = outputs.get(outputs.size() - 1).state();
+		assertEquals(List.of("A", "A1", "A2", "A3", "B"), finalState.value("messages").orElseThrow());
+
+		var failing = new StateGraph(createKeyStrategyFactory()).addNode("A", makeNode("A"))
+			.addNode("A1", node_async(state -> {
+				throw new IllegalStateException("A1 failed");
+			}))
+			.addNode("A2", trackedNode.apply("A2"))
+			.addNode("B", makeNode("B"))
+			.addEdge(START, "A")
+			.addEdge("A", "A1")
+			.addEdge("A", "A2")
+			.addEdge("A1", "B")
+			.addEdge("A2", "B")
+			.addEdge("B", END);
+
+		var failFastApp = failing.compile(CompileConfig.builder().parallelMaxConcurrency(1).parallelFailFast(true).build());
+		var exception = assertThrows(Exception.class, () -> failFastApp.invoke(Map.of()));
+		Throwable cause = exception;
+		while (cause != null && !(cause instanceof IllegalStateException)) {
+			cause = cause.getCause();
+		}
+		assertNotNull(cause, "The branch failure should be reported");
+		assertEquals("A1 failed", cause.getMessage());
+	}
+
+	/**
+	 * Tests that the branch timeout also applies to branches running on the calling
+	 * thread, whether they overrun synchronously or never complete.
+	 */
+	@Test
+	void testParallelBranchTimeoutOnCallingThread() throws Exception {
+		AsyncNodeAction slowNode = node_async(state -> {
+			Thread.sleep(200);
+			return Map.of("messages", "A1");
+		});
+		AsyncNodeAction pendingNode = state -> new CompletableFuture<>();
+
+		for (AsyncNodeAction branch : List.of(slowNode, pendingNode)) {
+			var workflow = new StateGraph(createKeyStrategyFactory()).addNode("A", makeNode("A"))
+				.addNode("A1", branch)
+				.addNode("A2", makeNode("A2"))
+				.addNode("B", makeNode("B"))
+				.addEdge(START, "A")
+				.addEdge("A", "A1")
+				.addEdge("A", "A2")
+				.addEdge("A1", "B")
+				.addEdge("A2", "B")
+				.addEdge("B", END);
+
+			// No executor is configured, the branches run on the calling thread
+			var app = workflow.compile(CompileConfig.builder().parallelBranchTimeout(Duration.ofMillis(50)).build());
+			var exception = assertThrows(Exception.class, () -> app.invoke(Map.of()));
+			Throwable cause = exception;
+			while (cause != null && !(cause instanceof java.util.concurrent.TimeoutException)) {
+				cause = cause.getCause();
+			}
+			assertNotNull(cause, "The branch timeout should be reported");
+		}
+	}
+
 	/**
 	 * Tests parallel branch execution in a graph.
 	 */
@@ -1066,4 +1186,34 @@ public class StateGraphTest {
 		assertEquals(1, parallelIdCount);
 	}
 
+	/**
+	 * Tests a graph looping over a node thousands of times, to make sure the steps are
+	 * executed iteratively rather than through nested streams.
+	 */
+	@Test
+	public void testLongLoop() throws Exception {
+		int steps = 3000;
+		StateGraph workflow = new StateGraph(() -> {
+			HashMap<String, KeyStrategy> keyStrategyHashMap = new HashMap<>();
+			keyStrategyHashMap.put("count", (o, o2) -> o2);
+			return keyStrategyHashMap;
+		}).addNode("counter", node_async(state -> {
+			int count = state.value("count", 0);
+			return Map.of("count", count + 1);
+		}))
+			.addEdge(START, "counter")
+			.addConditionalEdges("counter",
+					edge_async(state -> state.value("count", 0) < steps ? "loop" : "done"),
+					Map.of("loop", "counter", "done", END));
+
+		CompiledGraph app = workflow.compile(CompileConfig.builder().recursionLimit(steps + 10).build());
+
+		List<NodeOutput> outputs = app.stream(Map.of()).collectList().block();
+
+		assertNotNull(outputs);
+		// START, one output per step, and END
+		assertEquals(steps + 2, outputs.size());
+		assertEquals(steps, (int) outputs.get(outputs.size() - 1).state().value("count", 0));
+	}
+
 }
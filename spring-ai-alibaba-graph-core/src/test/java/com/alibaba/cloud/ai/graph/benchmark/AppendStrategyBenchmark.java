@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of appending the messages of one ReAct iteration to a conversation of 100 to
+ * 10,000 messages with {@link AppendStrategy}, next to copying the conversation as the
+ * strategy did before its merge became incremental. The cost of an append stays flat as
+ * the conversation grows.
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class AppendStrategyBenchmark {
+
+	private static final int APPENDS_PER_ITERATION = 2_000;
+
+	private final AppendStrategy strategy = new AppendStrategy();
+
+	@Test
+	public void appendToGrowingHistory() throws Exception {
+		double smallestHistory = 0;
+		double largestHistory = 0;
+		for (int size : new int[] { 100, 1_000, 10_000 }) {
+			Object history = history(size);
+			List<List<Message>> updates = new ArrayList<>(APPENDS_PER_ITERATION);
+			for (int i = 0; i < APPENDS_PER_ITERATION; i++) {
+				updates.add(List.of(new AssistantMessage("Answer " + i), new UserMessage("Question " + i)));
+			}
+
+			double append = Benchmarks.nanosPerOperation(APPENDS_PER_ITERATION,
+					index -> strategy.apply(history, updates.get(index)));
+			double copy = Benchmarks.nanosPerOperation(APPENDS_PER_ITERATION, index -> {
+				List<Object> copied = new ArrayList<>((List<?>) history);
+				copied.addAll(updates.get(index));
+				return copied;
+			});
+			Benchmarks.report("AppendStrategy.apply", "history=" + size, append);
+			Benchmarks.report("ArrayList copy and append", "history=" + size, copy);
+
+			if (size == 100) {
+				smallestHistory = append;
+			}
+			largestHistory = append;
+		}
+		// A merge copying the history would be about 100 times slower at 10,000 messages
+		assertTrue(largestHistory < 10 * smallestHistory,
+				"Appending to 10,000 messages took " + largestHistory + " ns, to 100 messages " + smallestHistory
+						+ " ns");
+	}
+
+	private Object history(int size) {
+		Object history = strategy.apply(null, List.of(new SystemMessage("You are a helpful assistant.")));
+		for (int i = 1; i < size; i += 2) {
+			history = strategy.apply(history,
+					List.of(new UserMessage("Message " + i), new AssistantMessage("Message " + (i + 1))));
+		}
+		return history;
+	}
+
+}
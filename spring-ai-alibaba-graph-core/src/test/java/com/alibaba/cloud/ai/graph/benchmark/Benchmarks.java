@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Minimal benchmark harness for the benchmarks of this package, which run as JUnit tests
+ * without a JMH setup. They are skipped unless the {@code benchmark} system property is
+ * set, for example:
+ *
+ * mvn test -Dtest='*Benchmark' -Dbenchmark=true
+ *
+ * A measurement runs {@link #WARMUP_ITERATIONS} iterations to let the JIT compile the
+ * code, then reports the median time per operation of {@link #MEASURED_ITERATIONS}
+ * iterations on standard output. Operation results are consumed so that the JIT cannot
+ * drop the work. Figures are only comparable between runs on the same machine.
+ */
+final class Benchmarks {
+
+	/**
+	 * System property enabling the benchmarks.
+	 */
+	static final String ENABLED_PROPERTY = "benchmark";
+
+	static final int WARMUP_ITERATIONS = 5;
+
+	static final int MEASURED_ITERATIONS = 10;
+
+	private static volatile int sink;
+
+	private Benchmarks() {
+	}
+
+	/**
+	 * An operation under measurement, returning a result to consume.
+	 */
+	@FunctionalInterface
+	interface Operation {
+
+		Object run(int index) throws Exception;
+
+	}
+
+	/**
+	 * An operation run by several threads under measurement.
+	 */
+	@FunctionalInterface
+	interface ConcurrentOperation {
+
+		Object run(int thread, int index) throws Exception;
+
+	}
+
+	/**
+	 * Measures an operation run on the calling thread.
+	 * @param operationsPerIteration the number of operations of an iteration
+	 * @param operation the operation, given its index within the iteration
+	 * @return the median time per operation in nanoseconds
+	 */
+	static double nanosPerOperation(int operationsPerIteration, Operation operation) throws Exception {
+		double[] samples = new double[MEASURED_ITERATIONS];
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURED_ITERATIONS; iteration++) {
+			int hash = 0;
+			long start = System.nanoTime();
+			for (int i = 0; i < operationsPerIteration; i++) {
+				hash += System.identityHashCode(operation.run(i));
+			}
+			long elapsed = System.nanoTime() - start;
+			sink += hash;
+			if (iteration >= WARMUP_ITERATIONS) {
+				samples[iteration - WARMUP_ITERATIONS] = (double) elapsed / operationsPerIteration;
+			}
+		}
+		return median(samples);
+	}
+
+	/**
+	 * Measures an operation run by several threads at once. Each thread runs the given
+	 * number of operations per iteration, the iteration ends when all are done.
+	 * @param threads the number of threads
+	 * @param operationsPerThread the number of operations of each thread per iteration
+	 * @param operation the operation, given the thread number and the operation index
+	 * @return the median time per operation in nanoseconds, the inverse of throughput
+	 */
+	static double nanosPerOperation(int threads, int operationsPerThread, ConcurrentOperation operation)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			double[] samples = new double[MEASURED_ITERATIONS];
+			for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURED_ITERATIONS; iteration++) {
+				CountDownLatch start = new CountDownLatch(1);
+				List<Future<Integer>> results = new ArrayList<>(threads);
+				for (int thread = 0; thread < threads; thread++) {
+					int threadNumber = thread;
+					results.add(executor.submit(() -> {
+						start.await();
+						int hash = 0;
+						for (int i = 0; i < operationsPerThread; i++) {
+							hash += System.identityHashCode(operation.run(threadNumber, i));
+						}
+						return hash;
+					}));
+				}
+				long startNanos = System.nanoTime();
+				start.countDown();
+				int hash = 0;
+				for (Future<Integer> result : results) {
+					hash += result.get();
+				}
+				long elapsed = System.nanoTime() - startNanos;
+				sink += hash;
+				if (iteration >= WARMUP_ITERATIONS) {
+					samples[iteration - WARMUP_ITERATIONS] = (double) elapsed / ((long) threads * operationsPerThread);
+				}
+			}
+			return median(samples);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Prints a result line.
+	 * @param benchmark the name of the benchmark
+	 * @param parameters the parameters of the measurement
+	 * @param nanosPerOperation the time per operation in nanoseconds
+	 */
+	static void report(String benchmark, String parameters, double nanosPerOperation) {
+		System.out.printf("%-50s %-30s %14.1f ns/op%n", benchmark, parameters, nanosPerOperation);
+	}
+
+	private static double median(double[] samples) {
+		double[] sorted = samples.clone();
+		Arrays.sort(sorted);
+		int middle = sorted.length / 2;
+		return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import com.alibaba.cloud.ai.graph.streaming.ChatResponseAggregator;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost per chunk of aggregating streamed answers of 1,000 to 20,000 tokens with
+ * {@link ChatResponseAggregator}, next to concatenating the text and rebuilding the
+ * response on each chunk as the node executor did before. The cost of a chunk stays flat
+ * as the answer grows.
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class ChatResponseAggregatorBenchmark {
+
+	private static final int CHUNKS_PER_ITERATION = 20_000;
+
+	@Test
+	public void aggregateLongStreams() throws Exception {
+		double shortestStream = 0;
+		double longestStream = 0;
+		for (int tokens : new int[] { 1_000, 5_000, 20_000 }) {
+			List<ChatResponse> chunks = new ArrayList<>(tokens);
+			StringBuilder expected = new StringBuilder();
+			for (int i = 0; i < tokens; i++) {
+				String token = " token" + (i % 100);
+				chunks.add(new ChatResponse(List.of(new Generation(new AssistantMessage(token)))));
+				expected.append(token);
+			}
+			assertEquals(expected.toString(), aggregate(chunks).getMessage().getText());
+
+			int streams = CHUNKS_PER_ITERATION / tokens;
+			double aggregator = Benchmarks.nanosPerOperation(streams, index -> aggregate(chunks).getResult()) / tokens;
+			double concat = Benchmarks.nanosPerOperation(streams, index -> {
+				ChatResponse last = null;
+				for (ChatResponse chunk : chunks) {
+					String text = chunk.getResult().getOutput().getText();
+					String lastText = last == null ? "" : last.getResult().getOutput().getText();
+					last = new ChatResponse(List.of(new Generation(new AssistantMessage(lastText.concat(text)))));
+				}
+				return last;
+			}) / tokens;
+			Benchmarks.report("ChatResponseAggregator.append", "tokens=" + tokens, aggregator);
+			Benchmarks.report("String concat per chunk", "tokens=" + tokens, concat);
+
+			if (tokens == 1_000) {
+				shortestStream = aggregator;
+			}
+			longestStream = aggregator;
+		}
+		// Concatenating makes the cost of a chunk grow with the length of the answer
+		assertTrue(longestStream < 5 * shortestStream,
+				"A chunk of 20,000 tokens took " + longestStream + " ns, of 1,000 tokens " + shortestStream + " ns");
+	}
+
+	private static ChatResponseAggregator aggregate(List<ChatResponse> chunks) {
+		ChatResponseAggregator aggregator = new ChatResponseAggregator();
+		for (ChatResponse chunk : chunks) {
+			aggregator.append(chunk);
+		}
+		return aggregator;
+	}
+
+}
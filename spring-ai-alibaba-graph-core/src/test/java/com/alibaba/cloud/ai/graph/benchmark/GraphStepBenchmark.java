@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import com.alibaba.cloud.ai.graph.CompileConfig;
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.KeyStrategy;
+import com.alibaba.cloud.ai.graph.StateGraph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static com.alibaba.cloud.ai.graph.StateGraph.END;
+import static com.alibaba.cloud.ai.graph.StateGraph.START;
+import static com.alibaba.cloud.ai.graph.action.AsyncEdgeAction.edge_async;
+import static com.alibaba.cloud.ai.graph.action.AsyncNodeAction.node_async;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Overhead of a graph step: a node looping over itself for runs of 25, 100 and 1000
+ * steps, doing no work of its own. The time per step includes the fixed cost of starting
+ * a run spread over its steps, so it should go down, never up, as runs get longer.
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class GraphStepBenchmark {
+
+	private static final int STEPS_PER_ITERATION = 20_000;
+
+	@Test
+	public void stepOverhead() throws Exception {
+		for (int steps : new int[] { 25, 100, 1000 }) {
+			CompiledGraph graph = loop(steps);
+			assertEquals(steps + 2, graph.stream(Map.of()).count().block());
+
+			double nanosPerRun = Benchmarks.nanosPerOperation(Math.max(1, STEPS_PER_ITERATION / steps),
+					index -> graph.stream(Map.of()).blockLast());
+			Benchmarks.report("CompiledGraph.stream per step", "steps=" + steps, nanosPerRun / steps);
+		}
+	}
+
+	private static CompiledGraph loop(int steps) throws Exception {
+		StateGraph graph = new StateGraph(() -> {
+			Map<String, KeyStrategy> keyStrategies = new HashMap<>();
+			keyStrategies.put("count", (oldValue, newValue) -> newValue);
+			return keyStrategies;
+		}).addNode("step", node_async(state -> Map.of("count", state.value("count", 0) + 1)))
+			.addEdge(START, "step")
+			.addConditionalEdges("step", edge_async(state -> state.value("count", 0) < steps ? "loop" : "done"),
+					Map.of("loop", "step", "done", END));
+		return graph.compile(CompileConfig.builder().recursionLimit(steps + 10).build());
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.Checkpoint;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Throughput of {@link MemorySaver} with 1, 8 and 64 graph runs saving and reading
+ * checkpoints at the same time, each on its own conversation thread. A saver with a
+ * single lock stripe serializes all of them as the saver did before lock striping.
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class MemorySaverBenchmark {
+
+	private static final int OPERATIONS_PER_THREAD = 2_000;
+
+	private static final int CHECKPOINTS_PER_THREAD = 50;
+
+	private static final Map<String, Object> STATE = Map.of("input", "benchmark", "step", 1);
+
+	@Test
+	public void putAndGetConcurrently() throws Exception {
+		for (int threads : new int[] { 1, 8, 64 }) {
+			double singleLock = measure(new MemorySaver(CHECKPOINTS_PER_THREAD, 1), threads);
+			double striped = measure(new MemorySaver(CHECKPOINTS_PER_THREAD), threads);
+			Benchmarks.report("MemorySaver.putAndGet single lock", "threads=" + threads, singleLock);
+			Benchmarks.report("MemorySaver.putAndGet striped", "threads=" + threads, striped);
+		}
+	}
+
+	private static double measure(MemorySaver saver, int threads) throws Exception {
+		RunnableConfig[] configs = new RunnableConfig[threads];
+		for (int i = 0; i < threads; i++) {
+			configs[i] = RunnableConfig.builder().threadId("conversation-" + i).build();
+		}
+		return Benchmarks.nanosPerOperation(threads, OPERATIONS_PER_THREAD, (thread, index) -> {
+			RunnableConfig saved = saver.put(configs[thread],
+					Checkpoint.builder().nodeId("agent").nextNodeId("tool").state(STATE).build());
+			// Reading a checkpoint by id goes through the per thread index
+			return saver.get(saved).orElseThrow();
+		});
+	}
+
+}
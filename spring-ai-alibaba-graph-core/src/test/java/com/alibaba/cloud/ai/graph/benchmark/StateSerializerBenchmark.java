@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.benchmark;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.StateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.binary.BinaryStateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
+import com.alibaba.cloud.ai.graph.serializer.std.SpringAIStateSerializer;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cost of cloning and of the checkpoint round trip of agent states holding conversations
+ * of 50, 500 and 5000 messages, with the {@link BinaryStateSerializer} next to the object
+ * stream and Jackson serializers. The encoded size is reported along with the times.
+ */
+@EnabledIfSystemProperty(named = Benchmarks.ENABLED_PROPERTY, matches = "true")
+public class StateSerializerBenchmark {
+
+	/**
+	 * Messages serialized per iteration, whatever the size of the conversation.
+	 */
+	private static final int MESSAGES_PER_ITERATION = 50_000;
+
+	@Test
+	public void cloneAndRoundTrip() throws Exception {
+		Map<String, StateSerializer> serializers = new LinkedHashMap<>();
+		serializers.put("binary", new BinaryStateSerializer());
+		serializers.put("object stream", new SpringAIStateSerializer());
+		serializers.put("jackson", new SpringAIJacksonStateSerializer(OverAllState::new));
+
+		for (int size : new int[] { 50, 500, 5_000 }) {
+			Map<String, Object> data = state(size);
+			int operations = Math.max(1, MESSAGES_PER_ITERATION / size);
+			for (Map.Entry<String, StateSerializer> entry : serializers.entrySet()) {
+				StateSerializer serializer = entry.getValue();
+				assertEquals(data.get("messages"), serializer.cloneObject(data).value("messages").orElseThrow());
+
+				double clone = Benchmarks.nanosPerOperation(operations, index -> serializer.cloneObject(data));
+				// The round trip a checkpoint saver makes through writeData and readData
+				double roundTrip = Benchmarks.nanosPerOperation(operations,
+						index -> serializer.dataFromBytes(serializer.dataToBytes(data)));
+				String parameters = "messages=" + size + " bytes=" + serializer.dataToBytes(data).length;
+				Benchmarks.report("StateSerializer.cloneObject " + entry.getKey(), parameters, clone);
+				Benchmarks.report("StateSerializer round trip " + entry.getKey(), parameters, roundTrip);
+			}
+		}
+	}
+
+	private static Map<String, Object> state(int size) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", conversation(size));
+		data.put("input", "Book the cheapest flight");
+		data.put("iteration", 7);
+		data.put("done", false);
+		return data;
+	}
+
+	private static List<Message> conversation(int size) {
+		List<Message> messages = new ArrayList<>(size);
+		messages.add(new SystemMessage("You are a helpful travel assistant."));
+		for (int i = 1; messages.size() < size; i++) {
+			String callId = "call_" + i;
+			switch (i % 4) {
+				case 0 -> messages.add(UserMessage.builder()
+					.text("Which flights leave Hangzhou on day " + i + "?")
+					.metadata(Map.of("userId", "u-42"))
+					.build());
+				case 1 -> messages.add(new AssistantMessage("", Map.of("model", "qwen-max"),
+						List.of(new AssistantMessage.ToolCall(callId, "function", "searchFlights",
+								"{\"from\":\"HGH\",\"day\":" + i + "}"))));
+				case 2 -> messages.add(ToolResponseMessage.builder()
+					.responses(List.of(new ToolResponseMessage.ToolResponse(callId, "searchFlights",
+							"[{\"flight\":\"MU" + i + "\",\"price\":" + (i * 10) + "}]")))
+					.metadata(Map.of())
+					.build());
+				default -> messages.add(new AssistantMessage("Flight MU" + i + " is the cheapest option.",
+						Map.of("model", "qwen-max", "finishReason", "STOP")));
+			}
+		}
+		return messages;
+	}
+
+}
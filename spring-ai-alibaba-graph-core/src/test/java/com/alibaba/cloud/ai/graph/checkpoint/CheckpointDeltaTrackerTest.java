@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.VersionedMemorySaver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CheckpointDeltaTrackerTest {
+
+	@Test
+	public void deltaCheckpointsResolveToFullState() throws Exception {
+		var saver = new MemorySaver();
+		var config = RunnableConfig.builder().threadId("delta").build();
+		var tracker = new CheckpointDeltaTracker(4);
+
+		List<Object> messages = new ArrayList<>();
+		Map<String, Object> state = new HashMap<>();
+		state.put("messages", messages);
+		List<Map<String, Object>> expectedStates = new ArrayList<>();
+
+		for (int step = 0; step < 10; step++) {
+			if (step % 2 == 0) {
+				// append in place
+				messages.add("message " + step);
+			}
+			else {
+				// append on a copy, like AppendStrategy does for lists
+				messages = new ArrayList<>(messages);
+				messages.add("message " + step);
+				state.put("messages", messages);
+			}
+			state.put("step", step);
+			if (step == 5) {
+				state.remove("temp");
+			}
+			else if (step == 3) {
+				state.put("temp", "value");
+			}
+
+			Checkpoint checkpoint = tracker.next("node_" + step, "node_" + (step + 1), state,
+					data -> new HashMap<>(data));
+			assertEquals(step % 4 != 0, CheckpointDeltas.isDelta(checkpoint));
+			saver.put(config, checkpoint);
+
+			Map<String, Object> expected = new HashMap<>(state);
+			expected.put("messages", new ArrayList<>(messages));
+			expectedStates.add(0, expected);
+		}
+
+		Checkpoint last = saver.get(config).orElseThrow();
+		assertFalse(CheckpointDeltas.isDelta(last));
+		assertEquals(expectedStates.get(0), last.getState());
+		assertEquals("node_9", last.getNodeId());
+
+		var history = new ArrayList<>(saver.list(config));
+		assertEquals(expectedStates.size(), history.size());
+		for (int i = 0; i < history.size(); i++) {
+			assertEquals(expectedStates.get(i), history.get(i).getState());
+		}
+
+		var byId = RunnableConfig.builder(config).checkPointId(history.get(3).getId()).build();
+		assertEquals(expectedStates.get(3), saver.get(byId).orElseThrow().getState());
+	}
+
+	@Test
+	public void valuesModifiedInPlaceAreStored() throws Exception {
+		var tracker = new CheckpointDeltaTracker(10);
+		Map<String, Object> state = new HashMap<>();
+		var counter = new int[] { 1 };
+		state.put("counter", counter);
+		state.put("name", "agent");
+		tracker.next("n1", "n2", state, HashMap::new);
+
+		counter[0] = 2;
+		state.put("name", new String("agent"));
+		Checkpoint delta = tracker.next("n2", "n3", state, HashMap::new);
+
+		assertTrue(CheckpointDeltas.isDelta(delta));
+		assertTrue(delta.getState().containsKey("counter"));
+		assertFalse(delta.getState().containsKey("name"));
+	}
+
+	@Test
+	public void listModifiedInPlaceIsStoredInFull() throws Exception {
+		var tracker = new CheckpointDeltaTracker(10);
+		List<Object> messages = new ArrayList<>(List.of("first", "second"));
+		Map<String, Object> state = new HashMap<>();
+		state.put("messages", messages);
+		tracker.next("n1", "n2", state, HashMap::new);
+
+		messages.set(0, "edited");
+		messages.add("third");
+		Checkpoint delta = tracker.next("n2", "n3", state, HashMap::new);
+
+		assertEquals(List.of("edited", "second", "third"), delta.getState().get("messages"));
+		@SuppressWarnings("unchecked")
+		var metadata = (Map<String, Object>) delta.getState().get(CheckpointDeltas.DELTA_METADATA_KEY);
+		assertEquals(List.of(), metadata.get(CheckpointDeltas.APPENDED_KEYS));
+	}
+
+	@Test
+	public void versionedSaverResolvesDeltaCheckpoints() throws Exception {
+		var saver = new VersionedMemorySaver();
+		var config = RunnableConfig.builder().threadId("versioned").build();
+		var tracker = new CheckpointDeltaTracker(10);
+		Map<String, Object> state = new HashMap<>();
+		state.put("name", "agent");
+		saver.put(config, tracker.next("n1", "n2", state, HashMap::new));
+		state.put("step", 1);
+		saver.put(config, tracker.next("n2", "n3", state, HashMap::new));
+
+		Checkpoint last = saver.get(config).orElseThrow();
+		assertFalse(CheckpointDeltas.isDelta(last));
+		assertEquals(Map.of("name", "agent", "step", 1), last.getState());
+		for (Checkpoint checkpoint : saver.list(config)) {
+			assertFalse(CheckpointDeltas.isDelta(checkpoint));
+		}
+
+		var tag = saver.release(config);
+		for (Checkpoint checkpoint : tag.checkpoints()) {
+			assertFalse(CheckpointDeltas.isDelta(checkpoint));
+			assertEquals("agent", checkpoint.getState().get("name"));
+		}
+	}
+
+	@Test
+	public void releasedCheckpointsAreResolved() throws Exception {
+		var saver = new MemorySaver();
+		var config = RunnableConfig.builder().threadId("release").build();
+		var tracker = new CheckpointDeltaTracker(10);
+		Map<String, Object> state = new HashMap<>();
+		state.put("name", "agent");
+		saver.put(config, tracker.next("n1", "n2", state, HashMap::new));
+		state.put("step", 1);
+		saver.put(config, tracker.next("n2", "n3", state, HashMap::new));
+
+		var tag = saver.release(config);
+
+		assertEquals(2, tag.checkpoints().size());
+		for (Checkpoint checkpoint : tag.checkpoints()) {
+			assertFalse(CheckpointDeltas.isDelta(checkpoint));
+			assertEquals("agent", checkpoint.getState().get("name"));
+		}
+	}
+
+	@Test
+	public void replacedListIsStoredInFull() throws Exception {
+		var tracker = new CheckpointDeltaTracker(10);
+		Map<String, Object> state = new HashMap<>();
+		state.put("messages", List.of("a", "b"));
+		tracker.next("n1", "n2", state, HashMap::new);
+
+		state.put("messages", List.of("b"));
+		Checkpoint delta = tracker.next("n2", "n3", state, HashMap::new);
+
+		assertTrue(CheckpointDeltas.isDelta(delta));
+		assertEquals(List.of("b"), delta.getState().get("messages"));
+	}
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.IndexedRedisSaver;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.RedisSaver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.EnabledIfDockerAvailable;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@EnabledIfDockerAvailable
+@EnabledIf(value = "isCI", disabledReason = "this test is designed to run only in the GitHub CI environment.")
+@Testcontainers
+class IndexedRedisSaverTest {
+
+	private static boolean isCI() {
+		return "true".equalsIgnoreCase(System.getProperty("CI", System.getenv("CI")));
+	}
+
+	@Container
+	private static final GenericContainer<?> redisContainer = new GenericContainer<>(
+			DockerImageName.parse("valkey/valkey:8.1.2"))
+		.withExposedPorts(6379); // #gitleaks:allow
+
+	static RedissonClient redisson;
+
+	static IndexedRedisSaver saver;
+
+	@BeforeAll
+	static void setup() {
+		redisContainer.start();
+		Config config = new Config();
+		config.useSingleServer()
+			.setAddress("redis://" + redisContainer.getHost() + ":" + redisContainer.getMappedPort(6379));
+		redisson = Redisson.create(config);
+		saver = new IndexedRedisSaver(redisson);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		if (redisson != null) {
+			redisson.shutdown();
+		}
+	}
+
+	private static Checkpoint checkpoint(String id, String data) {
+		return Checkpoint.builder().id(id).state(Map.of("data", data)).nodeId("node1").nextNodeId("node2").build();
+	}
+
+	@Test
+	void testPutGetAndPagedList() throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("test-thread-" + UUID.randomUUID()).build();
+
+		for (int i = 1; i <= 5; i++) {
+			saver.put(config, checkpoint("cp" + i, "data" + i));
+		}
+
+		Optional<Checkpoint> latest = saver.get(config);
+		assertTrue(latest.isPresent());
+		assertEquals("cp5", latest.get().getId());
+
+		Optional<Checkpoint> byId = saver.get(RunnableConfig.builder(config).checkPointId("cp2").build());
+		assertTrue(byId.isPresent());
+		assertEquals("data2", byId.get().getState().get("data"));
+
+		List<Checkpoint> all = new ArrayList<>(saver.list(config));
+		assertEquals(5, all.size());
+		assertEquals("cp5", all.get(0).getId());
+
+		List<Checkpoint> page = new ArrayList<>(saver.list(config, 1, 2));
+		assertEquals(List.of("cp4", "cp3"), page.stream().map(Checkpoint::getId).toList());
+	}
+
+	@Test
+	void testReplaceKeepsPosition() throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("test-thread-" + UUID.randomUUID()).build();
+		saver.put(config, checkpoint("cp1", "data1"));
+		saver.put(config, checkpoint("cp2", "data2"));
+
+		saver.put(RunnableConfig.builder(config).checkPointId("cp1").build(), checkpoint("cp1b", "data1-new"));
+
+		List<Checkpoint> all = new ArrayList<>(saver.list(config));
+		assertEquals(List.of("cp2", "cp1b"), all.stream().map(Checkpoint::getId).toList());
+		assertEquals("data1-new", all.get(1).getState().get("data"));
+	}
+
+	@Test
+	void testPagedListResolvesDeltaChains() throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("test-thread-" + UUID.randomUUID()).build();
+		saver.put(config, Checkpoint.builder().id("cp1").state(Map.of("messages", List.of("a"))).nodeId("node1")
+			.nextNodeId("node2").build());
+		for (int i = 2; i <= 4; i++) {
+			Map<String, Object> delta = new HashMap<>();
+			delta.put("messages", List.of("m" + i));
+			delta.put(CheckpointDeltas.DELTA_METADATA_KEY, Map.of(CheckpointDeltas.PARENT_ID, "cp" + (i - 1),
+					CheckpointDeltas.APPENDED_KEYS, List.of("messages"), CheckpointDeltas.REMOVED_KEYS, List.of()));
+			saver.put(config, Checkpoint.builder().id("cp" + i).state(delta).nodeId("node1").nextNodeId("node2").build());
+		}
+
+		// The full checkpoint of the chain is outside the page
+		List<Checkpoint> page = new ArrayList<>(saver.list(config, 0, 2));
+		assertEquals(List.of("cp4", "cp3"), page.stream().map(Checkpoint::getId).toList());
+		assertFalse(CheckpointDeltas.isDelta(page.get(0)));
+		assertEquals(List.of("a", "m2", "m3", "m4"), page.get(0).getState().get("messages"));
+		assertEquals(List.of("a", "m2", "m3"), page.get(1).getState().get("messages"));
+	}
+
+	@Test
+	void testMigrationFromBucketFormat() throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("test-thread-" + UUID.randomUUID()).build();
+		RedisSaver legacySaver = new RedisSaver(redisson);
+		legacySaver.put(config, checkpoint("cp1", "data1"));
+		legacySaver.put(config, checkpoint("cp2", "data2"));
+
+		IndexedRedisSaver freshSaver = new IndexedRedisSaver(redisson);
+		List<Checkpoint> all = new ArrayList<>(freshSaver.list(config));
+		assertEquals(List.of("cp2", "cp1"), all.stream().map(Checkpoint::getId).toList());
+
+		freshSaver.put(config, checkpoint("cp3", "data3"));
+		assertEquals("cp3", freshSaver.get(config).orElseThrow().getId());
+		assertTrue(legacySaver.list(config).isEmpty());
+	}
+
+	@Test
+	void testClear() throws Exception {
+		RunnableConfig config = RunnableConfig.builder().threadId("test-thread-" + UUID.randomUUID()).build();
+		saver.put(config, checkpoint("cp1", "data1"));
+
+		assertTrue(saver.clear(config));
+		assertTrue(saver.list(config).isEmpty());
+		assertTrue(saver.get(config).isEmpty());
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.MemorySaver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link MemorySaver}.
+ */
+public class MemorySaverTest {
+
+	private static Checkpoint checkpoint(String id, Map<String, Object> state) {
+		return Checkpoint.builder().id(id).state(state).nodeId("node1").nextNodeId("node2").build();
+	}
+
+	@Test
+	public void getById() throws Exception {
+		MemorySaver saver = new MemorySaver();
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+		for (int i = 1; i <= 5; i++) {
+			saver.put(config, checkpoint("cp" + i, Map.of("data", i)));
+		}
+		saver.put(RunnableConfig.builder(config).checkPointId("cp3").build(), checkpoint("cp3b", Map.of("data", 30)));
+
+		assertEquals(30, saver.get(RunnableConfig.builder(config).checkPointId("cp3b").build())
+			.orElseThrow()
+			.getState()
+			.get("data"));
+		assertFalse(saver.get(RunnableConfig.builder(config).checkPointId("cp3").build()).isPresent());
+		assertEquals("cp5", saver.get(config).orElseThrow().getId());
+	}
+
+	@Test
+	public void evictsOldestAndKeepsDeltaChainResolvable() throws Exception {
+		MemorySaver saver = new MemorySaver(2);
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+		saver.put(config, checkpoint("cp1", Map.of("messages", List.of("a"))));
+
+		Map<String, Object> delta = new HashMap<>();
+		delta.put("messages", List.of("b"));
+		delta.put(CheckpointDeltas.DELTA_METADATA_KEY, Map.of(CheckpointDeltas.PARENT_ID, "cp1",
+				CheckpointDeltas.APPENDED_KEYS, List.of("messages"), CheckpointDeltas.REMOVED_KEYS, List.of()));
+		saver.put(config, checkpoint("cp2", delta));
+		saver.put(config, checkpoint("cp3", Map.of("messages", List.of("a", "b", "c"))));
+
+		List<Checkpoint> checkpoints = new ArrayList<>(saver.list(config));
+		assertEquals(2, checkpoints.size());
+		assertEquals("cp3", checkpoints.get(0).getId());
+		Checkpoint oldest = checkpoints.get(1);
+		assertEquals("cp2", oldest.getId());
+		assertFalse(CheckpointDeltas.isDelta(oldest));
+		assertEquals(List.of("a", "b"), oldest.getState().get("messages"));
+	}
+
+	@Test
+	public void concurrentThreads() throws Exception {
+		MemorySaver saver = new MemorySaver(10, 4);
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int t = 0; t < 16; t++) {
+			RunnableConfig config = RunnableConfig.builder().threadId("thread-" + t).build();
+			futures.add(CompletableFuture.runAsync(() -> {
+				for (int i = 0; i < 50; i++) {
+					try {
+						saver.put(config, checkpoint(config.threadId().orElseThrow() + "-" + i, Map.of("data", i)));
+					}
+					catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+		for (int t = 0; t < 16; t++) {
+			RunnableConfig config = RunnableConfig.builder().threadId("thread-" + t).build();
+			assertEquals(10, saver.list(config).size());
+			assertTrue(saver.get(RunnableConfig.builder(config).checkPointId("thread-" + t + "-49").build())
+				.isPresent());
+		}
+	}
+
+}
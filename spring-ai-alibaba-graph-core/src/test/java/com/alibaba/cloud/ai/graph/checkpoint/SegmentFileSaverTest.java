@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.checkpoint;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.checkpoint.savers.SegmentFileSaver;
+import com.alibaba.cloud.ai.graph.serializer.std.ObjectStreamStateSerializer;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link SegmentFileSaver}.
+ */
+public class SegmentFileSaverTest {
+
+	private static Checkpoint checkpoint(String id, String data) {
+		return Checkpoint.builder().id(id).state(Map.of("data", data)).nodeId("node1").nextNodeId("node2").build();
+	}
+
+	private static SegmentFileSaver newSaver(Path root) {
+		return new SegmentFileSaver(root, new ObjectStreamStateSerializer(OverAllState::new),
+				SegmentFileSaver.FsyncPolicy.ALWAYS);
+	}
+
+	@Test
+	public void checkpointsSurviveReload() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+
+		SegmentFileSaver saver = newSaver(root);
+		for (int i = 1; i <= 5; i++) {
+			saver.put(config, checkpoint("cp" + i, "data" + i));
+		}
+		saver.put(RunnableConfig.builder(config).checkPointId("cp2").build(), checkpoint("cp2b", "data2-new"));
+
+		SegmentFileSaver reloaded = newSaver(root);
+		assertEquals("cp5", reloaded.get(config).orElseThrow().getId());
+		assertEquals("data2-new",
+				reloaded.get(RunnableConfig.builder(config).checkPointId("cp2b").build()).orElseThrow().getState().get("data"));
+
+		List<Checkpoint> all = new ArrayList<>(reloaded.list(config));
+		assertEquals(List.of("cp5", "cp4", "cp3", "cp2b", "cp1"), all.stream().map(Checkpoint::getId).toList());
+	}
+
+	@Test
+	public void truncatedRecordIsDiscarded() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+
+		SegmentFileSaver saver = newSaver(root);
+		saver.put(config, checkpoint("cp1", "data1"));
+		saver.put(config, checkpoint("cp2", "data2"));
+
+		Path file = root.resolve("thread-t1" + SegmentFileSaver.EXTENSION);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		SegmentFileSaver reloaded = newSaver(root);
+		assertEquals("cp1", reloaded.get(config).orElseThrow().getId());
+		reloaded.put(config, checkpoint("cp3", "data3"));
+		assertEquals(List.of("cp3", "cp1"),
+				newSaver(root).list(config).stream().map(Checkpoint::getId).toList());
+	}
+
+	@Test
+	public void compactKeepsLiveCheckpoints() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+
+		SegmentFileSaver saver = newSaver(root);
+		saver.put(config, checkpoint("cp1", "data1"));
+		RunnableConfig replace = RunnableConfig.builder(config).checkPointId("cp1").build();
+		saver.put(replace, checkpoint("cp1", "data1-b"));
+		Path file = root.resolve("thread-t1" + SegmentFileSaver.EXTENSION);
+		long before = Files.size(file);
+
+		saver.compact(config);
+
+		assertTrue(Files.size(file) < before);
+		assertEquals("data1-b", newSaver(root).get(config).orElseThrow().getState().get("data"));
+	}
+
+	@Test
+	public void evictedThreadsAreReloadedFromTheirFiles() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		RunnableConfig first = RunnableConfig.builder().threadId("t1").build();
+		RunnableConfig second = RunnableConfig.builder().threadId("t2").build();
+
+		try (SegmentFileSaver saver = new SegmentFileSaver(root, new ObjectStreamStateSerializer(OverAllState::new),
+				SegmentFileSaver.FsyncPolicy.NEVER, 1)) {
+			// Every access evicts the other thread
+			for (int i = 1; i <= 3; i++) {
+				saver.put(first, checkpoint("a" + i, "data" + i));
+				saver.put(second, checkpoint("b" + i, "data" + i));
+			}
+			saver.put(RunnableConfig.builder(first).checkPointId("a1").build(), checkpoint("a1b", "data1-new"));
+
+			assertEquals(List.of("a3", "a2", "a1b"), saver.list(first).stream().map(Checkpoint::getId).toList());
+			assertEquals(List.of("b3", "b2", "b1"), saver.list(second).stream().map(Checkpoint::getId).toList());
+		}
+
+		assertEquals("a3", newSaver(root).get(RunnableConfig.builder().threadId("t1").build()).orElseThrow().getId());
+	}
+
+	@Test
+	public void closedSaverReopensSegmentsAndReleaseMovesTheFile() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		RunnableConfig config = RunnableConfig.builder().threadId("t1").build();
+
+		SegmentFileSaver saver = newSaver(root);
+		saver.put(config, checkpoint("cp1", "data1"));
+		saver.close();
+		saver.put(config, checkpoint("cp2", "data2"));
+		assertEquals(List.of("cp2", "cp1"), saver.list(config).stream().map(Checkpoint::getId).toList());
+
+		BaseCheckpointSaver.Tag tag = saver.release(config);
+		assertEquals(2, tag.checkpoints().size());
+		assertTrue(Files.exists(root.resolve("thread-t1-v1" + SegmentFileSaver.EXTENSION)));
+		assertTrue(saver.list(config).isEmpty());
+		saver.put(config, checkpoint("cp3", "data3"));
+		assertEquals("cp3", newSaver(root).get(config).orElseThrow().getId());
+	}
+
+	@Test
+	public void rejectsInvalidMaxOpenSegments() throws Exception {
+		Path root = Files.createTempDirectory("segment");
+		assertThrows(IllegalArgumentException.class, () -> new SegmentFileSaver(root,
+				new ObjectStreamStateSerializer(OverAllState::new), SegmentFileSaver.FsyncPolicy.NEVER, 0));
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.observation;
+
+import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricAttributes;
+import com.alibaba.cloud.ai.graph.observation.metric.SpringAiAlibabaObservationMetricNames;
+import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
+import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GraphMetricsGeneratorTest {
+
+	@Test
+	void reusesCachedMeters() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		GraphMetricsGenerator generator = new GraphMetricsGenerator(meterRegistry);
+
+		generator.recordNodeDuration("agent", true, TimeUnit.MILLISECONDS.toNanos(5));
+		Timer timer = meterRegistry.get(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION.value())
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), "agent")
+			.timer();
+		generator.recordNodeDuration("agent", true, TimeUnit.MILLISECONDS.toNanos(7));
+
+		assertSame(timer, meterRegistry.get(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION.value())
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), "agent")
+			.timer());
+		assertEquals(2, timer.count());
+		assertEquals(12, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+	}
+
+	@Test
+	void nodeHandlerCountsFailedObservationsOnce() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ObservationRegistry observationRegistry = ObservationRegistry.create();
+		observationRegistry.observationConfig().observationHandler(new GraphNodeObservationHandler(meterRegistry));
+
+		Observation.createNotStarted("node", () -> new GraphNodeObservationContext("tools", "execution"),
+				observationRegistry)
+			.start()
+			.stop();
+		Observation.createNotStarted("node", () -> new GraphNodeObservationContext("tools", "execution"),
+				observationRegistry)
+			.start()
+			.error(new IllegalStateException("boom"))
+			.stop();
+
+		Counter succeeded = meterRegistry.find(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value())
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(), "true")
+			.counter();
+		Counter failed = meterRegistry.find(SpringAiAlibabaObservationMetricNames.GRAPH_NODE.value())
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(), "false")
+			.counter();
+		assertNotNull(succeeded);
+		assertNotNull(failed);
+		assertEquals(1, succeeded.count());
+		assertEquals(1, failed.count());
+
+		Timer duration = meterRegistry.find(SpringAiAlibabaObservationMetricNames.GRAPH_NODE_DURATION.value())
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_NAME.value(), "tools")
+			.tag(SpringAiAlibabaObservationMetricAttributes.GRAPH_NODE_SUCCESS.value(), "false")
+			.timer();
+		assertNotNull(duration);
+		assertEquals(1, duration.count());
+	}
+
+}
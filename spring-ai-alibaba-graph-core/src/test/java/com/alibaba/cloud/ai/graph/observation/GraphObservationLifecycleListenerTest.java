@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.observation;
+
+import com.alibaba.cloud.ai.graph.RunnableConfig;
+import com.alibaba.cloud.ai.graph.observation.graph.GraphObservationContext;
+import com.alibaba.cloud.ai.graph.observation.node.GraphNodeObservationContext;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GraphObservationLifecycleListenerTest {
+
+	private final List<Observation.Context> started = new CopyOnWriteArrayList<>();
+
+	private final List<Observation.Context> stopped = new CopyOnWriteArrayList<>();
+
+	private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+	private final GraphObservationLifecycleListener listener;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	GraphObservationLifecycleListenerTest() {
+		observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+
+			@Override
+			public void onStart(Observation.Context context) {
+				started.add(context);
+			}
+
+			@Override
+			public void onStop(Observation.Context context) {
+				stopped.add(context);
+			}
+
+			@Override
+			public boolean supportsContext(Observation.Context context) {
+				return true;
+			}
+
+		});
+		listener = new GraphObservationLifecycleListener(observationRegistry);
+	}
+
+	@AfterEach
+	void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private static RunnableConfig config(String runId) {
+		return RunnableConfig.builder().threadId("thread").build().withRunId(runId);
+	}
+
+	@Test
+	void parentsNodesOnTheGraphOfTheirRun() {
+		RunnableConfig first = config("run-1");
+		RunnableConfig second = config("run-2");
+
+		listener.onStart("__START__", Map.of(), first);
+		listener.onStart("__START__", Map.of(), second);
+		listener.before("agent", Map.of(), first, 0L);
+		listener.before("agent", Map.of(), second, 0L);
+
+		List<Observation.Context> graphs = contexts(GraphObservationContext.class);
+		List<Observation.Context> nodes = contexts(GraphNodeObservationContext.class);
+		assertEquals(2, graphs.size());
+		assertEquals(2, nodes.size());
+		assertSame(graphs.get(0), nodes.get(0).getParentObservation().getContextView());
+		assertSame(graphs.get(1), nodes.get(1).getParentObservation().getContextView());
+		// No scope is left open on the calling thread
+		assertNull(observationRegistry.getCurrentObservation());
+
+		listener.after("agent", Map.of(), first, 0L);
+		listener.onComplete("__END__", Map.of(), first);
+		listener.onError("agent", Map.of(), new IllegalStateException("boom"), second);
+		assertEquals(4, stopped.size());
+	}
+
+	@Test
+	void runsSpanningThreadsLeaveNoScopeBehind() throws Exception {
+		RunnableConfig first = config("run-1");
+
+		listener.onStart("__START__", Map.of(), first);
+		executor.submit(() -> {
+			listener.before("agent", Map.of(), first, 0L);
+			listener.after("agent", Map.of(), first, 0L);
+		}).get(5, TimeUnit.SECONDS);
+		listener.onComplete("__END__", Map.of(), first);
+
+		assertNull(observationRegistry.getCurrentObservation());
+		assertNull(executor.submit(observationRegistry::getCurrentObservation).get(5, TimeUnit.SECONDS));
+
+		// The next run does not pick a stale parent from a previous run
+		executor.submit(() -> listener.onStart("__START__", Map.of(), config("run-2"))).get(5, TimeUnit.SECONDS);
+		List<Observation.Context> graphs = contexts(GraphObservationContext.class);
+		assertEquals(2, graphs.size());
+		assertNull(graphs.get(1).getParentObservation());
+	}
+
+	@Test
+	void parentsRunOnTheObservationOfTheCaller() {
+		Observation caller = Observation.start("caller", observationRegistry);
+		try (Observation.Scope scope = caller.openScope()) {
+			listener.onStart("__START__", Map.of(), config("run-1"));
+		}
+		finally {
+			caller.stop();
+		}
+
+		List<Observation.Context> graphs = contexts(GraphObservationContext.class);
+		assertEquals(1, graphs.size());
+		assertSame(caller.getContext(), graphs.get(0).getParentObservation().getContextView());
+	}
+
+	private List<Observation.Context> contexts(Class<? extends Observation.Context> type) {
+		return started.stream().filter(type::isInstance).toList();
+	}
+
+}
@@ -17,13 +17,17 @@ package com.alibaba.cloud.ai.graph.plain_text;
 
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.JacksonStateSerializer;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendedList;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import static com.alibaba.cloud.ai.graph.utils.CollectionsUtils.mapOf;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -53,4 +57,23 @@ public class JacksonSerializerTest {
 		assertEquals("value1", deserializedState.data().get("prop1"));
 	}
 
+	@Test
+	public void serializeAppendedListTest() throws IOException, ClassNotFoundException {
+
+		AppendStrategy strategy = new AppendStrategy();
+		Object messages = strategy.apply(strategy.apply(null, List.of("a", "b")), "c");
+		assertInstanceOf(AppendedList.class, messages);
+
+		JacksonStateSerializer serializer = new JacksonStateSerializer(OverAllState::new) {
+		};
+
+		OverAllState deserializedState = serializer
+			.bytesToObject(serializer.objectToBytes(new OverAllState(mapOf("messages", messages))));
+
+		List<?> restored = (List<?>) deserializedState.data().get("messages");
+		assertEquals(List.of("a", "b", "c"), restored);
+		// the restored list is appended to like the original one
+		assertEquals(List.of("a", "b", "c", "d"), strategy.apply(restored, "d"));
+	}
+
 }
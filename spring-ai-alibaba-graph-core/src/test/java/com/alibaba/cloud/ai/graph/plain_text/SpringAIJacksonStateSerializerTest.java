@@ -18,6 +18,8 @@ package com.alibaba.cloud.ai.graph.plain_text;
 import com.alibaba.cloud.ai.graph.OverAllState;
 import com.alibaba.cloud.ai.graph.serializer.plain_text.jackson.SpringAIJacksonStateSerializer;
 import com.alibaba.cloud.ai.graph.state.AgentStateFactory;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendStrategy;
+import com.alibaba.cloud.ai.graph.state.strategy.AppendedList;
 
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.MessageType;
@@ -39,6 +41,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -290,6 +293,23 @@ class SpringAIJacksonStateSerializerTest {
 		assertEquals("nested_value", deserializedNestedMap.get("nested_key"));
 	}
 
+	@Test
+	void testAppendedMessagesSerialization() throws Exception {
+		AppendStrategy strategy = new AppendStrategy();
+		Object messages = strategy.apply(List.of(new UserMessage("hi")), new AssistantMessage("hello"));
+		assertInstanceOf(AppendedList.class, messages);
+
+		// written with type information by this serializer
+		List<?> restored = serializeAndDeserialize((List<?>) messages);
+
+		assertEquals(2, restored.size());
+		assertEquals("hi", ((UserMessage) restored.get(0)).getText());
+		assertEquals("hello", ((AssistantMessage) restored.get(1)).getText());
+		List<?> appended = (List<?>) strategy.apply(restored, new UserMessage("again"));
+		assertEquals(3, appended.size());
+		assertEquals("again", ((UserMessage) appended.get(2)).getText());
+	}
+
 	private <T> T serializeAndDeserialize(T object) throws IOException, ClassNotFoundException {
 		// 将对象包装在Map中进行序列化
 		Map<String, Object> data = new HashMap<>();
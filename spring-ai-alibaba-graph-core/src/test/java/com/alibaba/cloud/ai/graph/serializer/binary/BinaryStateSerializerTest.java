@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.serializer.binary;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.serializer.AgentInstructionMessage;
+import com.alibaba.cloud.ai.graph.serializer.std.SpringAIStateSerializer;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.io.NotSerializableException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryStateSerializerTest {
+
+	private final BinaryStateSerializer serializer = new BinaryStateSerializer();
+
+	private static List<Message> conversation(int size) {
+		List<Message> messages = new ArrayList<>(size);
+		messages.add(new SystemMessage("You are a helpful travel assistant."));
+		for (int i = 1; messages.size() < size; i++) {
+			String callId = "call_" + i;
+			switch (i % 4) {
+				case 0 -> messages.add(UserMessage.builder()
+					.text("Which flights leave Hangzhou on day " + i + "? 中文")
+					.metadata(Map.of("userId", "u-42"))
+					.build());
+				case 1 -> messages.add(new AssistantMessage("", Map.of("model", "qwen-max", "index", i),
+						List.of(new AssistantMessage.ToolCall(callId, "function", "searchFlights",
+								"{\"from\":\"HGH\",\"day\":" + i + "}"))));
+				case 2 -> messages.add(ToolResponseMessage.builder()
+					.responses(List.of(new ToolResponseMessage.ToolResponse(callId, "searchFlights",
+							"[{\"flight\":\"MU" + i + "\",\"price\":" + (i * 10) + "}]")))
+					.metadata(Map.of())
+					.build());
+				default -> messages.add(new AssistantMessage("Flight MU" + i + " is the cheapest option.",
+						Map.of("model", "qwen-max", "finishReason", "STOP")));
+			}
+		}
+		return messages;
+	}
+
+	private static Map<String, Object> state(int messages) {
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", conversation(messages));
+		data.put("input", "Book the cheapest flight");
+		data.put("instruction", new AgentInstructionMessage("Use the flight tools", Map.of("agent", "planner")));
+		data.put("iteration", 7);
+		data.put("tokens", 123_456_789_012L);
+		data.put("score", -0.25d);
+		data.put("ratio", 1.5f);
+		data.put("done", false);
+		data.put("missing", null);
+		data.put("type", MessageType.TOOL);
+		data.put("raw", new byte[] { 1, 2, 3 });
+		data.put("tags", new LinkedHashSet<>(List.of("flight", "hotel")));
+		data.put("nested", Map.of("list", List.of(1, "two", List.of(3L)), "map", Map.of("k", 'c')));
+		data.put("timeout", Duration.ofSeconds(30));
+		return data;
+	}
+
+	@Test
+	public void roundTripsState() throws Exception {
+		Map<String, Object> data = state(50);
+
+		Map<String, Object> decoded = serializer.decode(serializer.encode(data));
+
+		assertEquals(data.keySet(), decoded.keySet());
+		assertEquals(data.get("messages"), decoded.get("messages"));
+		assertEquals(data.get("instruction"), decoded.get("instruction"));
+		assertEquals(7, decoded.get("iteration"));
+		assertEquals(123_456_789_012L, decoded.get("tokens"));
+		assertEquals(-0.25d, decoded.get("score"));
+		assertEquals(1.5f, decoded.get("ratio"));
+		assertEquals(false, decoded.get("done"));
+		assertNull(decoded.get("missing"));
+		assertEquals(MessageType.TOOL, decoded.get("type"));
+		assertArrayEquals(new byte[] { 1, 2, 3 }, (byte[]) decoded.get("raw"));
+		assertInstanceOf(Set.class, decoded.get("tags"));
+		assertEquals(data.get("tags"), decoded.get("tags"));
+		assertEquals(data.get("nested"), decoded.get("nested"));
+		assertEquals(Duration.ofSeconds(30), decoded.get("timeout"));
+	}
+
+	@Test
+	public void clonesAndCheckpointsState() throws Exception {
+		OverAllState state = new OverAllState(state(50));
+
+		OverAllState clone = serializer.cloneObject(state);
+		assertNotSame(state.data().get("messages"), clone.data().get("messages"));
+		assertEquals(state.data().get("messages"), clone.data().get("messages"));
+
+		Map<String, Object> restored = serializer.dataFromBytes(serializer.dataToBytes(state.data()));
+		assertEquals(state.data().get("messages"), restored.get("messages"));
+
+		OverAllState fromBytes = serializer.bytesToObject(serializer.objectToBytes(state));
+		assertEquals(state.data().get("nested"), fromBytes.data().get("nested"));
+	}
+
+	@Test
+	public void isSmallerThanObjectStreamEncoding() throws Exception {
+		SpringAIStateSerializer objectStream = new SpringAIStateSerializer();
+		Map<String, Object> data = new HashMap<>(Map.of("messages", conversation(500)));
+
+		int binarySize = serializer.encode(data).length;
+		int objectStreamSize = objectStream.dataToBytes(data).length;
+
+		assertTrue(binarySize < objectStreamSize,
+				"binary: " + binarySize + " bytes, object stream: " + objectStreamSize + " bytes");
+	}
+
+	@Test
+	public void reusesPooledBufferAcrossCalls() throws Exception {
+		Map<String, Object> large = state(5000);
+		Map<String, Object> small = state(50);
+
+		byte[] first = serializer.encode(small);
+		serializer.encode(large);
+		byte[] second = serializer.encode(small);
+
+		assertTrue(Arrays.equals(first, second));
+	}
+
+	@Test
+	public void rejectsValuesThatAreNotSerializable() {
+		Map<String, Object> data = new HashMap<>();
+		data.put("value", new Object());
+
+		assertThrows(NotSerializableException.class, () -> serializer.encode(data));
+		// the pooled writer is released after a failure
+		assertThrows(NotSerializableException.class, () -> serializer.encode(data));
+	}
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state;
+
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link PersistentMap}, {@link PersistentList} and {@link PersistentStateMap}.
+ */
+public class PersistentCollectionsTest {
+
+	/**
+	 * Key with a poor hash, to exercise collision nodes.
+	 */
+	record CollidingKey(int id) {
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+
+	}
+
+	@Test
+	public void mapBehavesLikeHashMap() {
+		Random random = new Random(42);
+		Map<Object, Object> expected = new HashMap<>();
+		PersistentMap<Object, Object> map = PersistentMap.empty();
+		for (int i = 0; i < 20_000; i++) {
+			Object key = random.nextBoolean() ? "key" + random.nextInt(2_000) : new CollidingKey(random.nextInt(50));
+			if (random.nextInt(3) == 0) {
+				expected.remove(key);
+				map = map.without(key);
+			}
+			else {
+				expected.put(key, i);
+				map = map.with(key, i);
+			}
+		}
+		assertEquals(expected.size(), map.size());
+		assertEquals(expected, map);
+		assertEquals(map, expected);
+		for (Map.Entry<Object, Object> entry : expected.entrySet()) {
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+	}
+
+	@Test
+	public void mapVersionsAreIndependent() {
+		PersistentMap<String, Object> first = PersistentMap.<String, Object>empty().with("a", 1).with("b", 2);
+		PersistentMap<String, Object> second = first.with("a", 10).without("b").with(null, "nullKey");
+
+		assertEquals(Map.of("a", 1, "b", 2), first);
+		assertEquals(10, second.get("a"));
+		assertFalse(second.containsKey("b"));
+		assertEquals("nullKey", second.get(null));
+		assertSame(first, first.without("missing"));
+		assertThrows(UnsupportedOperationException.class, () -> first.put("c", 3));
+	}
+
+	@Test
+	public void listAppendsShareStructure() {
+		PersistentList<Integer> list = PersistentList.empty();
+		List<PersistentList<Integer>> versions = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			list = list.plus(i);
+			if (i % 1_000 == 0) {
+				versions.add(list);
+			}
+		}
+		assertEquals(10_000, list.size());
+		int expected = 0;
+		for (Integer value : list) {
+			assertEquals(expected++, value);
+		}
+		for (int i = 0; i < versions.size(); i++) {
+			assertEquals(i * 1_000 + 1, versions.get(i).size());
+			assertEquals(i * 1_000, versions.get(i).get(i * 1_000));
+		}
+		assertEquals(List.of(0, 2), PersistentList.copyOf(List.of(0, 1, 2)).minus(1));
+		assertThrows(UnsupportedOperationException.class, () -> PersistentList.<Integer>empty().add(1));
+	}
+
+	@Test
+	public void javaSerializationRoundTrip() throws Exception {
+		PersistentMap<String, Object> map = PersistentMap.<String, Object>empty()
+			.with("messages", PersistentList.copyOf(List.of("a", "b")))
+			.with("count", 2);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(map);
+		}
+		Object copy;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = in.readObject();
+		}
+		assertTrue(copy instanceof PersistentMap<?, ?>);
+		assertEquals(map, copy);
+		assertTrue(((Map<?, ?>) copy).get("messages") instanceof PersistentList<?>);
+	}
+
+	@Test
+	public void jacksonRoundTrip() throws Exception {
+		PersistentList<Object> list = PersistentList.copyOf(List.of("a", "b", 3));
+
+		ObjectMapper mapper = new ObjectMapper();
+		String json = mapper.writeValueAsString(list);
+		assertEquals("[\"a\",\"b\",3]", json);
+		PersistentList<?> copy = mapper.readValue(json, PersistentList.class);
+		assertEquals(list, copy);
+
+		// checkpoint savers storing state with type information
+		ObjectMapper typedMapper = new ObjectMapper();
+		typedMapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL,
+				JsonTypeInfo.As.PROPERTY);
+		Map<String, Object> data = new HashMap<>();
+		data.put("messages", list);
+		Map<String, Object> typedCopy = typedMapper.readValue(typedMapper.writeValueAsString(data),
+				new TypeReference<Map<String, Object>>() {
+				});
+		assertInstanceOf(PersistentList.class, typedCopy.get("messages"));
+		assertEquals(list, typedCopy.get("messages"));
+	}
+
+	@Test
+	public void stateSnapshotIsIsolated() {
+		OverAllState state = new OverAllState(Map.of("a", 1));
+		OverAllState snapshot = state.snapShot().orElseThrow();
+
+		state.updateState(Map.of("a", 2, "b", 3));
+		snapshot.updateState(Map.of("c", 4));
+
+		assertEquals(Map.of("a", 2, "b", 3), state.data());
+		assertEquals(Map.of("a", 1, "c", 4), snapshot.data());
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.state.strategy;
+
+import com.alibaba.cloud.ai.graph.state.RemoveByHash;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link AppendStrategy}.
+ */
+public class AppendStrategyTest {
+
+	@Test
+	public void deduplicatesAssistantMessagesAcrossMerges() {
+		AppendStrategy strategy = new AppendStrategy();
+		Object messages = strategy.apply(null, List.of(new UserMessage("hi")));
+		messages = strategy.apply(messages, List.of(new AssistantMessage("hello"), new UserMessage("hi")));
+		messages = strategy.apply(messages, List.of(new AssistantMessage("hello"), new AssistantMessage("bye")));
+
+		assertEquals(List.of(new UserMessage("hi"), new AssistantMessage("hello"), new UserMessage("hi"),
+				new AssistantMessage("bye")), messages);
+	}
+
+	@Test
+	public void deduplicatesOldValuesOfForeignLists() {
+		AppendStrategy strategy = new AppendStrategy(false);
+		List<Object> old = new ArrayList<>(List.of("a", "b", "a", new AssistantMessage("x"), new AssistantMessage("x")));
+
+		Object merged = strategy.apply(old, List.of("b", "c"));
+
+		assertEquals(List.of("a", "b", new AssistantMessage("x"), "c"), merged);
+		assertEquals(5, old.size());
+		assertEquals(List.of("a", "b", new AssistantMessage("x"), "c", "d"), strategy.apply(merged, List.of("c", "d")));
+	}
+
+	@Test
+	public void removesByHash() {
+		AppendStrategy strategy = new AppendStrategy();
+		AssistantMessage first = new AssistantMessage("first");
+		Object messages = strategy.apply(null, List.of(first, new AssistantMessage("second")));
+		messages = strategy.apply(messages, List.of(new AssistantMessage("third")));
+
+		Object removed = strategy.apply(messages, RemoveByHash.of(first));
+		assertEquals(List.of(new AssistantMessage("second"), new AssistantMessage("third")), removed);
+
+		// the removed message is no longer a duplicate
+		Object readded = strategy.apply(removed, List.of(first, RemoveByHash.of(new AssistantMessage("third"))));
+		assertEquals(List.of(new AssistantMessage("second"), first), readded);
+	}
+
+	@Test
+	public void appendsKeepPreviousVersionsUntouched() {
+		AppendStrategy strategy = new AppendStrategy();
+		List<Object> versions = new ArrayList<>();
+		Object messages = null;
+		for (int i = 0; i < 10_000; i++) {
+			messages = strategy.apply(messages, List.of(new UserMessage("question " + i),
+					new AssistantMessage("answer " + i)));
+			if (i % 1_000 == 0) {
+				versions.add(messages);
+			}
+		}
+
+		assertTrue(messages instanceof AppendedList<?>);
+		assertNotNull(((AppendedList<?>) messages).index());
+		assertEquals(20_000, ((List<?>) messages).size());
+		for (int i = 0; i < versions.size(); i++) {
+			List<?> version = (List<?>) versions.get(i);
+			assertEquals(2 * (i * 1_000 + 1), version.size());
+			assertEquals(new AssistantMessage("answer " + i * 1_000), version.get(version.size() - 1));
+		}
+		assertSame(messages, strategy.apply(messages, List.of()));
+	}
+
+}
@@ -20,6 +20,14 @@ import com.alibaba.cloud.ai.graph.store.StoreItem;
 import com.alibaba.cloud.ai.graph.store.StoreSearchRequest;
 import com.alibaba.cloud.ai.graph.store.StoreSearchResult;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,6 +51,8 @@ class DatabaseStoreTest {
 
 	private DatabaseStore databaseStore;
 
+	private DataSource dataSource;
+
 	@BeforeEach
 	void setUp() {
 		// Create H2 in-memory database with unique URL for test isolation
@@ -53,7 +63,7 @@ class DatabaseStoreTest {
 		config.setPassword("");
 		config.setDriverClassName("org.h2.Driver");
 
-		DataSource dataSource = new HikariDataSource(config);
+		dataSource = new HikariDataSource(config);
 		databaseStore = new DatabaseStore(dataSource, "test_store");
 	}
 
@@ -187,6 +197,224 @@ class DatabaseStoreTest {
 		assertThat(databaseStore.size()).isEqualTo(1); // Should still be 1 item
 	}
 
+	@Test
+	void testSearchPushDownWithNamespacePrefixAndSort() {
+		// Given - a sibling namespace sharing the prefix characters must not match
+		for (int i = 0; i < 20; i++) {
+			databaseStore.putItem(StoreItem.of(List.of("docs", "a_b"), "doc" + (char) ('a' + i), Map.of("n", i)));
+		}
+		databaseStore.putItem(StoreItem.of(List.of("docs", "axb"), "other", Map.of("n", 0)));
+		databaseStore.putItem(StoreItem.of(List.of("docs", "a_b/c"), "nested", Map.of("n", 0)));
+
+		// When
+		StoreSearchResult result = databaseStore.searchItems(StoreSearchRequest.builder()
+			.namespace("docs", "a_b")
+			.sortFields(List.of("key"))
+			.ascending(false)
+			.offset(2)
+			.limit(3)
+			.build());
+
+		// Then
+		assertThat(result.getTotalCount()).isEqualTo(20);
+		assertThat(result.getItems()).extracting(StoreItem::getKey).containsExactly("docr", "docq", "docp");
+	}
+
+	@Test
+	void testSearchWithValueSortAndFilter() {
+		// Given
+		setupTestData();
+		databaseStore.putItem(StoreItem.of(List.of("users", "user3", "preferences"), "ui_settings",
+				Map.of("theme", "dark", "language", "fr-FR")));
+
+		// When
+		StoreSearchResult result = databaseStore.searchItems(StoreSearchRequest.builder()
+			.filter(Map.of("theme", "dark"))
+			.sortFields(List.of("language"))
+			.build());
+
+		// Then
+		assertThat(result.getTotalCount()).isEqualTo(2);
+		assertThat(result.getItems()).extracting(item -> item.getValue().get("language"))
+			.containsExactly("en-US", "fr-FR");
+	}
+
+	@Test
+	void testListNamespacesWithPrefixAndDepth() {
+		// Given
+		setupTestData();
+
+		// When
+		List<String> namespaces = databaseStore
+			.listNamespaces(NamespaceListRequest.builder().namespace("users").maxDepth(2).build());
+
+		// Then
+		assertThat(namespaces).containsExactly("users", "users/admin", "users/user1", "users/user2");
+	}
+
+	@Test
+	void testExistingTableIsMigrated() throws Exception {
+		// Given - a table created without the namespace_path column
+		try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("CREATE TABLE legacy_store (id VARCHAR(1000) PRIMARY KEY, namespace TEXT, "
+					+ "key_name VARCHAR(500), value_json TEXT, created_at TIMESTAMP, updated_at TIMESTAMP)");
+			stmt.executeUpdate("INSERT INTO legacy_store VALUES ('legacy', '[\"users\",\"old\"]', 'profile', "
+					+ "'{\"name\":\"Legacy\"}', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+		}
+
+		// When
+		DatabaseStore migratedStore = new DatabaseStore(dataSource, "legacy_store");
+
+		// Then
+		StoreSearchResult result = migratedStore.searchItems(StoreSearchRequest.builder().namespace("users").build());
+		assertThat(result.getItems()).extracting(StoreItem::getKey).containsExactly("profile");
+		assertThat(migratedStore.listNamespaces(NamespaceListRequest.builder().build()))
+			.containsExactly("users", "users/old");
+	}
+
+	@Test
+	void testBatchOperations() {
+		// Given
+		List<String> namespace = List.of("memories", "agent1");
+		List<StoreItem> items = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			items.add(StoreItem.of(namespace, "fact" + i, Map.of("index", i)));
+		}
+
+		// When
+		databaseStore.putItems(items);
+		List<StoreItem> retrieved = databaseStore.getItems(namespace, List.of("fact3", "missing", "fact1"));
+		int deleted = databaseStore.deleteItems(namespace, List.of("fact0", "fact1", "missing"));
+
+		// Then
+		assertThat(retrieved).extracting(StoreItem::getKey).containsExactly("fact3", "fact1");
+		assertThat(deleted).isEqualTo(2);
+		assertThat(databaseStore.size()).isEqualTo(28);
+	}
+
+	@Test
+	void testWriteBehindBuffer() {
+		// Given
+		List<String> namespace = List.of("memories", "agent1");
+		try (DatabaseStore bufferedStore = new DatabaseStore(dataSource, "buffered_store", Duration.ofMinutes(1),
+				100)) {
+			DatabaseStore directStore = new DatabaseStore(dataSource, "buffered_store");
+
+			// When
+			bufferedStore.putItem(StoreItem.of(namespace, "kept", Map.of("v", 1)));
+			bufferedStore.putItem(StoreItem.of(namespace, "dropped", Map.of("v", 2)));
+			boolean deleted = bufferedStore.deleteItem(namespace, "dropped");
+
+			// Then - buffered writes are visible to the store but not yet written
+			assertThat(deleted).isTrue();
+			assertThat(bufferedStore.getItem(namespace, "kept")).isPresent();
+			assertThat(bufferedStore.getItem(namespace, "dropped")).isEmpty();
+			assertThat(directStore.getItem(namespace, "kept")).isEmpty();
+
+			// Searches flush the buffer first
+			assertThat(bufferedStore.searchItems(StoreSearchRequest.builder().namespace("memories").build())
+				.getItems()).extracting(StoreItem::getKey).containsExactly("kept");
+			assertThat(directStore.getItem(namespace, "kept")).isPresent();
+			assertThat(directStore.getItem(namespace, "dropped")).isEmpty();
+		}
+	}
+
+	@Test
+	void testMySqlUpsert() throws Exception {
+		// Given - H2 accepts the MySQL upsert in MySQL mode
+		String sql = DatabaseStore.Dialect.MYSQL.upsertSql("mysql_store");
+		assertThat(sql).contains("ON DUPLICATE KEY UPDATE").contains("value_json = VALUES(value_json)");
+
+		try (Connection conn = DriverManager
+			.getConnection("jdbc:h2:mem:mysql" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+				Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate("CREATE TABLE mysql_store (id VARCHAR(1000) PRIMARY KEY, namespace TEXT, "
+					+ "namespace_path VARCHAR(768), key_name VARCHAR(500), value_json TEXT, created_at TIMESTAMP, "
+					+ "updated_at TIMESTAMP)");
+
+			// When
+			upsert(conn, sql, "{\"v\":1}");
+			upsert(conn, sql, "{\"v\":2}");
+
+			// Then
+			try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*), MAX(value_json) FROM mysql_store")) {
+				rs.next();
+				assertThat(rs.getInt(1)).isEqualTo(1);
+				assertThat(rs.getString(2)).isEqualTo("{\"v\":2}");
+			}
+		}
+	}
+
+	@Test
+	void testPostgreSqlUpsert() {
+		assertThat(DatabaseStore.Dialect.POSTGRESQL.upsertSql("pg_store"))
+			.startsWith("INSERT INTO pg_store (id, namespace, namespace_path, key_name, value_json, created_at, "
+					+ "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)")
+			.contains("ON CONFLICT (id) DO UPDATE SET")
+			.contains("value_json = EXCLUDED.value_json")
+			.doesNotContain("id = EXCLUDED.id");
+		assertThat(DatabaseStore.Dialect.POSTGRESQL.binaryOrder("key_name")).isEqualTo("key_name COLLATE \"C\"");
+	}
+
+	@Test
+	void testOtherDatabasesUpdateThenInsert() {
+		assertThat(DatabaseStore.Dialect.OTHER.upsertSql("other_store")).isNull();
+		assertThat(DatabaseStore.Dialect.OTHER.binaryOrder("key_name")).isNull();
+	}
+
+	@Test
+	void testNamespaceTooLongIsRejected() {
+		List<String> namespace = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			namespace.add("segment" + i);
+		}
+
+		assertThrows(IllegalArgumentException.class,
+				() -> databaseStore.putItem(StoreItem.of(namespace, "key", Map.of())));
+		assertThrows(IllegalArgumentException.class,
+				() -> databaseStore.putItems(List.of(StoreItem.of(namespace, "key", Map.of()))));
+	}
+
+	@Test
+	void testSortMatchesJavaOrder() {
+		// Given
+		for (String key : List.of("b", "B", "a", "_a", "é", "A1")) {
+			databaseStore.putItem(StoreItem.of(List.of("keys"), key, Map.of("text", "x")));
+		}
+		databaseStore.putItem(StoreItem.of(List.of("user-1"), "k", Map.of("text", "x")));
+		databaseStore.putItem(StoreItem.of(List.of("user"), "k", Map.of("text", "x")));
+
+		// When - the text query makes the search sort in Java
+		StoreSearchResult pushedDown = databaseStore
+			.searchItems(StoreSearchRequest.builder().namespace("keys").sortFields(List.of("key")).build());
+		StoreSearchResult inJava = databaseStore.searchItems(
+				StoreSearchRequest.builder().namespace("keys").query("x").sortFields(List.of("key")).build());
+		StoreSearchResult byNamespace = databaseStore
+			.searchItems(StoreSearchRequest.builder().sortFields(List.of("namespace")).offset(6).build());
+
+		// Then
+		assertThat(pushedDown.getItems()).extracting(StoreItem::getKey)
+			.containsExactly("A1", "B", "_a", "a", "b", "é");
+		assertThat(inJava.getItems()).extracting(StoreItem::getKey)
+			.containsExactlyElementsOf(pushedDown.getItems().stream().map(StoreItem::getKey).toList());
+		// "user" sorts before "user-1" in Java, unlike their encoded paths "user/" and "user-1/"
+		assertThat(byNamespace.getItems()).extracting(item -> String.join("/", item.getNamespace()))
+			.containsExactly("user", "user-1");
+	}
+
+	private static void upsert(Connection conn, String sql, String valueJson) throws Exception {
+		try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+			stmt.setString(1, "id");
+			stmt.setString(2, "[\"ns\"]");
+			stmt.setString(3, "ns/");
+			stmt.setString(4, "key");
+			stmt.setString(5, valueJson);
+			stmt.setTimestamp(6, new Timestamp(0));
+			stmt.setTimestamp(7, new Timestamp(0));
+			stmt.executeUpdate();
+		}
+	}
+
 	private void setupTestData() {
 		// User admin data
 		databaseStore.putItem(
@@ -184,6 +184,49 @@ class FileSystemStoreTest {
 		assertThat(retrieved.get().getValue()).isEqualTo(value);
 	}
 
+	@Test
+	void testCatalogIsReloadedAndRebuilt() throws IOException {
+		// Given
+		setupTestData();
+		store.deleteItem(List.of("users", "user1", "preferences"), "ui_settings");
+
+		// When - a new store replays the catalog journal
+		FileSystemStore reloaded = new FileSystemStore(tempDir);
+
+		// Then
+		assertThat(reloaded.size()).isEqualTo(2);
+		assertThat(reloaded.listNamespaces(NamespaceListRequest.builder().build())).containsExactly("users",
+				"users/admin", "users/user2", "users/user2/preferences");
+
+		// When - the journal is missing, the catalog is rebuilt from the item files
+		Files.delete(tempDir.resolve(FileSystemStore.CATALOG_FILE));
+		FileSystemStore rebuilt = new FileSystemStore(tempDir);
+
+		// Then
+		assertThat(rebuilt.searchItems(StoreSearchRequest.builder().namespace("users").build()).getItems())
+			.extracting(StoreItem::getKey)
+			.containsExactlyInAnyOrder("profile", "ui_settings");
+	}
+
+	@Test
+	void testIndexedFieldFilter() {
+		// Given
+		FileSystemStore indexedStore = new FileSystemStore(tempDir, List.of("theme"));
+		indexedStore.putItem(StoreItem.of(List.of("users", "user1"), "ui", Map.of("theme", "dark")));
+		indexedStore.putItem(StoreItem.of(List.of("users", "user2"), "ui", Map.of("theme", "light")));
+
+		// When
+		indexedStore.putItem(StoreItem.of(List.of("users", "user2"), "ui", Map.of("theme", "dark")));
+		StoreSearchResult result = indexedStore
+			.searchItems(StoreSearchRequest.builder().filter(Map.of("theme", "dark")).build());
+
+		// Then
+		assertThat(result.getTotalCount()).isEqualTo(2);
+		assertThat(new FileSystemStore(tempDir, List.of("theme"))
+			.searchItems(StoreSearchRequest.builder().filter(Map.of("theme", "light")).build())
+			.getItems()).isEmpty();
+	}
+
 	private void setupTestData() {
 		// User admin data
 		store.putItem(
@@ -20,6 +20,7 @@ import com.alibaba.cloud.ai.graph.store.StoreItem;
 import com.alibaba.cloud.ai.graph.store.StoreSearchRequest;
 import com.alibaba.cloud.ai.graph.store.StoreSearchResult;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -236,6 +237,91 @@ class MemoryStoreTest {
 		assertThat(memoryStore.size()).isEqualTo(1); // Should still be 1 item
 	}
 
+	@Test
+	void testIndexedFilterFollowsUpdatesAndDeletes() {
+		// Given
+		MemoryStore indexedStore = new MemoryStore(List.of("theme"));
+		indexedStore.putItem(StoreItem.of(List.of("users", "user1"), "ui", Map.of("theme", "dark")));
+		indexedStore.putItem(StoreItem.of(List.of("users", "user2"), "ui", Map.of("theme", "dark")));
+		indexedStore.putItem(StoreItem.of(List.of("users", "user3"), "ui", Map.of("theme", "light")));
+
+		// When
+		indexedStore.putItem(StoreItem.of(List.of("users", "user1"), "ui", Map.of("theme", "light")));
+		indexedStore.deleteItem(List.of("users", "user3"), "ui");
+
+		// Then
+		StoreSearchResult dark = indexedStore
+			.searchItems(StoreSearchRequest.builder().filter(Map.of("theme", "dark")).build());
+		StoreSearchResult light = indexedStore
+			.searchItems(StoreSearchRequest.builder().namespace("users").filter(Map.of("theme", "light")).build());
+		assertThat(dark.getItems()).extracting(StoreItem::getNamespace).containsExactly(List.of("users", "user2"));
+		assertThat(light.getItems()).extracting(StoreItem::getNamespace).containsExactly(List.of("users", "user1"));
+		assertThat(light.getTotalCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testSortedPaginationKeepsOrder() {
+		// Given
+		for (int i = 0; i < 50; i++) {
+			memoryStore.putItem(StoreItem.of(List.of("scores"), "item" + i, Map.of("score", (i * 37) % 50)));
+		}
+
+		// When
+		StoreSearchResult result = memoryStore.searchItems(StoreSearchRequest.builder()
+			.sortFields(List.of("score"))
+			.ascending(false)
+			.offset(10)
+			.limit(5)
+			.build());
+
+		// Then
+		assertThat(result.getTotalCount()).isEqualTo(50);
+		assertThat(result.getItems()).extracting(item -> item.getValue().get("score"))
+			.containsExactly(39, 38, 37, 36, 35);
+	}
+
+	@Test
+	void testSortedPaginationBreaksTiesByNamespaceAndKey() {
+		// Given
+		for (int i = 9; i >= 0; i--) {
+			memoryStore.putItem(StoreItem.of(List.of("scores", "group" + i % 2), "item" + i, Map.of("score", 1)));
+		}
+
+		// When
+		List<String> pages = new ArrayList<>();
+		for (int offset = 0; offset < 10; offset += 3) {
+			memoryStore
+				.searchItems(StoreSearchRequest.builder()
+					.sortFields(List.of("score"))
+					.offset(offset)
+					.limit(3)
+					.build())
+				.getItems()
+				.forEach(item -> pages.add(String.join("/", item.getNamespace()) + "/" + item.getKey()));
+		}
+
+		// Then
+		assertThat(pages).containsExactly("scores/group0/item0", "scores/group0/item2", "scores/group0/item4",
+				"scores/group0/item6", "scores/group0/item8", "scores/group1/item1", "scores/group1/item3",
+				"scores/group1/item5", "scores/group1/item7", "scores/group1/item9");
+	}
+
+	@Test
+	void testListNamespacesAfterDelete() {
+		// Given
+		setupTestData();
+
+		// When
+		memoryStore.deleteItem(List.of("users", "user2", "preferences"), "ui_settings");
+		List<String> all = memoryStore.listNamespaces(NamespaceListRequest.builder().build());
+		List<String> underUsers = memoryStore
+			.listNamespaces(NamespaceListRequest.builder().namespace("users").maxDepth(2).build());
+
+		// Then
+		assertThat(all).containsExactly("users", "users/admin", "users/user1", "users/user1/preferences");
+		assertThat(underUsers).containsExactly("users", "users/admin", "users/user1");
+	}
+
 	private void setupTestData() {
 		// User admin data
 		memoryStore.putItem(
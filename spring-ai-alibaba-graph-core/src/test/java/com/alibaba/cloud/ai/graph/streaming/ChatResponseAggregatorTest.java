@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.alibaba.cloud.ai.graph.streaming;
+
+import com.alibaba.cloud.ai.graph.CompiledGraph;
+import com.alibaba.cloud.ai.graph.OverAllState;
+import com.alibaba.cloud.ai.graph.StateGraph;
+import com.alibaba.cloud.ai.graph.action.AsyncNodeAction;
+import com.alibaba.cloud.ai.graph.state.strategy.ReplaceStrategy;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChatResponseAggregatorTest {
+
+	private static ChatResponse chunk(String text, Map<String, Object> metadata,
+			List<AssistantMessage.ToolCall> toolCalls) {
+		return new ChatResponse(List.of(new Generation(new AssistantMessage(text, metadata, toolCalls))));
+	}
+
+	private static ChatResponse chunk(String text) {
+		return chunk(text, Map.of(), List.of());
+	}
+
+	@Test
+	public void aggregatesLongStreams() {
+		ChatResponseAggregator aggregator = new ChatResponseAggregator();
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 20_000; i++) {
+			String token = "token" + i + " ";
+			expected.append(token);
+			aggregator.append(chunk(token));
+		}
+		aggregator.append(chunk(null, Map.of("finishReason", "STOP"), List.of()));
+
+		AssistantMessage message = aggregator.getMessage();
+		assertEquals(expected.toString(), message.getText());
+		assertEquals("STOP", message.getMetadata().get("finishReason"));
+		assertSame(aggregator.getResult(), aggregator.getResult());
+	}
+
+	@Test
+	public void mergesToolCallDeltas() {
+		ChatResponseAggregator aggregator = new ChatResponseAggregator();
+		aggregator.append(chunk("Let me check. ", Map.of(), List.of()));
+		aggregator.append(chunk(null, Map.of(),
+				List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":"))));
+		aggregator.append(chunk(null, Map.of(), List.of(new AssistantMessage.ToolCall("", null, null, "\"Paris\"}"))));
+		aggregator.append(chunk(null, Map.of(),
+				List.of(new AssistantMessage.ToolCall("call_2", "function", "time", "{}"))));
+
+		AssistantMessage message = aggregator.getMessage();
+		assertEquals("Let me check. ", message.getText());
+		assertEquals(List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":\"Paris\"}"),
+				new AssistantMessage.ToolCall("call_2", "function", "time", "{}")), message.getToolCalls());
+	}
+
+	@Test
+	public void replacesCumulativeToolCalls() {
+		ChatResponseAggregator aggregator = new ChatResponseAggregator();
+		// Each chunk carries the arguments received so far
+		aggregator.append(chunk(null, Map.of(),
+				List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":"))));
+		aggregator.append(chunk(null, Map.of(),
+				List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":\"Paris\"}"))));
+		aggregator.append(chunk(null, Map.of(),
+				List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":\"Paris\"}"))));
+
+		assertEquals(List.of(new AssistantMessage.ToolCall("call_1", "function", "weather", "{\"city\":\"Paris\"}")),
+				aggregator.getMessage().getToolCalls());
+	}
+
+	@Test
+	public void ignoresChunksWithoutGeneration() {
+		ChatResponseAggregator aggregator = new ChatResponseAggregator();
+		aggregator.append(new ChatResponse(List.of()));
+
+		assertTrue(aggregator.isEmpty());
+		assertNull(aggregator.getResult());
+	}
+
+	@Test
+	public void graphFluxGeneratorLeavesAggregatedMessagePerSubscription() throws Exception {
+		// The same GraphFlux is streamed by both runs
+		GraphFlux<ChatResponse> graphFlux = GraphFluxGenerator.builder()
+			.startingNode("llm")
+			.outKey("answer")
+			.build(Flux.just(chunk("Hello"), chunk(", "), chunk("world")));
+		assertTrue(graphFlux.isAggregated());
+
+		AsyncNodeAction llm = state -> CompletableFuture.completedFuture(Map.of("answer", graphFlux));
+		CompiledGraph app = new StateGraph(() -> Map.of("answer", new ReplaceStrategy())).addNode("llm", llm)
+			.addEdge(StateGraph.START, "llm")
+			.addEdge("llm", StateGraph.END)
+			.compile();
+
+		for (int run = 0; run < 2; run++) {
+			OverAllState state = app.invoke(Map.of()).orElseThrow();
+			AssistantMessage message = (AssistantMessage) state.value("answer").orElseThrow();
+			assertEquals("Hello, world", message.getText());
+		}
+	}
+
+	@Test
+	public void embeddedFluxAggregatesPerSubscription() throws Exception {
+		// The same Flux is streamed by both runs
+		Flux<ChatResponse> flux = Flux.just(chunk("Hello"), chunk(", "), chunk("world"));
+
+		AsyncNodeAction llm = state -> CompletableFuture.completedFuture(Map.of("answer", flux));
+		CompiledGraph app = new StateGraph(() -> Map.of("answer", new ReplaceStrategy())).addNode("llm", llm)
+			.addEdge(StateGraph.START, "llm")
+			.addEdge("llm", StateGraph.END)
+			.compile();
+
+		for (int run = 0; run < 2; run++) {
+			OverAllState state = app.invoke(Map.of()).orElseThrow();
+			AssistantMessage message = (AssistantMessage) state.value("answer").orElseThrow();
+			assertEquals("Hello, world", message.getText());
+		}
+	}
+
+}
@@ -26,6 +26,7 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
@@ -179,6 +180,51 @@ public class GraphFluxIntegrationTest {
     }
 
 
+    /**
+     * Test 3b: Throttled parallel GraphFlux branches are reported once each, when their
+     * stream is subscribed
+     */
+    @Test
+    public void testThrottledParallelGraphFluxReportsEachBranchOnce() throws Exception {
+        StateGraph stateGraph = new StateGraph(() -> {
+            Map<String, KeyStrategy> keyStrategyMap = new HashMap<>();
+            keyStrategyMap.put("messages", new AppendStrategy());
+            return keyStrategyMap;
+        });
+
+        AsyncNodeAction node1 = state -> CompletableFuture.completedFuture(Map.of("stream1",
+                GraphFlux.of("parallel_node_1", "stream1", Flux.just("a", "b").delayElements(Duration.ofMillis(10)),
+                        chunk -> chunk, chunk -> chunk)));
+        AsyncNodeAction node2 = state -> CompletableFuture.completedFuture(Map.of("stream2",
+                GraphFlux.of("parallel_node_2", "stream2", Flux.just("c", "d").delayElements(Duration.ofMillis(10)),
+                        chunk -> chunk, chunk -> chunk)));
+
+        stateGraph.addNode("node1", node1)
+                .addNode("node2", node2)
+                .addNode("merge", state -> CompletableFuture.completedFuture(Map.of("messages", "merged")))
+                .addEdge(START, "node1")
+                .addEdge(START, "node2")
+                .addEdge("node1", "merge")
+                .addEdge("node2", "merge")
+                .addEdge("merge", END);
+
+        Map<String, Integer> branchStarts = new ConcurrentHashMap<>();
+        CompiledGraph app = stateGraph.compile(CompileConfig.builder()
+                .parallelMaxConcurrency(1)
+                .withLifecycleListener(new GraphLifecycleListener() {
+                    @Override
+                    public void onParallelBranchStart(String nodeId, String branchNodeId, RunnableConfig config,
+                            long queuedNanos) {
+                        branchStarts.merge(branchNodeId, 1, Integer::sum);
+                    }
+                })
+                .build());
+
+        app.stream(Map.of("input", "test")).blockLast();
+
+        assertEquals(Map.of("parallel_node_1", 1, "parallel_node_2", 1), branchStarts);
+    }
+
     /**
      * Test 4: Mixed scenario - GraphFlux and traditional objects in the same graph
      */
@@ -40,9 +40,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
+import io.modelcontextprotocol.spec.McpError;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.spec.McpSchema.CallToolResult;
-import io.modelcontextprotocol.spec.McpSchema.InitializeResult;
 import io.modelcontextprotocol.spec.McpSchema.TextContent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,14 +84,26 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
 
 	McpServersVO.McpServerVO mcpServerVO;
 
+	private final NacosMcpSessionPool mcpSessionPool;
+
 	/**
 	 * Instantiates a new Nacos mcp gateway tool callback.
 	 * @param toolDefinition the tool definition
 	 */
 	public NacosMcpGatewayToolCallback(final McpGatewayToolDefinition toolDefinition, NacosMcpOperationService nacosMcpOperationService, McpServersVO.McpServerVO mcpServersVO) {
+		this(toolDefinition, nacosMcpOperationService, mcpServersVO, NacosMcpSessionPool.shared());
+	}
+
+	/**
+	 * Instantiates a new Nacos mcp gateway tool callback.
+	 * @param toolDefinition the tool definition
+	 * @param mcpSessionPool the pool keeping the MCP client sessions warm
+	 */
+	public NacosMcpGatewayToolCallback(final McpGatewayToolDefinition toolDefinition, NacosMcpOperationService nacosMcpOperationService, McpServersVO.McpServerVO mcpServersVO, NacosMcpSessionPool mcpSessionPool) {
 		this.toolDefinition = (NacosMcpGatewayToolDefinition) toolDefinition;
 		this.nacosMcpOperationService = nacosMcpOperationService;
 		this.mcpServerVO = mcpServersVO;
+		this.mcpSessionPool = mcpSessionPool;
 	}
 
 	/**
@@ -510,61 +522,61 @@ public class NacosMcpGatewayToolCallback implements ToolCallback {
 					}
 				}
 
-				HttpClientSseClientTransport.Builder transportBuilder = HttpClientSseClientTransport.builder(baseUrl.toString())
-						.sseEndpoint(sseEndpoint.toString());
-				if (mcpServerVO.getHeaders() != null) {
-					transportBuilder.customizeRequest(requestBuilder -> {
-						for (Map.Entry<String, String> headerName : mcpServerVO.getHeaders().entrySet())
-							requestBuilder.header(headerName.getKey(), headerName.getValue());
-					});
-				}
-
-				// 添加自定义请求头（如果需要）
-				// 这里可以根据需要添加认证头等
-				HttpClientSseClientTransport transport = transportBuilder.build();
-
-				// 创建MCP同步客户端
-				McpSyncClient client = McpClient.sync(transport).build();
-				try {
-					// 初始化客户端
-					InitializeResult initializeResult = client.initialize();
-					logger.info("[handleMcpStreamProtocol] MCP Client initialized: {}", initializeResult);
-
-					// 调用工具
-					McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(toolName, args);
-					logger.info("[handleMcpStreamProtocol] CallToolRequest: {}", request);
-
-					CallToolResult result = client.callTool(request);
-					logger.info("[handleMcpStreamProtocol] tool call result: {}", result);
-
-					// 处理结果
-					Object content = result.content();
-					if (content instanceof List<?> list && !CollectionUtils.isEmpty(list)) {
-						Object first = list.get(0);
-						// 兼容TextContent的text字段
-						if (first instanceof TextContent textContent) {
-							return textContent.text();
-						}
-						else if (first instanceof Map<?, ?> map && map.containsKey("text")) {
-							return map.get("text").toString();
+				String finalBaseUrl = baseUrl.toString();
+				String finalSseEndpoint = sseEndpoint.toString();
+				// 会话键为摘要，避免请求头中的凭证出现在连接池和日志中
+				String sessionKey = NacosMcpSessionPool.endpointKey(finalBaseUrl, finalSseEndpoint,
+						mcpServerVO.getHeaders());
+
+				// 复用已初始化的MCP客户端，避免每次调用都重新握手
+				try (NacosMcpSessionPool.Lease lease = mcpSessionPool.acquire(sessionKey, () -> {
+					HttpClientSseClientTransport.Builder transportBuilder = HttpClientSseClientTransport
+							.builder(finalBaseUrl)
+							.sseEndpoint(finalSseEndpoint);
+					if (mcpServerVO.getHeaders() != null) {
+						transportBuilder.customizeRequest(requestBuilder -> {
+							for (Map.Entry<String, String> headerName : mcpServerVO.getHeaders().entrySet())
+								requestBuilder.header(headerName.getKey(), headerName.getValue());
+						});
+					}
+					return McpClient.sync(transportBuilder.build()).build();
+				})) {
+					McpSyncClient client = lease.client();
+					try {
+						// 调用工具
+						McpSchema.CallToolRequest request = new McpSchema.CallToolRequest(toolName, args);
+						logger.info("[handleMcpStreamProtocol] CallToolRequest: {}", request);
+
+						CallToolResult result = client.callTool(request);
+						logger.info("[handleMcpStreamProtocol] tool call result: {}", result);
+
+						// 处理结果
+						Object content = result.content();
+						if (content instanceof List<?> list && !CollectionUtils.isEmpty(list)) {
+							Object first = list.get(0);
+							// 兼容TextContent的text字段
+							if (first instanceof TextContent textContent) {
+								return textContent.text();
+							}
+							else if (first instanceof Map<?, ?> map && map.containsKey("text")) {
+								return map.get("text").toString();
+							}
+							else {
+								return first.toString();
+							}
 						}
 						else {
-							return first.toString();
+							return content != null ? content.toString() : "No content returned";
 						}
 					}
-					else {
-						return content != null ? content.toString() : "No content returned";
-					}
-				}
-				finally {
-					// 清理资源
-					try {
-						if (client != null) {
-							client.close();
-						}
+					catch (McpError e) {
+						// 服务端返回的错误，会话仍然可用
+						throw e;
 					}
 					catch (Exception e) {
-						logger.warn("[handleMcpStreamProtocol] Failed to close MCP client", e);
+						// 会话可能已失效，让正在进行的其他调用用完后再关闭，后续调用重新建立
+						lease.invalidate();
+						throw e;
 					}
 				}
 			}
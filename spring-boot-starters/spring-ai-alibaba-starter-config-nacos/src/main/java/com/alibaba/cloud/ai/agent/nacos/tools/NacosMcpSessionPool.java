@@ -0,0 +1,350 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos.tools;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema.InitializeResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps initialized MCP client sessions warm, keyed by the resolved endpoint, so tool
+ * calls skip the initialize handshake.
+ * <p>
+ * Endpoint keys are built with {@link #endpointKey}, a digest of the URL, query and
+ * headers of the endpoint, so that the credentials they may carry never end up in the
+ * pool or in its logs.
+ * </p>
+ * <p>
+ * A client is borrowed with {@link #acquire} and given back by closing the returned
+ * {@link Lease}. A client that failed, was found unhealthy or was idle for too long is
+ * replaced for new borrowers, but only closed once its last borrower gave it back, so a
+ * failed call never closes the client under the other calls in flight.
+ * </p>
+ * <p>
+ * A session idle for longer than the health check interval is pinged before being
+ * reused and replaced if the ping fails. Sessions idle for longer than the max idle time
+ * are closed in the background. The endpoint is resolved from Nacos for every call, so
+ * when the instance list changes the calls move to sessions of the new instances and the
+ * sessions of the removed ones expire.
+ * </p>
+ */
+public class NacosMcpSessionPool implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(NacosMcpSessionPool.class);
+
+	private static final class SharedHolder {
+
+		private static final NacosMcpSessionPool INSTANCE = new NacosMcpSessionPool(Duration.ofMinutes(5),
+				Duration.ofSeconds(30));
+
+	}
+
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+	private final long maxIdleNanos;
+
+	private final long healthCheckIntervalNanos;
+
+	private final ScheduledExecutorService evictor;
+
+	/**
+	 * @param maxIdleTime idle time after which a session is closed
+	 * @param healthCheckInterval idle time after which a session is pinged before reuse
+	 */
+	public NacosMcpSessionPool(Duration maxIdleTime, Duration healthCheckInterval) {
+		if (maxIdleTime.isNegative() || maxIdleTime.isZero()) {
+			throw new IllegalArgumentException("maxIdleTime must be > 0");
+		}
+		this.maxIdleNanos = maxIdleTime.toNanos();
+		this.healthCheckIntervalNanos = healthCheckInterval.toNanos();
+		this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "nacos-mcp-session-evictor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, maxIdleTime.toMillis() / 2);
+		this.evictor.scheduleWithFixedDelay(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns the pool shared by the tool callbacks that were not given their own pool.
+	 * @return the shared pool
+	 */
+	public static NacosMcpSessionPool shared() {
+		return SharedHolder.INSTANCE;
+	}
+
+	/**
+	 * Builds the key of an endpoint: a SHA-256 digest of its base URL, SSE endpoint and
+	 * headers, which does not reveal the tokens of the query or headers.
+	 * @param baseUrl the base URL of the MCP server
+	 * @param sseEndpoint the SSE endpoint, with its query
+	 * @param headers the headers sent to the server, may be {@code null}
+	 * @return the endpoint key
+	 */
+	public static String endpointKey(String baseUrl, String sseEndpoint, Map<String, String> headers) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			update(digest, baseUrl);
+			update(digest, sseEndpoint);
+			if (headers != null) {
+				for (Map.Entry<String, String> header : new TreeMap<>(headers).entrySet()) {
+					update(digest, header.getKey());
+					update(digest, header.getValue());
+				}
+			}
+			return HexFormat.of().formatHex(digest.digest());
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		byte[] bytes = value != null ? value.getBytes(StandardCharsets.UTF_8) : new byte[0];
+		// Length prefixed, so that the boundaries between values are part of the digest
+		digest.update(new byte[] { (byte) (bytes.length >>> 24), (byte) (bytes.length >>> 16),
+				(byte) (bytes.length >>> 8), (byte) bytes.length });
+		digest.update(bytes);
+	}
+
+	/**
+	 * Borrows an initialized client for the endpoint, creating it if needed.
+	 * @param endpointKey the key of the endpoint, see {@link #endpointKey}
+	 * @param clientFactory creates a new, not yet initialized, client for the endpoint
+	 * @return the lease of the client, to be closed once the call is done
+	 */
+	public Lease acquire(String endpointKey, Supplier<McpSyncClient> clientFactory) {
+		while (true) {
+			Session session = sessions.computeIfAbsent(endpointKey, key -> new Session(key));
+			Lease lease = session.borrow(clientFactory);
+			if (lease != null) {
+				return lease;
+			}
+			// evicted concurrently, retry with a new session
+			sessions.remove(endpointKey, session);
+		}
+	}
+
+	/**
+	 * Number of open sessions.
+	 * @return the session count
+	 */
+	public int size() {
+		return (int) sessions.values().stream().filter(Session::isOpen).count();
+	}
+
+	@Override
+	public void close() {
+		evictor.shutdownNow();
+		sessions.values().forEach(Session::retire);
+		sessions.clear();
+	}
+
+	private void evictIdleSessions() {
+		long now = System.nanoTime();
+		sessions.forEach((key, session) -> {
+			if (session.closeIfIdle(now, maxIdleNanos)) {
+				logger.debug("[NacosMcpSessionPool] Closed idle MCP session {}", key);
+				sessions.remove(key, session);
+			}
+		});
+	}
+
+	private static void closeQuietly(McpSyncClient client) {
+		try {
+			client.close();
+		}
+		catch (Exception e) {
+			logger.warn("[NacosMcpSessionPool] Failed to close MCP client", e);
+		}
+	}
+
+	/**
+	 * A borrowed client. Closing the lease gives the client back to the pool.
+	 */
+	public static final class Lease implements AutoCloseable {
+
+		private final Session session;
+
+		private final PooledClient pooled;
+
+		private boolean returned;
+
+		private Lease(Session session, PooledClient pooled) {
+			this.session = session;
+			this.pooled = pooled;
+		}
+
+		public McpSyncClient client() {
+			return pooled.client;
+		}
+
+		/**
+		 * Marks the client as broken, e.g. after a failed call: new borrowers get a new
+		 * client, and this one is closed once all its borrowers gave it back.
+		 */
+		public void invalidate() {
+			session.invalidate(pooled);
+		}
+
+		@Override
+		public void close() {
+			synchronized (session) {
+				if (returned) {
+					return;
+				}
+				returned = true;
+			}
+			session.giveBack(pooled);
+		}
+
+	}
+
+	private static final class PooledClient {
+
+		private final McpSyncClient client;
+
+		private int borrowers;
+
+		private boolean retired;
+
+		private PooledClient(McpSyncClient client) {
+			this.client = client;
+		}
+
+	}
+
+	private final class Session {
+
+		private final String endpointKey;
+
+		private PooledClient current;
+
+		private boolean retired;
+
+		private long lastUsedNanos = System.nanoTime();
+
+		private Session(String endpointKey) {
+			this.endpointKey = endpointKey;
+		}
+
+		synchronized Lease borrow(Supplier<McpSyncClient> clientFactory) {
+			if (retired) {
+				return null;
+			}
+			long now = System.nanoTime();
+			if (current != null && current.borrowers == 0 && now - lastUsedNanos > healthCheckIntervalNanos
+					&& !isHealthy()) {
+				retire(current);
+				current = null;
+			}
+			if (current == null) {
+				McpSyncClient newClient = clientFactory.get();
+				try {
+					InitializeResult initializeResult = newClient.initialize();
+					logger.info("[NacosMcpSessionPool] MCP Client initialized for session {}: {}", endpointKey,
+							initializeResult);
+				}
+				catch (RuntimeException e) {
+					closeQuietly(newClient);
+					throw e;
+				}
+				current = new PooledClient(newClient);
+			}
+			current.borrowers++;
+			lastUsedNanos = now;
+			return new Lease(this, current);
+		}
+
+		private boolean isHealthy() {
+			try {
+				current.client.ping();
+				return true;
+			}
+			catch (Exception e) {
+				logger.info("[NacosMcpSessionPool] MCP session {} failed health check, reconnecting", endpointKey);
+				return false;
+			}
+		}
+
+		synchronized void giveBack(PooledClient pooled) {
+			pooled.borrowers--;
+			lastUsedNanos = System.nanoTime();
+			if (pooled.retired && pooled.borrowers == 0) {
+				closeQuietly(pooled.client);
+			}
+		}
+
+		synchronized void invalidate(PooledClient pooled) {
+			if (current == pooled) {
+				current = null;
+			}
+			retire(pooled);
+		}
+
+		synchronized boolean closeIfIdle(long now, long maxIdleNanos) {
+			if ((current != null && current.borrowers > 0) || now - lastUsedNanos <= maxIdleNanos) {
+				return false;
+			}
+			retire();
+			return true;
+		}
+
+		synchronized void retire() {
+			retired = true;
+			if (current != null) {
+				retire(current);
+				current = null;
+			}
+		}
+
+		/**
+		 * Closes the client now if nobody borrows it, or else when its last borrower gives
+		 * it back.
+		 */
+		private void retire(PooledClient pooled) {
+			if (pooled.retired) {
+				return;
+			}
+			pooled.retired = true;
+			if (pooled.borrowers == 0) {
+				closeQuietly(pooled.client);
+			}
+		}
+
+		synchronized boolean isOpen() {
+			return current != null;
+		}
+
+	}
+
+}
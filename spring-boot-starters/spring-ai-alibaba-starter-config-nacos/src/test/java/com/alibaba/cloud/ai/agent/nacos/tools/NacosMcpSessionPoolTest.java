@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.cloud.ai.agent.nacos.tools;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NacosMcpSessionPoolTest {
+
+	private static final String ENDPOINT = NacosMcpSessionPool.endpointKey("http://localhost:8080", "/sse", null);
+
+	private final List<McpSyncClient> created = new ArrayList<>();
+
+	private NacosMcpSessionPool pool;
+
+	@AfterEach
+	void closePool() {
+		if (pool != null) {
+			pool.close();
+		}
+	}
+
+	private Supplier<McpSyncClient> factory() {
+		return () -> {
+			McpSyncClient client = mock(McpSyncClient.class);
+			created.add(client);
+			return client;
+		};
+	}
+
+	@Test
+	void reusesInitializedClient() {
+		pool = new NacosMcpSessionPool(Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+		McpSyncClient first;
+		try (NacosMcpSessionPool.Lease lease = pool.acquire(ENDPOINT, factory())) {
+			first = lease.client();
+		}
+		try (NacosMcpSessionPool.Lease lease = pool.acquire(ENDPOINT, factory())) {
+			assertSame(first, lease.client());
+		}
+
+		assertEquals(1, created.size());
+		verify(first, times(1)).initialize();
+		verify(first, never()).close();
+		assertEquals(1, pool.size());
+	}
+
+	@Test
+	void closesIdleSessions() throws Exception {
+		pool = new NacosMcpSessionPool(Duration.ofMillis(50), Duration.ofMinutes(1));
+
+		try (NacosMcpSessionPool.Lease lease = pool.acquire(ENDPOINT, factory())) {
+			assertEquals(1, pool.size());
+		}
+		Thread.sleep(300);
+
+		assertEquals(0, pool.size());
+		verify(created.get(0)).close();
+	}
+
+	@Test
+	void keepsBorrowedSessionsOpen() throws Exception {
+		pool = new NacosMcpSessionPool(Duration.ofMillis(50), Duration.ofMinutes(1));
+
+		try (NacosMcpSessionPool.Lease lease = pool.acquire(ENDPOINT, factory())) {
+			Thread.sleep(300);
+			verify(lease.client(), never()).close();
+		}
+	}
+
+	@Test
+	void invalidatedClientIsClosedAfterItsLastBorrower() {
+		pool = new NacosMcpSessionPool(Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+		NacosMcpSessionPool.Lease failing = pool.acquire(ENDPOINT, factory());
+		NacosMcpSessionPool.Lease inFlight = pool.acquire(ENDPOINT, factory());
+		McpSyncClient shared = failing.client();
+		assertSame(shared, inFlight.client());
+
+		failing.invalidate();
+		failing.close();
+		// Still used by the other call
+		verify(shared, never()).close();
+
+		// New calls get a new client
+		try (NacosMcpSessionPool.Lease next = pool.acquire(ENDPOINT, factory())) {
+			assertNotSame(shared, next.client());
+		}
+
+		inFlight.close();
+		verify(shared).close();
+		verify(created.get(1), never()).close();
+	}
+
+	@Test
+	void concurrentInvalidationsCloseEachClientOnceAfterUse() throws Exception {
+		pool = new NacosMcpSessionPool(Duration.ofMinutes(5), Duration.ofMinutes(1));
+		Map<McpSyncClient, AtomicInteger> borrowers = new ConcurrentHashMap<>();
+		AtomicInteger closedWhileBorrowed = new AtomicInteger();
+		Supplier<McpSyncClient> factory = () -> {
+			McpSyncClient client = mock(McpSyncClient.class);
+			doAnswer(invocation -> {
+				if (borrowers.get(client).get() > 0) {
+					closedWhileBorrowed.incrementAndGet();
+				}
+				return null;
+			}).when(client).close();
+			borrowers.put(client, new AtomicInteger());
+			synchronized (created) {
+				created.add(client);
+			}
+			return client;
+		};
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				int thread = i;
+				futures.add(executor.submit(() -> {
+					for (int j = 0; j < 200; j++) {
+						try (NacosMcpSessionPool.Lease lease = pool.acquire(ENDPOINT, factory)) {
+							AtomicInteger count = borrowers.get(lease.client());
+							count.incrementAndGet();
+							if ((thread + j) % 5 == 0) {
+								lease.invalidate();
+							}
+							count.decrementAndGet();
+						}
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(0, closedWhileBorrowed.get());
+		// Every replaced client was closed exactly once, the current one is still open
+		for (int i = 0; i < created.size() - 1; i++) {
+			verify(created.get(i), times(1)).close();
+		}
+		verify(created.get(created.size() - 1), atMost(1)).close();
+	}
+
+	@Test
+	void endpointKeyHidesHeaders() {
+		String key = NacosMcpSessionPool.endpointKey("http://localhost:8080", "/sse",
+				Map.of("Authorization", "Bearer secret-token"));
+
+		assertFalse(key.contains("secret-token"));
+		assertTrue(key.matches("[0-9a-f]{64}"));
+		assertEquals(key, NacosMcpSessionPool.endpointKey("http://localhost:8080", "/sse",
+				Map.of("Authorization", "Bearer secret-token")));
+		assertNotEquals(key, NacosMcpSessionPool.endpointKey("http://localhost:8080", "/sse",
+				Map.of("Authorization", "Bearer other-token")));
+	}
+
+}